@@ -19,6 +19,7 @@
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.terasology.assets.AssetFactory;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.assets.management.AssetManager;
@@ -27,8 +28,11 @@
 import org.terasology.context.internal.ContextImpl;
 import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
 import org.terasology.engine.module.ModuleManager;
+import org.terasology.entitySystem.entity.EntityBuilder;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityView;
+import org.terasology.entitySystem.entity.internal.EntityChangeSubscriber;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.entitySystem.entity.internal.PojoEntityPool;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
@@ -58,8 +62,12 @@
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.terasology.entitySystem.entity.internal.EntityScope.CHUNK;
 
@@ -204,6 +212,26 @@ public void testAddComponentEventSent() {
         verify(eventSystem).send(entity1, OnActivatedComponent.newInstance(), comp);
     }
 
+    @Test
+    public void testCreateBatchSendsLifecycleEventsPerBatch() {
+        EventSystem eventSystem = mock(EventSystem.class);
+        entityManager.setEventSystem(eventSystem);
+        EntityBuilder builder1 = entityManager.newBuilder(prefab);
+        EntityBuilder builder2 = entityManager.newBuilder();
+        builder2.addComponent(new IntegerComponent(3));
+
+        List<EntityRef> entities = entityManager.createBatch(Lists.newArrayList(builder1, builder2));
+
+        assertEquals(2, entities.size());
+        assertEquals("Test", entities.get(0).getComponent(StringComponent.class).value);
+        assertEquals(3, entities.get(1).getComponent(IntegerComponent.class).value);
+        InOrder inOrder = inOrder(eventSystem);
+        inOrder.verify(eventSystem).send(entities.get(0), OnAddedComponent.newInstance());
+        inOrder.verify(eventSystem).send(entities.get(1), OnAddedComponent.newInstance());
+        inOrder.verify(eventSystem).send(entities.get(0), OnActivatedComponent.newInstance());
+        inOrder.verify(eventSystem).send(entities.get(1), OnActivatedComponent.newInstance());
+    }
+
     @Test
     public void testRemoveComponentEventSent() {
         EventSystem eventSystem = mock(EventSystem.class);
@@ -241,6 +269,56 @@ public void testChangeComponentEventSentWhenAddOverExisting() {
         verify(eventSystem).send(entity1, OnChangedComponent.newInstance(), comp2);
     }
 
+    @Test
+    public void testCoalescedChangeEventSentOnceOnFlush() {
+        EventSystem eventSystem = mock(EventSystem.class);
+
+        EntityRef entity1 = entityManager.create();
+        StringComponent comp = entity1.addComponent(new StringComponent());
+        entityManager.setEventSystem(eventSystem);
+        entityManager.setComponentChangeEventsCoalesced(true);
+        entity1.saveComponent(comp);
+        entity1.saveComponent(comp);
+
+        verify(eventSystem, never()).send(entity1, OnChangedComponent.newInstance(), comp);
+        entityManager.flushComponentChanges();
+        verify(eventSystem, times(1)).send(entity1, OnChangedComponent.newInstance(), comp);
+    }
+
+    @Test
+    public void testCoalescedSubscriberInformedOncePerChangedComponent() {
+        EntityChangeSubscriber immediateSubscriber = mock(EntityChangeSubscriber.class);
+        EntityChangeSubscriber coalescedSubscriber = mock(EntityChangeSubscriber.class);
+        entityManager.subscribeForChanges(immediateSubscriber);
+        entityManager.subscribeForCoalescedChanges(coalescedSubscriber);
+
+        EntityRef entity1 = entityManager.create();
+        StringComponent comp = entity1.addComponent(new StringComponent());
+        entity1.saveComponent(comp);
+        entity1.saveComponent(comp);
+        verify(immediateSubscriber, times(2)).onEntityComponentChange(entity1, StringComponent.class);
+        verify(coalescedSubscriber).onEntityComponentAdded(entity1, StringComponent.class);
+        verify(coalescedSubscriber, never()).onEntityComponentChange(entity1, StringComponent.class);
+
+        entityManager.flushComponentChanges();
+        verify(coalescedSubscriber, times(1)).onEntityComponentChange(entity1, StringComponent.class);
+    }
+
+    @Test
+    public void testCoalescedChangeOfRemovedComponentIsDropped() {
+        EntityChangeSubscriber coalescedSubscriber = mock(EntityChangeSubscriber.class);
+        entityManager.subscribeForCoalescedChanges(coalescedSubscriber);
+
+        EntityRef entity1 = entityManager.create();
+        StringComponent comp = entity1.addComponent(new StringComponent());
+        entity1.saveComponent(comp);
+        entity1.removeComponent(StringComponent.class);
+        entityManager.flushComponentChanges();
+
+        verify(coalescedSubscriber).onEntityComponentRemoved(entity1, StringComponent.class);
+        verify(coalescedSubscriber, never()).onEntityComponentChange(entity1, StringComponent.class);
+    }
+
     @Test
     public void testMassRemovedComponentEventSentOnDestroy() {
         EventSystem eventSystem = mock(EventSystem.class);
@@ -288,6 +366,64 @@ public void testIterateWithNoComponents() {
         assertEquals(Collections.<EntityRef>emptyList(), results);
     }
 
+    @Test
+    public void testIterateEntitiesSkipsEntityLosingAComponentDuringIteration() {
+        EntityRef entity1 = entityManager.create(new StringComponent(), new IntegerComponent());
+        EntityRef entity2 = entityManager.create(new StringComponent(), new IntegerComponent());
+
+        List<EntityRef> results = Lists.newArrayList();
+        for (EntityRef entity : entityManager.getEntitiesWith(StringComponent.class, IntegerComponent.class)) {
+            results.add(entity);
+            (entity.equals(entity1) ? entity2 : entity1).removeComponent(IntegerComponent.class);
+        }
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    public void testEntityViewFollowsComponentChanges() {
+        EntityRef entity1 = entityManager.create(new StringComponent(), new IntegerComponent());
+        EntityView view = entityManager.getEntityView(StringComponent.class, IntegerComponent.class);
+        assertEquals(Lists.newArrayList(entity1), Lists.newArrayList(view));
+
+        EntityRef entity2 = entityManager.create(new StringComponent());
+        assertFalse(view.contains(entity2));
+        entity2.addComponent(new IntegerComponent());
+        assertTrue(view.contains(entity2));
+
+        entity1.removeComponent(StringComponent.class);
+        entity2.destroy();
+        assertEquals(0, view.size());
+        assertEquals(Collections.<EntityRef>emptyList(), Lists.newArrayList(view));
+    }
+
+    @Test
+    public void testEntityViewIsSharedAndSurvivesClear() {
+        EntityView view = entityManager.getEntityView(StringComponent.class);
+        assertSame(view, entityManager.getEntityView(StringComponent.class));
+
+        entityManager.create(new StringComponent());
+        entityManager.clear();
+        assertEquals(0, view.size());
+
+        EntityRef entity = entityManager.create(new StringComponent());
+        assertEquals(Lists.newArrayList(entity), Lists.newArrayList(view));
+    }
+
+    @Test
+    public void testEntityViewAllowsDestroyingDuringIteration() {
+        entityManager.create(new StringComponent());
+        entityManager.create(new StringComponent());
+        EntityView view = entityManager.getEntityView(StringComponent.class);
+
+        int iterated = 0;
+        for (EntityRef entity : view) {
+            iterated++;
+            entityManager.getEntitiesWith(StringComponent.class).forEach(EntityRef::destroy);
+        }
+        assertEquals(1, iterated);
+        assertEquals(0, view.size());
+    }
+
     @Test
     public void testGetComponentCountWhenNoComponents() {
         assertEquals(0, entityManager.getCountOfEntitiesWith(StringComponent.class));
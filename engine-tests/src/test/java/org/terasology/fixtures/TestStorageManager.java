@@ -14,10 +14,13 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TestStorageManager implements StorageManager {
 
     private final Map<Vector3i, ChunkStore> chunkStores = new HashMap<>();
+    private final Map<Vector3i, Integer> chunkStoreReads = new ConcurrentHashMap<>();
+    private final Map<Vector3i, TestChunkStore> deactivatedChunkStores = new ConcurrentHashMap<>();
 
     public TestStorageManager() {
     }
@@ -40,6 +43,11 @@ public void loadGlobalStore() throws IOException {
 
     }
 
+    @Override
+    public void prefetchGlobalStore() {
+
+    }
+
     @Override
     public PlayerStore loadPlayerStore(String playerId) {
         return null;
@@ -57,9 +65,17 @@ public void waitForCompletionOfPreviousSaveAndStartSaving() {
 
     @Override
     public ChunkStore loadChunkStore(Vector3i chunkPos) {
+        chunkStoreReads.merge(chunkPos, 1, Integer::sum);
         return chunkStores.get(chunkPos);
     }
 
+    /**
+     * @return how often the store of the chunk was loaded.
+     */
+    public int getChunkStoreReads(Vector3i chunkPos) {
+        return chunkStoreReads.getOrDefault(chunkPos, 0);
+    }
+
     @Override
     public void finishSavingAndShutdown() {
 
@@ -76,8 +92,24 @@ public void update() {
     }
 
     @Override
-    public void deactivateChunk(Chunk chunk) {
+    public ChunkStore deactivateChunk(Chunk chunk) {
+        TestChunkStore store = new TestChunkStore(chunk);
+        deactivatedChunkStores.put(chunk.getPosition(), store);
+        return store;
+    }
+
+    /**
+     * @return the store returned by the last deactivation of the chunk, or null if it never got deactivated.
+     */
+    public TestChunkStore getDeactivatedChunkStore(Vector3i chunkPos) {
+        return deactivatedChunkStores.get(chunkPos);
+    }
 
+    /**
+     * @return the number of chunk positions which got deactivated.
+     */
+    public int getDeactivatedChunkCount() {
+        return deactivatedChunkStores.size();
     }
 
     @Override
@@ -0,0 +1,131 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.fixtures.TestBlockManager;
+import org.terasology.utilities.FilesUtil;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BlockChangeJournalTest {
+
+    private Path directory;
+    private BlockManager blockManager;
+    private Block air;
+    private Block stone;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal");
+        air = createBlock("engine:air", 0);
+        stone = createBlock("test:stone", 1);
+        blockManager = new TestBlockManager(air, stone);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FilesUtil.recursiveDelete(directory);
+    }
+
+    private static Block createBlock(String uri, int id) {
+        Block block = new Block();
+        block.setId((short) id);
+        block.setUri(new BlockUri(uri));
+        return block;
+    }
+
+    private BlockChangeJournal openJournal() throws IOException {
+        BlockChangeJournal journal = new BlockChangeJournal(directory, blockManager, 60000);
+        journal.recover();
+        journal.open();
+        return journal;
+    }
+
+    @Test
+    void testChangesAreRecoveredAfterCrash() throws IOException {
+        BlockChangeJournal crashed = openJournal();
+        crashed.recordBlockChange(new Vector3i(1, 2, 3), stone);
+        crashed.recordBlockChange(new Vector3i(4, 2, 3), stone);
+        crashed.recordBlockChange(new Vector3i(4, 2, 3), air);
+        crashed.flush();
+        // the crash tore the next batch
+        try (Stream<Path> segments = Files.list(directory)) {
+            Path segment = segments.findFirst().get();
+            Files.write(segment, new byte[]{0, 0, 1}, StandardOpenOption.APPEND);
+        }
+
+        BlockChangeJournal journal = new BlockChangeJournal(directory, blockManager, 60000);
+        assertEquals(3, journal.recover());
+        journal.open();
+        ChunkImpl chunk = new ChunkImpl(new Vector3i(0, 0, 0), blockManager, new ExtraBlockDataManager());
+        journal.restoreChanges(chunk);
+        journal.close();
+
+        assertEquals(stone, chunk.getBlock(1, 2, 3));
+        assertEquals(air, chunk.getBlock(4, 2, 3));
+        crashed.close();
+    }
+
+    @Test
+    void testCorruptBatchLengthIsTreatedAsTornTail() throws IOException {
+        BlockChangeJournal crashed = openJournal();
+        crashed.recordBlockChange(new Vector3i(1, 2, 3), stone);
+        crashed.flush();
+        try (Stream<Path> segments = Files.list(directory)) {
+            Path segment = segments.findFirst().get();
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Long.BYTES);
+            header.putInt(Integer.MAX_VALUE - 8);
+            header.putLong(0);
+            Files.write(segment, header.array(), StandardOpenOption.APPEND);
+        }
+
+        assertEquals(1, new BlockChangeJournal(directory, blockManager, 60000).recover());
+        crashed.close();
+    }
+
+    @Test
+    void testSealedSegmentIsRecoveredIfSaveDidNotFinish() throws IOException {
+        BlockChangeJournal crashed = openJournal();
+        crashed.recordBlockChange(new Vector3i(1, 2, 3), stone);
+        crashed.rotate(chunkPos -> true);
+        crashed.recordBlockChange(new Vector3i(2, 2, 3), stone);
+        crashed.close();
+
+        assertEquals(2, new BlockChangeJournal(directory, blockManager, 60000).recover());
+    }
+
+    @Test
+    void testSaveCompactsOnlySavedChunks() throws IOException {
+        BlockChangeJournal crashed = openJournal();
+        crashed.recordBlockChange(new Vector3i(1, 2, 3), stone);
+        crashed.recordBlockChange(new Vector3i(40, 2, 3), stone);
+        crashed.flush();
+
+        BlockChangeJournal journal = openJournal();
+        journal.restoreChanges(new ChunkImpl(new Vector3i(0, 0, 0), blockManager, new ExtraBlockDataManager()));
+        journal.recordBlockChange(new Vector3i(2, 2, 3), stone);
+        int sealedSegment = journal.rotate(chunkPos -> chunkPos.x() == 0);
+        journal.deleteSegmentsUpTo(sealedSegment);
+        journal.close();
+
+        // only the change of the chunk which was not loaded and saved again remains
+        assertEquals(1, new BlockChangeJournal(directory, blockManager, 60000).recover());
+        crashed.close();
+    }
+}
@@ -0,0 +1,84 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.terasology.protobuf.EntityData;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkCodecsTest {
+
+    @Test
+    void testEveryCodecDecodesEveryFormat() throws IOException {
+        byte[] dictionary = trainDictionary();
+        List<ChunkCodec> codecs = Lists.newArrayList(new GzipChunkCodec(), new DeflaterChunkCodec(1, null),
+                new DeflaterChunkCodec(9, null), new DeflaterChunkCodec(6, dictionary));
+        EntityData.ChunkStore store = createStore(1, 2, 3);
+
+        for (ChunkCodec encoder : codecs) {
+            byte[] encoded = encoder.encode(store);
+            assertEquals(store, ChunkCodecs.decode(encoded, dictionary), encoder.getName());
+            boolean needsDictionary = encoder.getName().equals(DeflaterChunkCodec.DICTIONARY_NAME);
+            for (ChunkCodec decoder : codecs) {
+                if (!needsDictionary || decoder.getName().equals(DeflaterChunkCodec.DICTIONARY_NAME)) {
+                    assertEquals(store, decoder.decode(encoded), encoder.getName() + " by " + decoder.getName());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDictionaryImprovesCompression() {
+        byte[] dictionary = trainDictionary();
+        EntityData.ChunkStore store = createStore(7, 0, 7);
+
+        int withoutDictionary = new DeflaterChunkCodec(6, null).encode(store).length;
+        int withDictionary = new DeflaterChunkCodec(6, dictionary).encode(store).length;
+
+        assertTrue(withDictionary < withoutDictionary, withDictionary + " >= " + withoutDictionary);
+    }
+
+    @Test
+    void testDecodingWithoutDictionaryFails() {
+        byte[] encoded = new DeflaterChunkCodec(6, trainDictionary()).encode(createStore(0, 0, 0));
+
+        assertThrows(IOException.class, () -> ChunkCodecs.decode(encoded, null));
+    }
+
+    @Test
+    void testCreate() {
+        assertEquals(GzipChunkCodec.NAME, ChunkCodecs.create("gzip", 6, null).getName());
+        assertEquals(DeflaterChunkCodec.NAME, ChunkCodecs.create("deflate", 6, null).getName());
+        assertEquals(DeflaterChunkCodec.DICTIONARY_NAME,
+                ChunkCodecs.create("deflate-dictionary", 6, new byte[8]).getName());
+        assertThrows(IllegalArgumentException.class, () -> ChunkCodecs.create("deflate-dictionary", 6, null));
+        assertThrows(IllegalArgumentException.class, () -> ChunkCodecs.create("deflate", 10, null));
+        assertThrows(IllegalArgumentException.class, () -> ChunkCodecs.create("lz4", 6, null));
+    }
+
+    private static byte[] trainDictionary() {
+        List<byte[]> samples = Lists.newArrayList();
+        for (int i = 0; i < 8; i++) {
+            samples.add(createStore(i, 0, -i).toByteArray());
+        }
+        byte[] dictionary = ChunkCodecs.trainDictionary(samples, ChunkCodecs.DEFAULT_DICTIONARY_SIZE);
+        assertNotNull(dictionary);
+        return dictionary;
+    }
+
+    private static EntityData.ChunkStore createStore(int x, int y, int z) {
+        EntityData.RunLengthEncoding16.Builder blockData = EntityData.RunLengthEncoding16.newBuilder();
+        for (int i = 0; i < 200; i++) {
+            blockData.addRunLengths(1 + (i * 7 + x) % 13).addValues(i % 5 == 0 ? 0 : (i * 31) % 17);
+        }
+        return EntityData.ChunkStore.newBuilder().setX(x).setY(y).setZ(z).setBlockData(blockData).build();
+    }
+}
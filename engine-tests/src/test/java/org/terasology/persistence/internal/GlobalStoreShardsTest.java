@@ -0,0 +1,108 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import gnu.trove.set.hash.TLongHashSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.utilities.FilesUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GlobalStoreShardsTest {
+
+    private static final int SHARD_SIZE = GlobalStoreShards.ENTITIES_PER_SHARD;
+
+    private Path savePath;
+    private StoragePathProvider storagePathProvider;
+    private GlobalStoreShards globalStoreShards;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        savePath = Files.createTempDirectory("save");
+        storagePathProvider = new StoragePathProvider(savePath);
+        globalStoreShards = new GlobalStoreShards(storagePathProvider);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FilesUtil.recursiveDelete(savePath);
+    }
+
+    @Test
+    void testEntitiesAreGroupedByIdRange() {
+        Map<Integer, List<EntityRef>> shards = GlobalStoreShards.groupByShard(
+                entities(SHARD_SIZE + 2, 3, SHARD_SIZE - 1, 2 * SHARD_SIZE + 5));
+
+        assertEquals(Sets.newHashSet(0, 1, 2), shards.keySet());
+        assertEquals(Lists.newArrayList(3L, SHARD_SIZE - 1L), ids(shards.get(0)));
+        assertEquals(Lists.newArrayList(SHARD_SIZE + 2L), ids(shards.get(1)));
+    }
+
+    @Test
+    void testAllShardsAreDirtyBeforeLoading() throws IOException {
+        Files.createDirectories(storagePathProvider.getGlobalEntityShardsPath());
+        Files.createFile(storagePathProvider.getGlobalEntityShardPath(4));
+        Map<Integer, List<EntityRef>> shards = GlobalStoreShards.groupByShard(entities(1, SHARD_SIZE + 1));
+
+        assertEquals(Sets.newHashSet(0, 1, 4), globalStoreShards.findDirtyShards(shards, new TLongHashSet()));
+    }
+
+    @Test
+    void testOnlyChangedShardsAreDirtyAfterSaving() {
+        Map<Integer, List<EntityRef>> shards = GlobalStoreShards.groupByShard(entities(1, 2, SHARD_SIZE + 1));
+        globalStoreShards.markSaved(shards);
+
+        assertTrue(globalStoreShards.findDirtyShards(shards, new TLongHashSet()).isEmpty());
+        assertEquals(Collections.singleton(1),
+                globalStoreShards.findDirtyShards(shards, new TLongHashSet(new long[]{SHARD_SIZE + 1})));
+    }
+
+    @Test
+    void testShardsWhichLostEntitiesAreDirty() {
+        globalStoreShards.markSaved(GlobalStoreShards.groupByShard(entities(1, 2, SHARD_SIZE + 1)));
+
+        Map<Integer, List<EntityRef>> shards = GlobalStoreShards.groupByShard(entities(1));
+
+        assertEquals(Sets.newHashSet(0, 1), globalStoreShards.findDirtyShards(shards, new TLongHashSet()));
+    }
+
+    @Test
+    void testAllShardsAreDirtyAfterInvalidation() {
+        Map<Integer, List<EntityRef>> shards = GlobalStoreShards.groupByShard(entities(1, SHARD_SIZE + 1));
+        globalStoreShards.markSaved(shards);
+        globalStoreShards.invalidate();
+
+        assertEquals(Sets.newHashSet(0, 1), globalStoreShards.findDirtyShards(shards, new TLongHashSet()));
+    }
+
+    private static List<EntityRef> entities(long... ids) {
+        List<EntityRef> entities = Lists.newArrayList();
+        for (long id : ids) {
+            EntityRef entity = mock(EntityRef.class);
+            when(entity.getId()).thenReturn(id);
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    private static List<Long> ids(List<EntityRef> entities) {
+        List<Long> ids = Lists.newArrayList();
+        entities.forEach(entity -> ids.add(entity.getId()));
+        return ids;
+    }
+}
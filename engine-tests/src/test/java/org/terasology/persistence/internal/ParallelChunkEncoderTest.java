@@ -0,0 +1,58 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParallelChunkEncoderTest {
+
+    private static Map<Integer, CompressedChunkBuilder> createBuilders(int count) {
+        Map<Integer, CompressedChunkBuilder> builders = Maps.newLinkedHashMap();
+        for (int i = 0; i < count; i++) {
+            CompressedChunkBuilder builder = mock(CompressedChunkBuilder.class);
+            when(builder.buildEncodedChunk()).thenReturn(new byte[]{(byte) i});
+            builders.put(i, builder);
+        }
+        return builders;
+    }
+
+    @Test
+    void testResultsAreWrittenInOrder() throws IOException {
+        for (int threads : new int[]{1, 3}) {
+            List<Integer> written = Lists.newArrayList();
+            try (ParallelChunkEncoder encoder = new ParallelChunkEncoder(threads)) {
+                encoder.encode(createBuilders(100).entrySet(), (key, data) -> {
+                    assertArrayEquals(new byte[]{(byte) (int) key}, data);
+                    written.add(key);
+                });
+            }
+
+            assertEquals(100, written.size());
+            for (int i = 0; i < written.size(); i++) {
+                assertEquals(i, (int) written.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testEncodingFailureIsPassedToCaller() {
+        Map<Integer, CompressedChunkBuilder> builders = createBuilders(10);
+        when(builders.get(5).buildEncodedChunk()).thenThrow(new IllegalStateException("broken chunk"));
+
+        try (ParallelChunkEncoder encoder = new ParallelChunkEncoder(2)) {
+            assertThrows(IllegalStateException.class, () -> encoder.encode(builders.entrySet(), (key, data) -> { }));
+        }
+    }
+}
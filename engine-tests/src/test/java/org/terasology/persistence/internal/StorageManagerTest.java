@@ -29,15 +29,20 @@
 import org.junit.jupiter.api.TestMethodOrder;
 import org.mockito.Matchers;
 import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.assets.management.AssetManager;
+import org.terasology.engine.ComponentSystemManager;
 import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.engine.paths.PathManager;
+import org.terasology.game.GameManifest;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.stubs.EntityRefComponent;
 import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.entitySystem.systems.ComponentSystem;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.JomlUtil;
 import org.terasology.module.ModuleEnvironment;
@@ -52,6 +57,7 @@
 import org.terasology.recording.DirectionAndOriginPosRecorderList;
 import org.terasology.recording.RecordAndReplayCurrentStatus;
 import org.terasology.recording.RecordAndReplaySerializer;
+import org.terasology.recording.RecordAndReplayStatus;
 import org.terasology.recording.RecordAndReplayUtils;
 import org.terasology.recording.RecordedEventStore;
 import org.terasology.reflection.TypeRegistry;
@@ -75,12 +81,20 @@
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -250,6 +264,29 @@ public void testGlobalEntitiesStoredAndRestored() throws Exception {
         assertEquals(entityId, entities.get(0).getId());
     }
 
+    @Test
+    public void testPrefetchedGlobalStoreIsRestored() throws Exception {
+        EntityRef entity = entityManager.create(new StringComponent("Test"));
+        long entityId = entity.getId();
+
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+        newSM.prefetchGlobalStore();
+        assertEquals(0, Lists.newArrayList(newEntityManager.getAllEntities()).size());
+        newSM.loadGlobalStore();
+
+        List<EntityRef> entities = Lists.newArrayList(newEntityManager.getEntitiesWith(StringComponent.class));
+        assertEquals(1, entities.size());
+        assertEquals(entityId, entities.get(0).getId());
+    }
+
 
     @Test
     public void testReferenceRemainsValidOverStorageRestoral() throws Exception {
@@ -295,6 +332,32 @@ public void testStoreAndRestoreChunkStore() {
         assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
     }
 
+    @Test
+    public void testOnlyModifiedChunksAreSavedAgain() {
+        ChunkImpl chunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        assertTrue(chunk.isModifiedSinceSave());
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        assertFalse(chunk.isModifiedSinceSave());
+
+        chunk.setBlock(0, 1, 0, testBlock2);
+        assertTrue(chunk.isModifiedSinceSave());
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+        assertFalse(chunk.isModifiedSinceSave());
+
+        ChunkStore restored = esm.loadChunkStore(JomlUtil.from(CHUNK_POS));
+        assertNotNull(restored);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+        assertEquals(testBlock2, restored.getChunk().getBlock(0, 1, 0));
+    }
+
     @Test
     public void testChunkSurvivesStorageSaveAndRestore() throws Exception {
         Chunk chunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
@@ -362,6 +425,136 @@ public void testEntitySurvivesStorageInChunkStore() throws Exception {
     }
 
 
+    @Test
+    public void testEntitySurvivesChunkDeactivation() {
+        Chunk chunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
+        chunk.markReady();
+        EntityRef someEntity = entityManager.create();
+        EntityRef entity = entityManager.create(new EntityRefComponent(someEntity));
+        long id = entity.getId();
+        LocationComponent locationComponent = new LocationComponent();
+        Vector3f positionInChunk = new Vector3f(JomlUtil.from(chunk.getAABB().getMin())).add(1, 1, 1);
+        locationComponent.setWorldPosition(positionInChunk);
+        entity.addComponent(locationComponent);
+
+        esm.deactivateChunk(chunk);
+        assertFalse(entity.isActive());
+
+        ChunkStore restored = esm.loadChunkStore(JomlUtil.from(CHUNK_POS));
+        restored.restoreEntities();
+        EntityRef ref = entityManager.getEntity(id);
+        assertTrue(ref.isActive());
+        assertEquals(positionInChunk, ref.getComponent(LocationComponent.class).getWorldPosition(new Vector3f()));
+        assertEquals(someEntity, ref.getComponent(EntityRefComponent.class).entityRef);
+    }
+
+    @Test
+    public void testEntitySurvivesChunkDeactivationWithoutLoading() {
+        Chunk chunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
+        chunk.markReady();
+        EntityRef someEntity = entityManager.create();
+        EntityRef entity = entityManager.create(new EntityRefComponent(someEntity));
+        long id = entity.getId();
+        LocationComponent locationComponent = new LocationComponent();
+        Vector3f positionInChunk = new Vector3f(JomlUtil.from(chunk.getAABB().getMin())).add(1, 1, 1);
+        locationComponent.setWorldPosition(positionInChunk);
+        entity.addComponent(locationComponent);
+
+        ChunkStore deactivated = esm.deactivateChunk(chunk);
+        assertFalse(entity.isActive());
+
+        assertSame(chunk, deactivated.getChunk());
+        deactivated.restoreEntities();
+        EntityRef ref = entityManager.getEntity(id);
+        assertTrue(ref.isActive());
+        assertEquals(positionInChunk, ref.getComponent(LocationComponent.class).getWorldPosition(new Vector3f()));
+        assertEquals(someEntity, ref.getComponent(EntityRefComponent.class).entityRef);
+    }
+
+    @Test
+    public void testRevivedChunkIsStoredAsItWasDeactivated() {
+        Chunk chunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        esm.deactivateChunk(chunk);
+
+        assertTrue(esm.reviveChunk(chunk));
+        chunk.setBlock(0, 0, 0, testBlock2);
+
+        ChunkStore stored = esm.loadChunkStore(JomlUtil.from(CHUNK_POS));
+        assertEquals(testBlock, stored.getChunk().getBlock(0, 0, 0));
+        assertEquals(testBlock2, chunk.getBlock(0, 0, 0));
+    }
+
+    @Test
+    public void testChunkIsNotRevivedWhileItIsSaved() throws IOException {
+        Chunk chunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
+        chunk.markReady();
+        CountDownLatch saveMayRun = new CountDownLatch(1);
+        ReadWriteStorageManager blockingStorageManager = createBlockingStorageManager(saveMayRun);
+        try {
+            blockingStorageManager.deactivateChunk(chunk);
+            blockingStorageManager.requestSaving();
+            blockingStorageManager.update();
+            assertTrue(blockingStorageManager.isSaving());
+
+            assertFalse(blockingStorageManager.reviveChunk(chunk));
+        } finally {
+            saveMayRun.countDown();
+            blockingStorageManager.finishSavingAndShutdown();
+        }
+    }
+
+    @Test
+    public void testChunkCompressionDictionaryIsLoadedFromItsOwnFile() throws IOException {
+        Path dictionarySavePath = PathManager.getInstance().getSavePath("dictionaryFileSave");
+        byte[] dictionary = {1, 2, 3, 4};
+        Path dictionaryPath = new StoragePathProvider(dictionarySavePath).getChunkCompressionDictionaryPath();
+        Files.createDirectories(dictionarySavePath);
+        Files.write(dictionaryPath, dictionary);
+
+        ReadWriteStorageManager storageManager = new ReadWriteStorageManager(dictionarySavePath, moduleEnvironment,
+                entityManager, blockManager, extraDataManager, false, recordAndReplaySerializer,
+                recordAndReplayUtils, recordAndReplayCurrentStatus);
+
+        assertArrayEquals(dictionary, storageManager.getChunkCompressionDictionary());
+    }
+
+    @Test
+    public void testChunkCompressionDictionaryOfMergedSaveIsLoaded() throws IOException {
+        Path dictionarySavePath = PathManager.getInstance().getSavePath("mergedDictionarySave");
+        byte[] dictionary = {1, 2, 3, 4};
+        ReadWriteStorageManager storageManager = new ReadWriteStorageManager(dictionarySavePath, moduleEnvironment,
+                entityManager, blockManager, extraDataManager, false, recordAndReplaySerializer,
+                recordAndReplayUtils, recordAndReplayCurrentStatus);
+        // a save which got interrupted after its changes were complete, but before they were merged
+        Path unmergedChangesPath = new StoragePathProvider(dictionarySavePath).getUnmergedChangesPath();
+        Files.createDirectories(unmergedChangesPath);
+        GameManifest manifest = new GameManifest();
+        manifest.setChunkCompressionDictionary(dictionary);
+        GameManifest.save(unmergedChangesPath.resolve(GameManifest.DEFAULT_FILE_NAME), manifest);
+        assertNull(storageManager.getChunkCompressionDictionary());
+
+        storageManager.checkAndRepairSaveIfNecessary();
+
+        assertArrayEquals(dictionary, storageManager.getChunkCompressionDictionary());
+    }
+
+    @Test
+    public void testDictionaryTrainingEncodesAndReleasesSnapshots() {
+        ChunkImpl chunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.createSnapshot();
+        chunk.setBlock(0, 0, 0, testBlock2);
+        List<byte[]> results = Lists.newArrayList();
+
+        new ChunkDictionaryTrainingTask(Arrays.asList(chunk), results::add).run();
+
+        assertEquals(1, results.size());
+        assertFalse(chunk.hasSnapshot());
+        assertEquals(testBlock2, chunk.getBlock(0, 0, 0));
+    }
+
     @Test
     public void testCanSavePlayerWithoutUnloading() throws Exception {
         esm.waitForCompletionOfPreviousSaveAndStartSaving();
@@ -369,4 +562,140 @@ public void testCanSavePlayerWithoutUnloading() throws Exception {
 
         assertTrue(character.isActive());
     }
+
+    @Test
+    public void testAwaitCompletionReturnsAfterSaveFailed() throws Exception {
+        StoragePathProvider storagePathProvider =
+                new StoragePathProvider(PathManager.getInstance().getSavePath("failingSave"));
+        // a save refuses to run while there are unmerged changes
+        Files.createDirectories(storagePathProvider.getUnmergedChangesPath());
+        SaveTransaction saveTransaction = new SaveTransactionBuilder(entityManager, null, false, 1, null,
+                storagePathProvider, new StoredChunkIndex(storagePathProvider, false),
+                new GlobalStoreShards(storagePathProvider), new ReentrantLock(), recordAndReplaySerializer,
+                recordAndReplayUtils, recordAndReplayCurrentStatus).build();
+
+        Thread savingThread = new Thread(saveTransaction::run);
+        savingThread.start();
+        saveTransaction.awaitCompletion();
+
+        assertNotNull(saveTransaction.getResult());
+        assertFalse(saveTransaction.getResult().isSuccess());
+        assertNotNull(saveTransaction.getResult().getCatchedThrowable());
+        savingThread.join();
+    }
+
+    @Test
+    public void testWaitingForSaveReturnsOnceItCompleted() throws IOException {
+        ChunkImpl chunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+        CountDownLatch saveMayRun = new CountDownLatch(1);
+        ReadWriteStorageManager blockingStorageManager = createBlockingStorageManager(saveMayRun);
+        try {
+            blockingStorageManager.requestSaving();
+            blockingStorageManager.update();
+            assertTrue(blockingStorageManager.isSaving());
+            assertTrue(chunk.isModifiedSinceSave());
+
+            saveMayRun.countDown();
+            blockingStorageManager.waitForCompletionOfPreviousSaveAndStartSaving();
+            assertFalse(chunk.isModifiedSinceSave());
+        } finally {
+            saveMayRun.countDown();
+            blockingStorageManager.finishSavingAndShutdown();
+        }
+    }
+
+    @Test
+    public void testSavingRequestedWhileSavingIsCoalesced() throws Exception {
+        ComponentSystem system = mock(ComponentSystem.class);
+        context.get(ComponentSystemManager.class).register(system);
+        CountDownLatch saveMayRun = new CountDownLatch(1);
+        ReadWriteStorageManager blockingStorageManager = createBlockingStorageManager(saveMayRun);
+        try {
+            blockingStorageManager.requestSaving();
+            blockingStorageManager.update();
+            assertTrue(blockingStorageManager.isSaving());
+
+            blockingStorageManager.requestSaving();
+            blockingStorageManager.requestSaving();
+            blockingStorageManager.update();
+            verify(system, times(1)).preSave();
+
+            saveMayRun.countDown();
+            awaitSaving(blockingStorageManager);
+            blockingStorageManager.update();
+            awaitSaving(blockingStorageManager);
+            blockingStorageManager.update();
+            verify(system, times(2)).preSave();
+        } finally {
+            saveMayRun.countDown();
+            blockingStorageManager.finishSavingAndShutdown();
+        }
+    }
+
+    @Test
+    public void testSavingStartsEarlyOnceUnloadedChunksExceedTheirMemoryLimit() throws Exception {
+        SystemConfig systemConfig = context.get(Config.class).getSystem();
+        int maxUnsavedChunksMemoryInMb = systemConfig.getMaxUnsavedChunksMemoryInMb();
+        int maxUnloadedChunksPercentageTillSave = systemConfig.getMaxUnloadedChunksPercentageTillSave();
+        systemConfig.setMaxUnsavedChunksMemoryInMb(1);
+        systemConfig.setMaxUnloadedChunksPercentageTillSave(100);
+        Chunk loadedChunk = new ChunkImpl(JomlUtil.from(CHUNK_POS), blockManager, extraDataManager);
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(loadedChunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+        CountDownLatch saveMayRun = new CountDownLatch(1);
+        ReadWriteStorageManager blockingStorageManager = createBlockingStorageManager(saveMayRun);
+        try {
+            long unloadedBytes = 0;
+            for (int x = 0; unloadedBytes < 1024 * 1024; x++) {
+                Chunk chunk = new ChunkImpl(x, 0, 0, blockManager, extraDataManager);
+                chunk.markReady();
+                unloadedBytes += chunk.getEstimatedMemoryConsumptionInBytes();
+                blockingStorageManager.deactivateChunk(chunk);
+            }
+
+            // chunks the chunk provider still holds don't count against the limit
+            when(chunkProvider.isKeptInMemory(Matchers.any(Chunk.class))).thenReturn(true);
+            blockingStorageManager.update();
+            assertFalse(blockingStorageManager.isSaving());
+
+            when(chunkProvider.isKeptInMemory(Matchers.any(Chunk.class))).thenReturn(false);
+            blockingStorageManager.update();
+            assertTrue(blockingStorageManager.isSaving());
+        } finally {
+            saveMayRun.countDown();
+            blockingStorageManager.finishSavingAndShutdown();
+            systemConfig.setMaxUnsavedChunksMemoryInMb(maxUnsavedChunksMemoryInMb);
+            systemConfig.setMaxUnloadedChunksPercentageTillSave(maxUnloadedChunksPercentageTillSave);
+        }
+    }
+
+    /**
+     * @param saveMayRun the saving thread waits for it before a save starts writing.
+     * @return a storage manager whose saves only run once the latch got released.
+     */
+    private ReadWriteStorageManager createBlockingStorageManager(CountDownLatch saveMayRun) throws IOException {
+        Thread mainThread = Thread.currentThread();
+        RecordAndReplayCurrentStatus blockingStatus = mock(RecordAndReplayCurrentStatus.class);
+        when(blockingStatus.getStatus()).thenAnswer(invocation -> {
+            if (Thread.currentThread() != mainThread) {
+                saveMayRun.await();
+            }
+            return RecordAndReplayStatus.NOT_ACTIVATED;
+        });
+        return new ReadWriteStorageManager(savePath, moduleEnvironment, entityManager, blockManager,
+                extraDataManager, false, recordAndReplaySerializer, recordAndReplayUtils, blockingStatus);
+    }
+
+    private static void awaitSaving(ReadWriteStorageManager storageManager) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (storageManager.isSaving()) {
+            assertTrue(System.currentTimeMillis() < deadline, "The save did not finish");
+            Thread.sleep(10);
+        }
+    }
 }
@@ -0,0 +1,100 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.utilities.FilesUtil;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StoredChunkIndexTest {
+
+    private Path savePath;
+    private StoragePathProvider storagePathProvider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        savePath = Files.createTempDirectory("save");
+        storagePathProvider = new StoragePathProvider(savePath);
+        Files.createDirectories(storagePathProvider.getWorldPath());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FilesUtil.recursiveDelete(savePath);
+    }
+
+    @Test
+    void testChunkFilesAreIndexed() throws IOException {
+        Files.write(storagePathProvider.getChunkPath(new Vector3i(1, -2, 3)), new byte[1]);
+
+        StoredChunkIndex index = new StoredChunkIndex(storagePathProvider, false);
+
+        assertTrue(index.mayContain(new Vector3i(1, -2, 3)));
+        assertFalse(index.mayContain(new Vector3i(1, -2, 4)));
+        assertFalse(index.mayContain(new Vector3i(100, 0, 0)));
+    }
+
+    @Test
+    void testChunkFilesAreIndexedBeforeConcurrentLookups() throws Exception {
+        List<Vector3i> chunkPositions = Lists.newArrayList();
+        for (int i = 0; i < 512; i++) {
+            Vector3i chunkPos = new Vector3i(i * 7, -i, i % 64);
+            Files.write(storagePathProvider.getChunkPath(chunkPos), new byte[1]);
+            chunkPositions.add(chunkPos);
+        }
+        StoredChunkIndex index = new StoredChunkIndex(storagePathProvider, false);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> lookups = Lists.newArrayList();
+            for (int thread = 0; thread < 4; thread++) {
+                lookups.add(executor.submit(() -> chunkPositions.stream().allMatch(index::mayContain)));
+            }
+            for (Future<Boolean> lookup : lookups) {
+                assertTrue(lookup.get(), "a lookup must not see a region the listing did not complete yet");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testChunkZipsAreIndexed() throws IOException {
+        Vector3i chunkPos = new Vector3i(-1, 0, 5);
+        Vector3i zipPos = storagePathProvider.getChunkZipPosition(chunkPos);
+        Path zipPath = storagePathProvider.getChunkZipPath(zipPos);
+        try (FileSystem zip = FileSystems.newFileSystem(URI.create("jar:" + zipPath.toUri()),
+                ImmutableMap.of("create", "true"))) {
+            Files.write(zip.getPath(storagePathProvider.getChunkFilename(chunkPos)), new byte[1]);
+        }
+
+        StoredChunkIndex index = new StoredChunkIndex(storagePathProvider, true);
+        assertTrue(index.mayContain(chunkPos));
+        assertFalse(index.mayContain(new Vector3i(-2, 0, 5)));
+
+        index.markStored(new Vector3i(-2, 0, 5));
+        index.writeIndexFile(zipPos, zipPath, storagePathProvider.getChunkIndexPath(zipPos));
+
+        StoredChunkIndex reloaded = new StoredChunkIndex(storagePathProvider, true);
+        assertTrue(reloaded.mayContain(chunkPos));
+        assertTrue(reloaded.mayContain(new Vector3i(-2, 0, 5)), "the index file must be used when it matches the zip");
+        assertFalse(reloaded.mayContain(new Vector3i(-3, 0, 5)));
+    }
+}
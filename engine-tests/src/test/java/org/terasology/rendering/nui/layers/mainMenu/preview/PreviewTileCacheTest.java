@@ -0,0 +1,100 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.nui.layers.mainMenu.preview;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.SimpleUri;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PreviewTileCacheTest {
+
+    @Test
+    void testTilesAreKeyedBySettingsAndPosition() {
+        PreviewTileCache cache = new PreviewTileCache(8);
+        BufferedImage image = createImage();
+        cache.put("a", 1, 2, image);
+
+        assertSame(image, cache.get("a", 1, 2));
+        assertNull(cache.get("a", 2, 1));
+        assertNull(cache.get("b", 1, 2));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedTileIsEvicted() {
+        PreviewTileCache cache = new PreviewTileCache(2);
+        BufferedImage first = createImage();
+        BufferedImage second = createImage();
+        BufferedImage third = createImage();
+        cache.put("a", 0, 0, first);
+        cache.put("a", 0, 1, second);
+        cache.get("a", 0, 0);
+
+        cache.put("a", 0, 2, third);
+
+        assertEquals(2, cache.size());
+        assertSame(first, cache.get("a", 0, 0));
+        assertNull(cache.get("a", 0, 1));
+        assertSame(third, cache.get("a", 0, 2));
+    }
+
+    @Test
+    void testUncacheableTilesAreNotStored() {
+        PreviewTileCache cache = new PreviewTileCache(8);
+        cache.put(null, 0, 0, createImage());
+        assertEquals(0, cache.size());
+        assertNull(cache.get(null, 0, 0));
+
+        PreviewTileCache disabled = new PreviewTileCache(0);
+        disabled.put("a", 0, 0, createImage());
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    void testClearRemovesAllTiles() {
+        PreviewTileCache cache = new PreviewTileCache(8);
+        cache.put("a", 0, 0, createImage());
+        cache.put("b", 0, 0, createImage());
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a", 0, 0));
+    }
+
+    @Test
+    void testSettingsKeyDependsOnGeneratorAndSeed() {
+        WorldGenerator generator = mockGenerator("engine:flat", "seed");
+
+        String key = PreviewTileCache.createSettingsKey(generator, Collections.emptyList());
+
+        assertEquals(key, PreviewTileCache.createSettingsKey(mockGenerator("engine:flat", "seed"),
+                Collections.emptyList()));
+        assertNotEquals(key, PreviewTileCache.createSettingsKey(mockGenerator("engine:flat", "other"),
+                Collections.emptyList()));
+        assertNotEquals(key, PreviewTileCache.createSettingsKey(mockGenerator("engine:perlin", "seed"),
+                Collections.emptyList()));
+    }
+
+    private static WorldGenerator mockGenerator(String uri, String seed) {
+        WorldGenerator generator = mock(WorldGenerator.class);
+        when(generator.getUri()).thenReturn(new SimpleUri(uri));
+        when(generator.getWorldSeed()).thenReturn(seed);
+        return generator;
+    }
+
+    private static BufferedImage createImage() {
+        return new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+    }
+}
@@ -0,0 +1,161 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector3ic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.fixtures.TestBlockManager;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LodChunkTessellatorTest {
+
+    private Block air;
+    private Block stone;
+    private Block dirt;
+    private ChunkImpl chunk;
+
+    @BeforeEach
+    void setUp() {
+        air = new Block();
+        air.setId((short) 0);
+        stone = createCube((short) 1);
+        dirt = createCube((short) 2);
+        chunk = new ChunkImpl(new Vector3i(), new TestBlockManager(air, stone, dirt), new ExtraBlockDataManager());
+    }
+
+    private static Block createCube(short id) {
+        Block block = new Block();
+        block.setId(id);
+        Map<BlockPart, BlockMeshPart> parts = Maps.newEnumMap(BlockPart.class);
+        Map<BlockPart, org.terasology.math.geom.Vector2f> atlasPositions = Maps.newEnumMap(BlockPart.class);
+        for (BlockPart part : BlockPart.values()) {
+            atlasPositions.put(part, new org.terasology.math.geom.Vector2f());
+        }
+        for (Side side : Side.getAllSides()) {
+            parts.put(BlockPart.fromSide(side), createFace(side));
+        }
+        block.setPrimaryAppearance(new BlockAppearance(parts, atlasPositions));
+        block.setMeshGenerator(new BlockMeshGeneratorSingleShape(block));
+        return block;
+    }
+
+    private static BlockMeshPart createFace(Side side) {
+        Vector3ic dir = side.direction();
+        Vector3f normal = new Vector3f(dir.x(), dir.y(), dir.z());
+        Vector3f center = new Vector3f(normal).mul(0.5f);
+        Vector3f u = Math.abs(normal.x) > 0 ? new Vector3f(0, 0.5f, 0) : new Vector3f(0.5f, 0, 0);
+        Vector3f v = new Vector3f(normal).cross(u);
+        Vector3f[] vertices = {
+                new Vector3f(center).sub(u).sub(v),
+                new Vector3f(center).add(u).sub(v),
+                new Vector3f(center).add(u).add(v),
+                new Vector3f(center).sub(u).add(v)};
+        Vector3f[] normals = {normal, normal, normal, normal};
+        Vector2f[] texCoords = {new Vector2f(0, 0), new Vector2f(1, 0), new Vector2f(1, 1), new Vector2f(0, 1)};
+        return new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3});
+    }
+
+    private void fillLowestSection(Block block) {
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                for (int y = 0; y < ChunkConstants.SECTION_HEIGHT; y++) {
+                    chunk.setBlock(x, y, z, block);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testUniformSectionsAreMerged() {
+        fillLowestSection(stone);
+
+        DownsampledChunk cells = DownsampledChunk.of(chunk, 4);
+
+        assertEquals(ChunkConstants.SIZE_X / 4, cells.getSizeX());
+        assertEquals(ChunkConstants.SIZE_Y / 4, cells.getSizeY());
+        assertSame(stone, cells.getBlock(0, 0, 0));
+        assertSame(stone, cells.getBlock(cells.getSizeX() - 1, 3, cells.getSizeZ() - 1));
+        assertNull(cells.getBlock(0, 4, 0));
+        assertNull(cells.getBlock(-1, 0, 0));
+    }
+
+    @Test
+    void testCellNeedsHalfOfItsBlocks() {
+        chunk.setBlock(0, 20, 0, stone);
+        chunk.setBlock(1, 20, 0, stone);
+        chunk.setBlock(0, 20, 1, stone);
+        chunk.setBlock(2, 20, 0, stone);
+        chunk.setBlock(3, 20, 0, stone);
+        chunk.setBlock(2, 20, 1, stone);
+        chunk.setBlock(2, 21, 0, stone);
+
+        DownsampledChunk cells = DownsampledChunk.of(chunk, 2);
+
+        assertNull(cells.getBlock(0, 10, 0));
+        assertSame(stone, cells.getBlock(1, 10, 0));
+    }
+
+    @Test
+    void testMostCommonBlockWins() {
+        chunk.setBlock(0, 20, 0, stone);
+        chunk.setBlock(1, 20, 0, dirt);
+        chunk.setBlock(0, 20, 1, dirt);
+        chunk.setBlock(0, 21, 0, dirt);
+
+        DownsampledChunk cells = DownsampledChunk.of(chunk, 2);
+
+        assertSame(dirt, cells.getBlock(0, 10, 0));
+    }
+
+    @Test
+    void testCellTakesBrightestLight() {
+        chunk.setSunlight(1, 21, 1, (byte) 12);
+        chunk.setSunlight(0, 20, 0, (byte) 3);
+
+        DownsampledChunk cells = DownsampledChunk.of(chunk, 2);
+
+        assertEquals(12, cells.getSunlight(0, 10, 0));
+        assertEquals(0, cells.getSunlight(1, 10, 0));
+    }
+
+    @Test
+    void testMeshOnlyContainsOuterFaces() {
+        fillLowestSection(stone);
+        int scale = 4;
+
+        ChunkMesh mesh = new LodChunkTessellator(null).generateMesh(chunk, scale);
+
+        int cellsX = ChunkConstants.SIZE_X / scale;
+        int cellsY = ChunkConstants.SECTION_HEIGHT / scale;
+        int cellsZ = ChunkConstants.SIZE_Z / scale;
+        int faces = 2 * cellsX * cellsZ + 2 * cellsX * cellsY + 2 * cellsZ * cellsY;
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        assertEquals(scale, mesh.getLodScale());
+        assertEquals(faces * 4, elements.vertexCount);
+        assertEquals(faces * 6, elements.finalIndices.limit());
+
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < elements.vertexCount; i++) {
+            maxY = Math.max(maxY, elements.vertices.get(i * 3 + 1));
+        }
+        assertEquals(ChunkConstants.SECTION_HEIGHT - 0.5f, maxY, 0.0001f);
+    }
+}
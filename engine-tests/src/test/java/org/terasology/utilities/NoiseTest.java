@@ -19,6 +19,9 @@
 import com.google.common.collect.Lists;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.utilities.procedural.BrownianNoise;
 import org.terasology.utilities.procedural.DiscreteWhiteNoise;
 import org.terasology.utilities.procedural.Noise;
@@ -101,4 +104,38 @@ public void testResolution(Noise noiseGen) {
 
         fail();
     }
+
+    @ParameterizedTest
+    @MethodSource("data")
+    public void testRegionMatchesPoints2D(Noise noiseGen) {
+        Rect2i region = Rect2i.createFromMinAndSize(-7, 3, 19, 11);
+        float zoom = 0.37f;
+
+        float[] values = noiseGen.noise(region, zoom, zoom);
+
+        int index = 0;
+        for (int y = region.minY(); y <= region.maxY(); y++) {
+            for (int x = region.minX(); x <= region.maxX(); x++) {
+                assertEquals(noiseGen.noise(zoom * x, zoom * y), values[index++], 0.0f);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("data")
+    public void testRegionMatchesPoints3D(Noise noiseGen) {
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(5, -9, 2), new Vector3i(6, 7, 8));
+        float zoom = 0.61f;
+
+        float[] values = noiseGen.noise(region, zoom, zoom, zoom);
+
+        int index = 0;
+        for (int z = region.minZ(); z <= region.maxZ(); z++) {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    assertEquals(noiseGen.noise(zoom * x, zoom * y, zoom * z), values[index++], 0.0f);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,106 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.fixtures.TestBlockManager;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkSectionIndexTest {
+
+    private Block air;
+    private Block stone;
+    private BlockManager blockManager;
+    private ExtraBlockDataManager extraDataManager;
+
+    @BeforeEach
+    void setUp() {
+        air = new Block();
+        air.setId((short) 0);
+        stone = new Block();
+        stone.setId((short) 1);
+        blockManager = new TestBlockManager(air, stone);
+        extraDataManager = new ExtraBlockDataManager();
+    }
+
+    /**
+     * Stone in the lowest section, a single stone block in the second one and air above.
+     */
+    private TeraArray createBlockData() {
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                for (int y = 0; y < ChunkConstants.SECTION_HEIGHT; y++) {
+                    blocks.set(x, y, z, stone.getId());
+                }
+            }
+        }
+        blocks.set(3, ChunkConstants.SECTION_HEIGHT + 2, 5, stone.getId());
+        return blocks;
+    }
+
+    private void assertIndex(ChunkSectionIndex index) {
+        assertEquals(ChunkConstants.SECTION_COUNT, index.getSectionCount());
+        assertTrue(index.isUniform(0));
+        assertEquals(stone.getId(), index.getUniformBlockId(0));
+        assertFalse(index.isUniform(1));
+        for (int section = 2; section < index.getSectionCount(); section++) {
+            assertEquals(air.getId(), index.getUniformBlockId(section));
+        }
+        assertEquals(ChunkConstants.SECTION_COUNT - 1, index.getUniformSectionCount());
+    }
+
+    @Test
+    void testDenseBlockData() {
+        assertIndex(ChunkSectionIndex.of(createBlockData()));
+    }
+
+    @Test
+    void testDeflatedBlockData() {
+        TeraArray deflated = new TeraStandardDeflator().deflate(createBlockData());
+        assertTrue(deflated.isSparse());
+        assertIndex(ChunkSectionIndex.of(deflated));
+    }
+
+    @Test
+    void testChunkIndexFollowsEdits() {
+        ChunkImpl chunk = new ChunkImpl(new Vector3i(), createBlockData(), new TeraArray[0], blockManager);
+        assertIndex(chunk.getSectionIndex());
+
+        chunk.setBlock(3, ChunkConstants.SECTION_HEIGHT + 2, 5, air);
+
+        assertTrue(chunk.getSectionIndex().isUniform(1));
+    }
+
+    @Test
+    void testEncodingUniformSectionsKeepsBlocks() {
+        ChunkImpl chunk = new ChunkImpl(new Vector3i(), createBlockData(), new TeraArray[0], blockManager);
+        chunk.deflate();
+
+        EntityData.ChunkStore store = chunk.encode().build();
+        Chunk decoded = ChunkSerializer.decode(store, blockManager, extraDataManager);
+
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    assertEquals(chunk.getBlock(x, y, z), decoded.getBlock(x, y, z));
+                }
+            }
+        }
+        assertIndex(decoded.getSectionIndex());
+    }
+}
@@ -0,0 +1,130 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.blockdata;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+
+import java.nio.ByteBuffer;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapSlabAllocatorTest {
+
+    private static final int SIZE_X = 16;
+    private static final int SIZE_Y = 32;
+    private static final int SIZE_Z = 16;
+
+    @Test
+    void testReleasedBlockIsNotReusedWhileReachable() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(SIZE_X * SIZE_Y * SIZE_Z);
+        TeraOffHeapArray8Bit first = new TeraOffHeapArray8Bit(SIZE_X, SIZE_Y, SIZE_Z, allocator);
+        first.set(1, 2, 3, 7);
+        first.release();
+
+        TeraOffHeapArray8Bit second = new TeraOffHeapArray8Bit(SIZE_X, SIZE_Y, SIZE_Z, allocator);
+        second.set(1, 2, 3, 9);
+        allocator.reclaim();
+
+        assertTrue(first.isReleased());
+        assertEquals(7, first.get(1, 2, 3));
+        assertEquals(SIZE_X * SIZE_Y * SIZE_Z, allocator.getAllocatedBytes());
+        assertEquals(SIZE_X * SIZE_Y * SIZE_Z, allocator.getReleasedBytes());
+        assertEquals(2 * SIZE_X * SIZE_Y * SIZE_Z, allocator.getSlabBytes());
+    }
+
+    @Test
+    void testReleasedBlockIsReusedOnceUnreachable() throws InterruptedException {
+        int size = SIZE_X * SIZE_Y * SIZE_Z * 2;
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(size);
+        createArray(allocator).release();
+
+        awaitReclaim(allocator, () -> allocator.getReleasedBytes() == 0);
+        TeraOffHeapArray16Bit second = new TeraOffHeapArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, allocator);
+
+        assertEquals(0, second.get(1, 2, 3));
+        assertEquals(size, allocator.getAllocatedBytes());
+        assertEquals(size, allocator.getSlabBytes());
+        assertEquals(0, allocator.getLeakCount());
+    }
+
+    @Test
+    void testUnreleasedBlockIsReclaimedAsLeak() throws InterruptedException {
+        int size = SIZE_X * SIZE_Y * SIZE_Z * 2;
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(size);
+        createArray(allocator);
+
+        awaitReclaim(allocator, () -> allocator.getLeakCount() > 0);
+
+        assertEquals(1, allocator.getLeakCount());
+        assertEquals(size, allocator.getLeakedBytes());
+        assertEquals(0, allocator.getAllocatedBytes());
+        new TeraOffHeapArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, allocator);
+        assertEquals(size, allocator.getSlabBytes());
+    }
+
+    @Test
+    void testCopyAndHeapCopyKeepValues() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator();
+        TeraOffHeapArray16Bit array = new TeraOffHeapArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, allocator);
+        array.set(3, 4, 5, -1234);
+
+        TeraArray copy = array.copy();
+        array.set(3, 4, 5, 1);
+        TeraArray heap = ((TeraOffHeapArray) copy).toHeap();
+
+        assertEquals(-1234, copy.get(3, 4, 5));
+        assertEquals(-1234, heap.get(3, 4, 5));
+        assertTrue(heap instanceof TeraDenseArray16Bit);
+    }
+
+    @Test
+    void testDeflationReadsNativeData() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator();
+        TeraOffHeapArray8Bit array = new TeraOffHeapArray8Bit(SIZE_X, SIZE_Y, SIZE_Z, allocator);
+        array.set(0, 0, 0, 5);
+
+        TeraArray deflated = new TeraStandardDeflator().deflate(array);
+
+        assertNotSame(array, deflated);
+        assertTrue(deflated.isSparse());
+        assertEquals(5, deflated.get(0, 0, 0));
+        assertEquals(0, deflated.get(1, 0, 0));
+    }
+
+    @Test
+    void testSerializationRoundTrip() {
+        TeraOffHeapArray16Bit.SerializationHandler handler = new TeraOffHeapArray16Bit.SerializationHandler();
+        TeraOffHeapArray16Bit array = new TeraOffHeapArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, TeraOffHeapArray.getSharedAllocator());
+        array.set(15, 31, 15, 300);
+
+        ByteBuffer buffer = handler.serialize(array);
+        buffer.rewind();
+        TeraOffHeapArray16Bit result = handler.deserialize(buffer);
+
+        assertEquals(300, result.get(15, 31, 15));
+        assertSame(TeraOffHeapArray16Bit.class, result.getClass());
+        array.release();
+        result.release();
+    }
+
+    private static TeraOffHeapArray16Bit createArray(OffHeapSlabAllocator allocator) {
+        TeraOffHeapArray16Bit array = new TeraOffHeapArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, allocator);
+        array.set(1, 2, 3, 42);
+        return array;
+    }
+
+    private static void awaitReclaim(OffHeapSlabAllocator allocator, BooleanSupplier done)
+            throws InterruptedException {
+        for (int attempt = 0; attempt < 100 && !done.getAsBoolean(); attempt++) {
+            System.gc();
+            Thread.sleep(10);
+            allocator.reclaim();
+        }
+        assertTrue(done.getAsBoolean(), "The released array was not garbage collected");
+    }
+}
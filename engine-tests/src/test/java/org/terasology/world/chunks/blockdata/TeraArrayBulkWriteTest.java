@@ -0,0 +1,112 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.blockdata;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TeraArrayBulkWriteTest {
+
+    private static final int SIZE_X = 8;
+    private static final int SIZE_Y = 12;
+    private static final int SIZE_Z = 6;
+
+    private static Stream<Supplier<TeraArray>> arrays() {
+        return Stream.of(
+                () -> new TeraDenseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z),
+                () -> new TeraSparseArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, (short) 3),
+                () -> new TeraOffHeapArray16Bit(SIZE_X, SIZE_Y, SIZE_Z, new OffHeapSlabAllocator()),
+                () -> new TeraDenseArray8Bit(SIZE_X, SIZE_Y, SIZE_Z));
+    }
+
+    private static void prepare(TeraArray array) {
+        array.set(1, 2, 3, 5);
+        array.set(7, 11, 5, 9);
+    }
+
+    private static void assertSameContent(TeraArray expected, TeraArray actual) {
+        for (int y = 0; y < SIZE_Y; y++) {
+            for (int z = 0; z < SIZE_Z; z++) {
+                for (int x = 0; x < SIZE_X; x++) {
+                    assertEquals(expected.get(x, y, z), actual.get(x, y, z), "at " + x + ", " + y + ", " + z);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("arrays")
+    void testFillMatchesSingleWrites(Supplier<TeraArray> factory) {
+        int[][] boxes = {
+                {0, 0, 0, SIZE_X, SIZE_Y, SIZE_Z},
+                {0, 3, 0, SIZE_X, 4, SIZE_Z},
+                {2, 1, 1, 3, 5, 4},
+                {4, 0, 2, 1, SIZE_Y, 1},
+                {1, 1, 1, 0, 3, 3}};
+        for (int[] box : boxes) {
+            TeraArray expected = factory.get();
+            TeraArray actual = factory.get();
+            prepare(expected);
+            prepare(actual);
+            for (int y = box[1]; y < box[1] + box[4]; y++) {
+                for (int z = box[2]; z < box[2] + box[5]; z++) {
+                    for (int x = box[0]; x < box[0] + box[3]; x++) {
+                        expected.set(x, y, z, 7);
+                    }
+                }
+            }
+
+            actual.fill(box[0], box[1], box[2], box[3], box[4], box[5], 7);
+
+            assertSameContent(expected, actual);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("arrays")
+    void testCopyFromMatchesSingleWrites(Supplier<TeraArray> factory) {
+        Random random = new Random(7);
+        int[][] boxes = {
+                {0, 0, 0, SIZE_X, SIZE_Y, SIZE_Z},
+                {0, 2, 0, SIZE_X, 3, SIZE_Z},
+                {1, 4, 2, 5, 6, 3}};
+        for (int[] box : boxes) {
+            short[] values = new short[box[3] * box[4] * box[5]];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (short) (i < values.length / 2 ? 3 : random.nextInt(100));
+            }
+            TeraArray expected = factory.get();
+            TeraArray actual = factory.get();
+            prepare(expected);
+            prepare(actual);
+            int index = 0;
+            for (int y = box[1]; y < box[1] + box[4]; y++) {
+                for (int z = box[2]; z < box[2] + box[5]; z++) {
+                    for (int x = box[0]; x < box[0] + box[3]; x++) {
+                        expected.set(x, y, z, values[index++]);
+                    }
+                }
+            }
+
+            actual.copyFrom(box[0], box[1], box[2], box[3], box[4], box[5], values);
+
+            assertSameContent(expected, actual);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("arrays")
+    void testBoxOutsideOfArrayIsRejected(Supplier<TeraArray> factory) {
+        TeraArray array = factory.get();
+
+        assertThrows(IllegalArgumentException.class, () -> array.fill(1, 0, 0, SIZE_X, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> array.copyFrom(0, -1, 0, 1, 1, 1, new short[1]));
+    }
+}
@@ -0,0 +1,75 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.internal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.fixtures.TestBlockManager;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkRedeflationTest {
+
+    private Block air;
+    private Block stone;
+    private ChunkImpl chunk;
+
+    @BeforeEach
+    void setUp() {
+        air = new Block();
+        air.setId((short) 0);
+        stone = new Block();
+        stone.setId((short) 1);
+        chunk = new ChunkImpl(new Vector3i(0, 0, 0), new TestBlockManager(air, stone), new ExtraBlockDataManager());
+        chunk.deflate();
+        chunk.deflateSunlight();
+    }
+
+    @Test
+    void testRevertedEditIsDeflatedAgain() {
+        int deflatedSize = chunk.getEstimatedMemoryConsumptionInBytes();
+        chunk.setBlock(1, 1, 1, stone);
+        chunk.setBlock(1, 1, 1, air);
+        assertTrue(chunk.getEstimatedMemoryConsumptionInBytes() > deflatedSize);
+
+        ChunkImpl.Redeflation redeflation = chunk.prepareRedeflation();
+        redeflation.deflate();
+
+        assertTrue(chunk.applyRedeflation(redeflation, true) > 0);
+        assertEquals(deflatedSize, chunk.getEstimatedMemoryConsumptionInBytes());
+        assertEquals(air, chunk.getBlock(1, 1, 1));
+    }
+
+    @Test
+    void testRedeflationIsDiscardedAfterEdit() {
+        chunk.setBlock(1, 1, 1, stone);
+        ChunkImpl.Redeflation redeflation = chunk.prepareRedeflation();
+        redeflation.deflate();
+        chunk.setBlock(2, 1, 1, stone);
+
+        assertEquals(-1, chunk.applyRedeflation(redeflation, true));
+        assertEquals(stone, chunk.getBlock(1, 1, 1));
+        assertEquals(stone, chunk.getBlock(2, 1, 1));
+    }
+
+    @Test
+    void testLightIsOnlyRedeflatedWhenSettled() {
+        chunk.setLight(1, 1, 1, (byte) 5);
+        chunk.setLight(1, 1, 1, (byte) 0);
+        int inflatedSize = chunk.getEstimatedMemoryConsumptionInBytes();
+        ChunkImpl.Redeflation redeflation = chunk.prepareRedeflation();
+        redeflation.deflate();
+
+        assertEquals(0, chunk.applyRedeflation(redeflation, false));
+        assertEquals(inflatedSize, chunk.getEstimatedMemoryConsumptionInBytes());
+
+        ChunkImpl.Redeflation settled = chunk.prepareRedeflation();
+        settled.deflate();
+        assertTrue(chunk.applyRedeflation(settled, true) > 0);
+        assertEquals(0, chunk.getLight(1, 1, 1));
+    }
+}
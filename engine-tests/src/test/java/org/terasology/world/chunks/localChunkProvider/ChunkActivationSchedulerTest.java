@@ -0,0 +1,75 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkActivationSchedulerTest {
+
+    private static final Comparator<Vector3i> BY_DISTANCE_TO_ORIGIN =
+            Comparator.comparingInt(pos -> pos.gridDistance(Vector3i.zero()));
+
+    @Test
+    void testRunsClosestChunksFirst() {
+        ChunkActivationScheduler scheduler = new ChunkActivationScheduler(0);
+        List<Vector3i> activated = Lists.newArrayList();
+        for (Vector3i pos : Lists.newArrayList(new Vector3i(5, 0, 0), new Vector3i(0, 1, 0), new Vector3i(0, 0, -3))) {
+            scheduler.scheduleActivation(pos, () -> activated.add(pos));
+        }
+
+        assertEquals(3, scheduler.run(BY_DISTANCE_TO_ORIGIN));
+
+        assertEquals(Lists.newArrayList(new Vector3i(0, 1, 0), new Vector3i(0, 0, -3), new Vector3i(5, 0, 0)), activated);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void testSpreadsWorkOverFrames() {
+        ChunkActivationScheduler scheduler = new ChunkActivationScheduler(1);
+        int[] runs = new int[1];
+        for (int i = 0; i < 3; i++) {
+            scheduler.scheduleActivation(new Vector3i(i, 0, 0), () -> {
+                runs[0]++;
+                sleep(5);
+            });
+        }
+
+        assertEquals(1, scheduler.run(BY_DISTANCE_TO_ORIGIN));
+        assertEquals(2, scheduler.size());
+        assertEquals(1, scheduler.run(BY_DISTANCE_TO_ORIGIN));
+        assertEquals(1, scheduler.run(BY_DISTANCE_TO_ORIGIN));
+        assertEquals(3, runs[0]);
+        assertEquals(0, scheduler.run(BY_DISTANCE_TO_ORIGIN));
+    }
+
+    @Test
+    void testCancelledActivationDoesNotRun() {
+        ChunkActivationScheduler scheduler = new ChunkActivationScheduler(0);
+        List<String> work = Lists.newArrayList();
+        scheduler.scheduleActivation(new Vector3i(1, 2, 3), () -> work.add("activate"));
+        scheduler.scheduleDeactivation(new Vector3i(1, 2, 3), () -> work.add("deactivate"));
+
+        assertTrue(scheduler.cancelActivation(new Vector3i(1, 2, 3)));
+        assertFalse(scheduler.cancelActivation(new Vector3i(1, 2, 3)));
+        scheduler.run(BY_DISTANCE_TO_ORIGIN);
+
+        assertEquals(Lists.newArrayList("deactivate"), work);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
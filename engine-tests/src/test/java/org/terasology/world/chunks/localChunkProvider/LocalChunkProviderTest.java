@@ -8,9 +8,12 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.terasology.entitySystem.entity.EntityBuilder;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityStore;
 import org.terasology.entitySystem.event.Event;
+import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.fixtures.TestBlockManager;
 import org.terasology.fixtures.TestChunkStore;
 import org.terasology.fixtures.TestStorageManager;
@@ -26,24 +29,30 @@
 import org.terasology.world.block.OnActivatedBlocks;
 import org.terasology.world.block.OnAddedBlocks;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.CoreChunk;
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
 import org.terasology.world.chunks.event.BeforeChunkUnload;
 import org.terasology.world.chunks.event.OnChunkGenerated;
 import org.terasology.world.chunks.event.OnChunkLoaded;
 import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generation.EntityBuffer;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
 
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class LocalChunkProviderTest {
 
@@ -74,15 +83,41 @@ public void setUp() {
         chunkCache = Maps.newConcurrentMap();
         storageManager = new TestStorageManager();
         generator = new TestWorldGenerator(blockManager);
-        chunkProvider = new LocalChunkProvider(storageManager,
+        chunkProvider = createChunkProvider(0);
+    }
+
+    private LocalChunkProvider createChunkProvider(long unloadedChunkCacheBudgetInBytes) {
+        LocalChunkProvider provider = new LocalChunkProvider(storageManager,
                 entityManager,
                 generator,
                 blockManager,
                 extraDataManager,
-                chunkCache);
-        chunkProvider.setBlockEntityRegistry(blockEntityRegistry);
-        chunkProvider.setWorldEntity(worldEntity);
-        chunkProvider.setRelevanceSystem(new RelevanceSystem(chunkProvider)); // workaround. initialize loading pipeline
+                chunkCache,
+                unloadedChunkCacheBudgetInBytes);
+        provider.setBlockEntityRegistry(blockEntityRegistry);
+        provider.setWorldEntity(worldEntity);
+        provider.setRelevanceSystem(new RelevanceSystem(provider)); // workaround. initialize loading pipeline
+        provider.setActivationBudget(0);
+        return provider;
+    }
+
+    private void useUnloadedChunkCache(long budgetInBytes) {
+        chunkProvider.shutdown();
+        chunkProvider = createChunkProvider(budgetInBytes);
+    }
+
+    /**
+     * Unloads all chunks, as no region is relevant, until the given condition holds for the unloaded chunk cache.
+     */
+    private void unloadAllChunksUntil(Predicate<UnloadedChunkCache> condition) {
+        UnloadedChunkCache cache = chunkProvider.getUnloadedChunkCache();
+        Assertions.assertTimeoutPreemptively(Duration.of(WAIT_CHUNK_IS_READY_IN_SECONDS, ChronoUnit.SECONDS),
+                () -> {
+                    while (!chunkCache.isEmpty() || !condition.test(cache)) {
+                        chunkProvider.beginUpdate();
+                        Thread.sleep(10);
+                    }
+                });
     }
 
     @AfterEach
@@ -118,6 +153,7 @@ private Future<Chunk> requestCreatingOrLoadingArea(Vector3i chunkPosition) {
     void testGenerateSingleChunk() throws InterruptedException, ExecutionException, TimeoutException {
         Vector3i chunkPosition = new Vector3i(0, 0, 0);
         requestCreatingOrLoadingArea(chunkPosition).get(WAIT_CHUNK_IS_READY_IN_SECONDS, TimeUnit.SECONDS);
+        chunkProvider.runScheduledActivations();
 
         final ArgumentCaptor<Event> eventArgumentCaptor = ArgumentCaptor.forClass(Event.class);
         verify(worldEntity, atLeast(2)).send(eventArgumentCaptor.capture());
@@ -146,6 +182,7 @@ void testGenerateSingleChunkWithBlockLifeCycle() throws InterruptedException, Ex
         blockAtBlockManager.setLifecycleEventsRequired(true);
         blockAtBlockManager.setEntity(mock(EntityRef.class));
         requestCreatingOrLoadingArea(chunkPosition).get(WAIT_CHUNK_IS_READY_IN_SECONDS, TimeUnit.SECONDS);
+        chunkProvider.runScheduledActivations();
 
         final ArgumentCaptor<Event> worldEventCaptor = ArgumentCaptor.forClass(Event.class);
         verify(worldEntity, atLeast(2)).send(worldEventCaptor.capture());
@@ -187,6 +224,7 @@ void testLoadSingleChunk() throws InterruptedException, ExecutionException, Time
         storageManager.add(chunk);
 
         requestCreatingOrLoadingArea(chunkPosition).get(WAIT_CHUNK_IS_READY_IN_SECONDS, TimeUnit.SECONDS);
+        chunkProvider.runScheduledActivations();
 
         Assertions.assertTrue(((TestChunkStore) storageManager.loadChunkStore(chunkPosition)).isEntityRestored(),
                 "Entities must be restored by loading");
@@ -201,6 +239,22 @@ void testLoadSingleChunk() throws InterruptedException, ExecutionException, Time
                 "Chunk position at event not expected");
     }
 
+    @Test
+    void testLoadSingleChunkReadsStoreOnce() throws InterruptedException, ExecutionException, TimeoutException {
+        Vector3i chunkPosition = new Vector3i(0, 0, 0);
+        Chunk chunk = new ChunkImpl(chunkPosition, blockManager, extraDataManager);
+        generator.createChunk(chunk, null);
+        storageManager.add(chunk);
+
+        requestCreatingOrLoadingArea(chunkPosition).get(WAIT_CHUNK_IS_READY_IN_SECONDS, TimeUnit.SECONDS);
+        chunkProvider.runScheduledActivations();
+
+        Assertions.assertEquals(1, storageManager.getChunkStoreReads(chunkPosition),
+                "The chunk store must be read only once per load");
+        Assertions.assertTrue(((TestChunkStore) storageManager.loadChunkStore(chunkPosition)).isEntityRestored(),
+                "Entities must be restored from the store read by the pipeline");
+    }
+
     @Test
     void testLoadSingleChunkWithBlockLifecycle() throws InterruptedException, ExecutionException, TimeoutException {
         Vector3i chunkPosition = new Vector3i(0, 0, 0);
@@ -211,6 +265,7 @@ void testLoadSingleChunkWithBlockLifecycle() throws InterruptedException, Execut
         blockAtBlockManager.setEntity(mock(EntityRef.class));
 
         requestCreatingOrLoadingArea(chunkPosition).get(WAIT_CHUNK_IS_READY_IN_SECONDS, TimeUnit.SECONDS);
+        chunkProvider.runScheduledActivations();
 
         Assertions.assertTrue(((TestChunkStore) storageManager.loadChunkStore(chunkPosition)).isEntityRestored(),
                 "Entities must be restored by loading");
@@ -246,6 +301,103 @@ void testLoadSingleChunkWithBlockLifecycle() throws InterruptedException, Execut
                 });
     }
 
+    @Test
+    void testRevivedChunkKeepsBlocksLightAndEntities()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        useUnloadedChunkCache(Long.MAX_VALUE);
+        Vector3i chunkPosition = new Vector3i(0, 0, 0);
+        requestCreatingOrLoadingArea(chunkPosition).get(WAIT_CHUNK_IS_READY_IN_SECONDS, TimeUnit.SECONDS);
+        chunkProvider.runScheduledActivations();
+        Chunk chunk = chunkCache.get(chunkPosition);
+        chunk.setSunlight(1, 2, 3, (byte) 7);
+        chunk.setLight(1, 2, 3, (byte) 5);
+        short blockId = chunk.getBlock(4, 5, 6).getId();
+
+        unloadAllChunksUntil(cache -> cache.size() == storageManager.getDeactivatedChunkCount());
+        requestCreatingOrLoadingArea(chunkPosition).get(WAIT_CHUNK_IS_READY_IN_SECONDS, TimeUnit.SECONDS);
+        chunkProvider.runScheduledActivations();
+
+        Chunk revived = chunkCache.get(chunkPosition);
+        Assertions.assertSame(chunk, revived, "The chunk must be taken from the unloaded chunk cache");
+        Assertions.assertTrue(revived.isReady(), "The revived chunk must be activated");
+        Assertions.assertEquals(blockId, revived.getBlock(4, 5, 6).getId(), "Blocks must be kept");
+        Assertions.assertEquals(7, revived.getSunlight(1, 2, 3), "Sunlight must be kept");
+        Assertions.assertEquals(5, revived.getLight(1, 2, 3), "Light must be kept");
+        Assertions.assertTrue(storageManager.getDeactivatedChunkStore(chunkPosition).isEntityRestored(),
+                "Entities must be restored from the store of the deactivation");
+        Assertions.assertEquals(1, storageManager.getChunkStoreReads(chunkPosition),
+                "A revived chunk must not be read from the storage");
+    }
+
+    @Test
+    void testQueuedEntitiesAreCreatedBeforeTheirChunkIsUnloaded()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        int entitiesPerChunk = 64;
+        generator = new TestWorldGenerator(blockManager) {
+            @Override
+            public void createChunk(CoreChunk chunk, EntityBuffer buffer) {
+                super.createChunk(chunk, buffer);
+                for (int i = 0; i < entitiesPerChunk; i++) {
+                    buffer.enqueue(new EntityStore());
+                }
+            }
+        };
+        chunkProvider.shutdown();
+        chunkProvider = createChunkProvider(0);
+        Vector3i chunkPosition = new Vector3i(0, 0, 0);
+        List<Boolean> createdBeforeUnload = new ArrayList<>();
+        when(entityManager.newBuilder((Prefab) null)).thenAnswer(invocation -> {
+            EntityBuilder builder = mock(EntityBuilder.class);
+            when(builder.build()).thenAnswer(build -> {
+                // slow enough that the creation budget of a frame does not cover all entities of the chunk
+                Thread.sleep(1);
+                createdBeforeUnload.add(storageManager.getDeactivatedChunkStore(chunkPosition) == null);
+                return EntityRef.NULL;
+            });
+            return builder;
+        });
+
+        requestCreatingOrLoadingArea(chunkPosition).get(WAIT_CHUNK_IS_READY_IN_SECONDS, TimeUnit.SECONDS);
+        chunkProvider.runScheduledActivations();
+        unloadAllChunksUntil(cache -> true);
+
+        Assertions.assertEquals(entitiesPerChunk, createdBeforeUnload.size(),
+                "All generated entities of the chunk must be created");
+        Assertions.assertFalse(createdBeforeUnload.contains(false),
+                "Generated entities must be created before their chunk gets deactivated");
+    }
+
+    @Test
+    void testUnloadedChunksAreEvictedOverBudget() throws InterruptedException, ExecutionException, TimeoutException {
+        Vector3i chunkPosition = new Vector3i(0, 0, 0);
+        Chunk probe = new ChunkImpl(chunkPosition, blockManager, extraDataManager);
+        generator.createChunk(probe, null);
+        probe.deflate();
+        probe.deflateSunlight();
+        long budget = 3L * probe.getEstimatedMemoryConsumptionInBytes();
+        useUnloadedChunkCache(budget);
+        requestCreatingOrLoadingArea(chunkPosition, 2);
+        // the chunks at the border of the area miss neighbours, so only the inner ones become ready
+        Assertions.assertTimeoutPreemptively(Duration.of(WAIT_CHUNK_IS_READY_IN_SECONDS, ChronoUnit.SECONDS),
+                () -> {
+                    while (chunkCache.size() < 27) {
+                        chunkProvider.runScheduledActivations();
+                        Thread.sleep(10);
+                    }
+                });
+        chunkProvider.runScheduledActivations();
+
+        unloadAllChunksUntil(cache -> cache.getEvictions() > 0);
+
+        UnloadedChunkCache cache = chunkProvider.getUnloadedChunkCache();
+        Assertions.assertTrue(cache.getUsedBytes() <= budget, "The cache must stay within its budget");
+        Assertions.assertTrue(cache.size() < storageManager.getDeactivatedChunkCount(),
+                "Not all unloaded chunks fit into the budget");
+        long missesBefore = cache.getMisses();
+        requestCreatingOrLoadingArea(chunkPosition);
+        Assertions.assertTrue(cache.getMisses() > missesBefore, "Evicted chunks must be loaded again");
+    }
+
     @Test
     void testUnloadChunkAndDeactivationBlock() throws InterruptedException, TimeoutException, ExecutionException {
         Vector3i chunkPosition = new Vector3i(0, 0, 0);
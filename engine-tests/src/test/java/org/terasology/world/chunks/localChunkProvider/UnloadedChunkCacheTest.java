@@ -0,0 +1,144 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.localChunkProvider;
+
+import org.joml.Vector3i;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.fixtures.TestBlockManager;
+import org.terasology.fixtures.TestChunkStore;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnloadedChunkCacheTest {
+
+    private BlockManager blockManager;
+    private ExtraBlockDataManager extraDataManager;
+
+    @BeforeEach
+    void setUp() {
+        Block air = new Block();
+        air.setId((short) 0);
+        blockManager = new TestBlockManager(air);
+        extraDataManager = new ExtraBlockDataManager();
+    }
+
+    private Chunk createChunk(int x, int y, int z) {
+        return new ChunkImpl(new org.terasology.math.geom.Vector3i(x, y, z), blockManager, extraDataManager);
+    }
+
+    @Test
+    void testCommittedChunkCanBeTakenOnce() {
+        UnloadedChunkCache cache = new UnloadedChunkCache(Long.MAX_VALUE);
+        Chunk chunk = createChunk(0, 0, 0);
+
+        cache.reserve(new TestChunkStore(chunk));
+        cache.commit(chunk);
+
+        assertSame(chunk, cache.take(new Vector3i(0, 0, 0)).getChunk());
+        assertNull(cache.take(new Vector3i(0, 0, 0)));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    void testStaleReservationIsNotCommitted() {
+        UnloadedChunkCache cache = new UnloadedChunkCache(Long.MAX_VALUE);
+        Chunk older = createChunk(0, 0, 0);
+        Chunk newer = createChunk(0, 0, 0);
+
+        cache.reserve(new TestChunkStore(older));
+        cache.reserve(new TestChunkStore(newer));
+        cache.commit(newer);
+        cache.commit(older);
+
+        assertSame(newer, cache.take(new Vector3i(0, 0, 0)).getChunk());
+    }
+
+    @Test
+    void testTakeCancelsPendingReservation() {
+        UnloadedChunkCache cache = new UnloadedChunkCache(Long.MAX_VALUE);
+        Chunk chunk = createChunk(0, 0, 0);
+
+        cache.reserve(new TestChunkStore(chunk));
+        assertNull(cache.take(new Vector3i(0, 0, 0)));
+        cache.commit(chunk);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedChunkIsEvicted() {
+        Chunk first = createChunk(0, 0, 0);
+        Chunk second = createChunk(1, 0, 0);
+        first.deflate();
+        first.deflateSunlight();
+        UnloadedChunkCache cache = new UnloadedChunkCache(first.getEstimatedMemoryConsumptionInBytes() * 3 / 2);
+
+        cache.reserve(new TestChunkStore(first));
+        cache.commit(first);
+        cache.reserve(new TestChunkStore(second));
+        cache.commit(second);
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.take(new Vector3i(0, 0, 0)));
+        assertSame(second, cache.take(new Vector3i(1, 0, 0)).getChunk());
+    }
+
+    @Test
+    void testContainsReservedAndCachedChunksOnly() {
+        UnloadedChunkCache cache = new UnloadedChunkCache(Long.MAX_VALUE);
+        Chunk chunk = createChunk(0, 0, 0);
+        Chunk other = createChunk(0, 0, 0);
+
+        cache.reserve(new TestChunkStore(chunk));
+        assertTrue(cache.contains(chunk));
+        assertFalse(cache.contains(other));
+
+        cache.commit(chunk);
+        assertTrue(cache.contains(chunk));
+        assertFalse(cache.contains(other));
+
+        cache.take(new Vector3i(0, 0, 0));
+        assertFalse(cache.contains(chunk));
+    }
+
+    @Test
+    void testEvictedChunkIsNotContained() {
+        Chunk first = createChunk(0, 0, 0);
+        Chunk second = createChunk(1, 0, 0);
+        first.deflate();
+        first.deflateSunlight();
+        UnloadedChunkCache cache = new UnloadedChunkCache(first.getEstimatedMemoryConsumptionInBytes() * 3 / 2);
+
+        cache.reserve(new TestChunkStore(first));
+        cache.commit(first);
+        cache.reserve(new TestChunkStore(second));
+        cache.commit(second);
+
+        assertFalse(cache.contains(first));
+        assertTrue(cache.contains(second));
+    }
+
+    @Test
+    void testDisabledCacheKeepsNothing() {
+        UnloadedChunkCache cache = new UnloadedChunkCache(0);
+        Chunk chunk = createChunk(0, 0, 0);
+
+        cache.reserve(new TestChunkStore(chunk));
+        cache.commit(chunk);
+
+        assertNull(cache.take(new Vector3i(0, 0, 0)));
+    }
+}
@@ -0,0 +1,62 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.pregeneration;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PregenerationPlanTest {
+
+    @Test
+    void testTilesCoverAreaExactlyOnce() {
+        PregenerationPlan plan = new PregenerationPlan(new Vector3i(3, -1, -7), 11, 1, 2);
+
+        Set<Vector3i> covered = Sets.newHashSet();
+        long chunks = 0;
+        for (int i = 0; i < plan.getTileCount(); i++) {
+            for (Vector3i pos : plan.getTile(i)) {
+                assertTrue(plan.getArea().encompasses(pos));
+                covered.add(pos);
+                chunks++;
+            }
+        }
+
+        assertEquals(23L * 23 * 3, plan.getChunkCount());
+        assertEquals(plan.getChunkCount(), chunks);
+        assertEquals(plan.getChunkCount(), covered.size());
+        assertEquals(plan.getChunkCount(), plan.getChunksBefore(plan.getTileCount()));
+    }
+
+    @Test
+    void testTilesStartAtCenter() {
+        PregenerationPlan plan = new PregenerationPlan(new Vector3i(), 20, 0, 2);
+
+        assertEquals(81, plan.getTileCount());
+        assertEquals(new Vector3i(), plan.getTileCenter(0));
+        for (int i = 1; i <= 8; i++) {
+            Vector3i tileCenter = plan.getTileCenter(i);
+            assertEquals(5, Math.max(Math.abs(tileCenter.x), Math.abs(tileCenter.z)));
+        }
+    }
+
+    @Test
+    void testRelevanceRegionContainsTile() {
+        PregenerationPlan plan = new PregenerationPlan(new Vector3i(-4, 2, 5), 9, 2, 3);
+        Vector3i distance = plan.getRelevanceDistance();
+        Vector3i extents = new Vector3i(distance.x / 2, distance.y / 2, distance.z / 2);
+
+        for (int i = 0; i < plan.getTileCount(); i++) {
+            Region3i inner = Region3i.createFromCenterExtents(plan.getTileCenter(i), extents).expand(-1);
+            Region3i tile = plan.getTile(i);
+            assertTrue(inner.encompasses(tile.min()));
+            assertTrue(inner.encompasses(tile.max()));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.pregeneration;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.network.NetworkSystem;
+import org.terasology.persistence.StorageManager;
+import org.terasology.recording.RecordAndReplayCurrentStatus;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.registry.InjectionHelper;
+import org.terasology.testUtil.ModuleManagerFactory;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.localChunkProvider.RelevanceSystem;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorldPregenerationSystemTest {
+
+    private static Context context;
+    private EntityManager entityManager;
+    private RelevanceSystem relevanceSystem;
+    private ChunkProvider chunkProvider;
+    private StorageManager storageManager;
+
+    @BeforeAll
+    static void setupClass() throws Exception {
+        context = new ContextImpl();
+        context.put(ModuleManager.class, ModuleManagerFactory.create());
+        context.put(RecordAndReplayCurrentStatus.class, new RecordAndReplayCurrentStatus());
+        CoreRegistry.setContext(context);
+    }
+
+    @BeforeEach
+    void setup() {
+        context.put(NetworkSystem.class, mock(NetworkSystem.class));
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        entityManager = context.get(EntityManager.class);
+
+        relevanceSystem = mock(RelevanceSystem.class);
+        chunkProvider = mock(ChunkProvider.class);
+        storageManager = mock(StorageManager.class);
+        context.put(RelevanceSystem.class, relevanceSystem);
+        context.put(ChunkProvider.class, chunkProvider);
+        context.put(StorageManager.class, storageManager);
+    }
+
+    @AfterEach
+    void cleanup() {
+        System.clearProperty(WorldPregenerationSystem.RADIUS_PROPERTY);
+    }
+
+    @Test
+    void testInterruptedPregenerationResumesAndIsNotRepeated() {
+        PregenerationProgressComponent interrupted = new PregenerationProgressComponent();
+        interrupted.radius = 9;
+        interrupted.verticalExtent = 1;
+        interrupted.nextTile = 2;
+        entityManager.create(interrupted);
+        System.setProperty(WorldPregenerationSystem.RADIUS_PROPERTY, "5");
+
+        WorldPregenerationSystem system = createSystem();
+        system.postBegin();
+        assertTrue(system.pregenerateStatus().contains("tile 3 of"), system.pregenerateStatus());
+
+        when(chunkProvider.isChunkReady(any(Vector3i.class))).thenReturn(true);
+        runUntilFinished(system);
+
+        PregenerationProgressComponent progress = getOnlyProgress();
+        assertTrue(progress.completed);
+        assertEquals(9, progress.radius);
+        verify(storageManager).requestSaving();
+
+        WorldPregenerationSystem restarted = createSystem();
+        restarted.postBegin();
+        assertTrue(restarted.pregenerateStatus().startsWith("No pregeneration is running."));
+        verify(relevanceSystem, times(1)).addRelevanceEntity(any(), any(), any());
+    }
+
+    @Test
+    void testLargerRadiusReplacesCompletedPregeneration() {
+        PregenerationProgressComponent completed = new PregenerationProgressComponent();
+        completed.radius = 1;
+        completed.verticalExtent = 2;
+        completed.completed = true;
+        entityManager.create(completed);
+        System.setProperty(WorldPregenerationSystem.RADIUS_PROPERTY, "3");
+        when(chunkProvider.isChunkReady(any(Vector3i.class))).thenReturn(true);
+
+        WorldPregenerationSystem system = createSystem();
+        system.postBegin();
+        verify(relevanceSystem).addRelevanceEntity(any(), any(), any());
+        runUntilFinished(system);
+
+        PregenerationProgressComponent progress = getOnlyProgress();
+        assertTrue(progress.completed);
+        assertEquals(3, progress.radius);
+    }
+
+    private WorldPregenerationSystem createSystem() {
+        WorldPregenerationSystem system = new WorldPregenerationSystem();
+        InjectionHelper.inject(system, context);
+        return system;
+    }
+
+    private void runUntilFinished(WorldPregenerationSystem system) {
+        for (int i = 0; i < 1000 && !system.pregenerateStatus().startsWith("No pregeneration is running."); i++) {
+            system.update(0.1f);
+        }
+        assertTrue(system.pregenerateStatus().startsWith("No pregeneration is running."));
+    }
+
+    private PregenerationProgressComponent getOnlyProgress() {
+        List<EntityRef> entities =
+                Lists.newArrayList(entityManager.getEntitiesWith(PregenerationProgressComponent.class));
+        assertEquals(1, entities.size());
+        return entities.get(0).getComponent(PregenerationProgressComponent.class);
+    }
+}
@@ -0,0 +1,178 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.generation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.fixtures.TestBlockManager;
+import org.terasology.math.Region3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generation.facets.base.BaseFacet2D;
+import org.terasology.world.generation.facets.base.BaseFacet3D;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Facet2DCacheTest {
+
+    private BlockManager blockManager;
+    private ExtraBlockDataManager extraDataManager;
+    private CountingColumnProvider columnProvider;
+    private CountingVolumeProvider volumeProvider;
+    private CountingUpdater updater;
+    private int maxUpdatesSeen;
+
+    @BeforeEach
+    void setUp() {
+        Block air = new Block();
+        air.setId((short) 0);
+        blockManager = new TestBlockManager(air);
+        extraDataManager = new ExtraBlockDataManager();
+        columnProvider = new CountingColumnProvider();
+        volumeProvider = new CountingVolumeProvider();
+        updater = new CountingUpdater();
+    }
+
+    private WorldImpl buildWorld(int cacheSize, FacetProvider... providers) {
+        WorldBuilder worldBuilder = new WorldBuilder(null);
+        worldBuilder.setSeed(12);
+        worldBuilder.setFacetCacheSize(cacheSize);
+        for (FacetProvider provider : providers) {
+            worldBuilder.addProvider(provider);
+        }
+        worldBuilder.addRasterizer(new FacetReadingRasterizer());
+        return (WorldImpl) worldBuilder.build();
+    }
+
+    private void generateColumn(World world, int height) {
+        for (int y = 0; y < height; y++) {
+            CoreChunk chunk = new ChunkImpl(0, y, 0, blockManager, extraDataManager);
+            world.rasterizeChunk(chunk, null);
+        }
+    }
+
+    @Test
+    void testColumnFacetIsSharedByStackedChunks() {
+        WorldImpl world = buildWorld(16, columnProvider, updater);
+
+        generateColumn(world, 4);
+
+        assertEquals(1, columnProvider.calls);
+        assertEquals(1, updater.calls);
+        assertEquals(1, maxUpdatesSeen);
+        assertEquals(3, world.getFacetCache().getHits());
+        assertEquals(1, world.getFacetCache().getMisses());
+        assertEquals(0.75, world.getFacetCache().getHitRate(), 0.0001);
+    }
+
+    @Test
+    void testChainWithUnmarkedProviderIsNotCached() {
+        WorldImpl world = buildWorld(16, columnProvider, volumeProvider, new VolumeDependentUpdater());
+
+        generateColumn(world, 3);
+
+        assertFalse(world.getFacetCache().isCacheable(ColumnFacet.class));
+        assertEquals(3, columnProvider.calls);
+        assertEquals(3, volumeProvider.calls);
+        assertEquals(1, maxUpdatesSeen);
+    }
+
+    @Test
+    void testDisabledCache() {
+        WorldImpl world = buildWorld(0, columnProvider);
+
+        generateColumn(world, 3);
+
+        assertFalse(world.getFacetCache().isEnabled());
+        assertEquals(3, columnProvider.calls);
+    }
+
+    @Test
+    void testLeastRecentlyUsedFacetIsEvicted() {
+        WorldImpl world = buildWorld(1, columnProvider);
+        assertTrue(world.getFacetCache().isCacheable(ColumnFacet.class));
+
+        world.rasterizeChunk(new ChunkImpl(0, 0, 0, blockManager, extraDataManager), null);
+        world.rasterizeChunk(new ChunkImpl(1, 0, 0, blockManager, extraDataManager), null);
+        world.rasterizeChunk(new ChunkImpl(0, 1, 0, blockManager, extraDataManager), null);
+
+        assertEquals(3, columnProvider.calls);
+        assertEquals(2, world.getFacetCache().getEvictions());
+        assertEquals(1, world.getFacetCache().size());
+    }
+
+    public static class ColumnFacet extends BaseFacet2D {
+        public int updates;
+
+        public ColumnFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class VolumeFacet extends BaseFacet3D {
+        public VolumeFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Cacheable2D
+    @Produces(ColumnFacet.class)
+    public static class CountingColumnProvider implements FacetProvider {
+        private int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            region.setRegionFacet(ColumnFacet.class, new ColumnFacet(region.getRegion(), region.getBorderForFacet(ColumnFacet.class)));
+        }
+    }
+
+    @Cacheable2D
+    @Updates(@Facet(ColumnFacet.class))
+    public static class CountingUpdater implements FacetProvider {
+        private int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            region.getRegionFacet(ColumnFacet.class).updates++;
+        }
+    }
+
+    @Produces(VolumeFacet.class)
+    public static class CountingVolumeProvider implements FacetProvider {
+        private int calls;
+
+        @Override
+        public void process(GeneratingRegion region) {
+            calls++;
+            region.setRegionFacet(VolumeFacet.class, new VolumeFacet(region.getRegion(), region.getBorderForFacet(VolumeFacet.class)));
+        }
+    }
+
+    @Cacheable2D
+    @Requires(@Facet(VolumeFacet.class))
+    @Updates(@Facet(ColumnFacet.class))
+    public static class VolumeDependentUpdater implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            region.getRegionFacet(ColumnFacet.class).updates++;
+        }
+    }
+
+    private class FacetReadingRasterizer implements WorldRasterizer {
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void generateChunk(CoreChunk chunk, Region chunkRegion) {
+            maxUpdatesSeen = Math.max(maxUpdatesSeen, chunkRegion.getFacet(ColumnFacet.class).updates);
+        }
+    }
+}
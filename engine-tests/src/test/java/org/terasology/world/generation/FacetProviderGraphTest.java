@@ -0,0 +1,185 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.generation;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.generation.facets.base.BaseFacet3D;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FacetProviderGraphTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final List<FacetProvider> processed = Collections.synchronizedList(Lists.newArrayList());
+
+    private final ProducerA producerA = new ProducerA();
+    private final FirstUpdaterA firstUpdater = new FirstUpdaterA();
+    private final SecondUpdaterA secondUpdater = new SecondUpdaterA();
+    private final ProducerB producerB = new ProducerB();
+    private final ProducerC producerC = new ProducerC();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private ListMultimap<Class<? extends WorldFacet>, FacetProvider> createChains() {
+        ListMultimap<Class<? extends WorldFacet>, FacetProvider> chains = ArrayListMultimap.create();
+        chains.putAll(FacetA.class, Lists.newArrayList(producerA, firstUpdater, secondUpdater));
+        chains.putAll(FacetB.class, Lists.newArrayList(producerB));
+        chains.putAll(FacetC.class, Lists.newArrayList(producerA, firstUpdater, secondUpdater, producerB, producerC));
+        return chains;
+    }
+
+    @Test
+    void testDependencies() {
+        FacetProviderGraph graph = new FacetProviderGraph(createChains(), pool);
+
+        assertTrue(graph.isParallel());
+        assertTrue(graph.getDependencies(producerA).isEmpty());
+        assertTrue(graph.getDependencies(producerB).isEmpty());
+        assertEquals(ImmutableSet.of(producerA), graph.getDependencies(firstUpdater));
+        assertEquals(ImmutableSet.of(producerA, firstUpdater), graph.getDependencies(secondUpdater));
+        assertEquals(ImmutableSet.of(producerA, firstUpdater, secondUpdater, producerB), graph.getDependencies(producerC));
+    }
+
+    @Test
+    void testProvidersRunAfterTheirDependencies() {
+        for (int i = 0; i < 20; i++) {
+            processed.clear();
+            Region region = new RegionImpl(Region3i.createFromCenterExtents(new Vector3i(i, 0, 0), 1),
+                    createChains(), Collections.emptyMap(), null, new FacetProviderGraph(createChains(), pool));
+
+            FacetC facet = region.getFacet(FacetC.class);
+
+            assertEquals("AUV", facet.value);
+            assertEquals(5, processed.size());
+            assertTrue(processed.indexOf(firstUpdater) < processed.indexOf(secondUpdater));
+            assertEquals(producerC, processed.get(4));
+        }
+    }
+
+    @Test
+    void testCircularDependenciesRunSequentially() {
+        ListMultimap<Class<? extends WorldFacet>, FacetProvider> chains = ArrayListMultimap.create();
+        FacetProvider producerAFromB = new ProducerAFromB();
+        FacetProvider producerBFromA = new ProducerBFromA();
+        chains.putAll(FacetA.class, Lists.newArrayList(producerBFromA, producerAFromB));
+        chains.putAll(FacetB.class, Lists.newArrayList(producerAFromB, producerBFromA));
+
+        assertFalse(new FacetProviderGraph(chains, pool).isParallel());
+    }
+
+    @Test
+    void testFailureIsRethrown() {
+        FacetProviderGraph graph = new FacetProviderGraph(createChains(), pool);
+
+        assertThrows(IllegalStateException.class, () -> graph.run(createChains().get(FacetC.class), provider -> {
+            if (provider == producerB) {
+                throw new IllegalStateException();
+            }
+        }));
+    }
+
+    public static class FacetA extends BaseFacet3D {
+        private volatile String value = "";
+
+        public FacetA(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class FacetB extends BaseFacet3D {
+        public FacetB(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class FacetC extends BaseFacet3D {
+        private String value;
+
+        public FacetC(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    @Produces(FacetA.class)
+    private class ProducerA implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            FacetA facet = new FacetA(region.getRegion(), region.getBorderForFacet(FacetA.class));
+            facet.value = "A";
+            region.setRegionFacet(FacetA.class, facet);
+            processed.add(this);
+        }
+    }
+
+    @Updates(@Facet(FacetA.class))
+    private class FirstUpdaterA implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            region.getRegionFacet(FacetA.class).value += "U";
+            processed.add(this);
+        }
+    }
+
+    @Updates(@Facet(FacetA.class))
+    private class SecondUpdaterA implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            region.getRegionFacet(FacetA.class).value += "V";
+            processed.add(this);
+        }
+    }
+
+    @Produces(FacetB.class)
+    private class ProducerB implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            region.setRegionFacet(FacetB.class, new FacetB(region.getRegion(), region.getBorderForFacet(FacetB.class)));
+            processed.add(this);
+        }
+    }
+
+    @Produces(FacetC.class)
+    @Requires({@Facet(FacetA.class), @Facet(FacetB.class)})
+    private class ProducerC implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            FacetC facet = new FacetC(region.getRegion(), region.getBorderForFacet(FacetC.class));
+            facet.value = region.getRegionFacet(FacetA.class).value;
+            region.setRegionFacet(FacetC.class, facet);
+            processed.add(this);
+        }
+    }
+
+    @Produces(FacetA.class)
+    @Requires(@Facet(FacetB.class))
+    private static class ProducerAFromB implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+        }
+    }
+
+    @Produces(FacetB.class)
+    @Requires(@Facet(FacetA.class))
+    private static class ProducerBFromA implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+        }
+    }
+}
@@ -0,0 +1,75 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.saving;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.persistence.internal.ChunkCodec;
+import org.terasology.protobuf.EntityData;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the compressed size and the encode and decode throughput of a chunk codec.
+ */
+public class BenchmarkChunkCodec extends AbstractBenchmark {
+
+    private final List<EntityData.ChunkStore> stores;
+    private final ChunkCodec codec;
+    private final long rawBytes;
+    private final List<byte[]> encoded = new ArrayList<>();
+    private long encodedBytes;
+    private long encodeNanos;
+    private long decodeNanos;
+
+    public BenchmarkChunkCodec(List<EntityData.ChunkStore> stores, ChunkCodec codec, String description) {
+        super("Chunk codec " + description + " on " + stores.size() + " chunks", 1, new int[]{1, 5});
+        this.stores = stores;
+        this.codec = codec;
+        this.rawBytes = stores.stream().mapToLong(EntityData.ChunkStore::getSerializedSize).sum();
+    }
+
+    @Override
+    public void prerun() {
+        encoded.clear();
+        encodedBytes = 0;
+        encodeNanos = 0;
+        decodeNanos = 0;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        for (EntityData.ChunkStore store : stores) {
+            byte[] data = codec.encode(store);
+            encodedBytes += data.length;
+            encoded.add(data);
+        }
+        long decodeStart = System.nanoTime();
+        try {
+            for (byte[] data : encoded) {
+                codec.decode(data);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        decodeNanos += System.nanoTime() - decodeStart;
+        encodeNanos += decodeStart - start;
+        encoded.clear();
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted) {
+            System.out.printf("%d bytes (%.1f%% of %d raw bytes), encoding %.1f MB/s, decoding %.1f MB/s%n",
+                    encodedBytes, 100.0 * encodedBytes / rawBytes, rawBytes,
+                    megabytesPerSecond(encodeNanos), megabytesPerSecond(decodeNanos));
+        }
+    }
+
+    private double megabytesPerSecond(long nanos) {
+        return nanos > 0 ? rawBytes / 1e6 / (nanos / 1e9) : 0;
+    }
+}
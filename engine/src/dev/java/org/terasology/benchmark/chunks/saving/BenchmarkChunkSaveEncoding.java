@@ -0,0 +1,60 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.saving;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.persistence.internal.CompressedChunkBuilder;
+import org.terasology.persistence.internal.GzipChunkCodec;
+import org.terasology.persistence.internal.ParallelChunkEncoder;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the encode and compress phase of a save, as run by the save transaction, with a given number of threads.
+ */
+public class BenchmarkChunkSaveEncoding extends AbstractBenchmark {
+
+    private final List<ChunkImpl> chunks;
+    private final int threads;
+    private final List<Map.Entry<Integer, CompressedChunkBuilder>> builders = new ArrayList<>();
+    private long writtenBytes;
+
+    public BenchmarkChunkSaveEncoding(List<ChunkImpl> chunks, int threads) {
+        super("Encoding and compression of " + chunks.size() + " chunks with " + threads + " threads", 1, new int[]{1, 3});
+        this.chunks = chunks;
+        this.threads = threads;
+    }
+
+    @Override
+    public void prerun() {
+        builders.clear();
+        for (int i = 0; i < chunks.size(); i++) {
+            CompressedChunkBuilder builder = new CompressedChunkBuilder(EntityData.EntityStore.getDefaultInstance(),
+                    chunks.get(i), false, new GzipChunkCodec());
+            builders.add(new AbstractMap.SimpleEntry<>(i, builder));
+        }
+    }
+
+    @Override
+    public void run() {
+        try (ParallelChunkEncoder encoder = new ParallelChunkEncoder(threads)) {
+            encoder.encode(builders, (index, encodedChunk) -> writtenBytes += encodedChunk.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted) {
+            System.out.println(writtenBytes + " bytes written in total");
+        }
+    }
+}
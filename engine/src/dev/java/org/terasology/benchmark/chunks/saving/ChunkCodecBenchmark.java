@@ -0,0 +1,58 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.saving;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.benchmark.chunks.sections.TerrainChunks;
+import org.terasology.persistence.internal.ChunkCodecs;
+import org.terasology.persistence.internal.DeflaterChunkCodec;
+import org.terasology.persistence.internal.GzipChunkCodec;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.blockdata.TeraArray;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * ChunkCodecBenchmark compares the size and speed of the chunk codecs on a synthetic world, with the dictionary
+ * trained on the same sample size as the storage manager uses.
+ */
+public final class ChunkCodecBenchmark {
+
+    private static final int CHUNK_COUNT = 1000;
+    private static final int COLUMNS = 8;
+    private static final int DICTIONARY_SAMPLES = 32;
+
+    private ChunkCodecBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        TerrainChunks terrain = new TerrainChunks();
+        List<TeraArray> blockData = terrain.createBlockData(COLUMNS);
+        List<EntityData.ChunkStore> stores = new ArrayList<>(CHUNK_COUNT);
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            stores.add(terrain.createChunk(blockData.get(i % blockData.size()), true).encode().build());
+        }
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < DICTIONARY_SAMPLES; i++) {
+            samples.add(stores.get(i * CHUNK_COUNT / DICTIONARY_SAMPLES).toByteArray());
+        }
+        byte[] dictionary = ChunkCodecs.trainDictionary(samples, ChunkCodecs.DEFAULT_DICTIONARY_SIZE);
+
+        final List<Benchmark> benchmarks = new LinkedList<>();
+        benchmarks.add(new BenchmarkChunkCodec(stores, new GzipChunkCodec(), "gzip"));
+        for (int level : new int[]{1, 6, 9}) {
+            benchmarks.add(new BenchmarkChunkCodec(stores, new DeflaterChunkCodec(level, null),
+                    "deflate level " + level));
+            if (dictionary != null) {
+                benchmarks.add(new BenchmarkChunkCodec(stores, new DeflaterChunkCodec(level, dictionary),
+                        "deflate with dictionary level " + level));
+            }
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
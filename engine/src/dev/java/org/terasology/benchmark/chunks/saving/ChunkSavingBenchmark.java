@@ -0,0 +1,48 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.saving;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.benchmark.chunks.sections.TerrainChunks;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * ChunkSavingBenchmark measures how the save time of a synthetic world of about 5000 chunks scales with the number of
+ * threads encoding and compressing the chunks.
+ */
+public final class ChunkSavingBenchmark {
+
+    private static final int CHUNK_COUNT = 5000;
+    private static final int COLUMNS = 8;
+
+    private ChunkSavingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        TerrainChunks terrain = new TerrainChunks();
+        List<TeraArray> blockData = terrain.createBlockData(COLUMNS);
+        List<ChunkImpl> chunks = new ArrayList<>(CHUNK_COUNT);
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            // deflated to keep the synthetic world in memory, like most chunks of a running game
+            ChunkImpl chunk = terrain.createChunk(blockData.get(i % blockData.size()), true);
+            chunk.deflate();
+            chunks.add(chunk);
+        }
+
+        final List<Benchmark> benchmarks = new LinkedList<>();
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads < processors; threads *= 2) {
+            benchmarks.add(new BenchmarkChunkSaveEncoding(chunks, threads));
+        }
+        benchmarks.add(new BenchmarkChunkSaveEncoding(chunks, processors));
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
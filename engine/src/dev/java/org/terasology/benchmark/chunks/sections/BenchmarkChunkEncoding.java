@@ -0,0 +1,36 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.sections;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the run length encoding of chunks for saving. Uniform sections are encoded as a single run.
+ */
+public class BenchmarkChunkEncoding extends AbstractBenchmark {
+
+    private final List<ChunkImpl> chunks = new ArrayList<>();
+
+    public BenchmarkChunkEncoding(TerrainChunks terrain, List<TeraArray> blockData, boolean deflated) {
+        super("Encoding of " + blockData.size() + (deflated ? " deflated" : " dense") + " chunks", 2, new int[]{10, 20, 50});
+        for (TeraArray blocks : blockData) {
+            ChunkImpl chunk = terrain.createChunk(blocks, true);
+            if (deflated) {
+                chunk.deflate();
+            }
+            chunks.add(chunk);
+        }
+    }
+
+    @Override
+    public void run() {
+        for (ChunkImpl chunk : chunks) {
+            chunk.encode();
+        }
+    }
+}
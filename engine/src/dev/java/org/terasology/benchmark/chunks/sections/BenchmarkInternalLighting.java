@@ -0,0 +1,34 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.sections;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.propagation.light.InternalLightProcessor;
+
+import java.util.List;
+
+/**
+ * Measures the initial lighting of generated chunks, with and without skipping uniform sections.
+ */
+public class BenchmarkInternalLighting extends AbstractBenchmark {
+
+    private final TerrainChunks terrain;
+    private final List<TeraArray> blockData;
+    private final boolean useSections;
+
+    public BenchmarkInternalLighting(TerrainChunks terrain, List<TeraArray> blockData, boolean useSections) {
+        super("Internal lighting of " + blockData.size() + " chunks " + (useSections ? "skipping uniform sections" : "visiting every section"),
+                2, new int[]{5, 10, 20});
+        this.terrain = terrain;
+        this.blockData = blockData;
+        this.useSections = useSections;
+    }
+
+    @Override
+    public void run() {
+        for (TeraArray blocks : blockData) {
+            InternalLightProcessor.generateInternalLighting(terrain.createChunk(blocks, useSections));
+        }
+    }
+}
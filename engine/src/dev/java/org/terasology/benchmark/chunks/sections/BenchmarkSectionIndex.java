@@ -0,0 +1,37 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.sections;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.world.chunks.ChunkSectionIndex;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how long building the section index takes, which is paid once per edited chunk.
+ */
+public class BenchmarkSectionIndex extends AbstractBenchmark {
+
+    private final List<TeraArray> blockData = new ArrayList<>();
+
+    public BenchmarkSectionIndex(List<TeraArray> blockData, boolean deflated) {
+        super("Section index of " + blockData.size() + (deflated ? " deflated" : " dense") + " chunks", 2, new int[]{100, 200});
+        for (TeraArray blocks : blockData) {
+            this.blockData.add(deflated ? new TeraStandardDeflator().deflate(blocks) : blocks);
+        }
+    }
+
+    @Override
+    public void run() {
+        int uniform = 0;
+        for (TeraArray blocks : blockData) {
+            uniform += ChunkSectionIndex.of(blocks).getUniformSectionCount();
+        }
+        if (uniform < 0) {
+            throw new IllegalStateException();
+        }
+    }
+}
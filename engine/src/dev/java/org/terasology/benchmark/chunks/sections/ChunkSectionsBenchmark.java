@@ -0,0 +1,47 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.sections;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.world.chunks.ChunkSectionIndex;
+import org.terasology.world.chunks.blockdata.TeraArray;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * ChunkSectionsBenchmark measures the stages which skip uniform chunk sections on typical generated terrain.
+ */
+public final class ChunkSectionsBenchmark {
+
+    private static final int COLUMNS = 4;
+
+    private ChunkSectionsBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        TerrainChunks terrain = new TerrainChunks();
+        List<TeraArray> blockData = terrain.createBlockData(COLUMNS);
+
+        int uniform = 0;
+        int total = 0;
+        for (TeraArray blocks : blockData) {
+            ChunkSectionIndex index = ChunkSectionIndex.of(blocks);
+            uniform += index.getUniformSectionCount();
+            total += index.getSectionCount();
+        }
+        System.out.println(uniform + " of " + total + " sections are uniform");
+
+        final List<Benchmark> benchmarks = new LinkedList<>();
+        benchmarks.add(new BenchmarkSectionIndex(blockData, false));
+        benchmarks.add(new BenchmarkSectionIndex(blockData, true));
+        benchmarks.add(new BenchmarkInternalLighting(terrain, blockData, false));
+        benchmarks.add(new BenchmarkInternalLighting(terrain, blockData, true));
+        benchmarks.add(new BenchmarkChunkEncoding(terrain, blockData, false));
+        benchmarks.add(new BenchmarkChunkEncoding(terrain, blockData, true));
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
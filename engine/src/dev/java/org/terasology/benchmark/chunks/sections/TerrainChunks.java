@@ -0,0 +1,194 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.chunks.sections;
+
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.BlockFamily;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkSectionIndex;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Creates chunks with rolling hills of stone, dirt and grass above and below the surface, similar to the output of the
+ * usual surface world generators.
+ */
+public final class TerrainChunks {
+
+    private static final short AIR = 0;
+    private static final short STONE = 1;
+    private static final short DIRT = 2;
+    private static final short GRASS = 3;
+    private static final short WATER = 4;
+    private static final int SEA_LEVEL = 20;
+
+    private final BlockManager blockManager = new SimpleBlockManager();
+    private final SimplexNoise noise = new SimplexNoise(4711);
+
+    /**
+     * Used instead of the real index of a chunk to measure the cost of visiting every section.
+     */
+    private final ChunkSectionIndex mixedSections;
+
+    public TerrainChunks() {
+        TeraArray mixed = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+            mixed.set(0, y, 0, 1);
+        }
+        mixedSections = ChunkSectionIndex.of(mixed);
+    }
+
+    /**
+     * @return a block manager knowing the blocks air (0), stone (1), dirt (2), grass (3) and water (4).
+     */
+    public BlockManager getBlockManager() {
+        return blockManager;
+    }
+
+    /**
+     * @param columns the number of chunk columns along x and z.
+     * @return the chunks of the given columns, three chunks high around the surface.
+     */
+    public List<TeraArray> createBlockData(int columns) {
+        List<TeraArray> result = new ArrayList<>();
+        for (int cx = 0; cx < columns; cx++) {
+            for (int cz = 0; cz < columns; cz++) {
+                for (int cy = -1; cy <= 1; cy++) {
+                    result.add(createBlockData(cx, cy, cz));
+                }
+            }
+        }
+        return result;
+    }
+
+    private TeraArray createBlockData(int cx, int cy, int cz) {
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                float worldX = cx * ChunkConstants.SIZE_X + x;
+                float worldZ = cz * ChunkConstants.SIZE_Z + z;
+                int height = (int) (SEA_LEVEL + 6 + 14 * noise.noise(worldX * 0.01f, worldZ * 0.01f)
+                        + 3 * noise.noise(worldX * 0.05f, worldZ * 0.05f));
+                for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                    int worldY = cy * ChunkConstants.SIZE_Y + y;
+                    blocks.set(x, y, z, blockAt(worldY, height));
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static short blockAt(int worldY, int height) {
+        if (worldY < height - 3) {
+            return STONE;
+        } else if (worldY < height) {
+            return DIRT;
+        } else if (worldY == height) {
+            return height < SEA_LEVEL ? DIRT : GRASS;
+        } else if (worldY <= SEA_LEVEL) {
+            return WATER;
+        }
+        return AIR;
+    }
+
+    /**
+     * @param useSections whether the chunk reports its real section index, or one without uniform sections.
+     */
+    public ChunkImpl createChunk(TeraArray blockData, boolean useSections) {
+        TeraArray[] extra = new TeraArray[0];
+        if (useSections) {
+            return new ChunkImpl(new Vector3i(), blockData.copy(), extra, blockManager);
+        }
+        return new ChunkImpl(new Vector3i(), blockData.copy(), extra, blockManager) {
+            @Override
+            public ChunkSectionIndex getSectionIndex() {
+                return mixedSections;
+            }
+        };
+    }
+
+    private static final class SimpleBlockManager extends BlockManager {
+        private final List<Block> blocks = Arrays.asList(
+                createBlock("air", AIR, true, false),
+                createBlock("stone", STONE, false, false),
+                createBlock("dirt", DIRT, false, false),
+                createBlock("grass", GRASS, false, false),
+                createBlock("water", WATER, true, true));
+
+        private static Block createBlock(String name, short id, boolean translucent, boolean liquid) {
+            Block block = new Block();
+            block.setId(id);
+            block.setUri(new BlockUri("benchmark:" + name));
+            block.setTranslucent(translucent);
+            block.setLiquid(liquid);
+            for (Side side : Side.getAllSides()) {
+                block.setFullSide(side, !translucent);
+            }
+            return block;
+        }
+
+        @Override
+        public Map<String, Short> getBlockIdMap() {
+            return blocks.stream().collect(Collectors.toMap(b -> b.getURI().toString(), Block::getId));
+        }
+
+        @Override
+        public BlockFamily getBlockFamily(String uri) {
+            return null;
+        }
+
+        @Override
+        public BlockFamily getBlockFamily(BlockUri uri) {
+            return null;
+        }
+
+        @Override
+        public Block getBlock(String uri) {
+            return getBlock(getBlockIdMap().get(uri));
+        }
+
+        @Override
+        public Block getBlock(BlockUri uri) {
+            return getBlock(uri.toString());
+        }
+
+        @Override
+        public Block getBlock(short id) {
+            return blocks.get(id);
+        }
+
+        @Override
+        public Collection<BlockUri> listRegisteredBlockUris() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Collection<BlockFamily> listRegisteredBlockFamilies() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public int getBlockFamilyCount() {
+            return 0;
+        }
+
+        @Override
+        public Collection<Block> listRegisteredBlocks() {
+            return blocks;
+        }
+    }
+}
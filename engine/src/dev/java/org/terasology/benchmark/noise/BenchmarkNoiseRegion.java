@@ -0,0 +1,60 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.noise;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.utilities.procedural.Noise;
+
+/**
+ * Fills the noise values of a number of chunk sized 2D regions, either one position at a time or with a single batch
+ * call per region.
+ */
+public class BenchmarkNoiseRegion extends AbstractBenchmark {
+
+    private static final float ZOOM = 0.01f;
+
+    private final Noise noise;
+    private final boolean batch;
+    private final int regions;
+    private final int regionSize;
+    private final float[] values;
+
+    private float sum;
+
+    public BenchmarkNoiseRegion(String name, Noise noise, boolean batch, int regions, int regionSize) {
+        super((batch ? "Batch" : "Per-point") + " evaluation of " + name + " for " + regions + " regions of "
+                + regionSize + "x" + regionSize, 2, new int[]{1, 2, 4});
+        this.noise = noise;
+        this.batch = batch;
+        this.regions = regions;
+        this.regionSize = regionSize;
+        this.values = new float[regionSize * regionSize];
+    }
+
+    @Override
+    public void run() {
+        for (int r = 0; r < regions; r++) {
+            Rect2i region = Rect2i.createFromMinAndSize(r * regionSize, -r * regionSize, regionSize, regionSize);
+            if (batch) {
+                noise.noise(region, ZOOM, ZOOM, values);
+            } else {
+                int index = 0;
+                for (int y = region.minY(); y <= region.maxY(); y++) {
+                    for (int x = region.minX(); x <= region.maxX(); x++) {
+                        values[index++] = noise.noise(x * ZOOM, y * ZOOM);
+                    }
+                }
+            }
+            // keep the results alive so that the evaluation is not optimized away
+            sum += values[r % values.length];
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (sum == Float.MAX_VALUE) {
+            System.out.println(sum);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.noise;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SimplexNoise;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * NoiseRegionBenchmark compares the throughput of per-point and batch evaluation of the common noise functions.
+ * All noises are used in the same run, so the per-point calls see the same megamorphic call sites as facet providers do.
+ */
+public final class NoiseRegionBenchmark {
+
+    private static final int REGIONS = 256;
+    private static final int REGION_SIZE = 32;
+
+    private NoiseRegionBenchmark() {
+    }
+
+    @SuppressWarnings("deprecation")
+    public static void main(String[] args) {
+        Noise simplex = new SimplexNoise(0xCAFE);
+        Noise perlin = new PerlinNoise(0xCAFE);
+        Noise brownian = new BrownianNoise(new SimplexNoise(0xCAFE), 8);
+
+        final List<Benchmark> benchmarks = new LinkedList<>();
+        benchmarks.add(new BenchmarkNoiseRegion("simplex noise", simplex, false, REGIONS, REGION_SIZE));
+        benchmarks.add(new BenchmarkNoiseRegion("simplex noise", simplex, true, REGIONS, REGION_SIZE));
+        benchmarks.add(new BenchmarkNoiseRegion("perlin noise", perlin, false, REGIONS, REGION_SIZE));
+        benchmarks.add(new BenchmarkNoiseRegion("perlin noise", perlin, true, REGIONS, REGION_SIZE));
+        benchmarks.add(new BenchmarkNoiseRegion("brownian simplex noise", brownian, false, REGIONS / 8, REGION_SIZE));
+        benchmarks.add(new BenchmarkNoiseRegion("brownian simplex noise", brownian, true, REGIONS / 8, REGION_SIZE));
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
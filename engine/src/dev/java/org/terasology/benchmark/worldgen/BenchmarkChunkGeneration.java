@@ -0,0 +1,43 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.worldgen;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generation.WorldImpl;
+
+/**
+ * Generates columns of chunks headlessly, column by column as the relevance regions of a player do.
+ * The facet cache is cleared before every run, so every run generates a fresh area.
+ */
+public class BenchmarkChunkGeneration extends AbstractBenchmark {
+
+    private final WorldImpl world;
+    private final BlockManager blockManager;
+    private final ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+    private final int columns;
+    private final int height;
+
+    public BenchmarkChunkGeneration(WorldImpl world, BlockManager blockManager, int columns, int height) {
+        super("Generation of " + columns * columns + " columns of " + height + " chunks "
+                + (world.getFacetCache().isEnabled() ? "sharing 2D facets" : "without facet cache"), 1, new int[]{1, 2, 4});
+        this.world = world;
+        this.blockManager = blockManager;
+        this.columns = columns;
+        this.height = height;
+    }
+
+    @Override
+    public void run() {
+        world.getFacetCache().clear();
+        for (int x = 0; x < columns; x++) {
+            for (int z = 0; z < columns; z++) {
+                for (int y = -height / 2; y < height - height / 2; y++) {
+                    world.rasterizeChunk(new ChunkImpl(x, y, z, blockManager, extraDataManager), null);
+                }
+            }
+        }
+    }
+}
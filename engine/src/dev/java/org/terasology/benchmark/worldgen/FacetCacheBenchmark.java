@@ -0,0 +1,42 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.worldgen;
+
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.benchmark.chunks.sections.TerrainChunks;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.generation.Facet2DCache;
+import org.terasology.world.generation.WorldImpl;
+
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * FacetCacheBenchmark compares chunk generation with and without sharing 2D facets between the chunks of a column.
+ */
+public final class FacetCacheBenchmark {
+
+    private static final int COLUMNS = 4;
+    private static final int HEIGHT = 6;
+
+    private FacetCacheBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        BlockManager blockManager = new TerrainChunks().getBlockManager();
+        WorldImpl cachedWorld = NoiseTerrainWorld.create(blockManager, WorldImpl.DEFAULT_FACET_CACHE_SIZE);
+        WorldImpl uncachedWorld = NoiseTerrainWorld.create(blockManager, 0);
+
+        final List<Benchmark> benchmarks = new LinkedList<>();
+        benchmarks.add(new BenchmarkChunkGeneration(uncachedWorld, blockManager, COLUMNS, HEIGHT));
+        benchmarks.add(new BenchmarkChunkGeneration(cachedWorld, blockManager, COLUMNS, HEIGHT));
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+
+        Facet2DCache cache = cachedWorld.getFacetCache();
+        System.out.printf("Facet cache: %d hits, %d misses, %.1f%% hit rate, %d evictions%n",
+                cache.getHits(), cache.getMisses(), cache.getHitRate() * 100, cache.getEvictions());
+    }
+}
@@ -0,0 +1,172 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.benchmark.worldgen;
+
+import org.terasology.math.geom.Vector2f;
+import org.terasology.utilities.procedural.BrownianNoise;
+import org.terasology.utilities.procedural.Noise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.utilities.procedural.SubSampledNoise;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.generation.Cacheable2D;
+import org.terasology.world.generation.Facet;
+import org.terasology.world.generation.FacetProvider;
+import org.terasology.world.generation.GeneratingRegion;
+import org.terasology.world.generation.Produces;
+import org.terasology.world.generation.Region;
+import org.terasology.world.generation.Requires;
+import org.terasology.world.generation.WorldBuilder;
+import org.terasology.world.generation.WorldImpl;
+import org.terasology.world.generation.WorldRasterizer;
+import org.terasology.world.generation.facets.SeaLevelFacet;
+import org.terasology.world.generation.facets.SurfaceHeightFacet;
+import org.terasology.world.generation.facets.SurfaceHumidityFacet;
+import org.terasology.world.generation.facets.SurfaceTemperatureFacet;
+
+/**
+ * A small faceted world similar to the usual perlin based worlds, built from column only providers which can share
+ * their facets through the facet cache.
+ */
+public final class NoiseTerrainWorld {
+
+    private static final int SEA_LEVEL = 32;
+
+    private NoiseTerrainWorld() {
+    }
+
+    /**
+     * @param blockManager   knows the blocks stone (1), dirt (2) and water (4).
+     * @param facetCacheSize the number of cached facets, 0 to disable the cache.
+     */
+    public static WorldImpl create(BlockManager blockManager, int facetCacheSize) {
+        WorldBuilder worldBuilder = new WorldBuilder(null)
+                .addProvider(new SeaLevelProvider())
+                .addProvider(new SurfaceProvider())
+                .addProvider(new TemperatureProvider())
+                .addProvider(new HumidityProvider())
+                .addRasterizer(new SurfaceRasterizer(blockManager))
+                .setSeaLevel(SEA_LEVEL)
+                .setFacetCacheSize(facetCacheSize);
+        worldBuilder.setSeed(4711);
+        WorldImpl world = (WorldImpl) worldBuilder.build();
+        world.initialize();
+        return world;
+    }
+
+    @Cacheable2D
+    @Produces(SeaLevelFacet.class)
+    private static final class SeaLevelProvider implements FacetProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            SeaLevelFacet facet = new SeaLevelFacet(region.getRegion(), region.getBorderForFacet(SeaLevelFacet.class));
+            facet.setSeaLevel(SEA_LEVEL);
+            region.setRegionFacet(SeaLevelFacet.class, facet);
+        }
+    }
+
+    @Cacheable2D
+    @Produces(SurfaceHeightFacet.class)
+    @Requires(@Facet(SeaLevelFacet.class))
+    private static final class SurfaceProvider implements FacetProvider {
+        private Noise surfaceNoise;
+
+        @Override
+        public void setSeed(long seed) {
+            surfaceNoise = new BrownianNoise(new SimplexNoise(seed), 8);
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            int seaLevel = region.getRegionFacet(SeaLevelFacet.class).getSeaLevel();
+            SurfaceHeightFacet facet = new SurfaceHeightFacet(region.getRegion(), region.getBorderForFacet(SurfaceHeightFacet.class));
+            float[] heights = facet.getInternal();
+            surfaceNoise.noise(facet.getWorldRegion(), 0.004f, 0.004f, heights);
+            for (int i = 0; i < heights.length; i++) {
+                heights[i] = seaLevel + 40 * heights[i];
+            }
+            region.setRegionFacet(SurfaceHeightFacet.class, facet);
+        }
+    }
+
+    @Cacheable2D
+    @Produces(SurfaceTemperatureFacet.class)
+    private static final class TemperatureProvider implements FacetProvider {
+        private SubSampledNoise temperatureNoise;
+
+        @Override
+        public void setSeed(long seed) {
+            temperatureNoise = new SubSampledNoise(new BrownianNoise(new SimplexNoise(seed + 5), 8), new Vector2f(0.0005f, 0.0005f), 4);
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            SurfaceTemperatureFacet facet = new SurfaceTemperatureFacet(region.getRegion(), region.getBorderForFacet(SurfaceTemperatureFacet.class));
+            facet.set(temperatureNoise.noise(facet.getWorldRegion()));
+            region.setRegionFacet(SurfaceTemperatureFacet.class, facet);
+        }
+    }
+
+    @Cacheable2D
+    @Produces(SurfaceHumidityFacet.class)
+    private static final class HumidityProvider implements FacetProvider {
+        private SubSampledNoise humidityNoise;
+
+        @Override
+        public void setSeed(long seed) {
+            humidityNoise = new SubSampledNoise(new BrownianNoise(new SimplexNoise(seed + 6), 8), new Vector2f(0.0005f, 0.0005f), 4);
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            SurfaceHumidityFacet facet = new SurfaceHumidityFacet(region.getRegion(), region.getBorderForFacet(SurfaceHumidityFacet.class));
+            facet.set(humidityNoise.noise(facet.getWorldRegion()));
+            region.setRegionFacet(SurfaceHumidityFacet.class, facet);
+        }
+    }
+
+    private static final class SurfaceRasterizer implements WorldRasterizer {
+        private final Block stone;
+        private final Block dirt;
+        private final Block water;
+
+        private SurfaceRasterizer(BlockManager blockManager) {
+            stone = blockManager.getBlock((short) 1);
+            dirt = blockManager.getBlock((short) 2);
+            water = blockManager.getBlock((short) 4);
+        }
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void generateChunk(CoreChunk chunk, Region chunkRegion) {
+            SurfaceHeightFacet surface = chunkRegion.getFacet(SurfaceHeightFacet.class);
+            int seaLevel = chunkRegion.getFacet(SeaLevelFacet.class).getSeaLevel();
+            SurfaceTemperatureFacet temperature = chunkRegion.getFacet(SurfaceTemperatureFacet.class);
+            SurfaceHumidityFacet humidity = chunkRegion.getFacet(SurfaceHumidityFacet.class);
+            int chunkMinY = chunk.getChunkWorldOffsetY();
+            for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    float height = surface.get(x, z);
+                    Block top = temperature.get(x, z) + humidity.get(x, z) > 0 ? dirt : stone;
+                    int stoneEnd = clampToChunk((int) Math.ceil(height - 1) - chunkMinY);
+                    int topEnd = clampToChunk((int) Math.ceil(height) - chunkMinY);
+                    int waterEnd = clampToChunk(seaLevel + 1 - chunkMinY);
+                    chunk.setBlockColumn(x, 0, z, stoneEnd, stone);
+                    chunk.setBlockColumn(x, stoneEnd, z, topEnd - stoneEnd, top);
+                    if (waterEnd > topEnd) {
+                        chunk.setBlockColumn(x, topEnd, z, waterEnd - topEnd, water);
+                    }
+                }
+            }
+        }
+
+        private static int clampToChunk(int y) {
+            return Math.max(0, Math.min(ChunkConstants.SIZE_Y, y));
+        }
+    }
+}
@@ -68,6 +68,8 @@ public class RenderingConfig extends AbstractSubscribable {
     public static final String RENDER_NEAREST = "RenderNearest";
     public static final String PARTICLE_EFFECT_LIMIT = "ParticleEffectLimit";
     public static final String MESH_LIMIT = "MeshLimit";
+    public static final String LOD_HALF_RESOLUTION_DISTANCE = "LodHalfResolutionDistance";
+    public static final String LOD_QUARTER_RESOLUTION_DISTANCE = "LodQuarterResolutionDistance";
     public static final String V_SYNC = "VSync";
     public static final String FRAME_LIMIT = "FrameLimit";
     public static final String FBO_SCALE = "FboScale";
@@ -116,6 +118,8 @@ public class RenderingConfig extends AbstractSubscribable {
     private int particleEffectLimit;
     private int frameLimit;
     private int meshLimit;
+    private int lodHalfResolutionDistance;
+    private int lodQuarterResolutionDistance;
     private boolean inscattering;
     private boolean localReflections;
     private boolean vSync;
@@ -572,6 +576,32 @@ public void setMeshLimit(int meshLimit) {
         this.meshLimit = meshLimit;
         propertyChangeSupport.firePropertyChange(MESH_LIMIT, oldLimit, this.meshLimit);
     }
+
+    /**
+     * @return the distance in chunks beyond which chunks are rendered at half resolution, or 0 if they never are.
+     */
+    public int getLodHalfResolutionDistance() {
+        return lodHalfResolutionDistance;
+    }
+
+    public void setLodHalfResolutionDistance(int lodHalfResolutionDistance) {
+        int oldDistance = this.lodHalfResolutionDistance;
+        this.lodHalfResolutionDistance = lodHalfResolutionDistance;
+        propertyChangeSupport.firePropertyChange(LOD_HALF_RESOLUTION_DISTANCE, oldDistance, this.lodHalfResolutionDistance);
+    }
+
+    /**
+     * @return the distance in chunks beyond which chunks are rendered at quarter resolution, or 0 if they never are.
+     */
+    public int getLodQuarterResolutionDistance() {
+        return lodQuarterResolutionDistance;
+    }
+
+    public void setLodQuarterResolutionDistance(int lodQuarterResolutionDistance) {
+        int oldDistance = this.lodQuarterResolutionDistance;
+        this.lodQuarterResolutionDistance = lodQuarterResolutionDistance;
+        propertyChangeSupport.firePropertyChange(LOD_QUARTER_RESOLUTION_DISTANCE, oldDistance, this.lodQuarterResolutionDistance);
+    }
     public boolean isVSync() {
         return this.vSync;
     }
@@ -31,6 +31,17 @@ public class SystemConfig {
     private boolean monitoringEnabled;
     private boolean writeSaveGamesEnabled;
     private long chunkGenerationFailTimeoutInMs;
+    private int unloadedChunkCacheSizeInMb;
+    private boolean offHeapChunkStorageEnabled;
+    private boolean parallelFacetProvidersEnabled;
+    private int chunkActivationBudgetInMs;
+    private int saveEncodingThreads;
+    private boolean blockChangeJournalEnabled;
+    private String chunkCompression;
+    private int chunkCompressionLevel;
+    private int maxUnsavedChunksMemoryInMb;
+    private boolean parallelLoadingEnabled;
+    private boolean coalescedComponentChangeEventsEnabled;
     private String locale;
 
     public long getDayNightLengthInMs() {
@@ -101,6 +112,94 @@ public void setChunkGenerationFailTimeoutInMs(long chunkGenerationFailTimeoutInM
         this.chunkGenerationFailTimeoutInMs = chunkGenerationFailTimeoutInMs;
     }
 
+    public int getUnloadedChunkCacheSizeInMb() {
+        return unloadedChunkCacheSizeInMb;
+    }
+
+    public void setUnloadedChunkCacheSizeInMb(int unloadedChunkCacheSizeInMb) {
+        this.unloadedChunkCacheSizeInMb = unloadedChunkCacheSizeInMb;
+    }
+
+    public boolean isOffHeapChunkStorageEnabled() {
+        return offHeapChunkStorageEnabled;
+    }
+
+    public void setOffHeapChunkStorageEnabled(boolean offHeapChunkStorageEnabled) {
+        this.offHeapChunkStorageEnabled = offHeapChunkStorageEnabled;
+    }
+
+    public boolean isParallelFacetProvidersEnabled() {
+        return parallelFacetProvidersEnabled;
+    }
+
+    public void setParallelFacetProvidersEnabled(boolean parallelFacetProvidersEnabled) {
+        this.parallelFacetProvidersEnabled = parallelFacetProvidersEnabled;
+    }
+
+    public int getChunkActivationBudgetInMs() {
+        return chunkActivationBudgetInMs;
+    }
+
+    public void setChunkActivationBudgetInMs(int chunkActivationBudgetInMs) {
+        this.chunkActivationBudgetInMs = chunkActivationBudgetInMs;
+    }
+
+    public int getSaveEncodingThreads() {
+        return saveEncodingThreads;
+    }
+
+    public void setSaveEncodingThreads(int saveEncodingThreads) {
+        this.saveEncodingThreads = saveEncodingThreads;
+    }
+
+    public boolean isBlockChangeJournalEnabled() {
+        return blockChangeJournalEnabled;
+    }
+
+    public void setBlockChangeJournalEnabled(boolean blockChangeJournalEnabled) {
+        this.blockChangeJournalEnabled = blockChangeJournalEnabled;
+    }
+
+    public String getChunkCompression() {
+        return chunkCompression;
+    }
+
+    public void setChunkCompression(String chunkCompression) {
+        this.chunkCompression = chunkCompression;
+    }
+
+    public int getChunkCompressionLevel() {
+        return chunkCompressionLevel;
+    }
+
+    public void setChunkCompressionLevel(int chunkCompressionLevel) {
+        this.chunkCompressionLevel = chunkCompressionLevel;
+    }
+
+    public int getMaxUnsavedChunksMemoryInMb() {
+        return maxUnsavedChunksMemoryInMb;
+    }
+
+    public void setMaxUnsavedChunksMemoryInMb(int maxUnsavedChunksMemoryInMb) {
+        this.maxUnsavedChunksMemoryInMb = maxUnsavedChunksMemoryInMb;
+    }
+
+    public boolean isParallelLoadingEnabled() {
+        return parallelLoadingEnabled;
+    }
+
+    public void setParallelLoadingEnabled(boolean parallelLoadingEnabled) {
+        this.parallelLoadingEnabled = parallelLoadingEnabled;
+    }
+
+    public boolean isCoalescedComponentChangeEventsEnabled() {
+        return coalescedComponentChangeEventsEnabled;
+    }
+
+    public void setCoalescedComponentChangeEventsEnabled(boolean coalescedComponentChangeEventsEnabled) {
+        this.coalescedComponentChangeEventsEnabled = coalescedComponentChangeEventsEnabled;
+    }
+
     public Locale getLocale() {
         if (locale == null) {
             setLocale(Locale.getDefault(Category.DISPLAY));
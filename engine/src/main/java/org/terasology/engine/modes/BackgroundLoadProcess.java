@@ -0,0 +1,96 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.modes;
+
+import com.google.common.base.Stopwatch;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A load process which does not need the main thread, so it can run while the following load processes run.
+ * <p>
+ * The work must only touch state which neither the following processes nor the main thread use until the processes
+ * depending on this one begin, see {@link LoadProcess#getDependencies()}. If parallel loading is disabled, the work
+ * runs on the main thread like any other load process. {@link #begin()} always runs on the main thread, before the
+ * work starts.
+ */
+public abstract class BackgroundLoadProcess implements LoadProcess {
+
+    private Future<?> backgroundResult;
+    private volatile boolean finished;
+    private volatile long durationInMs;
+
+    /**
+     * Does the work of the process.
+     */
+    protected abstract void load();
+
+    @Override
+    public void begin() {
+    }
+
+    @Override
+    public boolean step() {
+        if (backgroundResult == null) {
+            timedLoad();
+        }
+        return true;
+    }
+
+    @Override
+    public float getProgress() {
+        return 0;
+    }
+
+    /**
+     * Starts the work of the process on the given executor. {@link #step()} then returns right away.
+     */
+    void beginInBackground(ExecutorService executor) {
+        backgroundResult = executor.submit(this::timedLoad);
+    }
+
+    /**
+     * @return Whether the work finished, either in the background or through {@link #step()}
+     * @throws RuntimeException if the work failed in the background
+     */
+    boolean isFinished() {
+        if (backgroundResult == null) {
+            return finished;
+        }
+        if (!backgroundResult.isDone()) {
+            return false;
+        }
+        try {
+            backgroundResult.get();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (CancellationException e) {
+            throw new IllegalStateException(getMessage() + " got cancelled", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(getMessage() + " failed", e.getCause());
+        }
+    }
+
+    /**
+     * @return How long the work took, in real time
+     */
+    long getDurationInMs() {
+        return durationInMs;
+    }
+
+    private void timedLoad() {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        load();
+        durationInMs = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+        finished = true;
+    }
+}
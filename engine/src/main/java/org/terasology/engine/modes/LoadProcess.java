@@ -16,6 +16,9 @@
 
 package org.terasology.engine.modes;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  */
 public interface LoadProcess {
@@ -46,4 +49,15 @@ public interface LoadProcess {
      * @return A relative cost for this process. A small process would have a cost of 1, a large process a bigger cost.
      */
     int getExpectedCost();
+
+    /**
+     * Load processes run one after another, except for {@link BackgroundLoadProcess}es, which run while the following
+     * processes run. A process using the results of background processes lists them here, and only begins once they
+     * finished. Listed processes which are not part of the loading are ignored.
+     *
+     * @return The load processes which have to be finished before this process begins
+     */
+    default Set<Class<? extends LoadProcess>> getDependencies() {
+        return Collections.emptySet();
+    }
 }
@@ -94,6 +94,8 @@ public void init(GameEngine engine) {
         storageManager = context.get(StorageManager.class);
         storageServiceWorker = context.get(StorageServiceWorker.class);
         console = context.get(Console.class);
+        entityManager.setComponentChangeEventsCoalesced(
+                context.get(Config.class).getSystem().isCoalescedComponentChangeEventsEnabled());
 
         // Show or hide the HUD according to the settings
         nuiManager.getHUD().bindVisible(new ReadOnlyBinding<Boolean>() {
@@ -113,6 +115,7 @@ public Boolean get() {
 
     @Override
     public void dispose(boolean shuttingDown) {
+        entityManager.flushComponentChanges();
         ChunkProvider chunkProvider = context.get(ChunkProvider.class);
         chunkProvider.dispose();
 
@@ -171,6 +174,7 @@ public void update(float delta) {
             system.update(delta);
             PerformanceMonitor.endActivity();
         }
+        entityManager.flushComponentChanges();
 
         if (worldRenderer != null && shouldUpdateWorld()) {
             worldRenderer.update(delta);
@@ -4,7 +4,10 @@
 package org.terasology.engine.modes;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
@@ -35,6 +38,7 @@
 import org.terasology.engine.modes.loadProcesses.LoadPrefabs;
 import org.terasology.engine.modes.loadProcesses.PostBeginSystems;
 import org.terasology.engine.modes.loadProcesses.PreBeginSystems;
+import org.terasology.engine.modes.loadProcesses.PrefetchGlobalStore;
 import org.terasology.engine.modes.loadProcesses.PrepareWorld;
 import org.terasology.engine.modes.loadProcesses.ProcessBlockPrefabs;
 import org.terasology.engine.modes.loadProcesses.RegisterBlockFamilies;
@@ -58,7 +62,11 @@
 import org.terasology.rendering.nui.layers.mainMenu.loadingScreen.LoadingScreen;
 import org.terasology.world.chunks.event.OnChunkLoaded;
 
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class StateLoading implements GameState {
 
@@ -69,6 +77,12 @@ public class StateLoading implements GameState {
     private NetworkMode netMode;
     private Queue<LoadProcess> loadProcesses = Queues.newArrayDeque();
     private LoadProcess current;
+    private boolean currentBegun;
+    private Stopwatch currentStopwatch;
+    private final Map<Class<? extends LoadProcess>, BackgroundLoadProcess> backgroundProcesses = Maps.newHashMap();
+    private ExecutorService backgroundExecutor;
+    private final Map<LoadProcess, Long> processDurations = Maps.newLinkedHashMap();
+    private Stopwatch loadingStopwatch;
     private JoinStatus joinStatus;
 
     private NUIManager nuiManager;
@@ -108,6 +122,13 @@ public void init(GameEngine engine) {
         CoreRegistry.setContext(context);
 
         config = context.get(Config.class);
+        if (config.getSystem().isParallelLoadingEnabled()) {
+            backgroundExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                    .setNameFormat("Loading-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+        loadingStopwatch = Stopwatch.createStarted();
 
         this.nuiManager = new NUIManagerInternal((TerasologyCanvasRenderer) context.get(CanvasRenderer.class), context);
         context.put(NUIManager.class, nuiManager);
@@ -176,8 +197,9 @@ private void initHost() {
         loadProcesses.add(new InitialiseCommandSystem(context));
         loadProcesses.add(new LoadExtraBlockData(context));
         loadProcesses.add(new InitialiseWorld(gameManifest, context));
-        loadProcesses.add(new RegisterBlockFamilies(context));
         loadProcesses.add(new EnsureSaveGameConsistency(context));
+        loadProcesses.add(new PrefetchGlobalStore(context));
+        loadProcesses.add(new RegisterBlockFamilies(context));
         loadProcesses.add(new InitialisePhysics(context));
         loadProcesses.add(new InitialiseSystems(context));
         loadProcesses.add(new PreBeginSystems(context));
@@ -208,19 +230,72 @@ private void initHost() {
     private void popStep() {
         if (current != null) {
             progress += current.getExpectedCost();
+            processDurations.put(current, currentStopwatch.elapsed(TimeUnit.MILLISECONDS));
         }
         current = null;
         if (!loadProcesses.isEmpty()) {
             current = loadProcesses.remove();
-            logger.debug(current.getMessage());
-            current.begin();
+            currentBegun = false;
+            beginCurrentIfReady();
         }
     }
 
+    /**
+     * Begins the current process, unless background processes it depends on are still running.
+     *
+     * @return Whether the current process has begun
+     */
+    private boolean beginCurrentIfReady() {
+        if (currentBegun) {
+            return true;
+        }
+        for (Class<? extends LoadProcess> dependency : current.getDependencies()) {
+            BackgroundLoadProcess backgroundProcess = backgroundProcesses.get(dependency);
+            if (backgroundProcess != null && !backgroundProcess.isFinished()) {
+                return false;
+            }
+        }
+        logger.debug(current.getMessage());
+        currentBegun = true;
+        currentStopwatch = Stopwatch.createStarted();
+        current.begin();
+        currentStopwatch.stop();
+        if (current instanceof BackgroundLoadProcess) {
+            BackgroundLoadProcess backgroundProcess = (BackgroundLoadProcess) current;
+            backgroundProcesses.put(backgroundProcess.getClass(), backgroundProcess);
+            if (backgroundExecutor != null) {
+                backgroundProcess.beginInBackground(backgroundExecutor);
+            }
+        }
+        return true;
+    }
+
+    private boolean areBackgroundProcessesFinished() {
+        return backgroundProcesses.values().stream().allMatch(BackgroundLoadProcess::isFinished);
+    }
+
+    /**
+     * Logs how long each load process took, not counting the time spent rendering or waiting for other processes.
+     */
+    private void logProcessDurations() {
+        backgroundProcesses.values().forEach(process -> processDurations.put(process, process.getDurationInMs()));
+        StringBuilder durations = new StringBuilder();
+        processDurations.entrySet().stream()
+                .sorted(Map.Entry.<LoadProcess, Long>comparingByValue().reversed())
+                .forEach(entry -> durations.append(String.format("%n%8d ms  %s%s", entry.getValue(),
+                        entry.getKey().getMessage(),
+                        backgroundExecutor != null && backgroundProcesses.containsValue(entry.getKey())
+                                ? " (background)" : "")));
+        logger.info("Loading took {} ms:{}", loadingStopwatch.elapsed(TimeUnit.MILLISECONDS), durations);
+    }
+
     @Override
     public void dispose(boolean shuttingDown) {
         EngineTime time = (EngineTime) context.get(Time.class);
         time.setPaused(false);
+        if (backgroundExecutor != null) {
+            backgroundExecutor.shutdownNow();
+        }
     }
 
     @Override
@@ -232,24 +307,37 @@ public void update(float delta) {
         GameEngine gameEngine = context.get(GameEngine.class);
         EngineTime time = (EngineTime) context.get(Time.class);
         long startTime = time.getRealTimeInMs();
-        while (current != null && time.getRealTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
-            try {
-                if (current.step()) {
+        boolean finished;
+        try {
+            while (current != null && time.getRealTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
+                if (!beginCurrentIfReady()) {
+                    break;
+                }
+                currentStopwatch.start();
+                boolean done = current.step();
+                currentStopwatch.stop();
+                if (done) {
                     popStep();
                 }
-            } catch (Exception e) {
-                logger.error("Error while loading {}", current, e);
-                String errorMessage = String.format("Failed to load game. There was an error during \"%s\".",
-                        current == null ? "the last part" : current.getMessage());
-                gameEngine.changeState(new StateMainMenu(errorMessage));
-                CrashReporter.report(e, LoggingContext.getLoggingPath());
-                return;
             }
+            finished = current == null && areBackgroundProcessesFinished();
+        } catch (Exception e) {
+            logger.error("Error while loading {}", current, e);
+            String errorMessage = String.format("Failed to load game. There was an error during \"%s\".",
+                    current == null ? "the last part" : current.getMessage());
+            gameEngine.changeState(new StateMainMenu(errorMessage));
+            CrashReporter.report(e, LoggingContext.getLoggingPath());
+            return;
         }
-        if (current == null) {
+        if (finished) {
+            logProcessDurations();
             nuiManager.closeScreen(loadingScreen);
             nuiManager.setHUDVisible(true);
             context.get(GameEngine.class).changeState(new StateIngame(gameManifest, context));
+        } else if (current == null) {
+            // only background processes are left
+            loadingScreen.updateStatus("Finishing ...", 1f);
+            nuiManager.update(delta);
         } else {
             float progressValue = (progress + current.getExpectedCost() * current.getProgress()) / maxProgress;
             loadingScreen.updateStatus(current.getMessage(), progressValue);
@@ -35,6 +35,7 @@
 import org.terasology.rendering.nui.internal.TerasologyCanvasRenderer;
 import org.terasology.rendering.nui.layers.mainMenu.LaunchPopup;
 import org.terasology.rendering.nui.layers.mainMenu.MessagePopup;
+import org.terasology.rendering.nui.layers.mainMenu.preview.FacetLayerPreview;
 import org.terasology.telemetry.TelemetryScreen;
 import org.terasology.telemetry.TelemetryUtils;
 import org.terasology.telemetry.logstash.TelemetryLogstashAppender;
@@ -180,6 +181,8 @@ public void dispose(boolean shuttingDown) {
         if (entityManager != null) {
             entityManager.clear();
         }
+        // the previewed world generators are torn down together with the main menu
+        FacetLayerPreview.clearTileCache();
     }
 
     private void playBackgroundMusic() {
@@ -36,12 +36,15 @@
 import org.terasology.rendering.world.WorldRenderer;
 import org.terasology.utilities.random.FastRandom;
 import org.terasology.world.BlockEntityRegistry;
+import org.terasology.world.WorldChangeListener;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.blockdata.TeraOffHeapArray;
 import org.terasology.world.chunks.localChunkProvider.LocalChunkProvider;
 import org.terasology.world.chunks.localChunkProvider.RelevanceSystem;
+import org.terasology.world.generation.BaseFacetedWorldGenerator;
 import org.terasology.world.generator.UnresolvedWorldGeneratorException;
 import org.terasology.world.generator.WorldGenerator;
 import org.terasology.world.generator.internal.WorldGeneratorManager;
@@ -57,6 +60,7 @@
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
 
 public class InitialiseWorld extends SingleStepLoadProcess {
 
@@ -98,6 +102,10 @@ public boolean step() {
             worldGenerator = WorldGeneratorManager.createGenerator(worldInfo.getWorldGenerator(), context);
             // setting the world seed will create the world builder
             worldGenerator.setWorldSeed(worldInfo.getSeed());
+            if (context.get(Config.class).getSystem().isParallelFacetProvidersEnabled()
+                    && worldGenerator instanceof BaseFacetedWorldGenerator) {
+                ((BaseFacetedWorldGenerator) worldGenerator).setFacetProviderPool(ForkJoinPool.commonPool());
+            }
             context.put(WorldGenerator.class, worldGenerator);
         } catch (UnresolvedWorldGeneratorException e) {
             logger.error("Unable to load world generator {}. Available world generators: {}",
@@ -130,7 +138,12 @@ public boolean step() {
                 worldGenerator,
                 blockManager,
                 extraDataManager,
-                Maps.newConcurrentMap());
+                Maps.newConcurrentMap(),
+                context.get(Config.class).getSystem().getUnloadedChunkCacheSizeInMb() * 1024L * 1024L);
+        chunkProvider.setActivationBudget(context.get(Config.class).getSystem().getChunkActivationBudgetInMs());
+        if (context.get(Config.class).getSystem().isOffHeapChunkStorageEnabled()) {
+            chunkProvider.setOffHeapAllocator(TeraOffHeapArray.getSharedAllocator());
+        }
         RelevanceSystem relevanceSystem = new RelevanceSystem(chunkProvider);
         context.put(RelevanceSystem.class, relevanceSystem);
         context.get(ComponentSystemManager.class).register(relevanceSystem, "engine:relevanceSystem");
@@ -140,6 +153,10 @@ public boolean step() {
         EntityAwareWorldProvider entityWorldProvider = new EntityAwareWorldProvider(worldProviderCore, context);
         WorldProvider worldProvider = new WorldProviderWrapper(entityWorldProvider, extraDataManager);
         context.put(WorldProvider.class, worldProvider);
+        if (storageManager instanceof WorldChangeListener) {
+            // journals block changes between saves
+            worldProvider.registerListener((WorldChangeListener) storageManager);
+        }
         chunkProvider.setBlockEntityRegistry(entityWorldProvider);
         context.put(BlockEntityRegistry.class, entityWorldProvider);
         context.get(ComponentSystemManager.class).register(entityWorldProvider, "engine:BlockEntityRegistry");
@@ -16,15 +16,18 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.context.Context;
+import org.terasology.engine.modes.LoadProcess;
 import org.terasology.engine.modes.SingleStepLoadProcess;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.persistence.StorageManager;
 
 import java.io.IOException;
+import java.util.Set;
 
 public class LoadEntities extends SingleStepLoadProcess {
 
@@ -66,5 +69,10 @@ public int getExpectedCost() {
         return 1;
     }
 
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(PrefetchGlobalStore.class);
+    }
+
 
 }
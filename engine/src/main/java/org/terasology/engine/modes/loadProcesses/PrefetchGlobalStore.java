@@ -0,0 +1,42 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.engine.modes.loadProcesses;
+
+import org.terasology.context.Context;
+import org.terasology.engine.modes.BackgroundLoadProcess;
+import org.terasology.persistence.StorageManager;
+
+/**
+ * Reads the global store while the systems get initialised, so {@link LoadEntities} only needs to restore the
+ * entities. Must run after {@link EnsureSaveGameConsistency}, which may still change the stored files.
+ */
+public class PrefetchGlobalStore extends BackgroundLoadProcess {
+
+    private final Context context;
+    private StorageManager storageManager;
+
+    public PrefetchGlobalStore(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Reading Entities";
+    }
+
+    @Override
+    public void begin() {
+        // the context is not thread safe, so it is only accessed from the main thread
+        storageManager = context.get(StorageManager.class);
+    }
+
+    @Override
+    protected void load() {
+        storageManager.prefetchGlobalStore();
+    }
+
+    @Override
+    public int getExpectedCost() {
+        return 1;
+    }
+}
@@ -98,4 +98,16 @@ public interface EntityManager extends EntityPool {
 
     boolean moveToPool(long id, EngineEntityPool pool);
 
+    /**
+     * Returns the entities with all the provided component types, like {@link #getEntitiesWith(Class[])}, but kept up
+     * to date as components get added and removed instead of looked up on every call. Meant for systems going over
+     * the same entities every frame.
+     * <p>
+     * Views are shared by everyone asking for the same component types, and live as long as the entity manager.
+     *
+     * @param componentClasses At least one component type
+     * @return A live view of the entities with all the component types
+     */
+    EntityView getEntityView(Class<? extends Component>... componentClasses);
+
 }
@@ -0,0 +1,23 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.entitySystem.entity;
+
+/**
+ * The entities having all of a set of components, kept up to date as components get added and removed. See
+ * {@link EntityManager#getEntityView(Class[])}.
+ * <p>
+ * Components and entities may be added, removed or destroyed while iterating a view. Entities which lost one of the
+ * components are skipped, entities which gained them show up in the next iteration.
+ */
+public interface EntityView extends Iterable<EntityRef> {
+
+    /**
+     * @return The number of entities in the view
+     */
+    int size();
+
+    /**
+     * @return Whether the entity has all components of the view
+     */
+    boolean contains(EntityRef entity);
+}
@@ -0,0 +1,112 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityView;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * An {@link EntityView} maintained from the component lifecycle notifications of the entity manager.
+ * <p>
+ * Iterating goes over a snapshot of the entities, which is only rebuilt after the view changed.
+ */
+final class CachedEntityView implements EntityView, EntityChangeSubscriber {
+
+    private final Set<Class<? extends Component>> componentClasses;
+    private final TLongObjectMap<EntityRef> entities = new TLongObjectHashMap<>();
+    private ImmutableList<EntityRef> snapshot;
+
+    /**
+     * @param componentClasses the components the entities of the view have.
+     * @param initialEntities  the entities which have the components right now.
+     */
+    CachedEntityView(Set<Class<? extends Component>> componentClasses, Iterable<EntityRef> initialEntities) {
+        this.componentClasses = componentClasses;
+        for (EntityRef entity : initialEntities) {
+            entities.put(entity.getId(), entity);
+        }
+    }
+
+    @Override
+    public int size() {
+        return entities.size();
+    }
+
+    @Override
+    public boolean contains(EntityRef entity) {
+        return entities.containsKey(entity.getId());
+    }
+
+    @Override
+    public Iterator<EntityRef> iterator() {
+        if (snapshot == null) {
+            snapshot = ImmutableList.copyOf(entities.valueCollection());
+        }
+        return Iterators.filter(snapshot.iterator(), this::contains);
+    }
+
+    /**
+     * Forgets all entities, for when the entity manager got cleared without notifications.
+     */
+    void clear() {
+        entities.clear();
+        snapshot = null;
+    }
+
+    @Override
+    public void onEntityComponentAdded(EntityRef entity, Class<? extends Component> component) {
+        if (componentClasses.contains(component) && !contains(entity) && hasAllComponents(entity)) {
+            entities.put(entity.getId(), entity);
+            snapshot = null;
+        }
+    }
+
+    @Override
+    public void onEntityComponentChange(EntityRef entity, Class<? extends Component> component) {
+    }
+
+    @Override
+    public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component> component) {
+        // the entity still has the component at this point
+        if (componentClasses.contains(component)) {
+            remove(entity);
+        }
+    }
+
+    @Override
+    public void onReactivation(EntityRef entity, Collection<Component> components) {
+        if (!contains(entity) && hasAllComponents(entity)) {
+            entities.put(entity.getId(), entity);
+            snapshot = null;
+        }
+    }
+
+    @Override
+    public void onBeforeDeactivation(EntityRef entity, Collection<Component> components) {
+        remove(entity);
+    }
+
+    private void remove(EntityRef entity) {
+        if (entities.remove(entity.getId()) != null) {
+            snapshot = null;
+        }
+    }
+
+    private boolean hasAllComponents(EntityRef entity) {
+        for (Class<? extends Component> componentClass : componentClasses) {
+            if (!entity.hasComponent(componentClass)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
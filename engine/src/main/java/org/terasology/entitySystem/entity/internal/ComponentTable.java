@@ -19,6 +19,8 @@
 import com.google.common.collect.Maps;
 import gnu.trove.iterator.TLongIterator;
 import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
 import gnu.trove.map.TLongObjectMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
 import gnu.trove.set.TLongSet;
@@ -92,6 +94,46 @@ public int getComponentCount(Class<? extends Component> componentClass) {
         return (map == null) ? 0 : map.size();
     }
 
+    /**
+     * Looks up the entities having all the given components. Only the entities with the rarest of the components get
+     * checked, so the cost does not depend on the total number of entities.
+     *
+     * @return the ids of the entities which have all the given components.
+     */
+    public long[] getEntityIdsWith(Class<? extends Component>[] componentClasses) {
+        List<TLongObjectMap<Component>> entityMaps = Lists.newArrayListWithCapacity(componentClasses.length);
+        TLongObjectMap<Component> smallestEntityMap = null;
+        for (Class<? extends Component> componentClass : componentClasses) {
+            TLongObjectMap<Component> entityMap = store.get(componentClass);
+            if (entityMap == null || entityMap.isEmpty()) {
+                return new long[0];
+            }
+            if (smallestEntityMap == null || entityMap.size() < smallestEntityMap.size()) {
+                smallestEntityMap = entityMap;
+            }
+            entityMaps.add(entityMap);
+        }
+        if (smallestEntityMap == null) {
+            return new long[0];
+        }
+        if (entityMaps.size() == 1) {
+            return smallestEntityMap.keys();
+        }
+
+        TLongList entityIds = new TLongArrayList(smallestEntityMap.size());
+        TLongObjectMap<Component> candidates = smallestEntityMap;
+        candidates.forEachKey(entityId -> {
+            for (TLongObjectMap<Component> entityMap : entityMaps) {
+                if (entityMap != candidates && !entityMap.containsKey(entityId)) {
+                    return true;
+                }
+            }
+            entityIds.add(entityId);
+            return true;
+        });
+        return entityIds.toArray();
+    }
+
     /**
      *
      * @return an iterable that should be only used for iteration over the components. It can't be used to remove
@@ -16,11 +16,13 @@
 package org.terasology.entitySystem.entity.internal;
 
 import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityBuilder;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.LowLevelEntityManager;
 import org.terasology.entitySystem.event.internal.EventSystem;
 import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface EngineEntityManager extends LowLevelEntityManager, EngineEntityPool {
@@ -48,6 +50,18 @@ public interface EngineEntityManager extends LowLevelEntityManager, EngineEntity
      */
     EntityRef createEntityWithId(long id, Iterable<Component> components);
 
+    /**
+     * Creates the entities of several prepared entity builders in one go. The builders can be set up on any thread,
+     * e.g. while generating a chunk, whereas the entities must be created on the main thread.
+     * <br><br>
+     * All entities are stored first and the lifecycle events are sent for the whole batch afterwards, see
+     * {@link EntityBuilder#buildAll(List)}.
+     *
+     * @param builders the builders of the entities to create
+     * @return The entityRefs of the new entities, in the order of the builders
+     */
+    List<EntityRef> createBatch(List<EntityBuilder> builders);
+
     /**
      * Creates an entity ref with the given id. This is used when loading components with references.
      *
@@ -96,6 +110,31 @@ public interface EngineEntityManager extends LowLevelEntityManager, EngineEntity
      */
     void subscribeForDestruction(EntityDestroySubscriber subscriber);
 
+    /**
+     * Subscribes to all changes related to entities, like {@link #subscribeForChanges}, except that component changes
+     * are collected and delivered by {@link #flushComponentChanges()}, once per changed entity and component. Meant
+     * for engine systems which do costly work per change, but don't need to react before the end of the frame.
+     *
+     * @param subscriber
+     */
+    void subscribeForCoalescedChanges(EntityChangeSubscriber subscriber);
+
+    /**
+     * Delivers the component changes collected since the last call to the coalesced change subscribers, and sends the
+     * collected {@link org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent} events if these are
+     * coalesced. Changes of components which got removed in the meantime are dropped, as the removal got delivered
+     * already. Changes made while delivering are delivered by the next call.
+     * <p>
+     * Called once per frame, after the systems got updated.
+     */
+    void flushComponentChanges();
+
+    /**
+     * @param coalesced Whether OnChangedComponent events get collected and sent by {@link #flushComponentChanges()},
+     *                  instead of being sent whenever a component gets saved
+     */
+    void setComponentChangeEventsCoalesced(boolean coalesced);
+
     /**
      * Unsubscribes from changes relating to entities. Used by engine systems.
      *
@@ -0,0 +1,151 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.Lists;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.entitySystem.entity.EntityBuilder;
+import org.terasology.entitySystem.entity.EntityManager;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Collects entity builders which are set up off the main thread, and creates their entities on the main thread in
+ * batches, within a time budget per frame.
+ * <p>
+ * The builders are queued per chunk, so the entities of a chunk can be created right away with
+ * {@link #commitChunk(Vector3ic)} before the chunk gets unloaded. Otherwise they would be created later on, in an
+ * unloaded chunk.
+ * <p>
+ * Builders can be added from any thread. {@link #commit(long)} and {@link #commitChunk(Vector3ic)} must be called
+ * from the main thread.
+ */
+public class EntityCreationQueue {
+
+    private static final int BATCH_SIZE = 16;
+
+    private final EntityManager entityManager;
+    private final Map<Vector3ic, Queue<EntityBuilder>> pending = new LinkedHashMap<>();
+    private int size;
+
+    public EntityCreationQueue(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param chunkPos the position of the chunk the entity belongs to
+     * @param builder  the builder of the entity
+     */
+    public synchronized void add(Vector3ic chunkPos, EntityBuilder builder) {
+        getQueue(chunkPos).add(builder);
+        size++;
+    }
+
+    /**
+     * @param chunkPos the position of the chunk the entities belong to
+     * @param builders the builders of the entities
+     */
+    public synchronized void addAll(Vector3ic chunkPos, Collection<EntityBuilder> builders) {
+        if (builders.isEmpty()) {
+            return;
+        }
+        getQueue(chunkPos).addAll(builders);
+        size += builders.size();
+    }
+
+    /**
+     * Creates the entities of queued builders, chunk by chunk in the order they were added, until the queue is empty
+     * or the budget is used up. At least one batch is created per call, so the queue drains even on slow frames.
+     *
+     * @param budgetNanos the time to spend at most, in nanoseconds
+     * @return the number of created entities
+     */
+    public int commit(long budgetNanos) {
+        long start = System.nanoTime();
+        int created = 0;
+        List<EntityBuilder> batch = Lists.newArrayListWithCapacity(BATCH_SIZE);
+        do {
+            pollBatch(batch);
+            if (batch.isEmpty()) {
+                break;
+            }
+            create(batch);
+            created += batch.size();
+            batch.clear();
+        } while (System.nanoTime() - start < budgetNanos);
+        return created;
+    }
+
+    /**
+     * Creates the entities of all builders queued for the given chunk, regardless of the budget.
+     *
+     * @param chunkPos the position of the chunk
+     * @return the number of created entities
+     */
+    public int commitChunk(Vector3ic chunkPos) {
+        Queue<EntityBuilder> builders;
+        synchronized (this) {
+            builders = pending.remove(chunkPos);
+            if (builders == null) {
+                return 0;
+            }
+            size -= builders.size();
+        }
+        List<EntityBuilder> batch = Lists.newArrayList(builders);
+        create(batch);
+        return batch.size();
+    }
+
+    /**
+     * @return the number of builders waiting for their entities to be created
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Discards all queued builders without creating their entities.
+     */
+    public synchronized void clear() {
+        pending.clear();
+        size = 0;
+    }
+
+    private Queue<EntityBuilder> getQueue(Vector3ic chunkPos) {
+        return pending.computeIfAbsent(new Vector3i(chunkPos), pos -> new ArrayDeque<>());
+    }
+
+    private synchronized void pollBatch(List<EntityBuilder> batch) {
+        Iterator<Queue<EntityBuilder>> chunks = pending.values().iterator();
+        while (batch.size() < BATCH_SIZE && chunks.hasNext()) {
+            Queue<EntityBuilder> builders = chunks.next();
+            EntityBuilder builder;
+            while (batch.size() < BATCH_SIZE && (builder = builders.poll()) != null) {
+                batch.add(builder);
+            }
+            if (builders.isEmpty()) {
+                chunks.remove();
+            }
+        }
+        size -= batch.size();
+    }
+
+    private void create(List<EntityBuilder> batch) {
+        if (entityManager instanceof EngineEntityManager) {
+            ((EngineEntityManager) entityManager).createBatch(batch);
+        } else {
+            batch.forEach(EntityBuilder::build);
+        }
+    }
+}
@@ -16,10 +16,13 @@
 package org.terasology.entitySystem.entity.internal;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.set.TLongSet;
@@ -32,6 +35,7 @@
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityBuilder;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityView;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
 import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
@@ -74,7 +78,11 @@ public class PojoEntityManager implements EngineEntityManager {
     private Map<EngineEntityPool, Long> poolCounts = new HashMap<EngineEntityPool, Long>();
 
     private Set<EntityChangeSubscriber> subscribers = Sets.newLinkedHashSet();
+    private Set<EntityChangeSubscriber> coalescedChangeSubscribers = Sets.newLinkedHashSet();
+    private SetMultimap<Long, Class<? extends Component>> changedComponents = LinkedHashMultimap.create();
+    private boolean componentChangeEventsCoalesced;
     private Set<EntityDestroySubscriber> destroySubscribers = Sets.newLinkedHashSet();
+    private final Map<Set<Class<? extends Component>>, CachedEntityView> entityViews = Maps.newHashMap();
     private EventSystem eventSystem;
     private PrefabManager prefabManager;
     private ComponentLibrary componentLibrary;
@@ -131,6 +139,8 @@ public void clear() {
         sectorManager.clear();
         nextEntityId = 1;
         loadedIds.clear();
+        entityViews.values().forEach(CachedEntityView::clear);
+        changedComponents.clear();
     }
 
     @Override
@@ -289,6 +299,17 @@ public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... c
                 getCurrentWorldPool().getEntitiesWith(componentClasses), sectorManager.getEntitiesWith(componentClasses));
     }
 
+    @SafeVarargs
+    @Override
+    public final EntityView getEntityView(Class<? extends Component>... componentClasses) {
+        Preconditions.checkArgument(componentClasses.length > 0, "An entity view needs at least one component type");
+        return entityViews.computeIfAbsent(ImmutableSet.copyOf(componentClasses), classes -> {
+            CachedEntityView view = new CachedEntityView(classes, getEntitiesWith(componentClasses));
+            subscribeForChanges(view);
+            return view;
+        });
+    }
+
     @Override
     public int getActiveEntityCount() {
         if (isWorldPoolGlobalPool()) {
@@ -406,6 +427,11 @@ public EntityRef createEntityWithId(long id, Iterable<Component> components) {
         return builder.build();
     }
 
+    @Override
+    public List<EntityRef> createBatch(List<EntityBuilder> builders) {
+        return EntityBuilder.buildAll(builders);
+    }
+
     @Override
     public void subscribeForChanges(EntityChangeSubscriber subscriber) {
         subscribers.add(subscriber);
@@ -416,9 +442,47 @@ public void subscribeForDestruction(EntityDestroySubscriber subscriber) {
         destroySubscribers.add(subscriber);
     }
 
+    @Override
+    public void subscribeForCoalescedChanges(EntityChangeSubscriber subscriber) {
+        subscribers.add(subscriber);
+        coalescedChangeSubscribers.add(subscriber);
+    }
+
     @Override
     public void unsubscribe(EntityChangeSubscriber subscriber) {
         subscribers.remove(subscriber);
+        coalescedChangeSubscribers.remove(subscriber);
+    }
+
+    @Override
+    public void setComponentChangeEventsCoalesced(boolean coalesced) {
+        if (componentChangeEventsCoalesced && !coalesced) {
+            flushComponentChanges();
+        }
+        componentChangeEventsCoalesced = coalesced;
+    }
+
+    @Override
+    public void flushComponentChanges() {
+        if (changedComponents.isEmpty()) {
+            return;
+        }
+        SetMultimap<Long, Class<? extends Component>> changes = changedComponents;
+        changedComponents = LinkedHashMultimap.create();
+        for (Map.Entry<Long, Class<? extends Component>> change : changes.entries()) {
+            long entityId = change.getKey();
+            Component component = getComponent(entityId, change.getValue());
+            if (component == null) {
+                continue;
+            }
+            EntityRef entity = getEntity(entityId);
+            for (EntityChangeSubscriber subscriber : coalescedChangeSubscribers) {
+                subscriber.onEntityComponentChange(entity, change.getValue());
+            }
+            if (componentChangeEventsCoalesced && eventSystem != null) {
+                eventSystem.send(entity, OnChangedComponent.newInstance(), component);
+            }
+        }
     }
 
     @Override
@@ -568,7 +632,7 @@ public <T extends Component> T addComponent(long entityId, T component) {
                 eventSystem.send(entityRef, OnAddedComponent.newInstance(), component);
                 eventSystem.send(entityRef, OnActivatedComponent.newInstance(), component);
             } else {
-                eventSystem.send(entityRef, OnChangedComponent.newInstance(), component);
+                sendChangedComponentEvent(entityRef, component);
             }
         }
 
@@ -618,7 +682,7 @@ public void saveComponent(long entityId, Component component) {
                 eventSystem.send(entityRef, OnAddedComponent.newInstance(), component);
                 eventSystem.send(entityRef, OnActivatedComponent.newInstance(), component);
             } else {
-                eventSystem.send(entityRef, OnChangedComponent.newInstance(), component);
+                sendChangedComponentEvent(entityRef, component);
             }
         }
         if (!oldComponent.isPresent()) {
@@ -735,7 +799,20 @@ protected void notifyComponentRemoved(EntityRef changedEntity, Class<? extends C
 
     protected void notifyComponentChanged(EntityRef changedEntity, Class<? extends Component> component) {
         for (EntityChangeSubscriber subscriber : subscribers) {
-            subscriber.onEntityComponentChange(changedEntity, component);
+            if (!coalescedChangeSubscribers.contains(subscriber)) {
+                subscriber.onEntityComponentChange(changedEntity, component);
+            }
+        }
+        if (!coalescedChangeSubscribers.isEmpty()) {
+            changedComponents.put(changedEntity.getId(), component);
+        }
+    }
+
+    private void sendChangedComponentEvent(EntityRef changedEntity, Component component) {
+        if (componentChangeEventsCoalesced) {
+            changedComponents.put(changedEntity.getId(), component.getClass());
+        } else {
+            eventSystem.send(changedEntity, OnChangedComponent.newInstance(), component);
         }
     }
 
@@ -15,7 +15,6 @@
  */
 package org.terasology.entitySystem.entity.internal;
 
-import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
 import org.joml.Quaternionfc;
 import org.joml.Vector3fc;
@@ -315,11 +314,16 @@ public EntityRef getEntity(long entityId) {
     @SafeVarargs
     @Override
     public final Iterable<EntityRef> getEntitiesWith(Class<? extends Component>... componentClasses) {
-        return () -> entityStore.keySet().stream()
-                //Keep entities which have all of the required components
+        if (componentClasses.length == 0) {
+            return () -> entityStore.keySet().stream()
+                    .map(id -> getEntity(id))
+                    .iterator();
+        }
+        return () -> Arrays.stream(componentStore.getEntityIdsWith(componentClasses))
+                //Skip entities which lost one of the required components since the iteration started
                 .filter(id -> Arrays.stream(componentClasses)
                         .allMatch(component -> componentStore.get(id, component) != null))
-                .map(id -> getEntity(id))
+                .mapToObj(id -> getEntity(id))
                 .iterator();
     }
 
@@ -331,7 +335,7 @@ public int getCountOfEntitiesWith(Class<? extends Component>[] componentClasses)
             case 1:
                 return componentStore.getComponentCount(componentClasses[0]);
             default:
-                return Lists.newArrayList(getEntitiesWith(componentClasses)).size();
+                return componentStore.getEntityIdsWith(componentClasses).length;
         }
     }
 
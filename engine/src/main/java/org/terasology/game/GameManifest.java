@@ -35,6 +35,7 @@
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +51,7 @@ public class GameManifest {
     private Map<String, Short> blockIdMap = Maps.newHashMap();
     private Map<String, WorldInfo> worlds = Maps.newHashMap();
     private List<NameVersion> modules = Lists.newArrayList();
+    private String chunkCompressionDictionary;
 
     public GameManifest() {
     }
@@ -120,6 +122,17 @@ public Iterable<WorldInfo> getWorlds() {
         return this.worlds.values();
     }
 
+    /**
+     * @return the preset dictionary the chunks of the game were compressed with, or null if none was used.
+     */
+    public byte[] getChunkCompressionDictionary() {
+        return chunkCompressionDictionary != null ? Base64.getDecoder().decode(chunkCompressionDictionary) : null;
+    }
+
+    public void setChunkCompressionDictionary(byte[] dictionary) {
+        this.chunkCompressionDictionary = dictionary != null ? Base64.getEncoder().encodeToString(dictionary) : null;
+    }
+
     public static void save(Path toFile, GameManifest gameManifest) throws IOException {
         try (Writer writer = Files.newBufferedWriter(toFile, TerasologyConstants.CHARSET)) {
             createGson().toJson(gameManifest, writer);
@@ -19,6 +19,7 @@
 import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityView;
 import org.terasology.entitySystem.entity.lifecycleEvents.OnAddedComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
@@ -37,10 +38,17 @@ public class LifespanSystem extends BaseComponentSystem implements UpdateSubscri
     @In
     private Time time;
 
+    private EntityView entitiesWithLifespan;
+
+    @Override
+    public void initialise() {
+        entitiesWithLifespan = entityManager.getEntityView(LifespanComponent.class);
+    }
+
     @Override
     public void update(float delta) {
         long currentTime = time.getGameTimeInMs();
-        for (EntityRef entity : entityManager.getEntitiesWith(LifespanComponent.class)) {
+        for (EntityRef entity : entitiesWithLifespan) {
             LifespanComponent lifespan = entity.getComponent(LifespanComponent.class);
             if (lifespan.deathTime < currentTime) {
                 entity.destroy();
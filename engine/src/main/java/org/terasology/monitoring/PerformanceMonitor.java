@@ -89,6 +89,17 @@ public static void endActivity() {
         instance.endActivity();
     }
 
+    /**
+     * Adds an execution time to the data of the current cycle without running an activity. This is used to report
+     * time which is known to the caller only afterwards, e.g. by how much a per-frame time budget was exceeded.
+     *
+     * @param activityName the name of the activity to assign the time to.
+     * @param timeInMs the time in milliseconds.
+     */
+    public static void recordExecutionTime(String activityName, long timeInMs) {
+        instance.recordExecutionTime(activityName, timeInMs);
+    }
+
     /**
      * Drops old information and updates the metrics. Should be called once per frame.
      */
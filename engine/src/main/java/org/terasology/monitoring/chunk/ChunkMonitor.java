@@ -22,6 +22,7 @@
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.blockdata.OffHeapSlabAllocator;
 
 import java.util.List;
 import java.util.Map;
@@ -87,6 +88,19 @@ public static void fireChunkDeflated(Chunk chunk, int oldSize, int newSize) {
         post(new ChunkMonitorEvent.Deflated(chunk.getPosition(new Vector3i()), oldSize, newSize));
     }
 
+    public static void fireChunkRedeflated(Chunk chunk, int oldSize, int newSize) {
+        Preconditions.checkNotNull(chunk, "The parameter 'chunk' must not be null");
+        post(new ChunkMonitorEvent.Redeflated(chunk.getPosition(new Vector3i()), oldSize, newSize));
+    }
+
+    public static void fireOffHeapUsageChanged(OffHeapSlabAllocator allocator, long chunkBytes) {
+        post(new ChunkMonitorEvent.OffHeapUsage(allocator, chunkBytes));
+    }
+
+    public static void fireOffHeapLeaksReclaimed(int reclaimed, OffHeapSlabAllocator allocator, long chunkBytes) {
+        post(new ChunkMonitorEvent.OffHeapLeaksReclaimed(reclaimed, allocator, chunkBytes));
+    }
+
     public static void fireChunkTessellated(Vector3i chunkPos, ChunkMesh mesh) {
         Preconditions.checkNotNull(chunkPos, "The parameter 'chunkPos' must not be null");
         post(new ChunkMonitorEvent.Tessellated(chunkPos, mesh));
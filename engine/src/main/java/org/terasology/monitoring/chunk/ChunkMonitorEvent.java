@@ -19,6 +19,7 @@
 import org.joml.Vector3i;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.blockdata.OffHeapSlabAllocator;
 
 public abstract class ChunkMonitorEvent {
 
@@ -94,6 +95,57 @@ public Deflated(Vector3i position, int oldSize, int newSize) {
         }
     }
 
+    /**
+     * A chunk got deflated again after edits inflated its data.
+     */
+    public static class Redeflated extends Deflated {
+
+        public Redeflated(Vector3i position, int oldSize, int newSize) {
+            super(position, oldSize, newSize);
+        }
+
+        public final int getReclaimedBytes() {
+            return oldSize - newSize;
+        }
+    }
+
+    /**
+     * The native memory used for chunk data changed.
+     */
+    public static class OffHeapUsage extends ChunkMonitorEvent {
+
+        public final long allocatedBytes;
+        public final long releasedBytes;
+        public final long slabBytes;
+        public final int leakCount;
+        /**
+         * The estimated size of the data of all loaded chunks, on and off the heap.
+         */
+        public final long chunkBytes;
+
+        public OffHeapUsage(OffHeapSlabAllocator allocator, long chunkBytes) {
+            Preconditions.checkNotNull(allocator, "The parameter 'allocator' must not be null");
+            this.allocatedBytes = allocator.getAllocatedBytes();
+            this.releasedBytes = allocator.getReleasedBytes();
+            this.slabBytes = allocator.getSlabBytes();
+            this.leakCount = allocator.getLeakCount();
+            this.chunkBytes = chunkBytes;
+        }
+    }
+
+    /**
+     * Off-heap chunk data got garbage collected without being released.
+     */
+    public static class OffHeapLeaksReclaimed extends OffHeapUsage {
+
+        public final int reclaimed;
+
+        public OffHeapLeaksReclaimed(int reclaimed, OffHeapSlabAllocator allocator, long chunkBytes) {
+            super(allocator, chunkBytes);
+            this.reclaimed = reclaimed;
+        }
+    }
+
     public static class Tessellated extends BasicChunkEvent {
 
         public final ChunkMeshInfo meshInfo;
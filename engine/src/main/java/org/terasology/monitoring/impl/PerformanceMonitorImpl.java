@@ -157,6 +157,14 @@ public void endActivity() {
         }
     }
 
+    @Override
+    public void recordExecutionTime(String activityName, long timeInMs) {
+        if (Thread.currentThread() != mainThread || timeInMs <= 0) {
+            return;
+        }
+        currentExecutionData.adjustOrPutValue(activityName, timeInMs, timeInMs);
+    }
+
     @Override
     public TObjectDoubleMap<String> getRunningMean() {
         TObjectDoubleMap<String> activityToMeanMap = new TObjectDoubleHashMap<>();
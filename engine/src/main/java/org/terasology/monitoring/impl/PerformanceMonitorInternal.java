@@ -29,6 +29,8 @@ public interface PerformanceMonitorInternal {
 
     void endActivity();
 
+    void recordExecutionTime(String activity, long timeInMs);
+
     TObjectDoubleMap<String> getRunningMean();
 
     TObjectDoubleMap<String> getDecayingSpikes();
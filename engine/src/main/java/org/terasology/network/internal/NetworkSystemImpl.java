@@ -558,7 +558,7 @@ public void connectToEntitySystem(EngineEntityManager newEntityManager, EventLib
             this.entityManager.unsubscribe(this);
         }
         this.entityManager = newEntityManager;
-        this.entityManager.subscribeForChanges(this);
+        this.entityManager.subscribeForCoalescedChanges(this);
         this.blockManager = context.get(BlockManager.class);
         this.ownershipHelper = new OwnershipHelper(newEntityManager.getComponentLibrary());
         this.storageManager = context.get(StorageManager.class);
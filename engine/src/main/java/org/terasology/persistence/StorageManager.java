@@ -33,6 +33,13 @@ public interface StorageManager {
      */
     void loadGlobalStore() throws IOException;
 
+    /**
+     * Reads the global store without restoring anything yet, so {@link #loadGlobalStore()} only needs to restore the
+     * entities. May be called on another thread than the one loading the global store, but not while it loads it.
+     * A failure to read the global store is reported by {@link #loadGlobalStore()}.
+     */
+    void prefetchGlobalStore();
+
     /**
      * Loads a saved player store
      *
@@ -41,8 +48,16 @@ public interface StorageManager {
      */
     PlayerStore loadPlayerStore(String playerId);
 
+    /**
+     * Requests a save without blocking. If a save is running, a follow-up save of the changes made since it started
+     * runs once it finished. Any further requests until then are coalesced into that follow-up save.
+     */
     void requestSaving();
 
+    /**
+     * Blocks until the running save, if any, finished and starts a new one. Only meant for shutting down the game,
+     * use {@link #requestSaving()} otherwise.
+     */
     void waitForCompletionOfPreviousSaveAndStartSaving();
 
     /**
@@ -52,6 +67,15 @@ public interface StorageManager {
      */
     ChunkStore loadChunkStore(Vector3i chunkPos);
 
+    /**
+     * Applies block changes which were made after the chunk got saved the last time, but got lost by an unclean
+     * shutdown and were recovered on load. Called for every chunk that got loaded or generated.
+     *
+     * @param chunk a chunk which is not active yet
+     */
+    default void restoreUnsavedChanges(Chunk chunk) {
+    }
+
     void finishSavingAndShutdown();
 
     /**
@@ -65,8 +89,22 @@ public interface StorageManager {
 
     /**
      * Deactivates the entities in the chunk and store the chunk a the next possible time.
+     *
+     * @return a store of the chunk as it is in memory, which restores the deactivated entities when the chunk gets
+     *         activated again without being loaded.
+     */
+    ChunkStore deactivateChunk(Chunk chunk);
+
+    /**
+     * Prepares a chunk returned by the store of {@link #deactivateChunk(Chunk)} for being activated again without
+     * being loaded. Must be called before the chunk gets modified again.
+     *
+     * @param chunk a deactivated chunk which is still in memory
+     * @return false if the chunk is part of a running save and must not be modified, it has to be loaded instead
      */
-    void deactivateChunk(Chunk chunk);
+    default boolean reviveChunk(Chunk chunk) {
+        return true;
+    }
 
     boolean isSaving();
 
@@ -17,11 +17,15 @@
 package org.terasology.persistence.internal;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.entity.internal.OwnershipHelper;
+import org.terasology.game.GameManifest;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.AABB;
 import org.terasology.math.JomlUtil;
@@ -38,16 +42,18 @@
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * An abstract implementation of {@link StorageManager} that is able
@@ -68,6 +74,11 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final OwnershipHelper helper;
 
     private boolean storeChunksInZips = true;
+    private StoredChunkIndex storedChunkIndex;
+    private final GlobalStoreShards globalStoreShards;
+    private volatile byte[] chunkCompressionDictionary;
+    private volatile StoredGlobalStore prefetchedGlobalStore;
+    private volatile IOException globalStorePrefetchFailure;
 
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips) {
@@ -79,18 +90,101 @@ public AbstractStorageManager(Path savePath, ModuleEnvironment environment, Engi
         this.extraDataManager = extraDataManager;
 
         this.storagePathProvider = new StoragePathProvider(savePath);
+        this.storedChunkIndex = new StoredChunkIndex(storagePathProvider, storeChunksInZips);
+        this.globalStoreShards = new GlobalStoreShards(storagePathProvider);
         this.helper = new OwnershipHelper(entityManager.getComponentLibrary());
+        this.chunkCompressionDictionary = loadChunkCompressionDictionary();
+    }
+
+    /**
+     * The dictionary is stored in its own file, which is written before any chunk uses it. Saves which only have it in
+     * their game manifest still get it from there.
+     *
+     * @return the preset dictionary stored chunks are compressed with, or null if the save has none.
+     */
+    protected final byte[] loadChunkCompressionDictionary() {
+        Path dictionaryPath = storagePathProvider.getChunkCompressionDictionaryPath();
+        if (Files.isRegularFile(dictionaryPath)) {
+            try {
+                return Files.readAllBytes(dictionaryPath);
+            } catch (IOException e) {
+                logger.error("Failed to read the chunk compression dictionary from {}", dictionaryPath, e);
+            }
+        }
+        Path manifestPath = storagePathProvider.getStoragePathDirectory().resolve(GameManifest.DEFAULT_FILE_NAME);
+        if (Files.isRegularFile(manifestPath)) {
+            try {
+                return GameManifest.load(manifestPath).getChunkCompressionDictionary();
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to read the chunk compression dictionary from {}", manifestPath, e);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void prefetchGlobalStore() {
+        try {
+            prefetchedGlobalStore = readGlobalStore();
+        } catch (IOException e) {
+            globalStorePrefetchFailure = e;
+        }
     }
 
     @Override
     public void loadGlobalStore() throws IOException {
+        StoredGlobalStore store = prefetchedGlobalStore;
+        IOException prefetchFailure = globalStorePrefetchFailure;
+        prefetchedGlobalStore = null;
+        globalStorePrefetchFailure = null;
+        if (prefetchFailure != null) {
+            throw new IOException("Failed to read the global store", prefetchFailure);
+        }
+        if (store == null) {
+            store = readGlobalStore();
+        }
+        if (store.header == null) {
+            return;
+        }
+
+        GlobalStoreLoader loader = new GlobalStoreLoader(environment, entityManager, prefabSerializer);
+        loader.load(store.header);
+        // the entity manager is not thread safe, so the shards are restored one after another
+        Map<Integer, TLongSet> loadedShards = Maps.newHashMap();
+        for (Map.Entry<Integer, EntityData.GlobalStore> shard : store.shards) {
+            loader.loadShard(shard.getValue());
+            TLongSet ids = new TLongHashSet(shard.getValue().getEntityCount());
+            shard.getValue().getEntityList().forEach(entityData -> ids.add(entityData.getId()));
+            loadedShards.put(shard.getKey(), ids);
+        }
+        globalStoreShards.markLoaded(loadedShards);
+    }
+
+    /**
+     * Reads and parses global.dat and the global entity shards, the latter in parallel. Touches no entities.
+     */
+    private StoredGlobalStore readGlobalStore() throws IOException {
         Path globalDataFile = storagePathProvider.getGlobalEntityStorePath();
-        if (Files.isRegularFile(globalDataFile)) {
-            try (InputStream in = new BufferedInputStream(Files.newInputStream(globalDataFile))) {
-                EntityData.GlobalStore store = EntityData.GlobalStore.parseFrom(in);
-                GlobalStoreLoader loader = new GlobalStoreLoader(environment, entityManager, prefabSerializer);
-                loader.load(store);
-            }
+        if (!Files.isRegularFile(globalDataFile)) {
+            return new StoredGlobalStore(null, Collections.emptyList());
+        }
+        EntityData.GlobalStore header = parseGlobalStore(globalDataFile);
+        try {
+            List<Map.Entry<Integer, EntityData.GlobalStore>> shards = globalStoreShards.listShardFiles().entrySet()
+                    .parallelStream()
+                    .map(shardFile -> Maps.immutableEntry(shardFile.getKey(), parseGlobalStore(shardFile.getValue())))
+                    .collect(Collectors.toList());
+            return new StoredGlobalStore(header, shards);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static EntityData.GlobalStore parseGlobalStore(Path file) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return EntityData.GlobalStore.parseFrom(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read global store file " + file, e);
         }
     }
 
@@ -108,9 +202,8 @@ public ChunkStore loadChunkStore(Vector3i chunkPos) {
         byte[] chunkData = loadCompressedChunk(chunkPos);
         ChunkStore store = null;
         if (chunkData != null) {
-            ByteArrayInputStream bais = new ByteArrayInputStream(chunkData);
-            try (GZIPInputStream gzipIn = new GZIPInputStream(bais)) {
-                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(gzipIn);
+            try {
+                EntityData.ChunkStore storeData = ChunkCodecs.decode(chunkData, chunkCompressionDictionary);
                 store = new ChunkStoreInternal(storeData, entityManager, blockManager, extraDataManager);
             } catch (IOException e) {
                 logger.error("Failed to read existing saved chunk {}", chunkPos);
@@ -149,9 +242,13 @@ public boolean isStoreChunksInZips() {
      */
     void setStoreChunksInZips(boolean storeChunksInZips) {
         this.storeChunksInZips = storeChunksInZips;
+        this.storedChunkIndex = new StoredChunkIndex(storagePathProvider, storeChunksInZips);
     }
 
     protected byte[] loadCompressedChunk(Vector3i chunkPos) {
+        if (!storedChunkIndex.mayContain(JomlUtil.from(chunkPos))) {
+            return null;
+        }
         if (isStoreChunksInZips()) {
             return loadChunkZip(chunkPos);
         } else {
@@ -214,6 +311,29 @@ protected void deactivateOrDestroyEntityRecursive(EntityRef entity) {
         }
     }
 
+    /**
+     * @return the preset dictionary stored chunks are compressed with, or null if the save has none.
+     */
+    protected byte[] getChunkCompressionDictionary() {
+        return chunkCompressionDictionary;
+    }
+
+    protected void setChunkCompressionDictionary(byte[] dictionary) {
+        this.chunkCompressionDictionary = dictionary;
+    }
+
+    protected OwnershipHelper getOwnershipHelper() {
+        return helper;
+    }
+
+    protected GlobalStoreShards getGlobalStoreShards() {
+        return globalStoreShards;
+    }
+
+    protected StoredChunkIndex getStoredChunkIndex() {
+        return storedChunkIndex;
+    }
+
     protected StoragePathProvider getStoragePathProvider() {
         return storagePathProvider;
     }
@@ -229,4 +349,18 @@ protected EngineEntityManager getEntityManager() {
     protected PrefabSerializer getPrefabSerializer() {
         return prefabSerializer;
     }
+
+    /**
+     * The parsed global store files. The header is null if no global store got saved yet.
+     */
+    private static final class StoredGlobalStore {
+        private final EntityData.GlobalStore header;
+        private final List<Map.Entry<Integer, EntityData.GlobalStore>> shards;
+
+        private StoredGlobalStore(EntityData.GlobalStore header,
+                                  List<Map.Entry<Integer, EntityData.GlobalStore>> shards) {
+            this.header = header;
+            this.shards = shards;
+        }
+    }
 }
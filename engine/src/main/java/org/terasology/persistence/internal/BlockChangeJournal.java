@@ -0,0 +1,532 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import gnu.trove.set.TShortSet;
+import gnu.trove.set.hash.TShortHashSet;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.ChunkMath;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of the block and extra data changes made since the last save.
+ * <p>
+ * Changes are buffered in memory and appended to the current journal segment by a background thread once per flush
+ * interval: all changes of an interval are written as one checksummed batch and synced once (group commit). A crash
+ * thus loses at most the changes of the last interval, independent of how often the game is saved.
+ * <p>
+ * Saving compacts the journal into the chunk stores. When the save snapshot is taken, {@link #rotate(Predicate)}
+ * starts a new segment, and once the save has been written, {@link #deleteSegmentsUpTo(int)} drops the segments
+ * covered by it. The sealed segment is written and synced by the background thread, so rotating does not block the
+ * main thread.
+ * <p>
+ * Batches are kept below {@link #MAX_BATCH_SIZE}, so a corrupt batch header is detected by its length before the batch
+ * gets read.
+ * <p>
+ * When a game is loaded after a crash, the segments left behind are read by {@link #recover()}. The recovered changes
+ * are applied by {@link #restoreChanges(ChunkImpl)} when their chunk is loaded or generated. Recovered changes which
+ * did not make it into a save yet are carried over into the new segment on every rotation.
+ * <p>
+ * Entity changes are not journaled, they are only persisted by saving.
+ */
+class BlockChangeJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockChangeJournal.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("blocks-(\\d+)\\.journal");
+
+    private static final byte BLOCK_URI_RECORD = 1;
+    private static final byte BLOCK_RECORD = 2;
+    private static final byte EXTRA_DATA_RECORD = 3;
+
+    /**
+     * Batch header: payload length and CRC32 of the payload.
+     */
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    /**
+     * The size at which the buffered changes are split into a new batch.
+     */
+    private static final int BATCH_SPLIT_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The largest valid batch payload: a split batch exceeds {@link #BATCH_SPLIT_SIZE} by one record at most.
+     */
+    private static final int MAX_BATCH_SIZE = 2 * BATCH_SPLIT_SIZE;
+
+    private final Path directory;
+    private final BlockManager blockManager;
+    private final long flushIntervalMs;
+
+    private final Object fileLock = new Object();
+    private FileChannel channel;
+    private int segment;
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(buffer);
+    private final List<byte[]> splitBatches = Lists.newArrayList();
+    private final TShortSet writtenBlockIds = new TShortHashSet();
+
+    private final ConcurrentMap<Vector3i, List<JournaledChange>> recoveredChanges = Maps.newConcurrentMap();
+    private final ConcurrentMap<Vector3i, List<JournaledChange>> restoredChanges = Maps.newConcurrentMap();
+
+    private ScheduledExecutorService flusher;
+    /**
+     * Writing the segment sealed by the last rotation, guarded by {@link #fileLock}.
+     */
+    private Future<?> sealing = CompletableFuture.completedFuture(null);
+
+    /**
+     * @param directory       the directory of the journal segments.
+     * @param flushIntervalMs the time between two group commits.
+     */
+    BlockChangeJournal(Path directory, BlockManager blockManager, long flushIntervalMs) {
+        this.directory = directory;
+        this.blockManager = blockManager;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /**
+     * Reads the segments left behind by a previous session. Must be called before {@link #open()}.
+     *
+     * @return the number of recovered changes.
+     */
+    int recover() throws IOException {
+        int count = 0;
+        for (Map.Entry<Integer, Path> entry : listSegments().entrySet()) {
+            segment = Math.max(segment, entry.getKey());
+            count += readSegment(entry.getValue());
+        }
+        if (count > 0) {
+            logger.info("Recovered {} block changes of {} chunks from the block change journal", count,
+                    recoveredChanges.size());
+        }
+        return count;
+    }
+
+    /**
+     * Starts a new segment and the background flushing.
+     */
+    void open() throws IOException {
+        Files.createDirectories(directory);
+        synchronized (fileLock) {
+            synchronized (this) {
+                segment++;
+                writtenBlockIds.clear();
+                recoveredChanges.values().forEach(this::appendAll);
+            }
+            channel = openSegment(segment);
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("Saving-Journal")
+                .setDaemon(true)
+                .build());
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void recordBlockChange(Vector3ic worldPos, Block block) {
+        try {
+            appendBlockChange(worldPos.x(), worldPos.y(), worldPos.z(), block);
+        } catch (IOException e) {
+            // as no real IO is involved this should not happen
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void recordExtraDataChange(int index, Vector3ic worldPos, int value) {
+        try {
+            appendExtraDataChange(worldPos.x(), worldPos.y(), worldPos.z(), index, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Applies the recovered changes of a chunk, which was just loaded or generated.
+     */
+    void restoreChanges(ChunkImpl chunk) {
+        Vector3i chunkPos = chunk.getPosition(new Vector3i());
+        List<JournaledChange> changes = recoveredChanges.remove(chunkPos);
+        if (changes == null) {
+            return;
+        }
+        Vector3i relativePos = new Vector3i();
+        for (JournaledChange change : changes) {
+            ChunkMath.calcRelativeBlockPos(change.x, change.y, change.z, relativePos);
+            if (change.block != null) {
+                chunk.setBlock(relativePos, change.block);
+            } else {
+                chunk.setExtraData(change.extraDataIndex, relativePos, change.value);
+            }
+        }
+        restoredChanges.put(chunkPos, changes);
+    }
+
+    /**
+     * Writes all buffered changes to the current segment and syncs it.
+     */
+    void flush() throws IOException {
+        synchronized (fileLock) {
+            if (channel != null) {
+                writeBatches(channel, takeBatches());
+            }
+        }
+    }
+
+    /**
+     * Seals the current segment and starts a new one. To be called when the snapshot of a save is taken.
+     * <p>
+     * Recovered changes are carried over into the new segment, unless they have been restored into a chunk which is
+     * part of the save. The remaining changes of the sealed segment are written by the background thread.
+     *
+     * @param includedInSave tells whether the chunk at the given position is part of the save.
+     * @return the sealed segment, to be passed to {@link #deleteSegmentsUpTo(int)} once the save is written.
+     */
+    int rotate(Predicate<Vector3ic> includedInSave) throws IOException {
+        synchronized (fileLock) {
+            List<byte[]> batches;
+            int sealedSegment;
+            synchronized (this) {
+                batches = takeBatches();
+                sealedSegment = segment++;
+                writtenBlockIds.clear();
+                restoredChanges.keySet().removeIf(includedInSave);
+                restoredChanges.values().forEach(this::appendAll);
+                recoveredChanges.values().forEach(this::appendAll);
+            }
+            FileChannel sealedChannel = channel;
+            channel = openSegment(segment);
+            sealing = flusher.submit(() -> seal(sealedChannel, batches));
+            return sealedSegment;
+        }
+    }
+
+    /**
+     * Deletes the given segment and all older ones.
+     */
+    void deleteSegmentsUpTo(int sealedSegment) throws IOException {
+        awaitSealing();
+        for (Map.Entry<Integer, Path> entry : listSegments().entrySet()) {
+            if (entry.getKey() <= sealedSegment) {
+                Files.deleteIfExists(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Drops all changes and segments, e.g. because the world gets deleted.
+     */
+    void discard() throws IOException {
+        awaitSealing();
+        synchronized (fileLock) {
+            synchronized (this) {
+                takeBatches();
+                writtenBlockIds.clear();
+                recoveredChanges.clear();
+                restoredChanges.clear();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+            deleteSegmentsUpTo(segment);
+            channel = openSegment(segment);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        awaitSealing();
+        synchronized (fileLock) {
+            if (channel == null) {
+                return;
+            }
+            writeBatches(channel, takeBatches());
+            boolean empty = channel.size() == 0;
+            channel.close();
+            channel = null;
+            if (empty) {
+                Files.deleteIfExists(segmentPath(segment));
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to write the block change journal", e);
+        }
+    }
+
+    private void seal(FileChannel sealedChannel, List<byte[]> batches) {
+        try {
+            writeBatches(sealedChannel, batches);
+            sealedChannel.close();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to seal a block change journal segment", e);
+        }
+    }
+
+    /**
+     * Waits until the segment sealed by the last rotation has been written.
+     */
+    private void awaitSealing() throws IOException {
+        Future<?> pending;
+        synchronized (fileLock) {
+            pending = sealing;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while sealing the block change journal segment");
+        } catch (ExecutionException e) {
+            // already logged by seal
+        }
+    }
+
+    private synchronized List<byte[]> takeBatches() {
+        splitBatch();
+        List<byte[]> result = Lists.newArrayList(splitBatches);
+        splitBatches.clear();
+        return result;
+    }
+
+    private void splitBatch() {
+        if (buffer.size() > 0) {
+            splitBatches.add(buffer.toByteArray());
+            buffer.reset();
+        }
+    }
+
+    private void endRecord() {
+        if (buffer.size() >= BATCH_SPLIT_SIZE) {
+            splitBatch();
+        }
+    }
+
+    private void appendAll(List<JournaledChange> changes) {
+        try {
+            for (JournaledChange change : changes) {
+                if (change.block != null) {
+                    appendBlockChange(change.x, change.y, change.z, change.block);
+                } else {
+                    appendExtraDataChange(change.x, change.y, change.z, change.extraDataIndex, change.value);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void appendBlockChange(int x, int y, int z, Block block) throws IOException {
+        short id = block.getId();
+        // Block ids are only stable within a game session, so the uri is stored once per segment
+        if (writtenBlockIds.add(id)) {
+            out.writeByte(BLOCK_URI_RECORD);
+            out.writeShort(id);
+            out.writeUTF(block.getURI().toString());
+        }
+        out.writeByte(BLOCK_RECORD);
+        out.writeInt(x);
+        out.writeInt(y);
+        out.writeInt(z);
+        out.writeShort(id);
+        endRecord();
+    }
+
+    private void appendExtraDataChange(int x, int y, int z, int index, int value) throws IOException {
+        out.writeByte(EXTRA_DATA_RECORD);
+        out.writeInt(x);
+        out.writeInt(y);
+        out.writeInt(z);
+        out.writeByte(index);
+        out.writeInt(value);
+        endRecord();
+    }
+
+    /**
+     * Appends the batches and syncs them once.
+     */
+    private static void writeBatches(FileChannel target, List<byte[]> payloads) throws IOException {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        for (byte[] payload : payloads) {
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer batch = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+            batch.putInt(payload.length);
+            batch.putLong(crc.getValue());
+            batch.put(payload);
+            batch.flip();
+            while (batch.hasRemaining()) {
+                target.write(batch);
+            }
+        }
+        target.force(false);
+    }
+
+    private int readSegment(Path path) throws IOException {
+        int count = 0;
+        Map<Short, Block> blocks = Maps.newHashMap();
+        long remaining = Files.size(path);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    long checksum = in.readLong();
+                    remaining -= HEADER_SIZE;
+                    if (length < 0 || length > MAX_BATCH_SIZE) {
+                        logger.warn("Ignoring corrupt end of block change journal segment {}", path);
+                        break;
+                    }
+                    if (length > remaining) {
+                        // the last batch got torn by the crash
+                        break;
+                    }
+                    remaining -= length;
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    if (crc.getValue() != checksum) {
+                        logger.warn("Ignoring corrupt end of block change journal segment {}", path);
+                        break;
+                    }
+                } catch (EOFException e) {
+                    // the last batch got torn by the crash
+                    break;
+                }
+                count += readBatch(payload, blocks);
+            }
+        }
+        return count;
+    }
+
+    private int readBatch(byte[] payload, Map<Short, Block> blocks) throws IOException {
+        int count = 0;
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        while (in.available() > 0) {
+            byte type = in.readByte();
+            if (type == BLOCK_URI_RECORD) {
+                short id = in.readShort();
+                String uri = in.readUTF();
+                Block block = blockManager.getBlock(uri);
+                if (block == null) {
+                    logger.warn("Block {} of the block change journal is unknown, its changes are dropped", uri);
+                }
+                blocks.put(id, block);
+                continue;
+            }
+            int x = in.readInt();
+            int y = in.readInt();
+            int z = in.readInt();
+            JournaledChange change;
+            if (type == BLOCK_RECORD) {
+                Block block = blocks.get(in.readShort());
+                if (block == null) {
+                    continue;
+                }
+                change = new JournaledChange(x, y, z, block, 0, 0);
+            } else if (type == EXTRA_DATA_RECORD) {
+                int index = in.readByte();
+                change = new JournaledChange(x, y, z, null, index, in.readInt());
+            } else {
+                throw new IOException("Unknown block change journal record " + type);
+            }
+            Vector3i chunkPos = ChunkMath.calcChunkPos(x, y, z, new Vector3i());
+            recoveredChanges.computeIfAbsent(chunkPos, pos -> Lists.newArrayList()).add(change);
+            count++;
+        }
+        return count;
+    }
+
+    private Map<Integer, Path> listSegments() throws IOException {
+        Map<Integer, Path> result = Maps.newTreeMap();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    result.put(Integer.parseInt(matcher.group(1)), path);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Path segmentPath(int segmentNumber) {
+        return directory.resolve("blocks-" + segmentNumber + ".journal");
+    }
+
+    private FileChannel openSegment(int segmentNumber) throws IOException {
+        return FileChannel.open(segmentPath(segmentNumber), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private static final class JournaledChange {
+        private final int x;
+        private final int y;
+        private final int z;
+        /**
+         * The new block, or null for a change of extra data.
+         */
+        private final Block block;
+        private final int extraDataIndex;
+        private final int value;
+
+        private JournaledChange(int x, int y, int z, Block block, int extraDataIndex, int value) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.block = block;
+            this.extraDataIndex = extraDataIndex;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import org.terasology.protobuf.EntityData;
+
+import java.io.IOException;
+
+/**
+ * Compresses stored chunks. The codec used to write a save can be changed at any time, as every codec can decode the
+ * chunks written by all codecs (see {@link ChunkCodecs#decode(byte[], byte[])}).
+ */
+public interface ChunkCodec {
+
+    /**
+     * @return the name used to select the codec in the system config.
+     */
+    String getName();
+
+    byte[] encode(EntityData.ChunkStore store);
+
+    EntityData.ChunkStore decode(byte[] data) throws IOException;
+}
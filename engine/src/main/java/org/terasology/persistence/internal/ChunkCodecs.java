@@ -0,0 +1,180 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import org.terasology.protobuf.EntityData;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Creates {@link ChunkCodec}s and decodes stored chunks independently of the codec they were written with.
+ */
+public final class ChunkCodecs {
+
+    public static final int DEFAULT_DICTIONARY_SIZE = 16 * 1024;
+
+    private static final int GRAM_LENGTH = 8;
+    private static final int MIN_SAMPLES_PER_GRAM = 2;
+
+    private ChunkCodecs() {
+    }
+
+    /**
+     * @param name       the name of the codec, as returned by {@link ChunkCodec#getName()}.
+     * @param level      the compression level, for the codecs supporting one.
+     * @param dictionary the preset dictionary, used by the dictionary codec only.
+     * @throws IllegalArgumentException if the name is unknown, or the dictionary codec is requested without dictionary.
+     */
+    public static ChunkCodec create(String name, int level, byte[] dictionary) {
+        if (name == null) {
+            throw new IllegalArgumentException("No chunk codec specified");
+        }
+        switch (name) {
+            case GzipChunkCodec.NAME:
+                return new GzipChunkCodec();
+            case DeflaterChunkCodec.NAME:
+                return new DeflaterChunkCodec(level, null);
+            case DeflaterChunkCodec.DICTIONARY_NAME:
+                if (dictionary == null) {
+                    throw new IllegalArgumentException("The " + name + " chunk codec needs a dictionary");
+                }
+                return new DeflaterChunkCodec(level, dictionary);
+            default:
+                throw new IllegalArgumentException("Unknown chunk codec " + name);
+        }
+    }
+
+    /**
+     * Decodes a chunk written by any codec: gzip streams are recognized by their magic number, everything else is
+     * read as zlib stream.
+     *
+     * @param dictionary the preset dictionary of the save, or null if it has none.
+     * @throws IOException if the data is corrupt or needs a different dictionary.
+     */
+    public static EntityData.ChunkStore decode(byte[] data, byte[] dictionary) throws IOException {
+        if (data.length >= 2 && (data[0] & 0xff) == 0x1f && (data[1] & 0xff) == 0x8b) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+                return EntityData.ChunkStore.parseFrom(in);
+            }
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] buffer = new byte[Math.max(256, data.length * 4)];
+            int length = 0;
+            while (!inflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int inflated = inflater.inflate(buffer, length, buffer.length - length);
+                if (inflated == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (dictionary == null) {
+                            throw new IOException("Chunk was compressed with a dictionary, but the save has none");
+                        }
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsInput()) {
+                        throw new IOException("Truncated chunk data");
+                    }
+                }
+                length += inflated;
+            }
+            return EntityData.ChunkStore.parseFrom(new ByteArrayInputStream(buffer, 0, length));
+        } catch (DataFormatException | IllegalArgumentException e) {
+            throw new IOException("Corrupt chunk data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Builds a preset dictionary from uncompressed sample chunks.
+     * <p>
+     * The dictionary consists of the byte sequences found in most samples. Deflate prefers the closest match, which
+     * is at the end of the dictionary, so the most common sequences are put last.
+     *
+     * @param samples the serialized {@link EntityData.ChunkStore}s to learn from.
+     * @param size    the maximum size of the dictionary, in bytes.
+     * @return the dictionary, or null if the samples have nothing in common.
+     */
+    public static byte[] trainDictionary(List<byte[]> samples, int size) {
+        Map<Gram, Integer> sampleCounts = new HashMap<>();
+        for (byte[] sample : samples) {
+            Set<Gram> seen = new HashSet<>();
+            for (int i = 0; i + GRAM_LENGTH <= sample.length; i++) {
+                Gram gram = new Gram(sample, i);
+                if (seen.add(gram)) {
+                    sampleCounts.merge(gram, 1, Integer::sum);
+                }
+            }
+        }
+        List<Map.Entry<Gram, Integer>> common = new ArrayList<>();
+        for (Map.Entry<Gram, Integer> entry : sampleCounts.entrySet()) {
+            if (entry.getValue() >= MIN_SAMPLES_PER_GRAM) {
+                common.add(entry);
+            }
+        }
+        if (common.isEmpty()) {
+            return null;
+        }
+        common.sort(Map.Entry.<Gram, Integer>comparingByValue().reversed());
+        int grams = Math.min(common.size(), size / GRAM_LENGTH);
+        byte[] dictionary = new byte[grams * GRAM_LENGTH];
+        for (int i = 0; i < grams; i++) {
+            Gram gram = common.get(i).getKey();
+            int position = dictionary.length - (i + 1) * GRAM_LENGTH;
+            System.arraycopy(gram.data, gram.offset, dictionary, position, GRAM_LENGTH);
+        }
+        return dictionary;
+    }
+
+    private static final class Gram {
+        private final byte[] data;
+        private final int offset;
+        private final int hash;
+
+        private Gram(byte[] data, int offset) {
+            this.data = data;
+            this.offset = offset;
+            int h = 1;
+            for (int i = 0; i < GRAM_LENGTH; i++) {
+                h = 31 * h + data[offset + i];
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Gram)) {
+                return false;
+            }
+            Gram other = (Gram) obj;
+            for (int i = 0; i < GRAM_LENGTH; i++) {
+                if (data[offset + i] != other.data[other.offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
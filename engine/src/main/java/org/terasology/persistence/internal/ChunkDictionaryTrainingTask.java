@@ -0,0 +1,60 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.utilities.concurrency.AbstractTask;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Trains the preset dictionary of the chunk compression from sample chunks, on the saving thread. Encoding the samples
+ * and collecting their common byte sequences takes too long for the main thread.
+ */
+class ChunkDictionaryTrainingTask extends AbstractTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkDictionaryTrainingTask.class);
+
+    private final List<ChunkImpl> samples;
+    private final Consumer<byte[]> resultConsumer;
+
+    /**
+     * @param samples        the chunks to learn from. A snapshot must have been taken of each of them on the main
+     *                       thread, it gets encoded and released like by the save transaction.
+     * @param resultConsumer receives the dictionary, or null if none could be trained. Called from the saving thread.
+     */
+    ChunkDictionaryTrainingTask(List<ChunkImpl> samples, Consumer<byte[]> resultConsumer) {
+        this.samples = samples;
+        this.resultConsumer = resultConsumer;
+    }
+
+    @Override
+    public String getName() {
+        return "Training chunk compression dictionary";
+    }
+
+    @Override
+    public void run() {
+        byte[] dictionary = null;
+        int encodedCount = 0;
+        try {
+            List<byte[]> encodedSamples = Lists.newArrayListWithCapacity(samples.size());
+            for (; encodedCount < samples.size(); encodedCount++) {
+                encodedSamples.add(samples.get(encodedCount).encodeAndReleaseSnapshot().build().toByteArray());
+            }
+            dictionary = ChunkCodecs.trainDictionary(encodedSamples, ChunkCodecs.DEFAULT_DICTIONARY_SIZE);
+        } catch (RuntimeException e) {
+            logger.error("Failed to train the chunk compression dictionary", e);
+        } finally {
+            // the snapshots of samples which did not get encoded must not block the next save of their chunks
+            for (int i = encodedCount; i < samples.size(); i++) {
+                samples.get(i).releaseSnapshot();
+            }
+        }
+        resultConsumer.accept(dictionary);
+    }
+}
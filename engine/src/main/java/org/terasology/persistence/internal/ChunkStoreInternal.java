@@ -22,6 +22,7 @@
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
 import org.terasology.world.chunks.internal.ChunkSerializer;
 
 /**
@@ -40,6 +41,10 @@ final class ChunkStoreInternal implements ChunkStore {
         this.entityManager = entityManager;
 
         this.chunk = ChunkSerializer.decode(chunkData, blockManager, extraDataManager);
+        if (chunk instanceof ChunkImpl) {
+            // Matches the stored data, so it doesn't need to be saved again until it gets modified.
+            ((ChunkImpl) chunk).markSaved(((ChunkImpl) chunk).getEditVersion());
+        }
         this.entityStore = chunkData.getStore();
     }
 
@@ -15,16 +15,15 @@
  */
 package org.terasology.persistence.internal;
 
+import com.google.common.collect.Sets;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.protobuf.EntityData;
 import org.terasology.world.chunks.internal.ChunkImpl;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * Provides an easy to get a compressed version of a chunk. Either the chunk most have a snapshot of it's state
@@ -33,10 +32,14 @@
  */
 public class CompressedChunkBuilder {
     private EntityData.EntityStore entityStore;
+    private EngineEntityManager snapshotEntityManager;
+    private List<EntitySnapshot> entitySnapshots;
     private ChunkImpl chunk;
     private boolean viaSnapshot;
+    private ChunkCodec codec;
     private byte[] result;
     private Set<EntityRef> storedEntities;
+    private final int estimatedMemoryConsumption;
 
     /**
      *
@@ -44,10 +47,11 @@ public class CompressedChunkBuilder {
      * @param chunkUnloaded if true the chunk data will be used directly.  If deactivate is false then the chunk will be
      *                      but in snapshot mode so that concurrent modifications (and possibly future unload) is
      *                      possible.
+     * @param codec the codec to compress the chunk with
      */
     public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk,
                                   Collection<EntityRef> entitiesToSave,
-                                  boolean chunkUnloaded) {
+                                  boolean chunkUnloaded, ChunkCodec codec) {
         EntityStorer storer = new EntityStorer(entityManager);
         entitiesToSave.stream().filter(EntityRef::isPersistent).forEach(storer::store);
         storedEntities = storer.getStoredEntities();
@@ -55,9 +59,11 @@ public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk
 
         this.chunk = chunk;
         this.viaSnapshot = !chunkUnloaded;
+        this.codec = codec;
         if (viaSnapshot) {
             this.chunk.createSnapshot();
         }
+        this.estimatedMemoryConsumption = chunk.getEstimatedMemoryConsumptionInBytes();
     }
 
     /**
@@ -65,15 +71,47 @@ public CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk
      * @param entityStore encoded entities to be stored.
      * @param chunk       chunk for which {@link ChunkImpl#createSnapshot()} has been called.
      * @param viaSnapshot specifies if the previously taken snapshot will be encoded or if
+     * @param codec       the codec to compress the chunk with
      */
-    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot) {
+    public CompressedChunkBuilder(EntityData.EntityStore entityStore, ChunkImpl chunk, boolean viaSnapshot,
+                                  ChunkCodec codec) {
         this.entityStore = entityStore;
         this.chunk = chunk;
         this.viaSnapshot = viaSnapshot;
+        this.codec = codec;
+        this.estimatedMemoryConsumption = chunk.getEstimatedMemoryConsumptionInBytes();
+    }
+
+    /**
+     * Serializes the entities when the chunk gets built, so that it can happen on the saving threads instead of the
+     * thread the chunk got unloaded on.
+     *
+     * @param entityManager   the entity manager the snapshots were taken from.
+     * @param chunk           an unloaded chunk.
+     * @param entitySnapshots snapshots of all persistent entities within the given chunk and the entities they own,
+     *                        see {@link EntitySnapshot#ofEntitiesWithOwnedEntities}.
+     * @param codec           the codec to compress the chunk with
+     */
+    CompressedChunkBuilder(EngineEntityManager entityManager, ChunkImpl chunk, List<EntitySnapshot> entitySnapshots,
+                           ChunkCodec codec) {
+        this.snapshotEntityManager = entityManager;
+        this.entitySnapshots = entitySnapshots;
+        this.storedEntities = Sets.newHashSet(entitySnapshots);
+        this.chunk = chunk;
+        this.viaSnapshot = false;
+        this.codec = codec;
+        this.estimatedMemoryConsumption = chunk.getEstimatedMemoryConsumptionInBytes();
     }
 
     public synchronized byte[] buildEncodedChunk() {
         if (result == null) {
+            if (entityStore == null) {
+                EntityStorer storer = new EntityStorer(snapshotEntityManager);
+                entitySnapshots.forEach(storer::storeSnapshot);
+                entityStore = storer.finaliseStore();
+                entitySnapshots = null;
+                snapshotEntityManager = null;
+            }
 
             EntityData.ChunkStore.Builder encoded;
             if (viaSnapshot) {
@@ -83,20 +121,46 @@ public synchronized byte[] buildEncodedChunk() {
             }
             encoded.setStore(entityStore);
             EntityData.ChunkStore store = encoded.build();
-            result = compressChunkStore(store);
+            result = codec.encode(store);
         }
         return result;
     }
 
-    private byte[] compressChunkStore(EntityData.ChunkStore store) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (GZIPOutputStream gzipOut = new GZIPOutputStream(baos)) {
-            store.writeTo(gzipOut);
-        } catch (IOException e) {
-            // as no real IO is involved this should not happen
-            throw new RuntimeException(e);
+    /**
+     * Takes a snapshot of an unloaded chunk which is about to be activated again, so that the chunk can be modified
+     * while this builder still has to store the state it had when it got unloaded. Must be called on the thread that
+     * modifies the chunk, before any modification.
+     */
+    synchronized void snapshotChunk() {
+        if (result == null && !viaSnapshot) {
+            chunk.createSnapshot();
+            viaSnapshot = true;
+        }
+    }
+
+    /**
+     * Releases the snapshot of the chunk, if one got taken, when the builder gets replaced before it got built.
+     */
+    synchronized void discard() {
+        if (result == null && viaSnapshot) {
+            chunk.releaseSnapshot();
+            viaSnapshot = false;
         }
-        return baos.toByteArray();
+    }
+
+    /**
+     * @return the memory used by the chunk data waiting to be stored, as estimated when the builder got created. It
+     * does not change when the chunk gets revived and modified afterwards.
+     */
+    public int getEstimatedMemoryConsumptionInBytes() {
+        return estimatedMemoryConsumption;
+    }
+
+    /**
+     * @return the chunk which gets stored.
+     */
+    ChunkImpl getChunk() {
+        return chunk;
     }
 
     public Set<EntityRef> getStoredEntities() {
@@ -0,0 +1,45 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import org.joml.Vector3i;
+import org.terasology.persistence.ChunkStore;
+import org.terasology.world.chunks.Chunk;
+
+/**
+ * The store of a chunk which got deactivated but is still in memory, see
+ * {@link org.terasology.persistence.StorageManager#deactivateChunk(Chunk)}. Restoring its entities does not need to
+ * read or decode the stored chunk.
+ */
+final class DeactivatedChunkStore implements ChunkStore {
+
+    private final Chunk chunk;
+    private final Runnable entityRestorer;
+
+    /**
+     * @param chunk          the deactivated chunk.
+     * @param entityRestorer activates the entities of the chunk again, called at most once.
+     */
+    DeactivatedChunkStore(Chunk chunk, Runnable entityRestorer) {
+        this.chunk = chunk;
+        this.entityRestorer = entityRestorer;
+    }
+
+    @Override
+    public Vector3i getChunkPosition() {
+        return chunk.getPosition(new Vector3i());
+    }
+
+    /**
+     * @return the deactivated chunk, as it is. It has to be prepared for the reactivation by the caller.
+     */
+    @Override
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    @Override
+    public void restoreEntities() {
+        entityRestorer.run();
+    }
+}
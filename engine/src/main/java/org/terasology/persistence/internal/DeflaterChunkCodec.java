@@ -0,0 +1,73 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import org.terasology.protobuf.EntityData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Compresses chunks as zlib streams with a configurable level, optionally with a preset dictionary.
+ * <p>
+ * Chunk stores are small, so the compressor has little data to learn from within a single chunk. A dictionary of byte
+ * sequences common to many chunks (see {@link ChunkCodecs#trainDictionary}) makes them available from the start. The
+ * zlib header records the checksum of the dictionary, so streams written without one stay readable.
+ */
+public class DeflaterChunkCodec implements ChunkCodec {
+
+    public static final String NAME = "deflate";
+    public static final String DICTIONARY_NAME = "deflate-dictionary";
+
+    private final int level;
+    private final byte[] dictionary;
+
+    /**
+     * @param level      the compression level, 0-9 or {@link Deflater#DEFAULT_COMPRESSION}.
+     * @param dictionary the preset dictionary, or null to compress without one.
+     */
+    public DeflaterChunkCodec(int level, byte[] dictionary) {
+        if (level != Deflater.DEFAULT_COMPRESSION
+                && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid compression level " + level);
+        }
+        this.level = level;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public String getName() {
+        return dictionary != null ? DICTIONARY_NAME : NAME;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public byte[] encode(EntityData.ChunkStore store) {
+        Deflater deflater = new Deflater(level);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (DeflaterOutputStream out = new DeflaterOutputStream(baos, deflater)) {
+                store.writeTo(out);
+            } catch (IOException e) {
+                // as no real IO is involved this should not happen
+                throw new RuntimeException(e);
+            }
+            return baos.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public EntityData.ChunkStore decode(byte[] data) throws IOException {
+        return ChunkCodecs.decode(data, dictionary);
+    }
+}
@@ -0,0 +1,263 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.entity.internal.EntityInfoComponent;
+import org.terasology.entitySystem.entity.internal.EntityScope;
+import org.terasology.entitySystem.entity.internal.OwnershipHelper;
+import org.terasology.entitySystem.event.Event;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.reflection.copy.CopyStrategy;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of the state of an entity, which can be serialized on any thread after the entity got deactivated.
+ * <p>
+ * The snapshot is taken on the main thread by copying the components of the entity with a component library using
+ * {@link #COPY_STRATEGY}. This strategy replaces the entity refs within the components by snapshots too, which keep
+ * just the id and whether the entity was persistent, so the serialization does not need to access the entity manager.
+ */
+final class EntitySnapshot extends EntityRef {
+
+    /**
+     * The copy strategy for entity refs to use for the component library passed to {@link #of}.
+     */
+    static final CopyStrategy<EntityRef> COPY_STRATEGY = new ReferenceCopyStrategy();
+
+    private final long id;
+    private final boolean persistent;
+    private final Map<Class<? extends Component>, Component> components;
+
+    private EntitySnapshot(long id, boolean persistent, Map<Class<? extends Component>, Component> components) {
+        this.id = id;
+        this.persistent = persistent;
+        this.components = components;
+    }
+
+    /**
+     * Must be called from the thread owning the entity.
+     *
+     * @param entity           an active entity.
+     * @param componentLibrary a component library using {@link #COPY_STRATEGY} for entity refs.
+     */
+    static EntitySnapshot of(EntityRef entity, ComponentLibrary componentLibrary) {
+        Map<Class<? extends Component>, Component> components = Maps.newLinkedHashMap();
+        for (Component component : entity.iterateComponents()) {
+            components.put(component.getClass(), componentLibrary.copy(component));
+        }
+        return new EntitySnapshot(entity.getId(), entity.isPersistent(), Collections.unmodifiableMap(components));
+    }
+
+    /**
+     * Takes snapshots of the given persistent entities and the entities they own, in the order
+     * {@link EntityStorer#store(EntityRef)} stores them. Must be called from the thread owning the entities.
+     *
+     * @param componentLibrary a component library using {@link #COPY_STRATEGY} for entity refs.
+     */
+    static List<EntitySnapshot> ofEntitiesWithOwnedEntities(Collection<EntityRef> entities,
+                                                            ComponentLibrary componentLibrary, OwnershipHelper helper) {
+        List<EntitySnapshot> snapshots = Lists.newArrayList();
+        entities.stream().filter(EntityRef::isPersistent)
+                .forEach(entity -> addWithOwnedEntities(entity, componentLibrary, helper, snapshots));
+        return snapshots;
+    }
+
+    /**
+     * Activates the snapshotted entities again with the state of their snapshots, without serializing them. Must be
+     * called from the thread owning the entities, while the entities are still deactivated.
+     *
+     * @param snapshots        snapshots taken by {@link #ofEntitiesWithOwnedEntities}.
+     * @param componentLibrary a component library using {@link #restoringCopyStrategy} for entity refs.
+     */
+    static void restoreAll(List<EntitySnapshot> snapshots, EngineEntityManager entityManager,
+                           ComponentLibrary componentLibrary) {
+        for (EntitySnapshot snapshot : snapshots) {
+            List<Component> components = Lists.newArrayListWithCapacity(snapshot.components.size());
+            for (Component component : snapshot.components.values()) {
+                components.add(componentLibrary.copy(component));
+            }
+            entityManager.createEntityWithId(snapshot.id, components);
+        }
+    }
+
+    /**
+     * @return the copy strategy for entity refs which turns the references of snapshots back into the entities of the
+     *         given entity manager, see {@link #restoreAll}.
+     */
+    static CopyStrategy<EntityRef> restoringCopyStrategy(EngineEntityManager entityManager) {
+        return new RestoringCopyStrategy(entityManager);
+    }
+
+    private static void addWithOwnedEntities(EntityRef entity, ComponentLibrary componentLibrary, OwnershipHelper helper,
+                                             List<EntitySnapshot> snapshots) {
+        if (entity.isActive()) {
+            for (EntityRef ownedEntity : helper.listOwnedEntities(entity)) {
+                if (!ownedEntity.isAlwaysRelevant() && ownedEntity.isPersistent()) {
+                    addWithOwnedEntities(ownedEntity, componentLibrary, helper, snapshots);
+                }
+            }
+            snapshots.add(of(entity, componentLibrary));
+        }
+    }
+
+    private EntityInfoComponent getEntityInfo() {
+        return getComponent(EntityInfoComponent.class);
+    }
+
+    @Override
+    public EntityRef copy() {
+        return this;
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    /**
+     * @return whether the snapshot contains the state of the entity, rather than being just a reference to it.
+     */
+    @Override
+    public boolean isActive() {
+        return components != null;
+    }
+
+    @Override
+    public void destroy() {
+        throw new UnsupportedOperationException("Entity snapshots can't be destroyed");
+    }
+
+    @Override
+    public <T extends Event> T send(T event) {
+        throw new UnsupportedOperationException("Entity snapshots can't receive events");
+    }
+
+    @Override
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    @Override
+    public boolean isAlwaysRelevant() {
+        EntityScope scope = getScope();
+        return scope != null && scope.getAlwaysRelevant();
+    }
+
+    @Override
+    public void setAlwaysRelevant(boolean alwaysRelevant) {
+        throw new UnsupportedOperationException("Entity snapshots are immutable");
+    }
+
+    @Override
+    public EntityRef getOwner() {
+        EntityInfoComponent info = getEntityInfo();
+        return info != null ? info.owner : EntityRef.NULL;
+    }
+
+    @Override
+    public void setOwner(EntityRef owner) {
+        throw new UnsupportedOperationException("Entity snapshots are immutable");
+    }
+
+    @Override
+    public EntityScope getScope() {
+        EntityInfoComponent info = getEntityInfo();
+        return info != null ? info.scope : null;
+    }
+
+    @Override
+    public Prefab getParentPrefab() {
+        EntityInfoComponent info = getEntityInfo();
+        return info != null ? info.parentPrefab : null;
+    }
+
+    @Override
+    public String toFullDescription() {
+        return "EntitySnapshot{id = " + id + ", components = " + getComponentClasses() + "}";
+    }
+
+    private Iterable<Class<? extends Component>> getComponentClasses() {
+        return components != null ? components.keySet() : Collections.emptySet();
+    }
+
+    @Override
+    public <T extends Component> T addComponent(T component) {
+        throw new UnsupportedOperationException("Entity snapshots are immutable");
+    }
+
+    @Override
+    public void removeComponent(Class<? extends Component> componentClass) {
+        throw new UnsupportedOperationException("Entity snapshots are immutable");
+    }
+
+    @Override
+    public void saveComponent(Component component) {
+        throw new UnsupportedOperationException("Entity snapshots are immutable");
+    }
+
+    @Override
+    public boolean hasComponent(Class<? extends Component> component) {
+        return components != null && components.containsKey(component);
+    }
+
+    @Override
+    public boolean hasAnyComponents(List<Class<? extends Component>> filterComponents) {
+        return filterComponents.stream().anyMatch(this::hasComponent);
+    }
+
+    @Override
+    public boolean hasAllComponents(List<Class<? extends Component>> filterComponents) {
+        return filterComponents.stream().allMatch(this::hasComponent);
+    }
+
+    @Override
+    public <T extends Component> T getComponent(Class<T> componentClass) {
+        return components != null ? componentClass.cast(components.get(componentClass)) : null;
+    }
+
+    @Override
+    public Iterable<Component> iterateComponents() {
+        return components != null ? components.values() : Collections.emptyList();
+    }
+
+    private static final class ReferenceCopyStrategy implements CopyStrategy<EntityRef> {
+        @Override
+        public EntityRef copy(EntityRef value) {
+            if (value == null) {
+                return null;
+            }
+            return value.exists() ? new EntitySnapshot(value.getId(), value.isPersistent(), null) : EntityRef.NULL;
+        }
+    }
+
+    private static final class RestoringCopyStrategy implements CopyStrategy<EntityRef> {
+        private final EngineEntityManager entityManager;
+
+        private RestoringCopyStrategy(EngineEntityManager entityManager) {
+            this.entityManager = entityManager;
+        }
+
+        @Override
+        public EntityRef copy(EntityRef value) {
+            if (value instanceof EntitySnapshot) {
+                return entityManager.getEntity(value.getId());
+            }
+            return value;
+        }
+    }
+}
@@ -74,6 +74,17 @@ public void store(EntityRef entity, String name) {
         }
     }
 
+    /**
+     * Stores a snapshot taken by {@link EntitySnapshot#ofEntitiesWithOwnedEntities}. The entities it owns are not
+     * stored with it, as they have snapshots of their own.
+     */
+    public void storeSnapshot(EntitySnapshot snapshot) {
+        EntityData.Entity entityData = serializer.serialize(snapshot, true,
+                FieldSerializeCheck.NullCheck.<Component>newInstance());
+        entityStoreBuilder.addEntity(entityData);
+        storedEntities.add(snapshot);
+    }
+
     public EntityData.EntityStore finaliseStore() {
         return entityStoreBuilder.build();
     }
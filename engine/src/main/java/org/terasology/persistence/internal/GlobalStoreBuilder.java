@@ -41,14 +41,14 @@ final class GlobalStoreBuilder {
         this.prefabSerializer = prefabSerializer;
     }
     
-    public EntityData.GlobalStore build(EngineEntityManager entityManager, Iterable<EntityRef> entities) {
+    /**
+     * Builds the part of the global store which is written on every save: the prefabs and the next entity id. The
+     * entities are stored in shards, see {@link #buildShard}.
+     */
+    public EntityData.GlobalStore buildHeader(EngineEntityManager entityManager) {
         EntityData.GlobalStore.Builder store = EntityData.GlobalStore.newBuilder();
 
-        Map<Class<? extends Component>, Integer> componentIdTable = Maps.newHashMap();
-        for (ComponentMetadata<?> componentMetadata : entityManager.getComponentLibrary().iterateComponentMetadata()) {
-            store.addComponentClass(componentMetadata.getUri().toString());
-            componentIdTable.put(componentMetadata.getType(), componentIdTable.size());
-        }
+        Map<Class<? extends Component>, Integer> componentIdTable = addComponentClasses(entityManager, store);
         prefabSerializer.setComponentIdMapping(componentIdTable);
         /*
          * The prefabs can't be obtained from  entityManager.getPrefabManager().listPrefabs() as that might not
@@ -64,17 +64,35 @@ public EntityData.GlobalStore build(EngineEntityManager entityManager, Iterable<
         for (Prefab prefab: prefabsRequiredForEntityStorage) {
             store.addPrefab(prefabSerializer.serialize(prefab));
         }
+        store.setNextEntityId(nextEntityId);
+        return store.build();
+    }
 
+    /**
+     * Builds a shard of the global store. Each shard has its own component table, as a shard can be kept over
+     * several sessions while modules change.
+     */
+    public EntityData.GlobalStore buildShard(EngineEntityManager entityManager, Iterable<EntityRef> entities) {
+        EntityData.GlobalStore.Builder store = EntityData.GlobalStore.newBuilder();
         EntitySerializer entitySerializer = new EntitySerializer(entityManager);
-        entitySerializer.setComponentIdMapping(componentIdTable);
+        entitySerializer.setComponentIdMapping(addComponentClasses(entityManager, store));
         for (EntityRef entity: entities) {
             if (entity.isPersistent()) {
                 store.addEntity(entitySerializer.serialize(entity));
             }
         }
-        store.setNextEntityId(nextEntityId);
         return store.build();
     }
 
+    private static Map<Class<? extends Component>, Integer> addComponentClasses(EngineEntityManager entityManager,
+                                                                                 EntityData.GlobalStore.Builder store) {
+        Map<Class<? extends Component>, Integer> componentIdTable = Maps.newHashMap();
+        for (ComponentMetadata<?> componentMetadata : entityManager.getComponentLibrary().iterateComponentMetadata()) {
+            store.addComponentClass(componentMetadata.getUri().toString());
+            componentIdTable.put(componentMetadata.getType(), componentIdTable.size());
+        }
+        return componentIdTable;
+    }
+
 
 }
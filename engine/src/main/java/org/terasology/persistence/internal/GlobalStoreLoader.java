@@ -72,6 +72,16 @@ public void load(EntityData.GlobalStore globalStore) {
         }
     }
 
+    /**
+     * Restores the entities of a global entity shard. Must be called after {@link #load} read the header of the store.
+     */
+    public void loadShard(EntityData.GlobalStore shard) {
+        loadComponentMapping(shard);
+        for (EntityData.Entity entityData : shard.getEntityList()) {
+            entitySerializer.deserialize(entityData);
+        }
+    }
+
     private void loadMissingPrefabs(EntityData.GlobalStore globalStore) {
         // Prefabs that still need to be created, by their name
         Map<String, EntityData.Prefab> pendingPrefabs = Maps.newHashMap();
@@ -0,0 +1,147 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.entity.EntityRef;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Splits the global entities into shards by entity id and keeps track of which entities each stored shard contains.
+ * <p>
+ * A save only rewrites the shards whose entities changed since the last save, or which gained or lost entities, e.g.
+ * because an entity moved into a chunk. Shards that lost all their entities are written empty, so no entity gets
+ * restored from an outdated shard.
+ * <p>
+ * The content of the stored shards is known after {@link #markLoaded} or a successful save. Until then, or after a
+ * failed save, all shards are considered dirty.
+ */
+final class GlobalStoreShards {
+
+    static final int ENTITIES_PER_SHARD = 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalStoreShards.class);
+
+    private final StoragePathProvider storagePathProvider;
+    private final Map<Integer, TLongSet> storedShards = Maps.newHashMap();
+    private boolean storedShardsKnown;
+
+    GlobalStoreShards(StoragePathProvider storagePathProvider) {
+        this.storagePathProvider = storagePathProvider;
+    }
+
+    static int getShard(long entityId) {
+        return (int) (entityId / ENTITIES_PER_SHARD);
+    }
+
+    /**
+     * @return the entities grouped by shard, ordered by id within each shard.
+     */
+    static SortedMap<Integer, List<EntityRef>> groupByShard(Collection<EntityRef> entities) {
+        SortedMap<Integer, List<EntityRef>> shards = new TreeMap<>();
+        for (EntityRef entity : entities) {
+            shards.computeIfAbsent(getShard(entity.getId()), shard -> new ArrayList<>()).add(entity);
+        }
+        shards.values().forEach(shard -> shard.sort(Comparator.comparingLong(EntityRef::getId)));
+        return shards;
+    }
+
+    /**
+     * @return the shard files of the save, by shard.
+     */
+    SortedMap<Integer, Path> listShardFiles() throws IOException {
+        SortedMap<Integer, Path> shardFiles = new TreeMap<>();
+        Path shardsPath = storagePathProvider.getGlobalEntityShardsPath();
+        if (Files.isDirectory(shardsPath)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(shardsPath)) {
+                for (Path file : files) {
+                    int shard = storagePathProvider.getGlobalEntityShard(file);
+                    if (shard >= 0) {
+                        shardFiles.put(shard, file);
+                    }
+                }
+            }
+        }
+        return shardFiles;
+    }
+
+    /**
+     * Records the content of the stored shards, after all of them got loaded.
+     */
+    synchronized void markLoaded(Map<Integer, TLongSet> loadedShards) {
+        storedShards.clear();
+        storedShards.putAll(loadedShards);
+        storedShardsKnown = true;
+    }
+
+    /**
+     * @param shards           the entities of each shard to save.
+     * @param changedEntityIds the entities which changed since the last save.
+     * @return the shards which need to be written.
+     */
+    synchronized Set<Integer> findDirtyShards(Map<Integer, List<EntityRef>> shards, TLongSet changedEntityIds) {
+        Set<Integer> dirtyShards = Sets.newTreeSet();
+        if (!storedShardsKnown) {
+            dirtyShards.addAll(shards.keySet());
+            try {
+                dirtyShards.addAll(listShardFiles().keySet());
+            } catch (IOException e) {
+                logger.error("Failed to list the global entity shards, some entities might get restored twice", e);
+            }
+            return dirtyShards;
+        }
+        for (Map.Entry<Integer, List<EntityRef>> shard : shards.entrySet()) {
+            TLongSet storedIds = storedShards.get(shard.getKey());
+            List<EntityRef> entities = shard.getValue();
+            if (storedIds == null || storedIds.size() != entities.size()
+                    || entities.stream().anyMatch(entity -> !storedIds.contains(entity.getId())
+                    || changedEntityIds.contains(entity.getId()))) {
+                dirtyShards.add(shard.getKey());
+            }
+        }
+        for (Map.Entry<Integer, TLongSet> storedShard : storedShards.entrySet()) {
+            if (!storedShard.getValue().isEmpty() && !shards.containsKey(storedShard.getKey())) {
+                dirtyShards.add(storedShard.getKey());
+            }
+        }
+        return dirtyShards;
+    }
+
+    /**
+     * Records the content of the shards after a successful save.
+     */
+    synchronized void markSaved(Map<Integer, List<EntityRef>> shards) {
+        storedShards.clear();
+        for (Map.Entry<Integer, List<EntityRef>> shard : shards.entrySet()) {
+            TLongSet ids = new TLongHashSet(shard.getValue().size());
+            shard.getValue().forEach(entity -> ids.add(entity.getId()));
+            storedShards.put(shard.getKey(), ids);
+        }
+        storedShardsKnown = true;
+    }
+
+    /**
+     * Forgets the content of the stored shards, e.g. because a save failed after writing some of them.
+     */
+    synchronized void invalidate() {
+        storedShards.clear();
+        storedShardsKnown = false;
+    }
+}
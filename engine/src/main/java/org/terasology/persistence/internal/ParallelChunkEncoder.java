@@ -0,0 +1,126 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Encodes and compresses chunks for saving on a bounded number of worker threads.
+ * <p>
+ * The encoded chunks are handed to the writer in the order the chunks were given, on the calling thread, so the
+ * writer does not need to be thread safe and each file gets its entries in a stable order. Only a few chunks per
+ * worker are encoded ahead of the writer, which keeps the memory use independent of the number of chunks saved.
+ * <p>
+ * With a single thread the chunks are encoded on the calling thread and no worker threads are started.
+ */
+public class ParallelChunkEncoder implements AutoCloseable {
+
+    private static final int CHUNKS_AHEAD_PER_THREAD = 4;
+
+    private final int threads;
+    private final ExecutorService executor;
+
+    /**
+     * @param threads the number of worker threads. Values below 1 are treated as 1.
+     */
+    public ParallelChunkEncoder(int threads) {
+        this.threads = Math.max(1, threads);
+        if (this.threads > 1) {
+            executor = Executors.newFixedThreadPool(this.threads, new ThreadFactoryBuilder()
+                    .setNameFormat("Saving-Encoder-%d")
+                    .setDaemon(true)
+                    .setPriority(Thread.MIN_PRIORITY)
+                    .build());
+        } else {
+            executor = null;
+        }
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Encodes the given chunks and passes the results to the writer, in iteration order.
+     *
+     * @param chunks the chunks to encode, keyed by what the writer needs to store them.
+     * @param writer called on the calling thread once per chunk.
+     * @throws IOException if the writer fails, or if the calling thread got interrupted.
+     */
+    public <K> void encode(Iterable<Map.Entry<K, CompressedChunkBuilder>> chunks, EncodedChunkWriter<K> writer)
+            throws IOException {
+        if (executor == null) {
+            for (Map.Entry<K, CompressedChunkBuilder> entry : chunks) {
+                writer.write(entry.getKey(), entry.getValue().buildEncodedChunk());
+            }
+            return;
+        }
+        int maxInFlight = threads * CHUNKS_AHEAD_PER_THREAD;
+        Queue<PendingChunk<K>> inFlight = new ArrayDeque<>(maxInFlight);
+        Iterator<Map.Entry<K, CompressedChunkBuilder>> iterator = chunks.iterator();
+        try {
+            while (iterator.hasNext() || !inFlight.isEmpty()) {
+                while (inFlight.size() < maxInFlight && iterator.hasNext()) {
+                    Map.Entry<K, CompressedChunkBuilder> entry = iterator.next();
+                    CompressedChunkBuilder builder = entry.getValue();
+                    inFlight.add(new PendingChunk<>(entry.getKey(), executor.submit(builder::buildEncodedChunk)));
+                }
+                PendingChunk<K> next = inFlight.remove();
+                writer.write(next.key, await(next.result));
+            }
+        } finally {
+            inFlight.forEach(pending -> pending.result.cancel(true));
+        }
+    }
+
+    private static byte[] await(Future<byte[]> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while encoding chunks");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Failed to encode chunk", cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    public interface EncodedChunkWriter<K> {
+        void write(K key, byte[] encodedChunk) throws IOException;
+    }
+
+    private static final class PendingChunk<K> {
+        private final K key;
+        private final Future<byte[]> result;
+
+        private PendingChunk(K key, Future<byte[]> result) {
+            this.key = key;
+            this.result = result;
+        }
+    }
+}
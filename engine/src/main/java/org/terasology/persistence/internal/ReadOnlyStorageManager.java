@@ -18,9 +18,11 @@
 
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.network.Client;
 import org.terasology.network.ClientComponent;
+import org.terasology.persistence.ChunkStore;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
@@ -60,10 +62,18 @@ public void waitForCompletionOfPreviousSaveAndStartSaving() {
     }
 
     @Override
-    public void deactivateChunk(Chunk chunk) {
+    public ChunkStore deactivateChunk(Chunk chunk) {
         Collection<EntityRef> entitiesOfChunk = getEntitiesOfChunk(chunk);
 
         entitiesOfChunk.forEach(this::deactivateOrDestroyEntityRecursive);
+        // nothing got stored, so the entities can only be restored as they were saved
+        Vector3i chunkPos = chunk.getPosition();
+        return new DeactivatedChunkStore(chunk, () -> {
+            ChunkStore store = loadChunkStore(chunkPos);
+            if (store != null) {
+                store.restoreEntities();
+            }
+        });
     }
 
     @Override
@@ -17,6 +17,7 @@
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import org.joml.Vector3ic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
@@ -44,6 +45,7 @@
 import org.terasology.network.Client;
 import org.terasology.network.ClientComponent;
 import org.terasology.network.NetworkSystem;
+import org.terasology.persistence.ChunkStore;
 import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
 import org.terasology.protobuf.EntityData;
 import org.terasology.recording.RecordAndReplayCurrentStatus;
@@ -56,6 +58,8 @@
 import org.terasology.utilities.concurrency.ShutdownTask;
 import org.terasology.utilities.concurrency.Task;
 import org.terasology.utilities.concurrency.TaskMaster;
+import org.terasology.world.WorldChangeListener;
+import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.block.family.BlockFamily;
 import org.terasology.world.chunks.Chunk;
@@ -66,19 +70,29 @@
 import org.terasology.world.internal.WorldInfo;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-public final class ReadWriteStorageManager extends AbstractStorageManager implements EntityDestroySubscriber, EntityChangeSubscriber, DelayedEntityRefFactory {
+public final class ReadWriteStorageManager extends AbstractStorageManager implements EntityDestroySubscriber, EntityChangeSubscriber, DelayedEntityRefFactory, WorldChangeListener {
     private static final Logger logger = LoggerFactory.getLogger(ReadWriteStorageManager.class);
+    private static final long JOURNAL_FLUSH_INTERVAL_MS = 200;
+    private static final int DICTIONARY_SAMPLE_CHUNKS = 32;
 
     private final TaskMaster<Task> saveThreadManager;
     private final SaveTransactionHelper saveTransactionHelper;
@@ -97,6 +111,20 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
     private final Lock worldDirectoryWriteLock = worldDirectoryLock.writeLock();
     private SaveTransaction saveTransaction;
     private Config config;
+    /**
+     * Null if the block change journal is disabled.
+     */
+    private BlockChangeJournal blockChangeJournal;
+    private int journalSegmentOfSaveTransaction;
+    private volatile ChunkCodec chunkCodec;
+    /**
+     * Whether a {@link ChunkDictionaryTrainingTask} has been offered and did not report back yet.
+     */
+    private final AtomicBoolean dictionaryTrainingRunning = new AtomicBoolean();
+    /**
+     * The dictionary trained on the saving thread, until the main thread swaps it in.
+     */
+    private final AtomicReference<byte[]> trainedDictionary = new AtomicReference<>();
 
     /**
      * Time of the next save in the format that {@link System#currentTimeMillis()} returns.
@@ -105,6 +133,12 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
     private boolean saveRequested;
     private ConcurrentMap<Vector3i, CompressedChunkBuilder> unloadedAndUnsavedChunkMap = Maps.newConcurrentMap();
     private ConcurrentMap<Vector3i, CompressedChunkBuilder> unloadedAndSavingChunkMap = Maps.newConcurrentMap();
+    /**
+     * The estimated memory used by the chunks in {@link #unloadedAndUnsavedChunkMap}, as stored by their builders. A
+     * save starts early when the part of it that is only held for saving gets too large, so unloading chunks can't
+     * fill up the memory between saves.
+     */
+    private final AtomicLong unsavedChunkBytes = new AtomicLong();
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndUnsavedPlayerMap = Maps.newConcurrentMap();
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndSavingPlayerMap = Maps.newConcurrentMap();
 
@@ -119,6 +153,16 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
      * that will use the privateEntityManager.
      */
     private ComponentLibrary entityRefReplacingComponentLibrary;
+    /**
+     * A component library that provides a copy() method that replaces {@link EntityRef}s with {@link EntitySnapshot}s,
+     * used to capture the entities of unloaded chunks.
+     */
+    private ComponentLibrary entitySnapshotComponentLibrary;
+    /**
+     * A component library that provides a copy() method that replaces the {@link EntitySnapshot}s within snapshotted
+     * components by the entities again, used to restore the entities of unloaded chunks which get activated again.
+     */
+    private ComponentLibrary entitySnapshotRestoringComponentLibrary;
 
     public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager, BlockManager blockManager
             , ExtraBlockDataManager extraDataManager, RecordAndReplaySerializer recordAndReplaySerializer,
@@ -134,7 +178,7 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
         super(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips);
 
         entityManager.subscribeForDestruction(this);
-        entityManager.subscribeForChanges(this);
+        entityManager.subscribeForCoalescedChanges(this);
         // TODO Ensure that the component library and the type serializer library are thread save (e.g. immutable)
         this.privateEntityManager = createPrivateEntityManager(entityManager.getComponentLibrary());
         Files.createDirectories(getStoragePathProvider().getStoragePathDirectory());
@@ -144,10 +188,114 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
         this.entityRefReplacingComponentLibrary = privateEntityManager.getComponentLibrary()
                 .createCopyUsingCopyStrategy(EntityRef.class, new DelayedEntityRefCopyStrategy(this));
         this.entitySetDeltaRecorder = new EntitySetDeltaRecorder(this.entityRefReplacingComponentLibrary);
+        this.entitySnapshotComponentLibrary = entityManager.getComponentLibrary()
+                .createCopyUsingCopyStrategy(EntityRef.class, EntitySnapshot.COPY_STRATEGY);
+        this.entitySnapshotRestoringComponentLibrary = entityManager.getComponentLibrary()
+                .createCopyUsingCopyStrategy(EntityRef.class, EntitySnapshot.restoringCopyStrategy(entityManager));
         this.recordAndReplaySerializer = recordAndReplaySerializer;
         this.recordAndReplayUtils = recordAndReplayUtils;
         this.recordAndReplayCurrentStatus = recordAndReplayCurrentStatus;
+        if (config.getSystem().isBlockChangeJournalEnabled()) {
+            this.blockChangeJournal = new BlockChangeJournal(getStoragePathProvider().getBlockChangeJournalPath(),
+                    blockManager, JOURNAL_FLUSH_INTERVAL_MS);
+            blockChangeJournal.recover();
+            blockChangeJournal.open();
+        }
+        this.chunkCodec = createChunkCodec();
+    }
 
+    /**
+     * Creates the codec chunks are written with. Until the dictionary of the dictionary codec is trained, chunks get
+     * compressed without one.
+     */
+    private ChunkCodec createChunkCodec() {
+        String name = config.getSystem().getChunkCompression();
+        int level = config.getSystem().getChunkCompressionLevel();
+        byte[] dictionary = getChunkCompressionDictionary();
+        if (DeflaterChunkCodec.DICTIONARY_NAME.equals(name) && dictionary == null) {
+            name = DeflaterChunkCodec.NAME;
+        }
+        try {
+            return ChunkCodecs.create(name, level, dictionary);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid chunk compression settings, falling back to gzip", e);
+            return new GzipChunkCodec();
+        }
+    }
+
+    /**
+     * Trains the dictionary of the dictionary codec from the loaded chunks, if it is configured but the save has no
+     * dictionary yet. The dictionary can't change once chunks use it.
+     * <p>
+     * The samples are snapshots taken on the main thread, as the chunks keep changing while the training runs on the
+     * saving thread. It has to be offered while no save is pending, so it releases the snapshots before the next save
+     * takes its own. The dictionary is only swapped in by {@link #useTrainedChunkCompressionDictionary()} when the
+     * next save begins, after it got stored in its own file. So no chunk on disk uses a dictionary which got lost,
+     * even if that save gets interrupted.
+     */
+    private void offerChunkCompressionDictionaryTraining(ChunkProvider chunkProvider) {
+        if (!DeflaterChunkCodec.DICTIONARY_NAME.equals(config.getSystem().getChunkCompression())
+                || getChunkCompressionDictionary() != null || trainedDictionary.get() != null
+                || dictionaryTrainingRunning.get()) {
+            return;
+        }
+        List<ChunkImpl> samples = Lists.newArrayList();
+        for (Chunk chunk : chunkProvider.getAllChunks()) {
+            if (samples.size() >= DICTIONARY_SAMPLE_CHUNKS) {
+                break;
+            }
+            ChunkImpl chunkImpl = (ChunkImpl) chunk;
+            // revived chunks still have the snapshot of their unsaved unload
+            if (chunkImpl.isReady() && !chunkImpl.hasSnapshot()) {
+                chunkImpl.createSnapshot();
+                samples.add(chunkImpl);
+            }
+        }
+        if (samples.isEmpty()) {
+            return;
+        }
+        dictionaryTrainingRunning.set(true);
+        saveThreadManager.offer(new ChunkDictionaryTrainingTask(samples, dictionary -> {
+            if (dictionary != null) {
+                logger.info("Trained a chunk compression dictionary of {} bytes from {} chunks", dictionary.length,
+                        samples.size());
+            }
+            trainedDictionary.set(dictionary);
+            dictionaryTrainingRunning.set(false);
+        }));
+    }
+
+    private void useTrainedChunkCompressionDictionary() {
+        byte[] dictionary = trainedDictionary.getAndSet(null);
+        if (dictionary != null && getChunkCompressionDictionary() == null) {
+            try {
+                writeChunkCompressionDictionary(dictionary);
+            } catch (IOException e) {
+                logger.error("Failed to store the chunk compression dictionary, chunks get compressed without it", e);
+                return;
+            }
+            setChunkCompressionDictionary(dictionary);
+            chunkCodec = createChunkCodec();
+        }
+    }
+
+    private void writeChunkCompressionDictionary(byte[] dictionary) throws IOException {
+        Path dictionaryPath = getStoragePathProvider().getChunkCompressionDictionaryPath();
+        Path tempPath = dictionaryPath.resolveSibling(dictionaryPath.getFileName() + ".tmp");
+        Files.createDirectories(dictionaryPath.getParent());
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(dictionary);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tempPath, dictionaryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, dictionaryPath, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
     private static EngineEntityManager createPrivateEntityManager(ComponentLibrary componentLibrary) {
@@ -164,6 +312,13 @@ public void finishSavingAndShutdown() {
         }
         saveThreadManager.shutdown(new ShutdownTask(), true);
         checkSaveTransactionAndClearUpIfItIsDone();
+        if (blockChangeJournal != null) {
+            try {
+                blockChangeJournal.close();
+            } catch (IOException e) {
+                logger.error("Failed to close the block change journal", e);
+            }
+        }
     }
 
     private void checkSaveTransactionAndClearUpIfItIsDone() {
@@ -175,12 +330,26 @@ private void checkSaveTransactionAndClearUpIfItIsDone() {
                     throw new RuntimeException("Saving failed", t);
                 }
                 saveTransaction = null;
+                compactBlockChangeJournal();
             }
             unloadedAndSavingChunkMap.clear();
         }
     }
 
 
+    /**
+     * Drops the journal segments which are covered by the finished save.
+     */
+    private void compactBlockChangeJournal() {
+        if (blockChangeJournal != null) {
+            try {
+                blockChangeJournal.deleteSegmentsUpTo(journalSegmentOfSaveTransaction);
+            } catch (IOException e) {
+                logger.warn("Failed to delete saved block change journal segments, they get replayed on load", e);
+            }
+        }
+    }
+
     private void addGlobalStoreBuilderToSaveTransaction(SaveTransactionBuilder transactionBuilder) {
         GlobalStoreBuilder globalStoreBuilder = new GlobalStoreBuilder(getEntityManager(), getPrefabSerializer());
         transactionBuilder.setGlobalStoreBuilder(globalStoreBuilder);
@@ -226,13 +395,22 @@ private void addChunksToSaveTransaction(SaveTransactionBuilder saveTransactionBu
             Map.Entry<Vector3i, CompressedChunkBuilder> entry = unsavedEntryIterator.next();
             unloadedAndSavingChunkMap.put(entry.getKey(), entry.getValue());
             unsavedEntryIterator.remove();
+            unsavedChunkBytes.addAndGet(-entry.getValue().getEstimatedMemoryConsumptionInBytes());
         }
 
         chunkProvider.getAllChunks().stream().filter(ManagedChunk::isReady).forEach(chunk -> {
             // If there is a newer undisposed version of the chunk,we don't need to save the disposed version:
-            unloadedAndSavingChunkMap.remove(chunk.getPosition());
+            CompressedChunkBuilder unsavedVersion = unloadedAndSavingChunkMap.remove(chunk.getPosition());
+            boolean replacesUnsavedVersion = unsavedVersion != null;
+            if (replacesUnsavedVersion) {
+                unsavedVersion.discard();
+            }
             ChunkImpl chunkImpl = (ChunkImpl) chunk;  // this storage manager can only work with ChunkImpls
-            saveTransactionBuilder.addLoadedChunk(chunk.getPosition(), chunkImpl);
+            if (replacesUnsavedVersion || chunkImpl.isModifiedSinceSave()) {
+                saveTransactionBuilder.addLoadedChunk(chunk.getPosition(), chunkImpl);
+            } else {
+                saveTransactionBuilder.addUnmodifiedLoadedChunk(chunk.getPosition(), chunkImpl);
+            }
         });
 
         for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : unloadedAndSavingChunkMap.entrySet()) {
@@ -242,6 +420,9 @@ private void addChunksToSaveTransaction(SaveTransactionBuilder saveTransactionBu
 
     @Override
     public void requestSaving() {
+        if (isSaving() && !saveRequested) {
+            logger.info("Saving requested while a save is running, saving again once it is done");
+        }
         this.saveRequested = true;
     }
 
@@ -256,29 +437,42 @@ private void waitForCompletionOfPreviousSave() {
             recordAndReplayUtils.setShutdownRequested(true); //Important to trigger complete serialization in a recording
         }
         if (saveTransaction != null && saveTransaction.getResult() == null) {
-            saveThreadManager.shutdown(new ShutdownTask(), true);
-            saveThreadManager.restart();
+            saveTransaction.awaitCompletion();
         }
         checkSaveTransactionAndClearUpIfItIsDone();
     }
 
     private SaveTransaction createSaveTransaction() {
-        SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(privateEntityManager,
-                entitySetDeltaRecorder, isStoreChunksInZips(), getStoragePathProvider(), worldDirectoryWriteLock,
-                recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
-
         ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
         NetworkSystem networkSystem = CoreRegistry.get(NetworkSystem.class);
+        useTrainedChunkCompressionDictionary();
+
+        SaveTransactionBuilder saveTransactionBuilder = new SaveTransactionBuilder(privateEntityManager,
+                entitySetDeltaRecorder, isStoreChunksInZips(), config.getSystem().getSaveEncodingThreads(),
+                chunkCodec, getStoragePathProvider(), getStoredChunkIndex(), getGlobalStoreShards(),
+                worldDirectoryWriteLock,
+                recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
 
         addChunksToSaveTransaction(saveTransactionBuilder, chunkProvider);
         addPlayersToSaveTransaction(saveTransactionBuilder, networkSystem);
         addGlobalStoreBuilderToSaveTransaction(saveTransactionBuilder);
         addGameManifestToSaveTransaction(saveTransactionBuilder);
+        rotateBlockChangeJournal(saveTransactionBuilder);
 
         return saveTransactionBuilder.build();
     }
 
 
+    private void rotateBlockChangeJournal(SaveTransactionBuilder saveTransactionBuilder) {
+        if (blockChangeJournal != null) {
+            try {
+                journalSegmentOfSaveTransaction = blockChangeJournal.rotate(saveTransactionBuilder::containsChunk);
+            } catch (IOException e) {
+                logger.error("Failed to start a new block change journal segment", e);
+            }
+        }
+    }
+
     private void addPlayersToSaveTransaction(SaveTransactionBuilder saveTransactionBuilder,
                                              NetworkSystem networkSystem) {
         unloadedAndSavingPlayerMap.clear();
@@ -324,13 +518,67 @@ private PlayerStoreBuilder createPlayerStore(Client client, EntityRef character)
     }
 
     @Override
-    public void deactivateChunk(Chunk chunk) {
+    public ChunkStore deactivateChunk(Chunk chunk) {
         Collection<EntityRef> entitiesOfChunk = getEntitiesOfChunk(chunk);
         ChunkImpl chunkImpl = (ChunkImpl) chunk; // storage manager only works with ChunkImpl
-        unloadedAndUnsavedChunkMap.put(chunk.getPosition(), new CompressedChunkBuilder(getEntityManager(), chunkImpl,
-                entitiesOfChunk, true));
+        // only copy the entities here, they get serialized by the thread building the chunk
+        List<EntitySnapshot> entitySnapshots = EntitySnapshot.ofEntitiesWithOwnedEntities(entitiesOfChunk,
+                entitySnapshotComponentLibrary, getOwnershipHelper());
+        CompressedChunkBuilder builder = new CompressedChunkBuilder(getEntityManager(), chunkImpl, entitySnapshots,
+                chunkCodec);
+        CompressedChunkBuilder replaced = unloadedAndUnsavedChunkMap.put(chunk.getPosition(), builder);
+        long replacedBytes = 0;
+        if (replaced != null) {
+            replaced.discard();
+            replacedBytes = replaced.getEstimatedMemoryConsumptionInBytes();
+        }
+        unsavedChunkBytes.addAndGet(builder.getEstimatedMemoryConsumptionInBytes() - replacedBytes);
 
         entitiesOfChunk.forEach(this::deactivateOrDestroyEntityRecursive);
+        return new DeactivatedChunkStore(chunk, () -> EntitySnapshot.restoreAll(entitySnapshots, getEntityManager(),
+                entitySnapshotRestoringComponentLibrary));
+    }
+
+    /**
+     * The builder of a revived chunk switches to a snapshot, so it keeps storing the state of the unload. A chunk whose
+     * builder belongs to the running save is not revived, as that save might encode it right now. Neither is a chunk
+     * which still has a snapshot, e.g. as a sample of the dictionary training, as it has room for one snapshot only.
+     */
+    @Override
+    public boolean reviveChunk(Chunk chunk) {
+        CompressedChunkBuilder saving = unloadedAndSavingChunkMap.get(chunk.getPosition());
+        if (saving != null && saving.getChunk() == chunk) {
+            return false;
+        }
+        CompressedChunkBuilder unsaved = unloadedAndUnsavedChunkMap.get(chunk.getPosition());
+        if (unsaved != null && unsaved.getChunk() == chunk) {
+            if (((ChunkImpl) chunk).hasSnapshot()) {
+                return false;
+            }
+            unsaved.snapshotChunk();
+        }
+        return true;
+    }
+
+    @Override
+    public void restoreUnsavedChanges(Chunk chunk) {
+        if (blockChangeJournal != null) {
+            blockChangeJournal.restoreChanges((ChunkImpl) chunk);
+        }
+    }
+
+    @Override
+    public void onBlockChanged(Vector3ic pos, Block newBlock, Block originalBlock) {
+        if (blockChangeJournal != null) {
+            blockChangeJournal.recordBlockChange(pos, newBlock);
+        }
+    }
+
+    @Override
+    public void onExtraDataChanged(int i, Vector3ic pos, int newData, int oldData) {
+        if (blockChangeJournal != null) {
+            blockChangeJournal.recordExtraDataChange(i, pos, newData);
+        }
     }
 
     @Override
@@ -374,6 +622,7 @@ private void addGameManifestToSaveTransaction(SaveTransactionBuilder saveTransac
         }
         gameManifest.setRegisteredBlockFamilies(registeredBlockFamilies);
         gameManifest.setBlockIdMap(blockManager.getBlockIdMap());
+        gameManifest.setChunkCompressionDictionary(getChunkCompressionDictionary());
         List<WorldInfo> worlds = universeConfig.getWorlds();
         for (WorldInfo worldInfo: worlds) {
             gameManifest.addWorld(worldInfo);
@@ -411,10 +660,16 @@ private void startSaving() {
         for (ComponentSystem sys : componentSystemManager.getAllSystems()) {
             sys.preSave();
         }
+        // the save has to include the changes not delivered yet
+        getEntityManager().flushComponentChanges();
 
         saveRequested = false;
+        // queued before the save, so its sample snapshots are released before the save snapshots the chunks
+        offerChunkCompressionDictionaryTraining(CoreRegistry.get(ChunkProvider.class));
         saveTransaction = createSaveTransaction();
         saveThreadManager.offer(saveTransaction);
+        // the save includes everything an auto save would
+        scheduleNextAutoSave();
 
         if (recordAndReplayCurrentStatus.getStatus() == RecordAndReplayStatus.NOT_ACTIVATED) {
             saveGamePreviewImage();
@@ -436,6 +691,8 @@ private void startAutoSaving() {
             sys.preAutoSave();
         }
 
+        // queued before the save, so its sample snapshots are released before the save snapshots the chunks
+        offerChunkCompressionDictionaryTraining(CoreRegistry.get(ChunkProvider.class));
         saveTransaction = createSaveTransaction();
         saveThreadManager.offer(saveTransaction);
 
@@ -451,6 +708,15 @@ private void startAutoSaving() {
 
     private boolean isSavingNecessary() {
         ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
+        long maxUnsavedChunkBytes = (long) config.getSystem().getMaxUnsavedChunksMemoryInMb() * 1024 * 1024;
+        if (maxUnsavedChunkBytes > 0 && unsavedChunkBytes.get() >= maxUnsavedChunkBytes) {
+            long heldBytes = getUnsavedChunkBytesHeldForSaving(chunkProvider);
+            if (heldBytes >= maxUnsavedChunkBytes) {
+                logger.info("Unloaded chunks use {} MB, saving early", heldBytes / (1024 * 1024));
+                return true;
+            }
+        }
+
         int unloadedChunkCount = unloadedAndUnsavedChunkMap.size();
         int loadedChunkCount = chunkProvider.getAllChunks().size();
         double totalChunkCount = unloadedChunkCount + loadedChunkCount;
@@ -467,6 +733,22 @@ private boolean isSavingNecessary() {
         return currentTime >= nextAutoSave;
     }
 
+    /**
+     * Chunks which got revived or are kept by the unloaded chunk cache of the chunk provider use memory anyway, so they
+     * are not counted against the limit of the unsaved chunks.
+     *
+     * @return the estimated memory used by unsaved chunks which are only held until they get saved.
+     */
+    private long getUnsavedChunkBytesHeldForSaving(ChunkProvider chunkProvider) {
+        long heldBytes = 0;
+        for (CompressedChunkBuilder builder : unloadedAndUnsavedChunkMap.values()) {
+            if (!chunkProvider.isKeptInMemory(builder.getChunk())) {
+                heldBytes += builder.getEstimatedMemoryConsumptionInBytes();
+            }
+        }
+        return heldBytes;
+    }
+
     private void scheduleNextAutoSave() {
         long msBetweenAutoSave = (long) config.getSystem().getMaxSecondsBetweenSaves() * 1000;
         nextAutoSave = System.currentTimeMillis() + msBetweenAutoSave;
@@ -490,6 +772,11 @@ public void checkAndRepairSaveIfNecessary() throws IOException {
         saveTransactionHelper.cleanupSaveTransactionDirectory();
         if (Files.exists(getStoragePathProvider().getUnmergedChangesPath())) {
             saveTransactionHelper.mergeChanges();
+            // the merged manifest might be the first one with the dictionary
+            if (getChunkCompressionDictionary() == null) {
+                setChunkCompressionDictionary(loadChunkCompressionDictionary());
+                chunkCodec = createChunkCodec();
+            }
         }
     }
 
@@ -498,12 +785,17 @@ public void checkAndRepairSaveIfNecessary() throws IOException {
     public void deleteWorld() {
         waitForCompletionOfPreviousSave();
         unloadedAndUnsavedChunkMap.clear();
+        unsavedChunkBytes.set(0);
         unloadedAndSavingChunkMap.clear();
         unloadedAndUnsavedPlayerMap.clear();
         unloadedAndSavingPlayerMap.clear();
 
         try {
             FilesUtil.recursiveDelete(getStoragePathProvider().getWorldPath());
+            getStoredChunkIndex().clear();
+            if (blockChangeJournal != null) {
+                blockChangeJournal.discard();
+            }
         } catch (IOException e) {
             logger.error("Failed to purge chunks", e);
         }
@@ -18,6 +18,11 @@
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
+import gnu.trove.procedure.TLongProcedure;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import org.joml.Vector3f;
 import org.joml.Vector3i;
 import org.slf4j.Logger;
@@ -26,6 +31,7 @@
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.entity.internal.OwnershipHelper;
 import org.terasology.game.GameManifest;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.ChunkMath;
@@ -58,6 +64,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -75,22 +82,33 @@ public class SaveTransaction extends AbstractTask {
     private final EngineEntityManager privateEntityManager;
     private final EntitySetDeltaRecorder deltaToSave;
     private volatile SaveTransactionResult result;
+    private final CountDownLatch completion = new CountDownLatch(1);
 
     // Unprocessed data to save:
     private final Map<String, EntityData.PlayerStore> unloadedPlayers;
     private final Map<String, PlayerStoreBuilder> loadedPlayers;
     private final Map<Vector3i, CompressedChunkBuilder> unloadedChunks;
     private final Map<Vector3i, ChunkImpl> loadedChunks;
+    private final Set<Vector3i> unmodifiedChunks;
     private final GlobalStoreBuilder globalStoreBuilder;
 
     // processed data:
     private EntityData.GlobalStore globalStore;
+    private Map<Integer, List<EntityRef>> globalEntityShards;
+    private Map<Integer, EntityData.GlobalStore> dirtyGlobalStoreShards;
     private Map<String, EntityData.PlayerStore> allPlayers;
     private Map<Vector3i, CompressedChunkBuilder> allChunks;
+    private Set<Vector3i> chunksWithChangedEntities;
+    private final Map<ChunkImpl, Integer> writtenChunkVersions = Maps.newHashMap();
+    private int skippedChunkCount;
 
 
     // Save parameters:
     private final boolean storeChunksInZips;
+    private final int encodingThreads;
+    private final ChunkCodec chunkCodec;
+    private final StoredChunkIndex storedChunkIndex;
+    private final GlobalStoreShards globalStoreShards;
 
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
@@ -106,8 +124,11 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
                            Map<String, EntityData.PlayerStore> unloadedPlayers,
                            Map<String, PlayerStoreBuilder> loadedPlayers, GlobalStoreBuilder globalStoreBuilder,
                            Map<Vector3i, CompressedChunkBuilder> unloadedChunks, Map<Vector3i, ChunkImpl> loadedChunks,
-                           GameManifest gameManifest, boolean storeChunksInZips,
-                           StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock,
+                           Set<Vector3i> unmodifiedChunks,
+                           GameManifest gameManifest, boolean storeChunksInZips, int encodingThreads,
+                           ChunkCodec chunkCodec, StoragePathProvider storagePathProvider,
+                           StoredChunkIndex storedChunkIndex, GlobalStoreShards globalStoreShards,
+                           Lock worldDirectoryWriteLock,
                            RecordAndReplaySerializer recordAndReplaySerializer,
                            RecordAndReplayUtils recordAndReplayUtils,
                            RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
@@ -117,10 +138,15 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
         this.loadedPlayers = loadedPlayers;
         this.unloadedChunks = unloadedChunks;
         this.loadedChunks = loadedChunks;
+        this.unmodifiedChunks = unmodifiedChunks;
         this.globalStoreBuilder = globalStoreBuilder;
         this.gameManifest = gameManifest;
         this.storeChunksInZips = storeChunksInZips;
+        this.encodingThreads = encodingThreads;
+        this.chunkCodec = chunkCodec;
         this.storagePathProvider = storagePathProvider;
+        this.storedChunkIndex = storedChunkIndex;
+        this.globalStoreShards = globalStoreShards;
         this.saveTransactionHelper = new SaveTransactionHelper(storagePathProvider);
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
         this.recordAndReplaySerializer = recordAndReplaySerializer;
@@ -136,15 +162,23 @@ public String getName() {
 
     @Override
     public void run() {
-        if (isReplay()) {
-            return;
+        try {
+            if (!isReplay()) {
+                save();
+            }
+        } finally {
+            completion.countDown();
         }
+    }
+
+    private void save() {
         try {
             if (Files.exists(storagePathProvider.getUnmergedChangesPath())) {
                 // should not happen, as initialization should clean it up
                 throw new IOException("Save rand while there were unmerged changes");
             }
             saveTransactionHelper.cleanupSaveTransactionDirectory();
+            chunksWithChangedEntities = findChunksOfChangedEntities();
             applyDeltaToPrivateEntityManager();
             prepareChunksPlayersAndGlobalStore();
             createPreviewImagesFolder();
@@ -155,11 +189,15 @@ public void run() {
             saveGameManifest();
             perpareChangesForMerge();
             mergeChanges();
+            writtenChunkVersions.forEach(ChunkImpl::markSaved);
+            globalStoreShards.markSaved(globalEntityShards);
             result = SaveTransactionResult.createSuccessResult();
-            logger.info("Save game finished");
+            logger.info("Save game finished: {} chunks written, {} unchanged chunks skipped", allChunks.size(),
+                    skippedChunkCount);
             saveRecordingData();
         } catch (IOException | RuntimeException t) {
             logger.error("Save game creation failed", t);
+            globalStoreShards.invalidate();
             result = SaveTransactionResult.createFailureResult(t);
         }
     }
@@ -209,16 +247,39 @@ private void prepareChunksPlayersAndGlobalStore() {
         }
         preparePlayerStores(unsavedEntities);
         prepareCompressedChunkBuilders(unsavedEntities);
-        this.globalStore = globalStoreBuilder.build(privateEntityManager, unsavedEntities);
+        prepareGlobalStore(unsavedEntities);
+    }
+
+    /**
+     * @param unsavedEntities the persistent entities which are neither stored with a player nor with a chunk.
+     */
+    private void prepareGlobalStore(Set<EntityRef> unsavedEntities) {
+        globalStore = globalStoreBuilder.buildHeader(privateEntityManager);
+        globalEntityShards = GlobalStoreShards.groupByShard(unsavedEntities);
+
+        TLongSet changedEntityIds = new TLongHashSet(deltaToSave.getEntityDeltas().keySet());
+        changedEntityIds.addAll(deltaToSave.getDestroyedEntities());
+        changedEntityIds.addAll(deltaToSave.getDeactivatedEntities());
+        dirtyGlobalStoreShards = Maps.newTreeMap();
+        for (int shard : globalStoreShards.findDirtyShards(globalEntityShards, changedEntityIds)) {
+            List<EntityRef> entities = globalEntityShards.getOrDefault(shard, Collections.emptyList());
+            dirtyGlobalStoreShards.put(shard, globalStoreBuilder.buildShard(privateEntityManager, entities));
+        }
+        logger.debug("Writing {} of {} global entity shards", dirtyGlobalStoreShards.size(), globalEntityShards.size());
     }
 
 
     /**
+     * Loaded chunks whose block data and entities did not change since they were last saved are skipped. Their
+     * entities are removed from the unsaved entities nevertheless, as they are stored with the chunk already.
+     *
      * @param unsavedEntities currently loaded persistent entities without owner that have not been saved yet.
      *                        This method removes entities it saves.
      */
     private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
         Map<Vector3i, Collection<EntityRef>> chunkPosToEntitiesMap = createChunkPosToUnsavedOwnerLessEntitiesMap();
+        OwnershipHelper ownershipHelper = new OwnershipHelper(privateEntityManager.getComponentLibrary());
+        TLongSet changedEntityIds = new TLongHashSet(deltaToSave.getEntityDeltas().keySet());
 
         allChunks = Maps.newHashMap();
         allChunks.putAll(unloadedChunks);
@@ -228,14 +289,65 @@ private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
                 entitiesToStore = Collections.emptySet();
             }
             ChunkImpl chunk = chunkEntry.getValue();
+            if (unmodifiedChunks.contains(chunkEntry.getKey())
+                    && !chunksWithChangedEntities.contains(chunkEntry.getKey())) {
+                Set<EntityRef> storedEntities = Sets.newHashSet();
+                entitiesToStore.forEach(entity -> addWithOwnedEntities(entity, ownershipHelper, storedEntities));
+                if (storedEntities.stream().noneMatch(entity -> changedEntityIds.contains(entity.getId()))) {
+                    unsavedEntities.removeAll(storedEntities);
+                    skippedChunkCount++;
+                    continue;
+                }
+            }
+            int editVersion = chunk.getEditVersion();
             unsavedEntities.removeAll(entitiesToStore);
             CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(privateEntityManager, chunk,
-                    entitiesToStore, false);
+                    entitiesToStore, false, chunkCodec);
             unsavedEntities.removeAll(compressedChunkBuilder.getStoredEntities());
             allChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
+            writtenChunkVersions.put(chunk, editVersion);
         }
     }
 
+    /**
+     * Collects the entity and the entities it owns, the same way as {@link EntityStorer} stores them.
+     */
+    private void addWithOwnedEntities(EntityRef entity, OwnershipHelper ownershipHelper, Set<EntityRef> result) {
+        if (entity.isActive() && result.add(entity)) {
+            for (EntityRef ownedEntity : ownershipHelper.listOwnedEntities(entity)) {
+                if (!ownedEntity.isAlwaysRelevant() && ownedEntity.isPersistent()) {
+                    addWithOwnedEntities(ownedEntity, ownershipHelper, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Must be called before the delta gets applied, to find the chunks changed entities were located in before.
+     *
+     * @return the positions of the chunks which contained entities that got changed or destroyed since the last save.
+     */
+    private Set<Vector3i> findChunksOfChangedEntities() {
+        Set<Vector3i> result = Sets.newHashSet();
+        TLongProcedure addChunkOfEntity = entityId -> {
+            if (privateEntityManager.isActiveEntity(entityId)) {
+                LocationComponent location = privateEntityManager.getEntity(entityId).getComponent(LocationComponent.class);
+                if (location != null) {
+                    result.add(calcChunkPos(location));
+                }
+            }
+            return true;
+        };
+        deltaToSave.getEntityDeltas().keySet().forEach(addChunkOfEntity);
+        deltaToSave.getDestroyedEntities().forEach(addChunkOfEntity);
+        return result;
+    }
+
+    private static Vector3i calcChunkPos(LocationComponent location) {
+        Vector3f loc = location.getWorldPosition(new Vector3f());
+        return ChunkMath.calcChunkPos((int) loc.x, (int) loc.y, (int) loc.z, new Vector3i());
+    }
+
     /**
      * @param unsavedEntities currently loaded persistent entities without owner that have not been saved yet.
      *                        This method removes entities it saves.
@@ -267,8 +379,7 @@ private Map<Vector3i, Collection<EntityRef>> createChunkPosToUnsavedOwnerLessEnt
                     && !entity.isAlwaysRelevant()) {
                 LocationComponent locationComponent = entity.getComponent(LocationComponent.class);
                 if (locationComponent != null) {
-                    Vector3f loc = locationComponent.getWorldPosition(new Vector3f());
-                    Vector3i chunkPos = ChunkMath.calcChunkPos((int) loc.x, (int) loc.y, (int) loc.z, new Vector3i());
+                    Vector3i chunkPos = calcChunkPos(locationComponent);
                     Collection<EntityRef> collection = chunkPosToEntitiesMap.get(chunkPos);
                     if (collection == null) {
                         collection = Lists.newArrayList();
@@ -397,6 +508,15 @@ private void writeGlobalStore() throws IOException {
         try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
             globalStore.writeTo(out);
         }
+        if (!dirtyGlobalStoreShards.isEmpty()) {
+            Files.createDirectories(storagePathProvider.getGlobalEntityShardsTempPath());
+        }
+        for (Map.Entry<Integer, EntityData.GlobalStore> shard : dirtyGlobalStoreShards.entrySet()) {
+            Path shardPath = storagePathProvider.getGlobalEntityShardTempPath(shard.getKey());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(shardPath))) {
+                shard.getValue().writeTo(out);
+            }
+        }
     }
 
     private void writeChunkStores() throws IOException {
@@ -404,22 +524,22 @@ private void writeChunkStores() throws IOException {
         Files.createDirectories(chunksPath);
         if (storeChunksInZips) {
             Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
-                Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
-                FileSystem zip = newChunkZips.get(chunkZipPos);
-                if (zip == null) {
-                    Path targetPath = storagePathProvider.getChunkZipTempPath(chunkZipPos);
-                    Files.deleteIfExists(targetPath);
-                    zip = FileSystems.newFileSystem(URI.create("jar:" + targetPath.toUri()), CREATE_ZIP_OPTIONS);
-                    newChunkZips.put(chunkZipPos, zip);
-                }
-                Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(chunkPos));
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
-                try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
-                    bos.write(compressedChunk);
-                }
+            try (ParallelChunkEncoder encoder = new ParallelChunkEncoder(encodingThreads)) {
+                encoder.encode(groupChunksByZip(), (chunkPos, compressedChunk) -> {
+                    Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
+                    FileSystem zip = newChunkZips.get(chunkZipPos);
+                    if (zip == null) {
+                        Path targetPath = storagePathProvider.getChunkZipTempPath(chunkZipPos);
+                        Files.deleteIfExists(targetPath);
+                        zip = FileSystems.newFileSystem(URI.create("jar:" + targetPath.toUri()), CREATE_ZIP_OPTIONS);
+                        newChunkZips.put(chunkZipPos, zip);
+                    }
+                    Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(chunkPos));
+                    try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
+                        bos.write(compressedChunk);
+                    }
+                    storedChunkIndex.markStored(chunkPos);
+                });
             }
             // Copy existing, unmodified content into the zips and close them
             for (Map.Entry<Vector3i, FileSystem> chunkZipEntry : newChunkZips.entrySet()) {
@@ -443,20 +563,36 @@ public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
                     }
                 }
                 zip.close();
+                storedChunkIndex.writeIndexFile(chunkZipPos, storagePathProvider.getChunkZipTempPath(chunkZipPos),
+                        storagePathProvider.getChunkIndexTempPath(chunkZipPos));
             }
         } else {
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
-                Path chunkPath = storagePathProvider.getChunkTempPath(chunkPos);
-                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
-                    out.write(compressedChunk);
-                }
+            try (ParallelChunkEncoder encoder = new ParallelChunkEncoder(encodingThreads)) {
+                encoder.encode(allChunks.entrySet(), (chunkPos, compressedChunk) -> {
+                    Path chunkPath = storagePathProvider.getChunkTempPath(chunkPos);
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
+                        out.write(compressedChunk);
+                    }
+                    storedChunkIndex.markStored(chunkPos);
+                });
             }
         }
     }
 
+    /**
+     * @return all chunks to write, with the chunks of the same zip next to each other.
+     */
+    private List<Map.Entry<Vector3i, CompressedChunkBuilder>> groupChunksByZip() {
+        Map<Vector3i, List<Map.Entry<Vector3i, CompressedChunkBuilder>>> chunksByZip = Maps.newLinkedHashMap();
+        for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
+            Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(entry.getKey());
+            chunksByZip.computeIfAbsent(chunkZipPos, pos -> Lists.newArrayList()).add(entry);
+        }
+        List<Map.Entry<Vector3i, CompressedChunkBuilder>> result = Lists.newArrayListWithCapacity(allChunks.size());
+        chunksByZip.values().forEach(result::addAll);
+        return result;
+    }
+
     /**
      * @return the result if there is one yet or null. This method returns the value of a volatile variable and
      * can thus be used even from another thread.
@@ -465,6 +601,13 @@ public SaveTransactionResult getResult() {
         return result;
     }
 
+    /**
+     * Blocks until the transaction ran, whether it succeeded or not.
+     */
+    public void awaitCompletion() {
+        Uninterruptibles.awaitUninterruptibly(completion);
+    }
+
     private void saveGameManifest() {
         try {
             Path path = storagePathProvider.getGameManifestTempPath();
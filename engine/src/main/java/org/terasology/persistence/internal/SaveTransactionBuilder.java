@@ -16,7 +16,9 @@
 package org.terasology.persistence.internal;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.joml.Vector3i;
+import org.joml.Vector3ic;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.game.GameManifest;
 import org.terasology.math.JomlUtil;
@@ -27,6 +29,7 @@
 import org.terasology.world.chunks.internal.ChunkImpl;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -41,23 +44,34 @@ class SaveTransactionBuilder {
     private Map<String, PlayerStoreBuilder> loadedPlayers = Maps.newHashMap();
     private Map<Vector3i, CompressedChunkBuilder> unloadedChunks = Maps.newHashMap();
     private Map<Vector3i, ChunkImpl> loadedChunks = Maps.newHashMap();
+    private Set<Vector3i> unmodifiedChunks = Sets.newHashSet();
     private GlobalStoreBuilder globalStoreBuilder;
     private final boolean storeChunksInZips;
+    private final int encodingThreads;
+    private final ChunkCodec chunkCodec;
     private final StoragePathProvider storagePathProvider;
+    private final StoredChunkIndex storedChunkIndex;
+    private final GlobalStoreShards globalStoreShards;
     private GameManifest gameManifest;
     private RecordAndReplaySerializer recordAndReplaySerializer;
     private RecordAndReplayUtils recordAndReplayUtils;
     private RecordAndReplayCurrentStatus recordAndReplayCurrentStatus;
 
     SaveTransactionBuilder(EngineEntityManager privateEntityManager, EntitySetDeltaRecorder deltaToSave,
-                           boolean storeChunksInZips, StoragePathProvider storagePathProvider,
+                           boolean storeChunksInZips, int encodingThreads, ChunkCodec chunkCodec,
+                           StoragePathProvider storagePathProvider, StoredChunkIndex storedChunkIndex,
+                           GlobalStoreShards globalStoreShards,
                            Lock worldDirectoryWriteLock, RecordAndReplaySerializer recordAndReplaySerializer,
                            RecordAndReplayUtils recordAndReplayUtils,
                            RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
         this.storeChunksInZips = storeChunksInZips;
+        this.encodingThreads = encodingThreads;
+        this.chunkCodec = chunkCodec;
         this.storagePathProvider = storagePathProvider;
+        this.storedChunkIndex = storedChunkIndex;
+        this.globalStoreShards = globalStoreShards;
         this.worldDirectoryWriteLock = worldDirectoryWriteLock;
         this.recordAndReplaySerializer = recordAndReplaySerializer;
         this.recordAndReplayUtils = recordAndReplayUtils;
@@ -85,10 +99,23 @@ void addLoadedChunk(final org.terasology.math.geom.Vector3i chunkPosition, final
         loadedChunks.put(JomlUtil.from(chunkPosition), chunk);
     }
 
+    /**
+     * Adds a loaded chunk whose block data matches the save game. It only gets written if its entities changed.
+     */
+    void addUnmodifiedLoadedChunk(final org.terasology.math.geom.Vector3i chunkPosition, final ChunkImpl chunk) {
+        addLoadedChunk(chunkPosition, chunk);
+        unmodifiedChunks.add(JomlUtil.from(chunkPosition));
+    }
+
+    boolean containsChunk(Vector3ic chunkPosition) {
+        return loadedChunks.containsKey(chunkPosition) || unloadedChunks.containsKey(chunkPosition);
+    }
+
     public SaveTransaction build() {
         return new SaveTransaction(privateEntityManager, deltaToSave, unloadedPlayers, loadedPlayers, globalStoreBuilder,
-                unloadedChunks, loadedChunks, gameManifest, storeChunksInZips, storagePathProvider,
-                worldDirectoryWriteLock, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+                unloadedChunks, loadedChunks, unmodifiedChunks, gameManifest, storeChunksInZips, encodingThreads,
+                chunkCodec, storagePathProvider, storedChunkIndex, globalStoreShards, worldDirectoryWriteLock,
+                recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
 
     }
 
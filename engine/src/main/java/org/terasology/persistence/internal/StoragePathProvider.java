@@ -30,9 +30,13 @@ public class StoragePathProvider {
     private static final String PREVIEWS_PATH = "previews";
     private static final String PLAYER_STORE_EXTENSION = ".player";
     private static final String GLOBAL_ENTITY_STORE = "global.dat";
+    private static final String GLOBAL_ENTITY_SHARDS = "global-entities";
+    private static final String GLOBAL_ENTITY_SHARD_EXTENSION = ".dat";
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
-    private static final int CHUNK_ZIP_DIM = 32;
+    private static final String BLOCK_CHANGE_JOURNAL = "block-change-journal";
+    private static final String CHUNK_COMPRESSION_DICTIONARY = "chunk-compression-dictionary.dat";
+    static final int CHUNK_ZIP_DIM = 32;
 
     private final Path storagePathDirectory;
     private final Path playersPath;
@@ -98,6 +102,14 @@ public Path getChunkZipTempPath(Vector3i chunkZipPos) {
         return getWorldTempPath().resolve(getChunkZipFilename(chunkZipPos));
     }
 
+    public Path getChunkIndexPath(Vector3i chunkZipPos) {
+        return worldPath.resolve(getChunkIndexFilename(chunkZipPos));
+    }
+
+    public Path getChunkIndexTempPath(Vector3i chunkZipPos) {
+        return getWorldTempPath().resolve(getChunkIndexFilename(chunkZipPos));
+    }
+
     public Path getGlobalEntityStorePath() {
         return globalEntityStorePath;
     }
@@ -106,6 +118,41 @@ public Path getGlobalEntityStoreTempPath() {
         return unfinishedSaveTransactionPath.resolve(GLOBAL_ENTITY_STORE);
     }
 
+    public Path getGlobalEntityShardsPath() {
+        return storagePathDirectory.resolve(GLOBAL_ENTITY_SHARDS);
+    }
+
+    public Path getGlobalEntityShardsTempPath() {
+        return unfinishedSaveTransactionPath.resolve(GLOBAL_ENTITY_SHARDS);
+    }
+
+    public Path getGlobalEntityShardPath(int shard) {
+        return getGlobalEntityShardsPath().resolve(getGlobalEntityShardFilename(shard));
+    }
+
+    public Path getGlobalEntityShardTempPath(int shard) {
+        return getGlobalEntityShardsTempPath().resolve(getGlobalEntityShardFilename(shard));
+    }
+
+    /**
+     * @return the shard stored in the given file, or -1 if it is no global entity shard.
+     */
+    public int getGlobalEntityShard(Path shardPath) {
+        String filename = shardPath.getFileName().toString();
+        if (!filename.endsWith(GLOBAL_ENTITY_SHARD_EXTENSION)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(filename.substring(0, filename.length() - GLOBAL_ENTITY_SHARD_EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String getGlobalEntityShardFilename(int shard) {
+        return shard + GLOBAL_ENTITY_SHARD_EXTENSION;
+    }
+
     public String getChunkFilename(Vector3ic pos) {
         return String.format("%d.%d.%d.chunk", pos.x(), pos.y(), pos.z());
     }
@@ -115,6 +162,10 @@ private String getChunkZipFilename(Vector3ic pos) {
         return String.format("%d.%d.%d.chunks.zip", pos.x(), pos.y(), pos.z());
     }
 
+    private String getChunkIndexFilename(Vector3ic pos) {
+        return String.format("%d.%d.%d.chunks.idx", pos.x(), pos.y(), pos.z());
+    }
+
     public Vector3i getChunkZipPosition(Vector3ic chunkPos) {
         Vector3i result = new Vector3i(chunkPos);
         result.div(CHUNK_ZIP_DIM);
@@ -151,6 +202,14 @@ public Path getUnmergedChangesPath() {
         return unmergedChangesPath;
     }
 
+    public Path getBlockChangeJournalPath() {
+        return storagePathDirectory.resolve(BLOCK_CHANGE_JOURNAL);
+    }
+
+    public Path getChunkCompressionDictionaryPath() {
+        return storagePathDirectory.resolve(CHUNK_COMPRESSION_DICTIONARY);
+    }
+
     public Path getStoragePathDirectory() {
         return storagePathDirectory;
     }
@@ -0,0 +1,205 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Maps;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Knows which chunk positions have stored data, so looking up chunks which were never saved needs no I/O.
+ * <p>
+ * The index keeps a bitmap per chunk zip, with one bit per chunk of the zip. The bitmap of a zip is read when a chunk
+ * of the zip is looked up the first time: from the index file saved next to the zip if it matches the zip, otherwise
+ * by listing the entries of the zip once. Without chunk zips, the world directory is listed once instead.
+ * <p>
+ * Saving marks the written chunks as stored and writes the index file of every written zip. Marking happens before
+ * the files are merged into the save, as a chunk wrongly considered stored only costs a lookup, while a chunk wrongly
+ * considered missing would be generated again.
+ */
+class StoredChunkIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoredChunkIndex.class);
+
+    private static final int INDEX_FILE_VERSION = 1;
+    private static final int REGION_SIZE = StoragePathProvider.CHUNK_ZIP_DIM;
+    private static final Pattern CHUNK_FILE_NAME = Pattern.compile("(-?\\d+)\\.(-?\\d+)\\.(-?\\d+)\\.chunk");
+
+    private final StoragePathProvider storagePathProvider;
+    private final boolean chunksInZips;
+    private final ConcurrentMap<Vector3i, BitSet> regions = Maps.newConcurrentMap();
+    private volatile boolean worldDirectoryListed;
+
+    StoredChunkIndex(StoragePathProvider storagePathProvider, boolean chunksInZips) {
+        this.storagePathProvider = storagePathProvider;
+        this.chunksInZips = chunksInZips;
+    }
+
+    /**
+     * @return false if the chunk has no stored data for sure, true if it may have.
+     */
+    boolean mayContain(Vector3ic chunkPos) {
+        BitSet region = getRegion(storagePathProvider.getChunkZipPosition(chunkPos));
+        synchronized (region) {
+            return region.get(indexInRegion(chunkPos));
+        }
+    }
+
+    void markStored(Vector3ic chunkPos) {
+        BitSet region = getRegion(storagePathProvider.getChunkZipPosition(chunkPos));
+        synchronized (region) {
+            region.set(indexInRegion(chunkPos));
+        }
+    }
+
+    /**
+     * Writes the index file of a chunk zip.
+     *
+     * @param chunkZipPos the position of the zip.
+     * @param zipPath     the zip the index file describes. It must contain all chunks marked as stored.
+     * @param indexPath   where to write the index file to.
+     */
+    void writeIndexFile(Vector3i chunkZipPos, Path zipPath, Path indexPath) throws IOException {
+        BitSet region = getRegion(chunkZipPos);
+        long[] bits;
+        synchronized (region) {
+            bits = region.toLongArray();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath)))) {
+            out.writeInt(INDEX_FILE_VERSION);
+            out.writeLong(Files.size(zipPath));
+            out.writeInt(bits.length);
+            for (long word : bits) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    synchronized void clear() {
+        worldDirectoryListed = false;
+        regions.clear();
+    }
+
+    private BitSet getRegion(Vector3ic chunkZipPos) {
+        if (!chunksInZips && !worldDirectoryListed) {
+            // the regions must not be used before the listing completed them
+            listWorldDirectory();
+        }
+        BitSet region = regions.get(chunkZipPos);
+        if (region != null) {
+            return region;
+        }
+        if (!chunksInZips) {
+            return regions.computeIfAbsent(new Vector3i(chunkZipPos), pos -> new BitSet());
+        }
+        return regions.computeIfAbsent(new Vector3i(chunkZipPos), this::readRegion);
+    }
+
+    private BitSet readRegion(Vector3i chunkZipPos) {
+        Path zipPath = storagePathProvider.getChunkZipPath(chunkZipPos);
+        if (!Files.isRegularFile(zipPath)) {
+            return new BitSet();
+        }
+        BitSet region = readIndexFile(zipPath, storagePathProvider.getChunkIndexPath(chunkZipPos));
+        if (region != null) {
+            return region;
+        }
+        region = new BitSet();
+        try (FileSystem zip = FileSystems.newFileSystem(zipPath, null)) {
+            for (Path root : zip.getRootDirectories()) {
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(root)) {
+                    for (Path entry : entries) {
+                        Vector3i chunkPos = parseChunkFilename(entry.getFileName().toString());
+                        if (chunkPos != null) {
+                            region.set(indexInRegion(chunkPos));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to index chunk zip {}, assuming it contains all its chunks", zipPath, e);
+            region.set(0, REGION_SIZE * REGION_SIZE * REGION_SIZE);
+        }
+        return region;
+    }
+
+    private static BitSet readIndexFile(Path zipPath, Path indexPath) {
+        if (!Files.isRegularFile(indexPath)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            if (in.readInt() != INDEX_FILE_VERSION || in.readLong() != Files.size(zipPath)) {
+                return null;
+            }
+            long[] bits = new long[in.readInt()];
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = in.readLong();
+            }
+            return BitSet.valueOf(bits);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable chunk index {}", indexPath, e);
+            return null;
+        }
+    }
+
+    /**
+     * Builds the regions of all chunk files in the world directory, and publishes them at once when the listing is
+     * complete. Chunks of the regions are looked up only after that, see {@link #getRegion(Vector3ic)}.
+     */
+    private synchronized void listWorldDirectory() {
+        if (worldDirectoryListed) {
+            return;
+        }
+        Map<Vector3i, BitSet> listedRegions = Maps.newHashMap();
+        Path worldPath = storagePathProvider.getWorldPath();
+        if (Files.isDirectory(worldPath)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(worldPath)) {
+                for (Path file : files) {
+                    Vector3i chunkPos = parseChunkFilename(file.getFileName().toString());
+                    if (chunkPos != null) {
+                        listedRegions.computeIfAbsent(storagePathProvider.getChunkZipPosition(chunkPos),
+                                pos -> new BitSet()).set(indexInRegion(chunkPos));
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Failed to index the chunks of {}", worldPath, e);
+            }
+        }
+        regions.putAll(listedRegions);
+        worldDirectoryListed = true;
+    }
+
+    private static Vector3i parseChunkFilename(String filename) {
+        Matcher matcher = CHUNK_FILE_NAME.matcher(filename);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new Vector3i(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)),
+                Integer.parseInt(matcher.group(3)));
+    }
+
+    private static int indexInRegion(Vector3ic chunkPos) {
+        int x = Math.floorMod(chunkPos.x(), REGION_SIZE);
+        int y = Math.floorMod(chunkPos.y(), REGION_SIZE);
+        int z = Math.floorMod(chunkPos.z(), REGION_SIZE);
+        return x + REGION_SIZE * (y + REGION_SIZE * z);
+    }
+}
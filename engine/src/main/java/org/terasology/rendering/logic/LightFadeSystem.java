@@ -17,6 +17,7 @@
 
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.EntityView;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
 import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
@@ -33,6 +34,13 @@ public class LightFadeSystem extends BaseComponentSystem implements UpdateSubscr
     @In
     private EntityManager entityManager;
 
+    private EntityView fadingLights;
+
+    @Override
+    public void initialise() {
+        fadingLights = entityManager.getEntityView(LightFadeComponent.class, LightComponent.class);
+    }
+
     @ReceiveEvent(components = LightFadeComponent.class)
     public void startLightFade(OnActivatedComponent event, EntityRef entity, LightComponent light) {
         light.simulateFading = true;
@@ -47,7 +55,7 @@ public void stopLightFade(BeforeDeactivateComponent event, EntityRef entity, Lig
 
     @Override
     public void update(float delta) {
-        for (EntityRef fadingLight : entityManager.getEntitiesWith(LightFadeComponent.class, LightComponent.class)) {
+        for (EntityRef fadingLight : fadingLights) {
             LightFadeComponent fade = fadingLight.getComponent(LightFadeComponent.class);
             LightComponent light = fadingLight.getComponent(LightComponent.class);
 
@@ -47,6 +47,7 @@
 import org.terasology.nui.databinding.Binding;
 import org.terasology.rendering.nui.layers.mainMenu.preview.FacetLayerPreview;
 import org.terasology.rendering.nui.layers.mainMenu.preview.PreviewGenerator;
+import org.terasology.rendering.nui.layers.mainMenu.preview.PreviewTextureUpdater;
 import org.terasology.nui.layouts.PropertyLayout;
 import org.terasology.nui.properties.Property;
 import org.terasology.nui.properties.PropertyOrdering;
@@ -114,6 +115,7 @@ public class PreviewWorldScreen extends CoreScreenLayer {
     private Texture texture;
 
     private boolean triggerUpdate;
+    private final PreviewTextureUpdater previewUpdater = new PreviewTextureUpdater();
     private String targetZone = "Surface";
 
     public PreviewWorldScreen() {
@@ -178,6 +180,7 @@ public void update(float delta) {
             updatePreview();
             triggerUpdate = false;
         }
+        previewUpdater.update(texture);
     }
 
     private void configureProperties() {
@@ -297,12 +300,15 @@ private void updatePreview() {
             if (zoneSelector.isVisible()) {
                 previewGen = zoneSelector.getSelection().preview(worldGenerator);
             }
-            previewGen.render(data, zoom, progressListener);
+            previewGen.render(data, zoom, progressListener, previewUpdater);
 
             return data;
         };
 
-        popup.onSuccess(texture::reload);
+        popup.onSuccess(data -> {
+            previewUpdater.discard();
+            texture.reload(data);
+        });
         popup.startOperation(operation, true);
     }
 
@@ -35,6 +35,7 @@
 import org.terasology.nui.databinding.Binding;
 import org.terasology.rendering.nui.layers.mainMenu.preview.FacetLayerPreview;
 import org.terasology.rendering.nui.layers.mainMenu.preview.PreviewGenerator;
+import org.terasology.rendering.nui.layers.mainMenu.preview.PreviewTextureUpdater;
 import org.terasology.nui.widgets.UIDropdownScrollable;
 import org.terasology.nui.widgets.UIImage;
 import org.terasology.nui.widgets.UISlider;
@@ -81,6 +82,7 @@ public class WorldPreGenerationScreen extends CoreScreenLayer implements UISlide
     private List<String> worldNames;
     private int seedNumber;
     private UISlider zoomSlider;
+    private final PreviewTextureUpdater previewUpdater = new PreviewTextureUpdater();
 
     /**
      * A function called before the screen comes to the forefront to setup the environment
@@ -190,6 +192,22 @@ public void set(String value) {
         });
     }
 
+    @Override
+    public void update(float delta) {
+        super.update(delta);
+
+        previewUpdater.update(texture);
+    }
+
+    @Override
+    public void onClosed() {
+        super.onClosed();
+
+        if (previewGen != null) {
+            previewGen.close();
+        }
+    }
+
     @Override
     public void onOpened() {
         super.onOpened();
@@ -252,12 +270,15 @@ private void updatePreview() {
             int zoom = TeraMath.floorToInt(zoomSlider.getValue());
             TextureData data = texture.getData();
 
-            previewGen.render(data, zoom, progressListener);
+            previewGen.render(data, zoom, progressListener, previewUpdater);
 
             return data;
         };
 
-        popup.onSuccess(texture::reload);
+        popup.onSuccess(data -> {
+            previewUpdater.discard();
+            texture.reload(data);
+        });
         popup.startOperation(operation, true);
     }
 
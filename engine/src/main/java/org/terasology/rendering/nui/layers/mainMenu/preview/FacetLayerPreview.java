@@ -47,16 +47,19 @@
 import java.awt.image.WritableRaster;
 import java.math.RoundingMode;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -77,11 +80,24 @@ public class FacetLayerPreview implements PreviewGenerator {
 
     private final List<FacetLayer> facetLayers;
 
-    private ExecutorService threadPool = Executors.newFixedThreadPool(
+    /**
+     * The minimum time between two intermediate images passed to the update listener.
+     */
+    private static final long UPDATE_INTERVAL_MS = 100;
+
+    private static final int TILE_CACHE_SIZE = 1024;
+
+    /**
+     * Rendered tiles are shared by all previews and keyed by the preview settings, so changing the zoom, the layers or
+     * the zone and re-opening a preview only render new tiles. The cache is bounded by its size and cleared by
+     * {@link #clearTileCache()} when the modules the tiles were rendered with go away.
+     */
+    private static final PreviewTileCache TILE_CACHE = new PreviewTileCache(TILE_CACHE_SIZE);
+
+    private static final ExecutorService TILE_POOL = Executors.newFixedThreadPool(
             Runtime.getRuntime().availableProcessors(),
             new TileThreadFactory());
 
-
     public FacetLayerPreview(WorldGenerator worldGenerator, List<FacetLayer> facetLayers) {
         this.worldGenerator = worldGenerator;
         this.facetLayers = facetLayers.stream()
@@ -99,57 +115,92 @@ public FacetLayerPreview(ModuleEnvironment environment, WorldGenerator worldGene
 
     @Override
     public ByteBuffer render(TextureData texData, int scale, ProgressListener progressListener) throws InterruptedException {
+        return render(texData, scale, progressListener, null);
+    }
+
+    /**
+     * Renders the tiles of the preview on a background pool, starting with the tiles closest to the center. Tiles are
+     * taken from the shared tile cache if possible and drawn as soon as they are done; a copy of the image is passed to
+     * the update listener at most every {@link #UPDATE_INTERVAL_MS} milliseconds while tiles are still missing.
+     */
+    @Override
+    public ByteBuffer render(TextureData texData, int scale, ProgressListener progressListener,
+                             Consumer<ByteBuffer> updateListener) throws InterruptedException {
         int width = texData.getWidth();
         int height  = texData.getWidth();
         final int offX = -width * scale / 2;
         final int offY = -height * scale / 2;
 
         worldGenerator.getWorld(); // trigger building the World now
+        String settingsKey = PreviewTileCache.createSettingsKey(worldGenerator, facetLayers);
 
         Rect2i worldArea = Rect2i.createFromMinAndSize(offX, offY, width * scale, height * scale);
         Rect2i tileArea = worldToTileArea(worldArea);
-        AtomicInteger tilesComplete = new AtomicInteger(0);
         int tileCount = tileArea.area();
+        int tilesComplete = 0;
 
         int[] masks = colorModel.getMasks();
         DataBufferInt imageBuffer = new DataBufferInt(width * height);
         WritableRaster raster = Raster.createPackedRaster(imageBuffer, width, height, width, masks, null);
         BufferedImage view = new BufferedImage(colorModel, raster, false, null);
+        ByteBuffer byteBuffer = texData.getBuffers()[0];
 
         Graphics2D g = view.createGraphics();
         g.scale(1f / scale, 1f / scale);
         g.translate(-offX, -offY);
         g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
 
-        Map<ImmutableVector2i, Future<BufferedImage>> imageFutures = new HashMap<>(tileCount);
+        List<ImmutableVector2i> positions = new ArrayList<>(tileCount);
         for (int z = tileArea.minY(); z < tileArea.maxY(); z++) {
             for (int x = tileArea.minX(); x < tileArea.maxX(); x++) {
-                ImmutableVector2i pos = new ImmutableVector2i(x, z);
-                imageFutures.put(pos, threadPool.submit(() -> {
-                    Region createRegion = createRegion(pos);
-                    BufferedImage image = rasterize(createRegion);
-                    if (progressListener != null) {
-                        progressListener.onProgress(tilesComplete.incrementAndGet() / (float) tileCount);
-                    }
-                    return image;
-                }));
+                positions.add(new ImmutableVector2i(x, z));
             }
         }
+        positions.sort(Comparator.comparingLong(FacetLayerPreview::distanceToCenter));
 
-        for (int z = tileArea.minY(); z < tileArea.maxY(); z++) {
-            for (int x = tileArea.minX(); x < tileArea.maxX(); x++) {
-                ImmutableVector2i pos = new ImmutableVector2i(x, z);
+        CompletionService<BufferedImage> completionService = new ExecutorCompletionService<>(TILE_POOL);
+        Map<Future<BufferedImage>, ImmutableVector2i> pending = new HashMap<>();
+        try {
+            for (ImmutableVector2i pos : positions) {
+                BufferedImage cached = TILE_CACHE.get(settingsKey, pos.getX(), pos.getY());
+                if (cached != null) {
+                    g.drawImage(cached, pos.getX() * TILE_SIZE_X, pos.getY() * TILE_SIZE_Y, null);
+                    tilesComplete++;
+                } else {
+                    pending.put(completionService.submit(() -> rasterize(createRegion(pos))), pos);
+                }
+            }
+            reportProgress(progressListener, tilesComplete, tileCount);
+            long lastUpdate = System.currentTimeMillis();
+            if (updateListener != null && tilesComplete > 0 && !pending.isEmpty()) {
+                publish(imageBuffer, byteBuffer, updateListener);
+            }
+
+            while (!pending.isEmpty()) {
+                Future<BufferedImage> future = completionService.take();
+                ImmutableVector2i pos = pending.remove(future);
                 try {
-                    BufferedImage tileImage = imageFutures.get(pos).get();
-                    g.drawImage(tileImage, x * TILE_SIZE_X, z * TILE_SIZE_Y, null);
+                    BufferedImage tileImage = future.get();
+                    TILE_CACHE.put(settingsKey, pos.getX(), pos.getY(), tileImage);
+                    g.drawImage(tileImage, pos.getX() * TILE_SIZE_X, pos.getY() * TILE_SIZE_Y, null);
                 } catch (ExecutionException e) {
                     logger.warn("Could not rasterize tile {}", pos, e);
                 }
+                tilesComplete++;
+                reportProgress(progressListener, tilesComplete, tileCount);
 
+                long now = System.currentTimeMillis();
+                if (updateListener != null && !pending.isEmpty() && now - lastUpdate >= UPDATE_INTERVAL_MS) {
+                    lastUpdate = now;
+                    publish(imageBuffer, byteBuffer, updateListener);
+                }
                 if (Thread.currentThread().isInterrupted()) {
                     throw new InterruptedException();
                 }
             }
+        } finally {
+            // tiles of an interrupted preview are not needed anymore
+            pending.keySet().forEach(future -> future.cancel(true));
         }
 
         // draw coordinate lines through 0 / 0
@@ -159,16 +210,44 @@ public ByteBuffer render(TextureData texData, int scale, ProgressListener progre
 
         g.dispose();
 
-        int[] data = imageBuffer.getData();
-        ByteBuffer byteBuffer = texData.getBuffers()[0];
-        byteBuffer.asIntBuffer().put(data);
-
+        byteBuffer.asIntBuffer().put(imageBuffer.getData());
         return byteBuffer;
     }
 
+    private static long distanceToCenter(ImmutableVector2i tile) {
+        long dx = tile.getX() * 2L + 1;
+        long dz = tile.getY() * 2L + 1;
+        return dx * dx + dz * dz;
+    }
+
+    private static void reportProgress(ProgressListener progressListener, int tilesComplete, int tileCount) {
+        if (progressListener != null) {
+            progressListener.onProgress(tilesComplete / (float) tileCount);
+        }
+    }
+
+    /**
+     * Passes a copy of the image to the update listener. The texture data is not written, as the main thread may be
+     * uploading it at the same time.
+     */
+    private static void publish(DataBufferInt imageBuffer, ByteBuffer byteBuffer, Consumer<ByteBuffer> updateListener) {
+        int[] pixels = imageBuffer.getData();
+        ByteBuffer copy = ByteBuffer.allocateDirect(pixels.length * Integer.BYTES).order(byteBuffer.order());
+        copy.asIntBuffer().put(pixels);
+        updateListener.accept(copy);
+    }
+
+    /**
+     * Drops all cached tiles, for when the module environment the previews were rendered with gets torn down.
+     */
+    public static void clearTileCache() {
+        TILE_CACHE.clear();
+    }
+
     @Override
     public void close() {
-        threadPool.shutdown();
+        // the tile pool and the tile cache are shared between previews, running tiles are cancelled when rendering
+        // stops and cached tiles are kept for re-opening the preview
     }
 
     private Region createRegion(ImmutableVector2i chunkPos) {
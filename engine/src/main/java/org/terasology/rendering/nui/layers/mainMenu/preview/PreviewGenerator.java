@@ -17,6 +17,7 @@
 package org.terasology.rendering.nui.layers.mainMenu.preview;
 
 import java.nio.ByteBuffer;
+import java.util.function.Consumer;
 
 import org.terasology.rendering.assets.texture.TextureData;
 import org.terasology.rendering.nui.layers.mainMenu.ProgressListener;
@@ -28,6 +29,17 @@ public interface PreviewGenerator {
 
     ByteBuffer render(TextureData texData, int scale, ProgressListener progressListener) throws InterruptedException;
 
+    /**
+     * Renders like {@link #render(TextureData, int, ProgressListener)}, but may also pass intermediate images to the
+     * update listener while the rendering is in progress. The listener is called from the rendering thread with a new
+     * buffer each time, in the format of the texture data; the texture data itself is only written once at the end.
+     * See {@link PreviewTextureUpdater} to show the images.
+     */
+    default ByteBuffer render(TextureData texData, int scale, ProgressListener progressListener,
+                              Consumer<ByteBuffer> updateListener) throws InterruptedException {
+        return render(texData, scale, progressListener);
+    }
+
     /**
      * Dispose all resources
      */
@@ -0,0 +1,45 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.nui.layers.mainMenu.preview;
+
+import org.terasology.rendering.assets.texture.Texture;
+import org.terasology.rendering.assets.texture.TextureData;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Hands the intermediate images of a preview from the rendering thread to the main thread, see
+ * {@link PreviewGenerator#render(TextureData, int, org.terasology.rendering.nui.layers.mainMenu.ProgressListener,
+ * Consumer)}. Only the latest image is kept until the main thread picks it up.
+ */
+public class PreviewTextureUpdater implements Consumer<ByteBuffer> {
+
+    private final AtomicReference<ByteBuffer> latest = new AtomicReference<>();
+
+    @Override
+    public void accept(ByteBuffer image) {
+        latest.set(image);
+    }
+
+    /**
+     * Reloads the texture with the latest intermediate image, if there is a new one. Must be called from the main
+     * thread.
+     */
+    public void update(Texture texture) {
+        ByteBuffer image = latest.getAndSet(null);
+        if (image != null) {
+            TextureData data = texture.getData();
+            texture.reload(new TextureData(data.getWidth(), data.getHeight(), new ByteBuffer[]{image},
+                    data.getWrapMode(), data.getFilterMode()));
+        }
+    }
+
+    /**
+     * Drops an intermediate image which has not been shown yet, so it does not replace the final image.
+     */
+    public void discard() {
+        latest.set(null);
+    }
+}
@@ -0,0 +1,167 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.nui.layers.mainMenu.preview;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.Component;
+import org.terasology.utilities.gson.CaseInsensitiveEnumTypeAdapterFactory;
+import org.terasology.utilities.gson.UriTypeAdapterFactory;
+import org.terasology.world.generator.WorldConfigurator;
+import org.terasology.world.generator.WorldGenerator;
+import org.terasology.world.viewer.layers.FacetLayer;
+
+import java.awt.image.BufferedImage;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Keeps the rendered tiles of world previews, so panning, zooming and reopening a preview does not render them again.
+ * <p>
+ * Tiles are keyed by a settings key and their tile coordinates. The settings key covers everything a tile image depends
+ * on: the world generator, its seed and configuration, and the visible facet layers with their configuration.
+ * The least recently used tiles are evicted when the capacity is reached.
+ * <p>
+ * Cached images are shared and must not be modified. All methods are thread safe.
+ */
+public class PreviewTileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PreviewTileCache.class);
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new CaseInsensitiveEnumTypeAdapterFactory())
+            .registerTypeAdapterFactory(new UriTypeAdapterFactory())
+            .create();
+
+    private final int capacity;
+    private final LinkedHashMap<Key, BufferedImage> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+
+    /**
+     * @param capacity the maximum number of cached tiles. A capacity of 0 disables the cache.
+     */
+    public PreviewTileCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Describes the settings the tiles of a preview depend on.
+     *
+     * @param worldGenerator the world generator of the preview, with its seed set.
+     * @param facetLayers    the facet layers of the preview. Only visible layers are considered.
+     * @return the settings key, or null if the settings cannot be described and the tiles must not be cached.
+     */
+    public static String createSettingsKey(WorldGenerator worldGenerator, List<FacetLayer> facetLayers) {
+        try {
+            Hasher hasher = Hashing.murmur3_128().newHasher();
+            hasher.putString(String.valueOf(worldGenerator.getUri()), StandardCharsets.UTF_8);
+            hasher.putString(String.valueOf(worldGenerator.getWorldSeed()), StandardCharsets.UTF_8);
+            WorldConfigurator configurator = worldGenerator.getConfigurator();
+            if (configurator != null) {
+                Map<String, Component> properties = new TreeMap<>(configurator.getProperties());
+                for (Map.Entry<String, Component> property : properties.entrySet()) {
+                    hasher.putString(property.getKey(), StandardCharsets.UTF_8);
+                    hasher.putString(GSON.toJson(property.getValue()), StandardCharsets.UTF_8);
+                }
+            }
+            for (FacetLayer layer : facetLayers) {
+                if (layer.isVisible()) {
+                    hasher.putString(layer.getClass().getName(), StandardCharsets.UTF_8);
+                    hasher.putString(GSON.toJson(layer.getConfig()), StandardCharsets.UTF_8);
+                }
+            }
+            return hasher.hash().toString();
+        } catch (RuntimeException e) {
+            logger.debug("Could not describe the preview settings, tiles are not cached", e);
+            return null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * @return the cached tile, or null if it is not cached.
+     */
+    public synchronized BufferedImage get(String settingsKey, int tileX, int tileZ) {
+        if (settingsKey == null) {
+            return null;
+        }
+        BufferedImage result = entries.get(new Key(settingsKey, tileX, tileZ));
+        if (result != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return result;
+    }
+
+    public synchronized void put(String settingsKey, int tileX, int tileZ, BufferedImage image) {
+        if (settingsKey == null || !isEnabled()) {
+            return;
+        }
+        entries.put(new Key(settingsKey, tileX, tileZ), image);
+        Iterator<BufferedImage> iterator = entries.values().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static final class Key {
+        private final String settings;
+        private final int tileX;
+        private final int tileZ;
+
+        private Key(String settings, int tileX, int tileZ) {
+            this.settings = settings;
+            this.tileX = tileX;
+            this.tileZ = tileZ;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return tileX == other.tileX && tileZ == other.tileZ && settings.equals(other.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(settings, tileX, tileZ);
+        }
+    }
+}
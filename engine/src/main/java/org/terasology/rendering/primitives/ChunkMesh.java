@@ -116,6 +116,9 @@ public enum RenderPhase {
     private int timeToGenerateBlockVertices;
     private int timeToGenerateOptimizedBuffers;
 
+    /* LEVEL OF DETAIL */
+    private int lodScale = 1;
+
     private GLBufferPool bufferPool;
 
     public ChunkMesh(GLBufferPool bufferPool) {
@@ -360,6 +363,17 @@ public int getTimeToGenerateOptimizedBuffers() {
         return timeToGenerateOptimizedBuffers;
     }
 
+    void setLodScale(int lodScale) {
+        this.lodScale = lodScale;
+    }
+
+    /**
+     * @return the edge length in blocks of the cells this mesh was built from. 1 for full detail meshes.
+     */
+    public int getLodScale() {
+        return lodScale;
+    }
+
     /**
      * Data structure for storing vertex data. Abused like a "struct" in C/C++. Just sad.
      */
@@ -20,6 +20,7 @@
 import org.lwjgl.BufferUtils;
 import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
 import org.terasology.math.Direction;
+import org.terasology.math.Side;
 import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.monitoring.PerformanceMonitor;
@@ -27,6 +28,7 @@
 import org.terasology.world.ChunkView;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkSectionIndex;
 
 import java.util.concurrent.TimeUnit;
 
@@ -45,27 +47,43 @@ public ChunkTessellator(GLBufferPool bufferPool) {
     }
 
     public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalOffset) {
+        return generateMesh(chunkView, null, meshHeight, verticalOffset);
+    }
+
+    /**
+     * Generates the mesh of the chunk in the center of the view.
+     *
+     * @param sections the section index of the chunk, used to skip sections of invisible blocks and the hidden inside
+     *                 of sections filled with a single opaque block. May be null to visit every block.
+     */
+    public ChunkMesh generateMesh(ChunkView chunkView, ChunkSectionIndex sections, int meshHeight, int verticalOffset) {
         PerformanceMonitor.startActivity("GenerateMesh");
         ChunkMesh mesh = new ChunkMesh(bufferPool);
 
         final Stopwatch watch = Stopwatch.createStarted();
 
-        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
-            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
-                for (int y = verticalOffset; y < verticalOffset + meshHeight; y++) {
-                    Block block = chunkView.getBlock(x, y, z);
-                    if (block != null && block.getMeshGenerator() != null) {
-                        block.getMeshGenerator().generateChunkMesh(chunkView, mesh, x, y, z);
-                    }
+        final int maxY = verticalOffset + meshHeight;
+        int minY = verticalOffset;
+        while (minY < maxY) {
+            int section = ChunkSectionIndex.sectionOf(minY);
+            int sectionMaxY = Math.min(maxY, ChunkSectionIndex.getMinY(section) + ChunkConstants.SECTION_HEIGHT);
+            if (sections == null || !sections.isUniform(section)) {
+                generateBlockMeshes(chunkView, mesh, minY, sectionMaxY, false);
+            } else {
+                Block block = chunkView.getBlock(0, minY, 0);
+                if (block.getMeshGenerator() != null) {
+                    generateBlockMeshes(chunkView, mesh, minY, sectionMaxY, hidesOwnFaces(block));
                 }
             }
+            minY = sectionMaxY;
         }
         watch.stop();
 
         mesh.setTimeToGenerateBlockVertices((int) watch.elapsed(TimeUnit.MILLISECONDS));
 
         watch.reset().start();
-        generateOptimizedBuffers(chunkView, mesh);
+        generateOptimizedBuffers(mesh, (type, vertex, vertexPos, normal, output) ->
+                calcLightingValuesForVertexPos(chunkView, vertexPos, output, normal));
         watch.stop();
         mesh.setTimeToGenerateOptimizedBuffers((int) watch.elapsed(TimeUnit.MILLISECONDS));
         statVertexArrayUpdateCount++;
@@ -74,7 +92,49 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
         return mesh;
     }
 
-    private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
+    /**
+     * @param shellOnly only visit the blocks on the border of the layers, as all faces inside are hidden.
+     */
+    private void generateBlockMeshes(ChunkView chunkView, ChunkMesh mesh, int minY, int maxY, boolean shellOnly) {
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                boolean border = x == 0 || z == 0 || x == ChunkConstants.SIZE_X - 1 || z == ChunkConstants.SIZE_Z - 1;
+                int step = shellOnly && !border ? Math.max(1, maxY - minY - 1) : 1;
+                for (int y = minY; y < maxY; y += step) {
+                    Block block = chunkView.getBlock(x, y, z);
+                    if (block != null && block.getMeshGenerator() != null) {
+                        block.getMeshGenerator().generateChunkMesh(chunkView, mesh, x, y, z);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether a block hides all faces of its neighbours of the same type, as decided by
+     * {@link BlockMeshGeneratorSingleShape}. Custom mesh generators are never assumed to do so.
+     */
+    private static boolean hidesOwnFaces(Block block) {
+        if (!(block.getMeshGenerator() instanceof BlockMeshGeneratorSingleShape)) {
+            return false;
+        }
+        if (block.isLiquid()) {
+            return true;
+        }
+        for (Side side : Side.getAllSides()) {
+            if (!block.isFullSide(side)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Packs the vertex data of the mesh into the buffers uploaded by {@link ChunkMesh#generateVBOs()}.
+     *
+     * @param lighting provides the lighting data of each vertex.
+     */
+    static void generateOptimizedBuffers(ChunkMesh mesh, VertexLighting lighting) {
         PerformanceMonitor.startActivity("OptimizeBuffers");
 
         for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
@@ -113,7 +173,7 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
 
                 float[] result = new float[3];
                 Vector3f normal = new Vector3f(elements.normals.get(i * 3), elements.normals.get(i * 3 + 1), elements.normals.get(i * 3 + 2));
-                calcLightingValuesForVertexPos(chunkView, vertexPos, result, normal);
+                lighting.calculate(type, i, vertexPos, normal, result);
 
                 /* LIGHTING DATA / TEX DATA 1 */
                 elements.finalVertices.put(Float.floatToIntBits(result[0]));
@@ -246,4 +306,12 @@ private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertex
     public static int getVertexArrayUpdateCount() {
         return statVertexArrayUpdateCount;
     }
+
+    /**
+     * Calculates the sunlight, block light and ambient occlusion of a vertex, each in the range 0 to 1.
+     */
+    @FunctionalInterface
+    interface VertexLighting {
+        void calculate(ChunkMesh.RenderType type, int vertex, Vector3f vertexPos, Vector3f normal, float[] output);
+    }
 }
@@ -0,0 +1,168 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.primitives;
+
+import com.google.common.base.Preconditions;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkSectionIndex;
+import org.terasology.world.chunks.LitChunk;
+
+/**
+ * The blocks of a chunk merged into cubic cells, used to build the meshes of distant chunks.
+ * <p>
+ * A cell is filled with the most common visible block among its blocks if at least half of them are visible, and empty
+ * otherwise. Billboards like plants are ignored, as they would turn into solid cubes. The light of a cell is the
+ * brightest light of its blocks, so the faces lit by an empty cell get the light of the air next to the surface.
+ * <p>
+ * Only the data of the chunk itself is used; cells outside of the chunk are treated as empty.
+ */
+public final class DownsampledChunk {
+
+    private final int scale;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final Block[] cells;
+    private final byte[] sunlight;
+    private final byte[] light;
+
+    private DownsampledChunk(int scale) {
+        this.scale = scale;
+        this.sizeX = ChunkConstants.SIZE_X / scale;
+        this.sizeY = ChunkConstants.SIZE_Y / scale;
+        this.sizeZ = ChunkConstants.SIZE_Z / scale;
+        int count = sizeX * sizeY * sizeZ;
+        this.cells = new Block[count];
+        this.sunlight = new byte[count];
+        this.light = new byte[count];
+    }
+
+    /**
+     * Merges the blocks of the chunk into cells. Sections of a single block are not visited block by block.
+     *
+     * @param scale the edge length of a cell in blocks. Must be a power of two that divides the section height.
+     */
+    public static DownsampledChunk of(LitChunk chunk, int scale) {
+        Preconditions.checkArgument(scale > 1 && Integer.bitCount(scale) == 1 && ChunkConstants.SECTION_HEIGHT % scale == 0,
+                "The scale must be a power of two between 2 and %s, but was %s", ChunkConstants.SECTION_HEIGHT, scale);
+        DownsampledChunk result = new DownsampledChunk(scale);
+        ChunkSectionIndex sections = chunk.getSectionIndex();
+
+        int cellVolume = scale * scale * scale;
+        Block[] candidates = new Block[cellVolume];
+        int[] counts = new int[cellVolume];
+        for (int y = 0; y < result.sizeY; y++) {
+            boolean uniform = sections.isUniform(ChunkSectionIndex.sectionOf(y * scale));
+            for (int z = 0; z < result.sizeZ; z++) {
+                for (int x = 0; x < result.sizeX; x++) {
+                    int index = result.index(x, y, z);
+                    if (uniform) {
+                        Block block = chunk.getBlock(x * scale, y * scale, z * scale);
+                        result.cells[index] = isVisible(block) ? block : null;
+                    } else {
+                        result.cells[index] = mergeCell(chunk, x * scale, y * scale, z * scale, scale, candidates, counts);
+                    }
+                    result.mergeLight(chunk, index, x * scale, y * scale, z * scale);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Block mergeCell(LitChunk chunk, int minX, int minY, int minZ, int scale, Block[] candidates, int[] counts) {
+        int distinct = 0;
+        int visible = 0;
+        for (int y = minY; y < minY + scale; y++) {
+            for (int z = minZ; z < minZ + scale; z++) {
+                for (int x = minX; x < minX + scale; x++) {
+                    Block block = chunk.getBlock(x, y, z);
+                    if (!isVisible(block)) {
+                        continue;
+                    }
+                    visible++;
+                    int i = 0;
+                    while (i < distinct && candidates[i] != block) {
+                        i++;
+                    }
+                    if (i == distinct) {
+                        candidates[distinct] = block;
+                        counts[distinct++] = 0;
+                    }
+                    counts[i]++;
+                }
+            }
+        }
+        if (visible * 2 < scale * scale * scale) {
+            return null;
+        }
+        int best = 0;
+        for (int i = 1; i < distinct; i++) {
+            if (counts[i] > counts[best]) {
+                best = i;
+            }
+        }
+        return candidates[best];
+    }
+
+    private void mergeLight(LitChunk chunk, int index, int minX, int minY, int minZ) {
+        byte maxSunlight = 0;
+        byte maxLight = 0;
+        for (int y = minY; y < minY + scale; y++) {
+            for (int z = minZ; z < minZ + scale; z++) {
+                for (int x = minX; x < minX + scale; x++) {
+                    maxSunlight = (byte) Math.max(maxSunlight, chunk.getSunlight(x, y, z));
+                    maxLight = (byte) Math.max(maxLight, chunk.getLight(x, y, z));
+                }
+            }
+        }
+        sunlight[index] = maxSunlight;
+        light[index] = maxLight;
+    }
+
+    private static boolean isVisible(Block block) {
+        return block != null && block.getMeshGenerator() != null && !block.isDoubleSided();
+    }
+
+    private int index(int x, int y, int z) {
+        return x + sizeX * (z + sizeZ * y);
+    }
+
+    /**
+     * @return the edge length of a cell in blocks.
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0 && x < sizeX && y < sizeY && z < sizeZ;
+    }
+
+    /**
+     * @return the block of the cell, or null if the cell is empty or outside of the chunk.
+     */
+    public Block getBlock(int x, int y, int z) {
+        return contains(x, y, z) ? cells[index(x, y, z)] : null;
+    }
+
+    public byte getSunlight(int x, int y, int z) {
+        return sunlight[index(x, y, z)];
+    }
+
+    public byte getLight(int x, int y, int z) {
+        return light[index(x, y, z)];
+    }
+}
@@ -0,0 +1,136 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.rendering.primitives;
+
+import com.google.common.base.Stopwatch;
+import gnu.trove.list.TFloatList;
+import gnu.trove.list.array.TFloatArrayList;
+import org.joml.Vector3ic;
+import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.Side;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.LitChunk;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates reduced detail meshes of distant chunks from their {@link DownsampledChunk downsampled} blocks.
+ * <p>
+ * Every cell is drawn as a single block scaled to the size of the cell, with the side textures of its block. As the
+ * neighbouring chunks are not looked at, the faces on the border of the chunk are always drawn, which also hides gaps
+ * to neighbours with a different level of detail. The lighting is taken from the cell in front of each face and
+ * ambient occlusion is not calculated.
+ */
+public final class LodChunkTessellator {
+
+    private GLBufferPool bufferPool;
+
+    public LodChunkTessellator(GLBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * @param scale the edge length in blocks of the cells the chunk is merged into.
+     */
+    public ChunkMesh generateMesh(LitChunk chunk, int scale) {
+        PerformanceMonitor.startActivity("GenerateLodMesh");
+        final Stopwatch watch = Stopwatch.createStarted();
+        DownsampledChunk cells = DownsampledChunk.of(chunk, scale);
+        ChunkMesh mesh = generateMesh(cells);
+        watch.stop();
+        mesh.setTimeToGenerateBlockVertices((int) watch.elapsed(TimeUnit.MILLISECONDS));
+        PerformanceMonitor.endActivity();
+        return mesh;
+    }
+
+    public ChunkMesh generateMesh(DownsampledChunk cells) {
+        ChunkMesh mesh = new ChunkMesh(bufferPool);
+        mesh.setLodScale(cells.getScale());
+
+        // sunlight and block light of each vertex, per render type
+        TFloatList[] lights = new TFloatList[ChunkMesh.RenderType.values().length];
+        for (int i = 0; i < lights.length; i++) {
+            lights[i] = new TFloatArrayList();
+        }
+
+        int scale = cells.getScale();
+        float centerOffset = (scale - 1) / 2f;
+        for (int y = 0; y < cells.getSizeY(); y++) {
+            for (int z = 0; z < cells.getSizeZ(); z++) {
+                for (int x = 0; x < cells.getSizeX(); x++) {
+                    Block block = cells.getBlock(x, y, z);
+                    if (block == null) {
+                        continue;
+                    }
+                    ChunkMesh.RenderType renderType = getRenderType(block);
+                    for (Side side : Side.getAllSides()) {
+                        Vector3ic offset = side.direction();
+                        int adjacentX = x + offset.x();
+                        int adjacentY = y + offset.y();
+                        int adjacentZ = z + offset.z();
+                        Block adjacent = cells.getBlock(adjacentX, adjacentY, adjacentZ);
+                        if (!isFaceVisible(block, adjacent)) {
+                            continue;
+                        }
+                        BlockMeshPart part = block.getPrimaryAppearance().getPart(BlockPart.fromSide(side));
+                        if (part == null) {
+                            continue;
+                        }
+                        part.appendTo(mesh, x * scale + centerOffset, y * scale + centerOffset, z * scale + centerOffset,
+                                scale, renderType, getVertexFlag(block, side, adjacent));
+
+                        boolean adjacentInside = cells.contains(adjacentX, adjacentY, adjacentZ);
+                        float sunlight = (adjacentInside ? cells.getSunlight(adjacentX, adjacentY, adjacentZ) : cells.getSunlight(x, y, z)) / 15f;
+                        float light = (adjacentInside ? cells.getLight(adjacentX, adjacentY, adjacentZ) : cells.getLight(x, y, z)) / 15f;
+                        TFloatList vertexLights = lights[renderType.getIndex()];
+                        for (int i = 0; i < part.size(); i++) {
+                            vertexLights.add(sunlight);
+                            vertexLights.add(light);
+                        }
+                    }
+                }
+            }
+        }
+
+        final Stopwatch watch = Stopwatch.createStarted();
+        ChunkTessellator.generateOptimizedBuffers(mesh, (type, vertex, vertexPos, normal, output) -> {
+            TFloatList vertexLights = lights[type.getIndex()];
+            output[0] = vertexLights.get(vertex * 2);
+            output[1] = vertexLights.get(vertex * 2 + 1);
+            output[2] = 1.0f;
+        });
+        watch.stop();
+        mesh.setTimeToGenerateOptimizedBuffers((int) watch.elapsed(TimeUnit.MILLISECONDS));
+        return mesh;
+    }
+
+    private static boolean isFaceVisible(Block block, Block adjacent) {
+        if (adjacent == null) {
+            return true;
+        }
+        if (block.isLiquid() && adjacent.isLiquid()) {
+            return false;
+        }
+        return adjacent.isTranslucent() && adjacent != block;
+    }
+
+    private static ChunkMesh.RenderType getRenderType(Block block) {
+        if (block.isWater() || block.isIce()) {
+            return ChunkMesh.RenderType.WATER_AND_ICE;
+        }
+        return block.isTranslucent() ? ChunkMesh.RenderType.TRANSLUCENT : ChunkMesh.RenderType.OPAQUE;
+    }
+
+    private static ChunkVertexFlag getVertexFlag(Block block, Side side, Block adjacent) {
+        if (block.isWater()) {
+            return side == Side.TOP && (adjacent == null || !adjacent.isWater()) ? ChunkVertexFlag.WATER_SURFACE : ChunkVertexFlag.WATER;
+        }
+        if (block.isGrass() && side != Side.TOP && side != Side.BOTTOM) {
+            return ChunkVertexFlag.COLOR_MASK;
+        }
+        return ChunkVertexFlag.NORMAL;
+    }
+}
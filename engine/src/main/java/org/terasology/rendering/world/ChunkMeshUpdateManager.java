@@ -27,6 +27,7 @@
 import org.terasology.monitoring.chunk.ChunkMonitor;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkTessellator;
+import org.terasology.rendering.primitives.LodChunkTessellator;
 import org.terasology.utilities.concurrency.TaskMaster;
 import org.terasology.world.ChunkView;
 import org.terasology.world.WorldProvider;
@@ -50,6 +51,11 @@
  */
 public final class ChunkMeshUpdateManager {
     private static final int NUM_TASK_THREADS = 8;
+    /**
+     * Added to the priority score of reduced detail meshes for each halving of the resolution, so that they are built
+     * after the full detail meshes of chunks at a similar distance.
+     */
+    private static final int LOD_PRIORITY_PENALTY = 8;
 
     private static final Logger logger = LoggerFactory.getLogger(ChunkMeshUpdateManager.class);
 
@@ -61,6 +67,7 @@ public final class ChunkMeshUpdateManager {
     private TaskMaster<ChunkTask> chunkUpdater;
 
     private final ChunkTessellator tessellator;
+    private final LodChunkTessellator lodTessellator;
     private final WorldProvider worldProvider;
     /**
      * This variable is volatile, so that it's value is visible to worker thread that calculates the best task to
@@ -70,8 +77,9 @@ public final class ChunkMeshUpdateManager {
     private volatile float cameraChunkPosY;
     private volatile float cameraChunkPosZ;
 
-    public ChunkMeshUpdateManager(ChunkTessellator tessellator, WorldProvider worldProvider) {
+    public ChunkMeshUpdateManager(ChunkTessellator tessellator, LodChunkTessellator lodTessellator, WorldProvider worldProvider) {
         this.tessellator = tessellator;
+        this.lodTessellator = lodTessellator;
         this.worldProvider = worldProvider;
 
         chunkUpdater = TaskMaster.createDynamicPriorityTaskMaster("Chunk-Updater", NUM_TASK_THREADS, new ChunkUpdaterComparator());
@@ -86,9 +94,21 @@ public ChunkMeshUpdateManager(ChunkTessellator tessellator, WorldProvider worldP
      */
     // TODO: Review this system
     public boolean queueChunkUpdate(RenderableChunk chunk) {
+        return queueChunkUpdate(chunk, 1);
+    }
+
+    /**
+     * Updates the given chunk with a mesh of the given level of detail. Reduced detail meshes are built at a lower
+     * priority than full detail meshes.
+     *
+     * @param chunk    The chunk to update
+     * @param lodScale The edge length in blocks of the cells the chunk is merged into, 1 for a full detail mesh
+     * @return True if a chunk update was executed
+     */
+    public boolean queueChunkUpdate(RenderableChunk chunk, int lodScale) {
 
         if (!chunksProcessing.contains(chunk)) {
-            executeChunkUpdate(chunk);
+            executeChunkUpdate(chunk, lodScale);
             return true;
         }
 
@@ -114,10 +134,15 @@ public List<RenderableChunk> availableChunksForUpdate() {
         return result;
     }
 
-    private void executeChunkUpdate(final RenderableChunk c) {
+    private void executeChunkUpdate(final RenderableChunk c, int lodScale) {
         chunksProcessing.add(c);
 
-        ChunkUpdateTask task = new ChunkUpdateTask(c, tessellator, worldProvider, this);
+        ChunkTask task;
+        if (lodScale > 1) {
+            task = new LodChunkUpdateTask(c, lodScale, lodTessellator, this);
+        } else {
+            task = new ChunkUpdateTask(c, tessellator, worldProvider, this);
+        }
         try {
             chunkUpdater.put(task);
         } catch (InterruptedException e) {
@@ -170,7 +195,7 @@ public void run() {
                  */
                 c.setDirty(false);
                 if (chunkView.isValidView()) {
-                    newMesh = tessellator.generateMesh(chunkView, ChunkConstants.SIZE_Y, 0);
+                    newMesh = tessellator.generateMesh(chunkView, c.getSectionIndex(), ChunkConstants.SIZE_Y, 0);
 
                     c.setPendingMesh(newMesh);
                     ChunkMonitor.fireChunkTessellated(c.getPosition(new org.joml.Vector3i()), newMesh);
@@ -190,6 +215,55 @@ public Chunk getChunk() {
         }
     }
 
+    private static class LodChunkUpdateTask implements ChunkTask {
+
+        private RenderableChunk c;
+        private final int lodScale;
+        private LodChunkTessellator tessellator;
+        private ChunkMeshUpdateManager chunkMeshUpdateManager;
+
+        LodChunkUpdateTask(RenderableChunk chunk, int lodScale, LodChunkTessellator tessellator, ChunkMeshUpdateManager chunkMeshUpdateManager) {
+            this.chunkMeshUpdateManager = chunkMeshUpdateManager;
+            this.c = chunk;
+            this.lodScale = lodScale;
+            this.tessellator = tessellator;
+        }
+
+        @Override
+        public String getName() {
+            return "Update chunk LOD";
+        }
+
+        @Override
+        public boolean isTerminateSignal() {
+            return false;
+        }
+
+        @Override
+        public void run() {
+            // The reduced mesh only needs the chunk itself, so it does not wait for the neighbours like a full update.
+            if (c.isReady()) {
+                c.setDirty(false);
+                ChunkMesh newMesh = tessellator.generateMesh(c, lodScale);
+                c.setPendingMesh(newMesh);
+                ChunkMonitor.fireChunkTessellated(c.getPosition(new org.joml.Vector3i()), newMesh);
+            }
+            chunkMeshUpdateManager.finishedProcessing(c);
+            // Clean these up because the task executor holds the object in memory.
+            c = null;
+            tessellator = null;
+        }
+
+        @Override
+        public Chunk getChunk() {
+            return (Chunk) c;
+        }
+
+        public int getLodScale() {
+            return lodScale;
+        }
+    }
+
     private class ChunkUpdaterComparator implements Comparator<ChunkTask> {
         @Override
         public int compare(ChunkTask o1, ChunkTask o2) {
@@ -200,7 +274,11 @@ private int score(ChunkTask task) {
             if (task.isTerminateSignal()) {
                 return -1;
             }
-            return distFromRegion(JomlUtil.from(task.getPosition()), new Vector3i(cameraChunkPosX, cameraChunkPosY, cameraChunkPosZ));
+            int score = distFromRegion(JomlUtil.from(task.getPosition()), new Vector3i(cameraChunkPosX, cameraChunkPosY, cameraChunkPosZ));
+            if (task instanceof LodChunkUpdateTask) {
+                score += LOD_PRIORITY_PENALTY * Integer.numberOfTrailingZeros(((LodChunkUpdateTask) task).getLodScale());
+            }
+            return score;
         }
 
         private int distFromRegion(Vector3i pos, Vector3i regionCenter) {
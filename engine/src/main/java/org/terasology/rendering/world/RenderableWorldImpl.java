@@ -33,6 +33,7 @@
 import org.terasology.rendering.cameras.Camera;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkTessellator;
+import org.terasology.rendering.primitives.LodChunkTessellator;
 import org.terasology.rendering.world.viewDistance.ViewDistance;
 import org.terasology.world.ChunkView;
 import org.terasology.world.WorldProvider;
@@ -90,7 +91,7 @@ class RenderableWorldImpl implements RenderableWorld {
         this.worldProvider = worldProvider;
         this.chunkProvider = chunkProvider;
         chunkTessellator = new ChunkTessellator(bufferPool);
-        chunkMeshUpdateManager = new ChunkMeshUpdateManager(chunkTessellator, worldProvider);
+        chunkMeshUpdateManager = new ChunkMeshUpdateManager(chunkTessellator, new LodChunkTessellator(bufferPool), worldProvider);
 
         this.playerCamera = playerCamera;
 
@@ -154,7 +155,7 @@ public boolean pregenerateChunks() {
                 }
                 chunk.setDirty(false);
 
-                newMesh = chunkTessellator.generateMesh(localView, ChunkConstants.SIZE_Y, 0);
+                newMesh = chunkTessellator.generateMesh(localView, chunk.getSectionIndex(), ChunkConstants.SIZE_Y, 0);
                 newMesh.generateVBOs();
 
                 if (chunk.hasMesh()) {
@@ -270,10 +271,17 @@ private Vector3i calcCameraCoordinatesInChunkUnits() {
     public void generateVBOs() {
         PerformanceMonitor.startActivity("Building Mesh VBOs");
         ChunkMesh pendingMesh;
-        chunkMeshUpdateManager.setCameraPosition(JomlUtil.from(playerCamera.getPosition()));
+        Vector3f cameraPosition = JomlUtil.from(playerCamera.getPosition());
+        chunkMeshUpdateManager.setCameraPosition(cameraPosition);
         for (RenderableChunk chunk : chunkMeshUpdateManager.availableChunksForUpdate()) {
 
-            if (chunk.hasPendingMesh() && chunksInProximityOfCamera.contains(chunk)) {
+            if (chunk.hasPendingMesh() && chunk.hasMesh()
+                    && chunk.getPendingMesh().getLodScale() != lodScaleFor(chunk, cameraPosition)) {
+                // The camera moved to another distance ring while the mesh was built, queueVisibleChunks requests the right one.
+                chunk.getPendingMesh().dispose();
+                chunk.setPendingMesh(null);
+                chunk.setDirty(true);
+            } else if (chunk.hasPendingMesh() && chunksInProximityOfCamera.contains(chunk)) {
                 pendingMesh = chunk.getPendingMesh();
                 pendingMesh.generateVBOs();
                 if (chunk.hasMesh()) {
@@ -306,6 +314,7 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
         int chunkCounter = 0;
         ChunkMesh mesh;
         boolean isDynamicShadows = renderingConfig.isDynamicShadows();
+        Vector3f cameraPosition = JomlUtil.from(playerCamera.getPosition());
 
         for (RenderableChunk chunk : chunksInProximityOfCamera) {
             if (isChunkValidForRender(chunk)) {
@@ -352,10 +361,13 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
                 }
 
                 // Process all chunks in the area, not only the visible ones
-                if (isFirstRenderingStageForCurrentFrame && (chunk.isDirty() || !chunk.hasMesh())) {
-                    statDirtyChunks++;
-                    chunkMeshUpdateManager.queueChunkUpdate(chunk);
-                    processedChunks++;
+                if (isFirstRenderingStageForCurrentFrame) {
+                    int lodScale = lodScaleFor(chunk, cameraPosition);
+                    if (chunk.isDirty() || !chunk.hasMesh() || chunk.getMesh().getLodScale() != lodScale) {
+                        statDirtyChunks++;
+                        chunkMeshUpdateManager.queueChunkUpdate(chunk, lodScale);
+                        processedChunks++;
+                    }
                 }
             }
             chunkCounter++;
@@ -365,6 +377,32 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
         return processedChunks;
     }
 
+    /**
+     * Chooses the level of detail of the chunk mesh from the distance rings of the rendering config. A chunk keeps its
+     * current reduced detail until it is half a chunk inside the nearer ring, so chunks on a ring do not flip back and forth.
+     *
+     * @return the edge length in blocks of the cells the chunk mesh should be built from.
+     */
+    private int lodScaleFor(RenderableChunk chunk, Vector3f cameraPosition) {
+        int currentScale = chunk.hasMesh() ? chunk.getMesh().getLodScale() : 1;
+        float distance = (float) Math.sqrt(squaredDistanceToCamera(chunk, cameraPosition));
+        if (isBeyondRing(distance, renderingConfig.getLodQuarterResolutionDistance(), currentScale >= 4)) {
+            return 4;
+        }
+        if (isBeyondRing(distance, renderingConfig.getLodHalfResolutionDistance(), currentScale >= 2)) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static boolean isBeyondRing(float distance, int ringInChunks, boolean wasBeyond) {
+        if (ringInChunks <= 0) {
+            return false;
+        }
+        float ring = ringInChunks * ChunkConstants.SIZE_X;
+        return distance > (wasBeyond ? ring - ChunkConstants.SIZE_X / 2f : ring);
+    }
+
     private int triangleCount(ChunkMesh mesh, ChunkMesh.RenderPhase renderPhase) {
         if (mesh != null) {
             return mesh.triangleCount(renderPhase);
@@ -16,6 +16,8 @@
 
 package org.terasology.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
@@ -111,6 +113,81 @@ public float noise(float x, float y, float z) {
         return result * scale;
     }
 
+    /**
+     * Returns Fractional Brownian Motion of a grid of positions, see {@link Noise#noise(float[], float[], float[])}.
+     * Every octave is computed for the whole grid by a single batch call to the base noise.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] result) {
+        int count = xs.length * ys.length;
+        float[] workingX = xs.clone();
+        float[] workingY = ys.clone();
+        float[] octave = new float[count];
+        float lacunarityFactor = (float) getLacunarity();
+
+        Arrays.fill(result, 0, count, 0);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(workingX, workingY, octave);
+            accumulate(result, octave, spectralWeights[i], count);
+
+            // Include random offsets so that the origins of all the octaves don't all add up and make a weird feature there.
+            float offsetX = 10 * other.noise(i + 0.5f, 0.5f);
+            float offsetY = 10 * other.noise(-i - 0.5f, -0.5f);
+            advance(workingX, lacunarityFactor, offsetX);
+            advance(workingY, lacunarityFactor, offsetY);
+        }
+        normalize(result, count);
+    }
+
+    /**
+     * Returns Fractional Brownian Motion of a grid of positions, see {@link Noise#noise(float[], float[], float[], float[])}.
+     * Every octave is computed for the whole grid by a single batch call to the base noise.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        int count = xs.length * ys.length * zs.length;
+        float[] workingX = xs.clone();
+        float[] workingY = ys.clone();
+        float[] workingZ = zs.clone();
+        float[] octave = new float[count];
+        float lacunarityFactor = (float) getLacunarity();
+
+        Arrays.fill(result, 0, count, 0);
+        for (int i = 0; i < getOctaves(); i++) {
+            other.noise(workingX, workingY, workingZ, octave);
+            accumulate(result, octave, spectralWeights[i], count);
+
+            multiply(workingX, lacunarityFactor);
+            multiply(workingY, lacunarityFactor);
+            multiply(workingZ, lacunarityFactor);
+        }
+        normalize(result, count);
+    }
+
+    private static void accumulate(float[] result, float[] octave, float weight, int count) {
+        for (int i = 0; i < count; i++) {
+            result[i] += octave[i] * weight;
+        }
+    }
+
+    private static void multiply(float[] positions, float lacunarityFactor) {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] *= lacunarityFactor;
+        }
+    }
+
+    private static void advance(float[] positions, float lacunarityFactor, float offset) {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = positions[i] * lacunarityFactor + offset;
+        }
+    }
+
+    private void normalize(float[] result, int count) {
+        for (int i = 0; i < count; i++) {
+            result[i] *= scale;
+        }
+    }
+
     private static float computeScale(float[] spectralWeights) {
         float sum = 0;
         for (float weight : spectralWeights) {
@@ -0,0 +1,23 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.utilities.procedural;
+
+/**
+ * Builds the axis positions of the grids sampled by the region methods of {@link Noise}.
+ */
+final class GridCoordinates {
+
+    private GridCoordinates() {
+    }
+
+    /**
+     * @return the positions min * zoom, (min + 1) * zoom, ... of size consecutive integer coordinates.
+     */
+    static float[] of(int min, int size, float zoom) {
+        float[] result = new float[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = zoom * (min + i);
+        }
+        return result;
+    }
+}
@@ -16,9 +16,15 @@
 
 package org.terasology.utilities.procedural;
 
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
+
 /**
  * Provides or generates noise
- *
+ * <p>
+ * Besides single positions, the noise can be computed for whole regions at once. Implementations should override the
+ * grid methods {@link #noise(float[], float[], float[])} and {@link #noise(float[], float[], float[], float[])} with
+ * tight loops if they can do better than one call per position.
  */
 public interface Noise {
 
@@ -59,4 +65,90 @@ public interface Noise {
      * @return The noise value in the range [-1..1]
      */
     float noise(float x, float y, float z);
+
+    /**
+     * Computes the noise values of a grid of positions. The value at (xs[i], ys[j]) is stored at index
+     * i + xs.length * j. The positions do not need to be evenly spaced.
+     *
+     * @param xs     the positions on the x-axis
+     * @param ys     the positions on the y-axis
+     * @param result the array to fill, at least xs.length * ys.length long
+     */
+    default void noise(float[] xs, float[] ys, float[] result) {
+        int index = 0;
+        for (float y : ys) {
+            for (float x : xs) {
+                result[index++] = noise(x, y);
+            }
+        }
+    }
+
+    /**
+     * Computes the noise values of a grid of positions. The value at (xs[i], ys[j], zs[k]) is stored at index
+     * i + xs.length * (j + ys.length * k). The positions do not need to be evenly spaced.
+     *
+     * @param xs     the positions on the x-axis
+     * @param ys     the positions on the y-axis
+     * @param zs     the positions on the z-axis
+     * @param result the array to fill, at least xs.length * ys.length * zs.length long
+     */
+    default void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        int index = 0;
+        for (float z : zs) {
+            for (float y : ys) {
+                for (float x : xs) {
+                    result[index++] = noise(x, y, z);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the noise values of all positions of a region. Position (x, y) is sampled at (x * zoomX, y * zoomY)
+     * and stored at index (x - minX) + sizeX * (y - minY), the layout used by the 2D facets.
+     *
+     * @param region the region to sample
+     * @param zoomX  the scale of the x-axis
+     * @param zoomY  the scale of the y-axis
+     * @param result the array to fill, at least as long as the area of the region
+     */
+    default void noise(Rect2i region, float zoomX, float zoomY, float[] result) {
+        noise(GridCoordinates.of(region.minX(), region.sizeX(), zoomX),
+                GridCoordinates.of(region.minY(), region.sizeY(), zoomY), result);
+    }
+
+    /**
+     * @return the noise values of all positions of the region, as described in {@link #noise(Rect2i, float, float, float[])}
+     */
+    default float[] noise(Rect2i region, float zoomX, float zoomY) {
+        float[] result = new float[region.sizeX() * region.sizeY()];
+        noise(region, zoomX, zoomY, result);
+        return result;
+    }
+
+    /**
+     * Computes the noise values of all positions of a region. Position (x, y, z) is sampled at
+     * (x * zoomX, y * zoomY, z * zoomZ) and stored at index (x - minX) + sizeX * ((y - minY) + sizeY * (z - minZ)).
+     *
+     * @param region the region to sample
+     * @param zoomX  the scale of the x-axis
+     * @param zoomY  the scale of the y-axis
+     * @param zoomZ  the scale of the z-axis
+     * @param result the array to fill, at least as long as the volume of the region
+     */
+    default void noise(Region3i region, float zoomX, float zoomY, float zoomZ, float[] result) {
+        noise(GridCoordinates.of(region.minX(), region.sizeX(), zoomX),
+                GridCoordinates.of(region.minY(), region.sizeY(), zoomY),
+                GridCoordinates.of(region.minZ(), region.sizeZ(), zoomZ), result);
+    }
+
+    /**
+     * @return the noise values of all positions of the region, as described in
+     * {@link #noise(Region3i, float, float, float, float[])}
+     */
+    default float[] noise(Region3i region, float zoomX, float zoomY, float zoomZ) {
+        float[] result = new float[region.sizeX() * region.sizeY() * region.sizeZ()];
+        noise(region, zoomX, zoomY, zoomZ, result);
+        return result;
+    }
 }
@@ -94,6 +94,62 @@ public float noise(float posX, float posY, float posZ) {
         float u = TeraMath.fadePerlin(x);
         float v = TeraMath.fadePerlin(y);
         float w = TeraMath.fadePerlin(z);
+        return latticeNoise(xInt, yInt, zInt, x, y, z, u, v, w);
+    }
+
+    /**
+     * Evaluates the 2D noise of a grid, which is the 3D noise of the plane z = 0.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] result) {
+        noise(xs, ys, new float[]{0}, result);
+    }
+
+    /**
+     * Evaluates the 3D noise of a grid. The lattice cell, the offset in the cell and the fade curve of every position
+     * only depend on its own axis, so they are computed once per axis position instead of once per value.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        int[] xInts = new int[xs.length];
+        float[] xFracs = new float[xs.length];
+        float[] xFades = new float[xs.length];
+        prepareAxis(xs, xInts, xFracs, xFades);
+        int[] yInts = new int[ys.length];
+        float[] yFracs = new float[ys.length];
+        float[] yFades = new float[ys.length];
+        prepareAxis(ys, yInts, yFracs, yFades);
+
+        int index = 0;
+        for (float posZ : zs) {
+            int zInt = Math.floorMod(TeraMath.floorToInt(posZ), permCount);
+            float z = posZ - TeraMath.fastFloor(posZ);
+            float w = TeraMath.fadePerlin(z);
+            for (int j = 0; j < ys.length; j++) {
+                int yInt = yInts[j];
+                float y = yFracs[j];
+                float v = yFades[j];
+                for (int i = 0; i < xs.length; i++) {
+                    result[index++] = latticeNoise(xInts[i], yInt, zInt, xFracs[i], y, z, xFades[i], v, w);
+                }
+            }
+        }
+    }
+
+    private void prepareAxis(float[] positions, int[] ints, float[] fracs, float[] fades) {
+        for (int i = 0; i < positions.length; i++) {
+            ints[i] = Math.floorMod(TeraMath.floorToInt(positions[i]), permCount);
+            fracs[i] = positions[i] - TeraMath.fastFloor(positions[i]);
+            fades[i] = TeraMath.fadePerlin(fracs[i]);
+        }
+    }
+
+    /**
+     * @param xInt the lattice cell on the x-axis, wrapped into the permutation table
+     * @param x the offset in the lattice cell on the x-axis
+     * @param u the fade curve of the offset on the x-axis
+     */
+    private float latticeNoise(int xInt, int yInt, int zInt, float x, float y, float z, float u, float v, float w) {
         int a = noisePermutations[xInt] + yInt;
         int aa = noisePermutations[a] + zInt;
         int ab = noisePermutations[(a + 1)] + zInt;
@@ -71,6 +71,7 @@ public class SimplexNoise extends AbstractNoise implements Noise2D, Noise3D {
     private final short[] perm;
     private final short[] permMod12;
     private final int permCount;
+    private final int permMask;
     /**
      * Initialize permutations with a given seed and grid dimension.
      *
@@ -92,6 +93,7 @@ public SimplexNoise(long seed, int gridDim) {
         FastRandom rand = new FastRandom(seed);
 
         permCount = gridDim;
+        permMask = Integer.bitCount(gridDim) == 1 ? gridDim - 1 : -1;
 
         perm = new short[permCount * 2];
         permMod12 = new short[permCount * 2];
@@ -117,6 +119,14 @@ public SimplexNoise(long seed, int gridDim) {
         }
     }
 
+    /**
+     * Wraps a grid coordinate into the range of the permutation table. This is a plain bit mask for the usual power of
+     * two grid dimensions, as the division of floorMod is a considerable part of the cost of a noise value.
+     */
+    private int wrap(int i) {
+        return permMask >= 0 ? i & permMask : Math.floorMod(i, permCount);
+    }
+
     private static float dot(Grad g, float x, float y) {
         return g.x * x + g.y * y;
     }
@@ -138,6 +148,41 @@ private static float dot(Grad g, float x, float y, float z, float w) {
      */
     @Override
     public float noise(float xin, float yin) {
+        return noise2D(xin, yin);
+    }
+
+    /**
+     * Evaluates the 2D noise of a grid in a single loop without any virtual calls.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] result) {
+        int index = 0;
+        for (int j = 0; j < ys.length; j++) {
+            float y = ys[j];
+            for (int i = 0; i < xs.length; i++) {
+                result[index++] = noise2D(xs[i], y);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the 3D noise of a grid in a single loop without any virtual calls.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] result) {
+        int index = 0;
+        for (int k = 0; k < zs.length; k++) {
+            float z = zs[k];
+            for (int j = 0; j < ys.length; j++) {
+                float y = ys[j];
+                for (int i = 0; i < xs.length; i++) {
+                    result[index++] = noise3D(xs[i], y, z);
+                }
+            }
+        }
+    }
+
+    private float noise2D(float xin, float yin) {
         float n0;
         float n1;
         float n2; // Noise contributions from the three corners
@@ -173,8 +218,8 @@ public float noise(float xin, float yin) {
         float y2 = y0 - 1.0f + 2.0f * G2;
 
         // Work out the hashed gradient indices of the three simplex corners
-        int ii = Math.floorMod(i, permCount);
-        int jj = Math.floorMod(j, permCount);
+        int ii = wrap(i);
+        int jj = wrap(j);
         int gi0 = permMod12[ii + perm[jj]];
         int gi1 = permMod12[ii + i1 + perm[jj + j1]];
         int gi2 = permMod12[ii + 1 + perm[jj + 1]];
@@ -217,6 +262,10 @@ public float noise(float xin, float yin) {
      */
     @Override
     public float noise(float xin, float yin, float zin) {
+        return noise3D(xin, yin, zin);
+    }
+
+    private float noise3D(float xin, float yin, float zin) {
         float n0;
         float n1;
         float n2;
@@ -307,9 +356,9 @@ public float noise(float xin, float yin, float zin) {
         float z3 = z0 - 1.0f + 3.0f * G3;
 
         // Work out the hashed gradient indices of the four simplex corners
-        int ii = Math.floorMod(i, permCount);
-        int jj = Math.floorMod(j, permCount);
-        int kk = Math.floorMod(k, permCount);
+        int ii = wrap(i);
+        int jj = wrap(j);
+        int kk = wrap(k);
         int gi0 = permMod12[ii + perm[jj + perm[kk]]];
         int gi1 = permMod12[ii + i1 + perm[jj + j1 + perm[kk + k1]]];
         int gi2 = permMod12[ii + i2 + perm[jj + j2 + perm[kk + k2]]];
@@ -477,10 +526,10 @@ public float noise(float xin, float yin, float zin, float win) {
         float w4 = w0 - 1.0f + 4.0f * G4;
 
         // Work out the hashed gradient indices of the five simplex corners
-        int ii = Math.floorMod(i, permCount);
-        int jj = Math.floorMod(j, permCount);
-        int kk = Math.floorMod(k, permCount);
-        int ll = Math.floorMod(l, permCount);
+        int ii = wrap(i);
+        int jj = wrap(j);
+        int kk = wrap(k);
+        int ll = wrap(l);
         int gi0 = perm[ii + perm[jj + perm[kk + perm[ll]]]] % 32;
         int gi1 = perm[ii + i1 + perm[jj + j1 + perm[kk + k1 + perm[ll + l1]]]] % 32;
         int gi2 = perm[ii + i2 + perm[jj + j2 + perm[kk + k2 + perm[ll + l2]]]] % 32;
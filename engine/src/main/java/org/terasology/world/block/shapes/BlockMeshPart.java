@@ -88,6 +88,13 @@ public BlockMeshPart mapTexCoords(Vector2f offset, float width, int frames) {
     }
 
     public void appendTo(ChunkMesh chunk, int offsetX, int offsetY, int offsetZ, ChunkMesh.RenderType renderType, ChunkVertexFlag flags) {
+        appendTo(chunk, offsetX, offsetY, offsetZ, 1, renderType, flags);
+    }
+
+    /**
+     * Appends the part scaled around its center, as used by the meshes of downsampled chunks.
+     */
+    public void appendTo(ChunkMesh chunk, float offsetX, float offsetY, float offsetZ, float scale, ChunkMesh.RenderType renderType, ChunkVertexFlag flags) {
         ChunkMesh.VertexElements elements = chunk.getVertexElements(renderType);
         for (Vector2f texCoord : texCoords) {
             elements.tex.add(texCoord.x);
@@ -100,9 +107,9 @@ public void appendTo(ChunkMesh chunk, int offsetX, int offsetY, int offsetZ, Chu
             elements.color.add(1);
             elements.color.add(1);
             elements.color.add(1);
-            elements.vertices.add(vertices[vIdx].x + offsetX);
-            elements.vertices.add(vertices[vIdx].y + offsetY);
-            elements.vertices.add(vertices[vIdx].z + offsetZ);
+            elements.vertices.add(vertices[vIdx].x * scale + offsetX);
+            elements.vertices.add(vertices[vIdx].y * scale + offsetY);
+            elements.vertices.add(vertices[vIdx].z * scale + offsetZ);
             elements.normals.add(normals[vIdx].x);
             elements.normals.add(normals[vIdx].y);
             elements.normals.add(normals[vIdx].z);
@@ -30,6 +30,12 @@ public final class ChunkConstants {
     public static final int SIZE_Y = 64;
     public static final int SIZE_Z = 32;
 
+    /**
+     * Height of the vertical sections tracked by {@link ChunkSectionIndex}.
+     */
+    public static final int SECTION_HEIGHT = 16;
+    public static final int SECTION_COUNT = SIZE_Y / SECTION_HEIGHT;
+
     public static final int INNER_CHUNK_POS_FILTER_X = TeraMath.ceilPowerOfTwo(SIZE_X) - 1;
     public static final int INNER_CHUNK_POS_FILTER_Y = TeraMath.ceilPowerOfTwo(SIZE_Y) - 1;
     public static final int INNER_CHUNK_POS_FILTER_Z = TeraMath.ceilPowerOfTwo(SIZE_Z) - 1;
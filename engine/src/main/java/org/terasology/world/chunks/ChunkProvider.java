@@ -99,6 +99,17 @@ public interface ChunkProvider {
 
     Collection<Chunk> getAllChunks();
 
+    /**
+     * Whether the chunk provider still keeps the given chunk in memory, so that it does not only stay in memory for
+     * being saved.
+     *
+     * @param chunk a loaded or unloaded chunk
+     * @return true if the chunk is still held by the chunk provider
+     */
+    default boolean isKeptInMemory(Chunk chunk) {
+        return getChunk(chunk.getPosition()) == chunk;
+    }
+
     /**
      * Restarts all thread activity of the chunk provider.
      */
@@ -0,0 +1,87 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks;
+
+import com.google.common.base.Preconditions;
+import org.terasology.module.sandbox.API;
+import org.terasology.world.chunks.blockdata.TeraArray;
+
+/**
+ * Tells which vertical sections of a chunk consist of a single block type.
+ * <p>
+ * A chunk is split into {@link ChunkConstants#SECTION_COUNT} sections of {@link ChunkConstants#SECTION_HEIGHT} layers
+ * each. Stages that visit every block of a chunk can skip sections which only contain invisible blocks like air, and
+ * take shortcuts for sections filled with a single other block, e.g. the sky above the surface or solid stone below.
+ * <p>
+ * An index is an immutable snapshot of the block data it was created from.
+ */
+@API
+public final class ChunkSectionIndex {
+
+    private final int[] uniformIds;
+
+    private ChunkSectionIndex(int[] uniformIds) {
+        this.uniformIds = uniformIds;
+    }
+
+    /**
+     * @param blockData the block ids of a chunk.
+     * @return the index of the given block data.
+     */
+    public static ChunkSectionIndex of(TeraArray blockData) {
+        Preconditions.checkArgument(blockData.getSizeY() % ChunkConstants.SECTION_HEIGHT == 0,
+                "The height of the block data has to be a multiple of " + ChunkConstants.SECTION_HEIGHT);
+        int[] uniformIds = new int[blockData.getSizeY() / ChunkConstants.SECTION_HEIGHT];
+        for (int section = 0; section < uniformIds.length; section++) {
+            int minY = section * ChunkConstants.SECTION_HEIGHT;
+            uniformIds[section] = blockData.getUniformValue(minY, minY + ChunkConstants.SECTION_HEIGHT);
+        }
+        return new ChunkSectionIndex(uniformIds);
+    }
+
+    /**
+     * @return the section containing the layer y.
+     */
+    public static int sectionOf(int y) {
+        return y / ChunkConstants.SECTION_HEIGHT;
+    }
+
+    /**
+     * @return the lowest layer of the section.
+     */
+    public static int getMinY(int section) {
+        return section * ChunkConstants.SECTION_HEIGHT;
+    }
+
+    public int getSectionCount() {
+        return uniformIds.length;
+    }
+
+    /**
+     * @return whether all blocks of the section have the same id.
+     */
+    public boolean isUniform(int section) {
+        return uniformIds[section] != TeraArray.NOT_UNIFORM;
+    }
+
+    /**
+     * @return the id of all blocks of the section. Only valid if {@link #isUniform(int)} is true.
+     */
+    public short getUniformBlockId(int section) {
+        Preconditions.checkState(isUniform(section), "Section %s is not uniform", section);
+        return (short) uniformIds[section];
+    }
+
+    /**
+     * @return the number of sections which consist of a single block type.
+     */
+    public int getUniformSectionCount() {
+        int count = 0;
+        for (int id : uniformIds) {
+            if (id != TeraArray.NOT_UNIFORM) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -117,6 +117,45 @@ public interface CoreChunk {
      */
     Block setBlock(Vector3ic pos, Block block);
 
+    /**
+     * Sets all blocks of a box relative to the chunk to the same type. This is considerably faster than setting the
+     * blocks one by one.
+     *
+     * @param minX   X offset of the box from the corner of the chunk
+     * @param minY   Y offset of the box from the corner of the chunk
+     * @param minZ   Z offset of the box from the corner of the chunk
+     * @param sizeX  size of the box along the X axis
+     * @param sizeY  size of the box along the Y axis
+     * @param sizeZ  size of the box along the Z axis
+     * @param block  Block to set the blocks of the box to
+     */
+    void setBlocks(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, Block block);
+
+    /**
+     * Sets a vertical run of blocks relative to the chunk to the same type.
+     *
+     * @param x      X offset of the column from the corner of the chunk
+     * @param minY   Y offset of the lowest block of the run
+     * @param z      Z offset of the column from the corner of the chunk
+     * @param height number of blocks in the run
+     * @param block  Block to set the blocks of the run to
+     */
+    void setBlockColumn(int x, int minY, int z, int height, Block block);
+
+    /**
+     * Sets the blocks of a box relative to the chunk to the blocks with the given ids.
+     * The id of the box position {@code (x, y, z)} is at {@code x + sizeX * (z + sizeZ * y)}.
+     *
+     * @param minX   X offset of the box from the corner of the chunk
+     * @param minY   Y offset of the box from the corner of the chunk
+     * @param minZ   Z offset of the box from the corner of the chunk
+     * @param sizeX  size of the box along the X axis
+     * @param sizeY  size of the box along the Y axis
+     * @param sizeZ  size of the box along the Z axis
+     * @param blockIds the ids of the blocks, at least {@code sizeX * sizeY * sizeZ}
+     */
+    void setBlockIds(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, short[] blockIds);
+
     /**
      * Sets one of the per-block custom data values at a given position relative to the chunk.
      * The given value is downcast from int to the appropriate type for the array. It is not
@@ -320,5 +359,11 @@ public interface CoreChunk {
 
     int getEstimatedMemoryConsumptionInBytes();
 
+    /**
+     * @return which vertical sections of the chunk consist of a single block type. The index is rebuilt lazily after
+     * blocks changed.
+     */
+    ChunkSectionIndex getSectionIndex();
+
     ChunkBlockIterator getBlockIterator();
 }
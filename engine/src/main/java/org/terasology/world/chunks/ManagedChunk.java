@@ -37,6 +37,11 @@ public interface ManagedChunk extends CoreChunk {
 
     void prepareForReactivation();
 
+    /**
+     * Like {@link #prepareForReactivation()}, but keeps the light of the chunk, so it does not need to be lit again.
+     */
+    void prepareForReactivationWithLight();
+
     // TODO: Expose appropriate iterators, remove this method
     EntityData.ChunkStore.Builder encode();
 }
@@ -0,0 +1,222 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hands out fixed size blocks of native memory for {@link TeraOffHeapArray off-heap tera arrays}.
+ * <p>
+ * Blocks are sliced from large direct byte buffers (slabs), so the garbage collector neither has to scan nor to move
+ * the voxel data of loaded chunks. Slabs are kept for the lifetime of the allocator and released blocks are reused for
+ * later allocations of the same size. The native memory is limited by {@code -XX:MaxDirectMemorySize}.
+ * <p>
+ * Every allocation is watched by a phantom reference to its owner, the way the JDK frees the memory of direct buffers.
+ * A block is only reused once its owner got garbage collected, as only then no thread can read or write the block
+ * through the owner anymore. {@link #release(Allocation) Releasing} an allocation just states that the owner is done
+ * with it; an owner that got collected without having released its block is counted as a leak.
+ * <p>
+ * All methods are thread safe.
+ */
+public final class OffHeapSlabAllocator {
+
+    public static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+
+    private final int slabSize;
+
+    private final Map<Integer, Deque<ByteBuffer>> freeBlocks = Maps.newHashMap();
+    private final Set<OwnerReference> watchedAllocations = Sets.newHashSet();
+    private final ReferenceQueue<Object> collectedOwners = new ReferenceQueue<>();
+
+    private long slabBytes;
+    private long allocatedBytes;
+    private long releasedBytes;
+    private long leakedBytes;
+    private int leaks;
+
+    public OffHeapSlabAllocator() {
+        this(DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * @param slabSize the size of the direct buffers the blocks are sliced from.
+     */
+    public OffHeapSlabAllocator(int slabSize) {
+        Preconditions.checkArgument(slabSize > 0, "The parameter 'slabSize' must be positive");
+        this.slabSize = slabSize;
+    }
+
+    /**
+     * @param size  the size of the block in bytes.
+     * @param owner the object the block belongs to, which all users of the block must access it through. The block
+     *              gets reused once the owner got garbage collected.
+     * @param clear whether the block has to be filled with zeros. Reused blocks contain the data of their former owner.
+     * @return a new allocation of exactly {@code size} bytes in native byte order.
+     */
+    public synchronized Allocation allocate(int size, Object owner, boolean clear) {
+        Preconditions.checkArgument(size > 0, "The parameter 'size' must be positive");
+        Preconditions.checkNotNull(owner, "The parameter 'owner' must not be null");
+
+        Deque<ByteBuffer> free = freeBlocks.computeIfAbsent(size, k -> new ArrayDeque<>());
+        if (free.isEmpty()) {
+            addSlab(size, free);
+        }
+        ByteBuffer buffer = free.pop();
+        if (clear) {
+            clear(buffer);
+        }
+        Allocation allocation = new Allocation(buffer);
+        watchedAllocations.add(new OwnerReference(owner, collectedOwners, allocation));
+        allocatedBytes += size;
+        return allocation;
+    }
+
+    /**
+     * Marks the allocation as no longer needed by its owner. The block gets reused once the owner got garbage
+     * collected, so threads which still hold the owner can keep using the memory safely.
+     * Releasing an allocation twice has no effect.
+     */
+    public synchronized void release(Allocation allocation) {
+        if (allocation.released) {
+            return;
+        }
+        allocation.released = true;
+        allocatedBytes -= allocation.size;
+        releasedBytes += allocation.size;
+    }
+
+    /**
+     * Returns the blocks of garbage collected owners to the free lists. Should be called regularly.
+     *
+     * @return the number of blocks found by this call whose owners were collected without releasing them.
+     */
+    public synchronized int reclaim() {
+        int found = 0;
+        Reference<?> reference;
+        while ((reference = collectedOwners.poll()) != null) {
+            OwnerReference collected = (OwnerReference) reference;
+            if (!watchedAllocations.remove(collected)) {
+                continue;
+            }
+            Allocation allocation = collected.allocation;
+            if (allocation.released) {
+                releasedBytes -= allocation.size;
+            } else {
+                allocation.released = true;
+                allocatedBytes -= allocation.size;
+                leakedBytes += allocation.size;
+                found++;
+            }
+            freeBlocks.get(allocation.size).push(allocation.buffer);
+        }
+        leaks += found;
+        return found;
+    }
+
+    /**
+     * @return the number of bytes currently handed out to owners.
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return the number of released bytes whose owners were not garbage collected yet.
+     */
+    public synchronized long getReleasedBytes() {
+        return releasedBytes;
+    }
+
+    /**
+     * @return the total size of all slabs, which is the native memory held by this allocator.
+     */
+    public synchronized long getSlabBytes() {
+        return slabBytes;
+    }
+
+    /**
+     * @return the total number of leaked blocks found so far.
+     */
+    public synchronized int getLeakCount() {
+        return leaks;
+    }
+
+    /**
+     * @return the total size of the leaked blocks found so far.
+     */
+    public synchronized long getLeakedBytes() {
+        return leakedBytes;
+    }
+
+    private void addSlab(int blockSize, Deque<ByteBuffer> free) {
+        int blocks = Math.max(1, slabSize / blockSize);
+        ByteBuffer slab = ByteBuffer.allocateDirect(blocks * blockSize);
+        for (int i = 0; i < blocks; i++) {
+            slab.limit((i + 1) * blockSize).position(i * blockSize);
+            free.push(slab.slice().order(ByteOrder.nativeOrder()));
+        }
+        slabBytes += slab.capacity();
+    }
+
+    private static void clear(ByteBuffer buffer) {
+        int size = buffer.capacity();
+        int i = 0;
+        for (; i + 8 <= size; i += 8) {
+            buffer.putLong(i, 0L);
+        }
+        for (; i < size; i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    /**
+     * A block of native memory handed out by the allocator.
+     */
+    public static final class Allocation {
+        private final ByteBuffer buffer;
+        private final int size;
+        private volatile boolean released;
+
+        private Allocation(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.size = buffer.capacity();
+        }
+
+        /**
+         * @return the memory of this allocation. Only absolute get and put methods may be used, as the buffer is
+         * shared between all users of the allocation.
+         */
+        public ByteBuffer getBuffer() {
+            return buffer;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public boolean isReleased() {
+            return released;
+        }
+    }
+
+    private static final class OwnerReference extends PhantomReference<Object> {
+        private final Allocation allocation;
+
+        private OwnerReference(Object owner, ReferenceQueue<Object> queue, Allocation allocation) {
+            super(owner, queue);
+            this.allocation = allocation;
+        }
+    }
+}
@@ -34,6 +34,11 @@
  */
 public abstract class TeraArray {
 
+    /**
+     * Returned by {@link #getUniformValue(int, int)} if the layers contain different values.
+     */
+    public static final int NOT_UNIFORM = Integer.MIN_VALUE;
+
     private int sizeX;
     private int sizeY;
     private int sizeZ;
@@ -143,6 +148,68 @@ public String toString() {
 
     public abstract boolean set(int x, int y, int z, int value, int expected);
 
+    /**
+     * Checks whether all elements of the layers {@code minY} (inclusive) to {@code maxY} (exclusive) are equal.
+     * Implementations can override this to use their internal structure instead of visiting every element.
+     *
+     * @return the value of all elements in the layers, or {@link #NOT_UNIFORM} if they differ.
+     */
+    public int getUniformValue(int minY, int maxY) {
+        checkArgument(minY >= 0 && minY < maxY && maxY <= sizeY, "Invalid layer range " + minY + " to " + maxY);
+        int value = get(0, minY, 0);
+        for (int y = minY; y < maxY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    if (get(x, y, z) != value) {
+                        return NOT_UNIFORM;
+                    }
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Sets all elements of the box starting at {@code (minX, minY, minZ)} with the given size to the value.
+     * Implementations can override this to write whole rows at once instead of setting every element.
+     */
+    public void fill(int minX, int minY, int minZ, int boxSizeX, int boxSizeY, int boxSizeZ, int value) {
+        checkBox(minX, minY, minZ, boxSizeX, boxSizeY, boxSizeZ);
+        for (int y = minY; y < minY + boxSizeY; y++) {
+            for (int z = minZ; z < minZ + boxSizeZ; z++) {
+                for (int x = minX; x < minX + boxSizeX; x++) {
+                    set(x, y, z, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the values into the box starting at {@code (minX, minY, minZ)} with the given size. The values are
+     * ordered like the elements of this array: the value of the box position {@code (x, y, z)} is at
+     * {@code x + boxSizeX * (z + boxSizeZ * y)}. Implementations can override this to copy whole rows at once.
+     */
+    public void copyFrom(int minX, int minY, int minZ, int boxSizeX, int boxSizeY, int boxSizeZ, short[] values) {
+        checkBox(minX, minY, minZ, boxSizeX, boxSizeY, boxSizeZ);
+        checkArgument(values.length >= boxSizeX * boxSizeY * boxSizeZ, "Not enough values for the box");
+        int index = 0;
+        for (int y = minY; y < minY + boxSizeY; y++) {
+            for (int z = minZ; z < minZ + boxSizeZ; z++) {
+                for (int x = minX; x < minX + boxSizeX; x++) {
+                    set(x, y, z, values[index++]);
+                }
+            }
+        }
+    }
+
+    protected final void checkBox(int minX, int minY, int minZ, int boxSizeX, int boxSizeY, int boxSizeZ) {
+        checkArgument(boxSizeX >= 0 && boxSizeY >= 0 && boxSizeZ >= 0, "The size of the box must not be negative");
+        checkArgument(minX >= 0 && minY >= 0 && minZ >= 0
+                        && minX + boxSizeX <= sizeX && minY + boxSizeY <= sizeY && minZ + boxSizeZ <= sizeZ,
+                "The box (" + minX + ", " + minY + ", " + minZ + ") of size (" + boxSizeX + ", " + boxSizeY + ", " + boxSizeZ
+                        + ") is outside of the array");
+    }
+
     /**
      * This is the interface for tera array factories. Every tera array is required to implement a factory.
      * It should be implemented as a static subclass of the corresponding tera array class and it should be called Factory.
@@ -21,6 +21,7 @@
 
 import java.nio.ByteBuffer;
 import java.nio.ShortBuffer;
+import java.util.Arrays;
 
 /**
  * TeraDenseArray16Bit implements a dense array with elements of 16 bit size.
@@ -80,6 +81,56 @@ public int getElementSizeInBits() {
         return 16;
     }
 
+    @Override
+    public int getUniformValue(int minY, int maxY) {
+        Preconditions.checkArgument(minY >= 0 && minY < maxY && maxY <= getSizeY(), "Invalid layer range " + minY + " to " + maxY);
+        final int end = maxY * getSizeXZ();
+        final short value = data[minY * getSizeXZ()];
+        for (int i = minY * getSizeXZ() + 1; i < end; i++) {
+            if (data[i] != value) {
+                return NOT_UNIFORM;
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void fill(int minX, int minY, int minZ, int boxSizeX, int boxSizeY, int boxSizeZ, int value) {
+        checkBox(minX, minY, minZ, boxSizeX, boxSizeY, boxSizeZ);
+        final short fill = (short) value;
+        if (boxSizeX == getSizeX() && boxSizeZ == getSizeZ()) {
+            Arrays.fill(data, minY * getSizeXZ(), (minY + boxSizeY) * getSizeXZ(), fill);
+            return;
+        }
+        if (boxSizeX == 1) {
+            for (int y = minY; y < minY + boxSizeY; y++) {
+                for (int z = minZ; z < minZ + boxSizeZ; z++) {
+                    data[pos(minX, y, z)] = fill;
+                }
+            }
+            return;
+        }
+        for (int y = minY; y < minY + boxSizeY; y++) {
+            for (int z = minZ; z < minZ + boxSizeZ; z++) {
+                int start = pos(minX, y, z);
+                Arrays.fill(data, start, start + boxSizeX, fill);
+            }
+        }
+    }
+
+    @Override
+    public void copyFrom(int minX, int minY, int minZ, int boxSizeX, int boxSizeY, int boxSizeZ, short[] values) {
+        checkBox(minX, minY, minZ, boxSizeX, boxSizeY, boxSizeZ);
+        Preconditions.checkArgument(values.length >= boxSizeX * boxSizeY * boxSizeZ, "Not enough values for the box");
+        int index = 0;
+        for (int y = minY; y < minY + boxSizeY; y++) {
+            for (int z = minZ; z < minZ + boxSizeZ; z++) {
+                System.arraycopy(values, index, data, pos(minX, y, z), boxSizeX);
+                index += boxSizeX;
+            }
+        }
+    }
+
     @Override
     public int get(int x, int y, int z) {
         return data[pos(x, y, z)];
@@ -0,0 +1,93 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Base class of dense tera arrays which keep their elements in native memory handed out by an
+ * {@link OffHeapSlabAllocator}.
+ * <p>
+ * The memory has to be given back by calling {@link #release()} once the array is no longer used. It only gets reused
+ * after the array got garbage collected, so threads which still hold a released array keep reading and writing its own
+ * memory. The buffer of the array must therefore never be used without holding the array itself.
+ */
+public abstract class TeraOffHeapArray extends TeraDenseArray {
+
+    private static final OffHeapSlabAllocator SHARED_ALLOCATOR = new OffHeapSlabAllocator();
+
+    private OffHeapSlabAllocator allocator;
+    private OffHeapSlabAllocator.Allocation allocation;
+
+    protected TeraOffHeapArray() {
+        super();
+    }
+
+    protected TeraOffHeapArray(int sizeX, int sizeY, int sizeZ, OffHeapSlabAllocator allocator, boolean clear) {
+        super(sizeX, sizeY, sizeZ, false);
+        this.allocator = Preconditions.checkNotNull(allocator);
+        this.allocation = allocator.allocate(getSizeXYZ() * getElementSizeInBits() / 8, this, clear);
+        bind(allocation.getBuffer());
+    }
+
+    /**
+     * @return the allocator used by the factories and serialization handlers of the off-heap arrays.
+     */
+    public static OffHeapSlabAllocator getSharedAllocator() {
+        return SHARED_ALLOCATOR;
+    }
+
+    /**
+     * Called once the memory of the array is allocated, so subclasses can create their typed views of it.
+     */
+    protected abstract void bind(ByteBuffer buffer);
+
+    /**
+     * @return a copy of this array on the java heap.
+     */
+    public abstract TeraDenseArray toHeap();
+
+    protected final OffHeapSlabAllocator getAllocator() {
+        return allocator;
+    }
+
+    protected final ByteBuffer getBuffer() {
+        return allocation.getBuffer();
+    }
+
+    /**
+     * Gives the memory of this array back to its allocator, which reuses it once the array became unreachable.
+     * Releasing an array twice has no effect.
+     */
+    public void release() {
+        if (allocation != null) {
+            allocator.release(allocation);
+        }
+    }
+
+    public boolean isReleased() {
+        return allocation == null || allocation.isReleased();
+    }
+
+    @Override
+    protected void initialize() {
+        // The memory gets allocated by the constructor, as the allocator is not known yet when this is called.
+    }
+
+    /**
+     * @return the size of the native memory plus a small constant for the array itself.
+     */
+    @Override
+    public int getEstimatedMemoryConsumptionInBytes() {
+        return 32 + getOffHeapSizeInBytes();
+    }
+
+    /**
+     * @return the number of bytes of native memory held by this array.
+     */
+    public int getOffHeapSizeInBytes() {
+        return allocation == null ? 0 : allocation.getSize();
+    }
+}
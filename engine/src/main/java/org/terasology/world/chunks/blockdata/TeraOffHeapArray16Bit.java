@@ -0,0 +1,194 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import org.terasology.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * TeraOffHeapArray16Bit implements a dense array with elements of 16 bit size, stored in native memory.
+ * Its elements are in the range -32'768 through +32'767.
+ *
+ * @see TeraDenseArray16Bit
+ */
+public final class TeraOffHeapArray16Bit extends TeraOffHeapArray {
+
+    private ShortBuffer data;
+
+    public TeraOffHeapArray16Bit() {
+        super();
+    }
+
+    public TeraOffHeapArray16Bit(int sizeX, int sizeY, int sizeZ, OffHeapSlabAllocator allocator) {
+        super(sizeX, sizeY, sizeZ, allocator, true);
+    }
+
+    private TeraOffHeapArray16Bit(int sizeX, int sizeY, int sizeZ, OffHeapSlabAllocator allocator, boolean clear) {
+        super(sizeX, sizeY, sizeZ, allocator, clear);
+    }
+
+    /**
+     * Copies the given array into native memory.
+     */
+    public TeraOffHeapArray16Bit(TeraArray in, OffHeapSlabAllocator allocator) {
+        super(Preconditions.checkNotNull(in).getSizeX(), in.getSizeY(), in.getSizeZ(), allocator, false);
+        copyFrom(in);
+    }
+
+    @Override
+    protected void bind(ByteBuffer buffer) {
+        data = buffer.asShortBuffer();
+    }
+
+    @Override
+    public TeraArray copy() {
+        TeraOffHeapArray16Bit result = new TeraOffHeapArray16Bit(getSizeX(), getSizeY(), getSizeZ(), getAllocator(), false);
+        result.getBuffer().duplicate().put(getBuffer().duplicate());
+        return result;
+    }
+
+    @Override
+    public TeraDenseArray16Bit toHeap() {
+        return new TeraDenseArray16Bit(getSizeX(), getSizeY(), getSizeZ(), toArray());
+    }
+
+    private short[] toArray() {
+        short[] result = new short[getSizeXYZ()];
+        ShortBuffer source = data.duplicate();
+        source.clear();
+        source.get(result);
+        return result;
+    }
+
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        return Preconditions.checkNotNull(deflator).deflateDenseArray16Bit(toArray(), getSizeXZ(), getSizeX(), getSizeY(), getSizeZ());
+    }
+
+    @Override
+    public int getElementSizeInBits() {
+        return 16;
+    }
+
+    @Override
+    public void fill(int minX, int minY, int minZ, int boxSizeX, int boxSizeY, int boxSizeZ, int value) {
+        checkBox(minX, minY, minZ, boxSizeX, boxSizeY, boxSizeZ);
+        short[] row = new short[boxSizeX];
+        Arrays.fill(row, (short) value);
+        ShortBuffer target = data.duplicate();
+        for (int y = minY; y < minY + boxSizeY; y++) {
+            for (int z = minZ; z < minZ + boxSizeZ; z++) {
+                target.position(pos(minX, y, z));
+                target.put(row);
+            }
+        }
+    }
+
+    @Override
+    public void copyFrom(int minX, int minY, int minZ, int boxSizeX, int boxSizeY, int boxSizeZ, short[] values) {
+        checkBox(minX, minY, minZ, boxSizeX, boxSizeY, boxSizeZ);
+        Preconditions.checkArgument(values.length >= boxSizeX * boxSizeY * boxSizeZ, "Not enough values for the box");
+        ShortBuffer target = data.duplicate();
+        int index = 0;
+        for (int y = minY; y < minY + boxSizeY; y++) {
+            for (int z = minZ; z < minZ + boxSizeZ; z++) {
+                target.position(pos(minX, y, z));
+                target.put(values, index, boxSizeX);
+                index += boxSizeX;
+            }
+        }
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        return data.get(pos(x, y, z));
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        int pos = pos(x, y, z);
+        int old = data.get(pos);
+        data.put(pos, (short) value);
+        return old;
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        int pos = pos(x, y, z);
+        int old = data.get(pos);
+        if (old == expected) {
+            data.put(pos, (short) value);
+            return true;
+        }
+        return false;
+    }
+
+    public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraOffHeapArray16Bit> {
+
+        @Override
+        public boolean canHandle(Class<?> clazz) {
+            return TeraOffHeapArray16Bit.class.equals(clazz);
+        }
+
+        @Override
+        protected int internalComputeMinimumBufferSize(TeraOffHeapArray16Bit array) {
+            if (array.data == null) {
+                return 4;
+            } else {
+                return 4 + array.getSizeXYZ() * 2;
+            }
+        }
+
+        @Override
+        protected void internalSerialize(TeraOffHeapArray16Bit array, ByteBuffer buffer) {
+            if (array.data == null) {
+                buffer.putInt(0);
+            } else {
+                final short[] data = array.toArray();
+                buffer.putInt(data.length);
+                buffer.asShortBuffer().put(data);
+                buffer.position(buffer.position() + data.length * 2);
+            }
+        }
+
+        @Override
+        protected TeraOffHeapArray16Bit internalDeserialize(int sizeX, int sizeY, int sizeZ, ByteBuffer buffer) {
+            final int length = buffer.getInt();
+            TeraOffHeapArray16Bit array = new TeraOffHeapArray16Bit(sizeX, sizeY, sizeZ, getSharedAllocator(), length == 0);
+            if (length > 0) {
+                final ShortBuffer source = buffer.asShortBuffer();
+                source.limit(length);
+                array.data.duplicate().put(source);
+                buffer.position(buffer.position() + length * 2);
+            }
+            return array;
+        }
+    }
+
+    public static class Factory implements TeraArray.Factory<TeraOffHeapArray16Bit> {
+
+        @Override
+        public Class<TeraOffHeapArray16Bit> getArrayClass() {
+            return TeraOffHeapArray16Bit.class;
+        }
+
+        @Override
+        public SerializationHandler createSerializationHandler() {
+            return new SerializationHandler();
+        }
+
+        @Override
+        public TeraOffHeapArray16Bit create() {
+            return new TeraOffHeapArray16Bit();
+        }
+
+        @Override
+        public TeraOffHeapArray16Bit create(int sizeX, int sizeY, int sizeZ) {
+            return new TeraOffHeapArray16Bit(sizeX, sizeY, sizeZ, getSharedAllocator());
+        }
+    }
+}
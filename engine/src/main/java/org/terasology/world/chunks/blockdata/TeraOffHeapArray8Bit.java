@@ -0,0 +1,162 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.blockdata;
+
+import com.google.common.base.Preconditions;
+import org.terasology.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * TeraOffHeapArray8Bit implements a dense array with elements of 8 bit size, stored in native memory.
+ * Its elements are in the range -128 through +127.
+ *
+ * @see TeraDenseArray8Bit
+ */
+public final class TeraOffHeapArray8Bit extends TeraOffHeapArray {
+
+    private ByteBuffer data;
+
+    public TeraOffHeapArray8Bit() {
+        super();
+    }
+
+    public TeraOffHeapArray8Bit(int sizeX, int sizeY, int sizeZ, OffHeapSlabAllocator allocator) {
+        super(sizeX, sizeY, sizeZ, allocator, true);
+    }
+
+    private TeraOffHeapArray8Bit(int sizeX, int sizeY, int sizeZ, OffHeapSlabAllocator allocator, boolean clear) {
+        super(sizeX, sizeY, sizeZ, allocator, clear);
+    }
+
+    /**
+     * Copies the given array into native memory.
+     */
+    public TeraOffHeapArray8Bit(TeraArray in, OffHeapSlabAllocator allocator) {
+        super(Preconditions.checkNotNull(in).getSizeX(), in.getSizeY(), in.getSizeZ(), allocator, false);
+        copyFrom(in);
+    }
+
+    @Override
+    protected void bind(ByteBuffer buffer) {
+        data = buffer;
+    }
+
+    @Override
+    public TeraArray copy() {
+        TeraOffHeapArray8Bit result = new TeraOffHeapArray8Bit(getSizeX(), getSizeY(), getSizeZ(), getAllocator(), false);
+        result.getBuffer().duplicate().put(getBuffer().duplicate());
+        return result;
+    }
+
+    @Override
+    public TeraDenseArray8Bit toHeap() {
+        return new TeraDenseArray8Bit(getSizeX(), getSizeY(), getSizeZ(), toArray());
+    }
+
+    private byte[] toArray() {
+        byte[] result = new byte[getSizeXYZ()];
+        ByteBuffer source = data.duplicate();
+        source.clear();
+        source.get(result);
+        return result;
+    }
+
+    @Override
+    public TeraArray deflate(TeraVisitingDeflator deflator) {
+        return Preconditions.checkNotNull(deflator).deflateDenseArray8Bit(toArray(), getSizeXZ(), getSizeX(), getSizeY(), getSizeZ());
+    }
+
+    @Override
+    public int getElementSizeInBits() {
+        return 8;
+    }
+
+    @Override
+    public int get(int x, int y, int z) {
+        return data.get(pos(x, y, z));
+    }
+
+    @Override
+    public int set(int x, int y, int z, int value) {
+        int pos = pos(x, y, z);
+        int old = data.get(pos);
+        data.put(pos, (byte) value);
+        return old;
+    }
+
+    @Override
+    public boolean set(int x, int y, int z, int value, int expected) {
+        int pos = pos(x, y, z);
+        int old = data.get(pos);
+        if (old == expected) {
+            data.put(pos, (byte) value);
+            return true;
+        }
+        return false;
+    }
+
+    public static class SerializationHandler extends TeraArray.BasicSerializationHandler<TeraOffHeapArray8Bit> {
+
+        @Override
+        public boolean canHandle(Class<?> clazz) {
+            return TeraOffHeapArray8Bit.class.equals(clazz);
+        }
+
+        @Override
+        protected int internalComputeMinimumBufferSize(TeraOffHeapArray8Bit array) {
+            if (array.data == null) {
+                return 4;
+            } else {
+                return 4 + array.getSizeXYZ();
+            }
+        }
+
+        @Override
+        protected void internalSerialize(TeraOffHeapArray8Bit array, ByteBuffer buffer) {
+            if (array.data == null) {
+                buffer.putInt(0);
+            } else {
+                final byte[] data = array.toArray();
+                buffer.putInt(data.length);
+                buffer.put(data);
+            }
+        }
+
+        @Override
+        protected TeraOffHeapArray8Bit internalDeserialize(int sizeX, int sizeY, int sizeZ, ByteBuffer buffer) {
+            final int length = buffer.getInt();
+            TeraOffHeapArray8Bit array = new TeraOffHeapArray8Bit(sizeX, sizeY, sizeZ, getSharedAllocator(), length == 0);
+            if (length > 0) {
+                final ByteBuffer source = buffer.slice();
+                source.limit(length);
+                array.data.duplicate().put(source);
+                buffer.position(buffer.position() + length);
+            }
+            return array;
+        }
+    }
+
+    public static class Factory implements TeraArray.Factory<TeraOffHeapArray8Bit> {
+
+        @Override
+        public Class<TeraOffHeapArray8Bit> getArrayClass() {
+            return TeraOffHeapArray8Bit.class;
+        }
+
+        @Override
+        public SerializationHandler createSerializationHandler() {
+            return new SerializationHandler();
+        }
+
+        @Override
+        public TeraOffHeapArray8Bit create() {
+            return new TeraOffHeapArray8Bit();
+        }
+
+        @Override
+        public TeraOffHeapArray8Bit create(int sizeX, int sizeY, int sizeZ) {
+            return new TeraOffHeapArray8Bit(sizeX, sizeY, sizeZ, getSharedAllocator());
+        }
+    }
+}
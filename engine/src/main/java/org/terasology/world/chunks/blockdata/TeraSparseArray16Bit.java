@@ -101,6 +101,131 @@ public int getElementSizeInBits() {
         return 16;
     }
 
+    @Override
+    public int getUniformValue(int minY, int maxY) {
+        Preconditions.checkArgument(minY >= 0 && minY < maxY && maxY <= getSizeY(), "Invalid layer range " + minY + " to " + maxY);
+        if (inflated == null) {
+            return fill;
+        }
+        final short value = inflated[minY] != null ? inflated[minY][0] : deflated[minY];
+        for (int y = minY; y < maxY; y++) {
+            final short[] row = inflated[y];
+            if (row == null) {
+                if (deflated[y] != value) {
+                    return NOT_UNIFORM;
+                }
+            } else {
+                for (short item : row) {
+                    if (item != value) {
+                        return NOT_UNIFORM;
+                    }
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void fill(int minX, int minY, int minZ, int boxSizeX, int boxSizeY, int boxSizeZ, int value) {
+        checkBox(minX, minY, minZ, boxSizeX, boxSizeY, boxSizeZ);
+        if (boxSizeX == 0 || boxSizeY == 0 || boxSizeZ == 0) {
+            return;
+        }
+        final short fillValue = (short) value;
+        final boolean fullLayers = boxSizeX == getSizeX() && boxSizeZ == getSizeZ();
+        if (fullLayers && boxSizeY == getSizeY()) {
+            inflated = null;
+            deflated = null;
+            fill = fillValue;
+            return;
+        }
+        if (inflated == null) {
+            if (fill == fillValue) {
+                return;
+            }
+            inflate();
+        }
+        for (int y = minY; y < minY + boxSizeY; y++) {
+            if (fullLayers) {
+                inflated[y] = null;
+                deflated[y] = fillValue;
+                continue;
+            }
+            short[] row = inflated[y];
+            if (row == null) {
+                if (deflated[y] == fillValue) {
+                    continue;
+                }
+                row = inflateRow(y);
+            }
+            for (int z = minZ; z < minZ + boxSizeZ; z++) {
+                int start = pos(minX, z);
+                Arrays.fill(row, start, start + boxSizeX, fillValue);
+            }
+        }
+    }
+
+    @Override
+    public void copyFrom(int minX, int minY, int minZ, int boxSizeX, int boxSizeY, int boxSizeZ, short[] values) {
+        checkBox(minX, minY, minZ, boxSizeX, boxSizeY, boxSizeZ);
+        final int layerSize = boxSizeX * boxSizeZ;
+        Preconditions.checkArgument(values.length >= layerSize * boxSizeY, "Not enough values for the box");
+        if (layerSize == 0 || boxSizeY == 0) {
+            return;
+        }
+        if (inflated == null) {
+            inflate();
+        }
+        final boolean fullLayers = boxSizeX == getSizeX() && boxSizeZ == getSizeZ();
+        for (int y = minY; y < minY + boxSizeY; y++) {
+            final int layerStart = (y - minY) * layerSize;
+            short[] row = inflated[y];
+            if (row == null || fullLayers) {
+                short first = values[layerStart];
+                boolean uniform = isUniform(values, layerStart, layerStart + layerSize, first);
+                if (uniform && (fullLayers || first == deflated[y])) {
+                    inflated[y] = null;
+                    deflated[y] = first;
+                    continue;
+                }
+                if (row == null) {
+                    row = inflateRow(y);
+                }
+            }
+            if (fullLayers) {
+                System.arraycopy(values, layerStart, row, 0, layerSize);
+                continue;
+            }
+            int index = layerStart;
+            for (int z = minZ; z < minZ + boxSizeZ; z++) {
+                System.arraycopy(values, index, row, pos(minX, z), boxSizeX);
+                index += boxSizeX;
+            }
+        }
+    }
+
+    private static boolean isUniform(short[] values, int from, int to, short value) {
+        for (int i = from; i < to; i++) {
+            if (values[i] != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void inflate() {
+        inflated = new short[getSizeY()][];
+        deflated = new short[getSizeY()];
+        Arrays.fill(deflated, fill);
+    }
+
+    private short[] inflateRow(int y) {
+        short[] row = new short[getSizeXZ()];
+        Arrays.fill(row, deflated[y]);
+        inflated[y] = row;
+        return row;
+    }
+
     @Override
     public int get(int x, int y, int z) {
         if (inflated == null) {
@@ -24,7 +24,8 @@
 /**
  * TeraStandardDeflator implements a simple deflation algorithm for 4, 8 and 16-bit dense and sparse arrays.<br>
  * <b>NOTE:</b> Currently it is optimized for chunks of size 16x256x16 blocks.<br>
- * TODO: Implement deflation for sparse arrays.
+ * Sparse arrays are deflated by packing inflated rows which became uniform again. The input arrays are never modified,
+ * so they can still be read concurrently.
  *
  */
 public class TeraStandardDeflator extends TeraVisitingDeflator {
@@ -197,19 +198,137 @@ public TeraArray deflateDenseArray4Bit(final byte[] data, final int rowSize, fin
 
     @Override
     public TeraArray deflateSparseArray16Bit(short[][] inflated, short[] deflated, short fill, int rowSize, int sizeX, int sizeY, int sizeZ) {
-        return null;
+        if (inflated == null) {
+            return null;
+        }
+        final short[][] newInflated = new short[sizeY][];
+        final short[] newDeflated = new short[sizeY];
+        if (repackRows(inflated, deflated, rowSize, sizeY, newInflated, newDeflated) == 0) {
+            return null;
+        }
+        if (isUniform(newInflated, newDeflated, sizeY)) {
+            return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, newDeflated[0]);
+        }
+        return new TeraSparseArray16Bit(sizeX, sizeY, sizeZ, newInflated, newDeflated);
     }
 
     @Override
     public TeraArray deflateSparseArray8Bit(final byte[][] inflated, final byte[] deflated, final byte fill, final int rowSize,
                                             final int sizeX, final int sizeY, final int sizeZ) {
-        return null;
+        if (inflated == null) {
+            return null;
+        }
+        final byte[][] newInflated = new byte[sizeY][];
+        final byte[] newDeflated = new byte[sizeY];
+        if (repackRows(inflated, deflated, rowSize, sizeY, newInflated, newDeflated) == 0) {
+            return null;
+        }
+        if (isUniform(newInflated, newDeflated, sizeY)) {
+            return new TeraSparseArray8Bit(sizeX, sizeY, sizeZ, newDeflated[0]);
+        }
+        return new TeraSparseArray8Bit(sizeX, sizeY, sizeZ, newInflated, newDeflated);
     }
 
     @Override
     public TeraArray deflateSparseArray4Bit(final byte[][] inflated, final byte[] deflated, final byte fill, final int rowSize,
                                             final int sizeX, final int sizeY, final int sizeZ) {
-        return null;
+        if (inflated == null) {
+            return null;
+        }
+        final byte[][] newInflated = new byte[sizeY][];
+        final byte[] newDeflated = new byte[sizeY];
+        if (repackRows(inflated, deflated, rowSize, sizeY, newInflated, newDeflated) == 0) {
+            return null;
+        }
+        // a uniform 4-bit array only accepts fill bytes with an empty high nibble
+        if (isUniform(newInflated, newDeflated, sizeY) && newDeflated[0] >= 0 && newDeflated[0] <= 15) {
+            return new TeraSparseArray4Bit(sizeX, sizeY, sizeZ, newDeflated[0]);
+        }
+        return new TeraSparseArray4Bit(sizeX, sizeY, sizeZ, newInflated, newDeflated);
+    }
+
+    /**
+     * Copies the rows of a sparse byte array into the given arrays, packing rows which consist of a single value.
+     *
+     * @return the number of inflated rows that got packed.
+     */
+    private static int repackRows(final byte[][] inflated, final byte[] deflated, final int rowSize, final int sizeY,
+                                  final byte[][] newInflated, final byte[] newDeflated) {
+        int repacked = 0;
+        for (int y = 0; y < sizeY; y++) {
+            final byte[] row = inflated[y];
+            if (row == null) {
+                newDeflated[y] = deflated[y];
+                continue;
+            }
+            final byte first = row[0];
+            boolean packable = true;
+            for (int i = 1; i < rowSize; i++) {
+                if (row[i] != first) {
+                    packable = false;
+                    break;
+                }
+            }
+            if (packable) {
+                newDeflated[y] = first;
+                ++repacked;
+            } else {
+                byte[] tmp = new byte[rowSize];
+                System.arraycopy(row, 0, tmp, 0, rowSize);
+                newInflated[y] = tmp;
+            }
+        }
+        return repacked;
+    }
+
+    private static boolean isUniform(final byte[][] inflated, final byte[] deflated, final int sizeY) {
+        for (int y = 0; y < sizeY; y++) {
+            if (inflated[y] != null || deflated[y] != deflated[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The 16-bit variant of {@link #repackRows(byte[][], byte[], int, int, byte[][], byte[])}.
+     */
+    private static int repackRows(final short[][] inflated, final short[] deflated, final int rowSize, final int sizeY,
+                                  final short[][] newInflated, final short[] newDeflated) {
+        int repacked = 0;
+        for (int y = 0; y < sizeY; y++) {
+            final short[] row = inflated[y];
+            if (row == null) {
+                newDeflated[y] = deflated[y];
+                continue;
+            }
+            final short first = row[0];
+            boolean packable = true;
+            for (int i = 1; i < rowSize; i++) {
+                if (row[i] != first) {
+                    packable = false;
+                    break;
+                }
+            }
+            if (packable) {
+                newDeflated[y] = first;
+                ++repacked;
+            } else {
+                short[] tmp = new short[rowSize];
+                System.arraycopy(row, 0, tmp, 0, rowSize);
+                newInflated[y] = tmp;
+            }
+        }
+        return repacked;
+    }
+
+    private static boolean isUniform(final short[][] inflated, final short[] deflated, final int sizeY) {
+        for (int y = 0; y < sizeY; y++) {
+            if (inflated[y] != null || deflated[y] != deflated[0]) {
+                return false;
+            }
+        }
+        return true;
     }
 
 }
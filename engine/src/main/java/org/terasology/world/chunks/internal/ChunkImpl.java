@@ -33,10 +33,15 @@
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkBlockIterator;
 import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkSectionIndex;
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.blockdata.OffHeapSlabAllocator;
 import org.terasology.world.chunks.blockdata.TeraArray;
 import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.blockdata.TeraOffHeapArray;
+import org.terasology.world.chunks.blockdata.TeraOffHeapArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraOffHeapArray8Bit;
 import org.terasology.world.chunks.deflate.TeraDeflator;
 import org.terasology.world.chunks.deflate.TeraStandardDeflator;
 
@@ -56,11 +61,17 @@ public class ChunkImpl implements Chunk {
 
     private static final DecimalFormat PERCENT_FORMAT = new DecimalFormat("0.##");
     private static final DecimalFormat SIZE_FORMAT = new DecimalFormat("#,###");
+    private static final int NOT_SAVED = Integer.MIN_VALUE;
 
     private final Vector3i chunkPos = new Vector3i();
 
     private BlockManager blockManager;
 
+    /**
+     * Allocates the dense block and light data of this chunk in native memory, or null to keep it on the heap.
+     */
+    private final OffHeapSlabAllocator offHeapAllocator;
+
     private TeraArray sunlightData;
     private TeraArray sunlightRegenData;
     private TeraArray lightData;
@@ -70,6 +81,22 @@ public class ChunkImpl implements Chunk {
     private TeraArray[] extraData;
     private volatile TeraArray[] extraDataSnapshots;
 
+    /**
+     * Incremented by every change of the block or extra data, used to detect edits since a {@link Redeflation} began
+     * or the section index was built.
+     */
+    private volatile int editVersion;
+    /**
+     * The {@link #editVersion} of the data which was last written to the save game, see {@link #isModifiedSinceSave()}.
+     */
+    private volatile int savedEditVersion = NOT_SAVED;
+    /**
+     * Incremented by every change of the light data, which is also written by the threads of the loading pipeline.
+     */
+    private volatile int lightVersion;
+
+    private volatile SectionIndexEntry sectionIndex;
+
     private AABB aabb;
     private Region3i region;
 
@@ -87,19 +114,36 @@ public ChunkImpl(int x, int y, int z, BlockManager blockManager, ExtraBlockDataM
     }
 
     public ChunkImpl(Vector3i chunkPos, BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
+        this(chunkPos, blockManager, extraDataManager, null);
+    }
+
+    /**
+     * @param offHeapAllocator allocates the dense block and light data in native memory. The memory is given back when
+     *                         the chunk gets disposed or its data gets deflated. May be null to use the heap.
+     */
+    public ChunkImpl(Vector3i chunkPos, BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                     OffHeapSlabAllocator offHeapAllocator) {
         this(chunkPos,
-                new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
+                offHeapAllocator != null
+                        ? new TeraOffHeapArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, offHeapAllocator)
+                        : new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
                 extraDataManager.makeDataArrays(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z),
-                blockManager);
+                blockManager, offHeapAllocator);
     }
 
     public ChunkImpl(Vector3i chunkPos, TeraArray blocks, TeraArray[] extra, BlockManager blockManager) {
+        this(chunkPos, blocks, extra, blockManager, null);
+    }
+
+    public ChunkImpl(Vector3i chunkPos, TeraArray blocks, TeraArray[] extra, BlockManager blockManager,
+                     OffHeapSlabAllocator offHeapAllocator) {
         this.chunkPos.set(Preconditions.checkNotNull(chunkPos));
         this.blockData = Preconditions.checkNotNull(blocks);
         this.extraData = Preconditions.checkNotNull(extra);
-        sunlightData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
-        sunlightRegenData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
-        lightData = new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
+        this.offHeapAllocator = offHeapAllocator;
+        sunlightData = createLightArray();
+        sunlightRegenData = createLightArray();
+        lightData = createLightArray();
         dirty = true;
         this.blockManager = blockManager;
         region = Region3i.createFromMinAndSize(new Vector3i(chunkPos.x * ChunkConstants.SIZE_X, chunkPos.y * ChunkConstants.SIZE_Y, chunkPos.z * ChunkConstants.SIZE_Z),
@@ -107,6 +151,13 @@ public ChunkImpl(Vector3i chunkPos, TeraArray blocks, TeraArray[] extra, BlockMa
         ChunkMonitor.fireChunkCreated(this);
     }
 
+    private TeraArray createLightArray() {
+        if (offHeapAllocator != null) {
+            return new TeraOffHeapArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ(), offHeapAllocator);
+        }
+        return new TeraDenseArray8Bit(getChunkSizeX(), getChunkSizeY(), getChunkSizeZ());
+    }
+
     @Override
     public Vector3i getPosition() {
         return new Vector3i(chunkPos);
@@ -140,6 +191,27 @@ public int getEstimatedMemoryConsumptionInBytes() {
                 + extraDataSize;
     }
 
+    @Override
+    public ChunkSectionIndex getSectionIndex() {
+        SectionIndexEntry entry = sectionIndex;
+        int version = editVersion;
+        if (entry == null || entry.editVersion != version) {
+            entry = new SectionIndexEntry(version, ChunkSectionIndex.of(blockData));
+            sectionIndex = entry;
+        }
+        return entry.index;
+    }
+
+    private static final class SectionIndexEntry {
+        private final int editVersion;
+        private final ChunkSectionIndex index;
+
+        private SectionIndexEntry(int editVersion, ChunkSectionIndex index) {
+            this.editVersion = editVersion;
+            this.index = index;
+        }
+    }
+
     @Override
     public final Block getBlock(BaseVector3i pos) {
         short id = (short) blockData.get(pos.x(), pos.y(), pos.z());
@@ -167,9 +239,35 @@ public Block setBlock(int x, int y, int z, Block block) {
             blockData = blockData.copy();
         }
         int oldValue = blockData.set(x, y, z, block.getId());
+        if (oldValue != block.getId()) {
+            editVersion++;
+        }
         return blockManager.getBlock((short) oldValue);
     }
 
+    @Override
+    public void setBlocks(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, Block block) {
+        if (blockData == blockDataSnapshot) {
+            blockData = blockData.copy();
+        }
+        blockData.fill(minX, minY, minZ, sizeX, sizeY, sizeZ, block.getId());
+        editVersion++;
+    }
+
+    @Override
+    public void setBlockColumn(int x, int minY, int z, int height, Block block) {
+        setBlocks(x, minY, z, 1, height, 1, block);
+    }
+
+    @Override
+    public void setBlockIds(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, short[] blockIds) {
+        if (blockData == blockDataSnapshot) {
+            blockData = blockData.copy();
+        }
+        blockData.copyFrom(minX, minY, minZ, sizeX, sizeY, sizeZ, blockIds);
+        editVersion++;
+    }
+
     @Override
     public Block setBlock(BaseVector3i pos, Block block) {
         return setBlock(pos.x(), pos.y(), pos.z(), block);
@@ -198,7 +296,7 @@ public boolean setSunlight(BaseVector3i pos, byte amount) {
     @Override
     public boolean setSunlight(int x, int y, int z, byte amount) {
         Preconditions.checkArgument(amount >= 0 && amount <= ChunkConstants.MAX_SUNLIGHT);
-        return sunlightData.set(x, y, z, amount) != amount;
+        return lightChanged(sunlightData.set(x, y, z, amount) != amount);
     }
 
     @Override
@@ -219,7 +317,7 @@ public boolean setSunlightRegen(BaseVector3i pos, byte amount) {
     @Override
     public boolean setSunlightRegen(int x, int y, int z, byte amount) {
         Preconditions.checkArgument(amount >= 0 && amount <= ChunkConstants.MAX_SUNLIGHT_REGEN);
-        return sunlightRegenData.set(x, y, z, amount) != amount;
+        return lightChanged(sunlightRegenData.set(x, y, z, amount) != amount);
     }
 
     @Override
@@ -240,7 +338,14 @@ public boolean setLight(BaseVector3i pos, byte amount) {
     @Override
     public boolean setLight(int x, int y, int z, byte amount) {
         Preconditions.checkArgument(amount >= 0 && amount <= ChunkConstants.MAX_LIGHT);
-        return lightData.set(x, y, z, amount) != amount;
+        return lightChanged(lightData.set(x, y, z, amount) != amount);
+    }
+
+    private boolean lightChanged(boolean changed) {
+        if (changed) {
+            lightVersion++;
+        }
+        return changed;
     }
 
     @Override
@@ -263,7 +368,9 @@ public void setExtraData(int index, int x, int y, int z, int value) {
         if (extraDataSnapshots != null && extraData[index] == extraDataSnapshots[index]) {
             extraData[index] = extraData[index].copy();
         }
-        extraData[index].set(x, y, z, value);
+        if (extraData[index].set(x, y, z, value) != value) {
+            editVersion++;
+        }
     }
 
     @Override
@@ -350,6 +457,14 @@ public AABB getAABB() {
 
     @Override
     public void deflate() {
+        final TeraArray[] replaced = {blockData, lightData};
+        final TeraArray[] replacedExtra = extraData.clone();
+        deflateData();
+        releaseIfUnused(replaced);
+        releaseIfUnused(replacedExtra);
+    }
+
+    private void deflateData() {
         final TeraDeflator def = new TeraStandardDeflator();
         if (logger.isDebugEnabled()) {
             int blocksSize = blockData.getEstimatedMemoryConsumptionInBytes();
@@ -409,6 +524,12 @@ public void deflate() {
 
     @Override
     public void deflateSunlight() {
+        final TeraArray[] replaced = {sunlightData, sunlightRegenData};
+        deflateSunlightData();
+        releaseIfUnused(replaced);
+    }
+
+    private void deflateSunlightData() {
         final TeraDeflator def = new TeraStandardDeflator();
         if (logger.isDebugEnabled()) {
             int blocksSize = blockData.getEstimatedMemoryConsumptionInBytes();
@@ -449,6 +570,135 @@ public void deflateSunlight() {
         }
     }
 
+    /**
+     * @return a counter which changes with every edit of the block or extra data of this chunk.
+     */
+    public int getEditVersion() {
+        return editVersion;
+    }
+
+    /**
+     * @return whether the block or extra data of this chunk changed since it was last written to or read from the save
+     * game. Chunks which were never saved count as modified.
+     */
+    public boolean isModifiedSinceSave() {
+        return editVersion != savedEditVersion;
+    }
+
+    /**
+     * Records that the chunk data was written to or read from the save game.
+     *
+     * @param version the {@link #getEditVersion() edit version} the chunk had when its data was captured.
+     */
+    public void markSaved(int version) {
+        savedEditVersion = version;
+    }
+
+    /**
+     * Captures the current data arrays of the chunk, so they can be deflated again on a background thread.
+     * <p>
+     * Must be called from the thread that edits the chunk, usually the main thread.
+     */
+    public Redeflation prepareRedeflation() {
+        return new Redeflation(this);
+    }
+
+    /**
+     * Installs the arrays deflated by the given redeflation, unless the chunk was edited since it got prepared.
+     * <p>
+     * Must be called from the thread that edits the chunk, usually the main thread. Concurrent readers keep seeing
+     * the same values, as only the representation of the data changes. The light data is only replaced if no other
+     * thread can write it, as a write between the version check and the swap would get lost.
+     *
+     * @param lightSettled whether no loading pipeline thread can propagate light into the chunk, which holds while the
+     *                     chunk and all its neighbours are ready.
+     * @return the number of bytes reclaimed, or -1 if the chunk changed and the redeflation was discarded.
+     */
+    public int applyRedeflation(Redeflation redeflation, boolean lightSettled) {
+        Preconditions.checkArgument(redeflation.chunk == this, "Redeflation was prepared for another chunk");
+        if (!redeflation.isDone() || disposed
+                || redeflation.editVersion != editVersion || redeflation.lightVersion != lightVersion
+                || redeflation.blocks != blockData || redeflation.extra.length != extraData.length) {
+            return -1;
+        }
+        final int oldSize = getEstimatedMemoryConsumptionInBytes();
+        final TeraArray[] replaced = {blockData, sunlightData, sunlightRegenData, lightData};
+        final TeraArray[] replacedExtra = extraData.clone();
+        blockData = redeflation.deflatedBlocks;
+        for (int i = 0; i < extraData.length; i++) {
+            if (redeflation.extra[i] == extraData[i]) {
+                extraData[i] = redeflation.deflatedExtra[i];
+            }
+        }
+        if (lightSettled && redeflation.sunlight == sunlightData && redeflation.sunlightRegen == sunlightRegenData
+                && redeflation.light == lightData) {
+            sunlightData = redeflation.deflatedSunlight;
+            sunlightRegenData = redeflation.deflatedSunlightRegen;
+            lightData = redeflation.deflatedLight;
+        }
+        releaseIfUnused(replaced);
+        releaseIfUnused(replacedExtra);
+        final int newSize = getEstimatedMemoryConsumptionInBytes();
+        ChunkMonitor.fireChunkRedeflated(this, oldSize, newSize);
+        return oldSize - newSize;
+    }
+
+    /**
+     * Deflates the data of a chunk after it got inflated by edits.
+     * <p>
+     * The input arrays are only read and the deflated arrays are new instances, so the deflation itself can run on any
+     * thread. The result is installed by {@link ChunkImpl#applyRedeflation(Redeflation, boolean)}.
+     */
+    public static final class Redeflation {
+        private final ChunkImpl chunk;
+        private final int editVersion;
+        private final int lightVersion;
+        private final TeraArray blocks;
+        private final TeraArray[] extra;
+        private final TeraArray sunlight;
+        private final TeraArray sunlightRegen;
+        private final TeraArray light;
+
+        private volatile boolean done;
+        private TeraArray deflatedBlocks;
+        private TeraArray[] deflatedExtra;
+        private TeraArray deflatedSunlight;
+        private TeraArray deflatedSunlightRegen;
+        private TeraArray deflatedLight;
+
+        private Redeflation(ChunkImpl chunk) {
+            this.chunk = chunk;
+            this.editVersion = chunk.editVersion;
+            this.lightVersion = chunk.lightVersion;
+            this.blocks = chunk.blockData;
+            this.extra = chunk.extraData.clone();
+            this.sunlight = chunk.sunlightData;
+            this.sunlightRegen = chunk.sunlightRegenData;
+            this.light = chunk.lightData;
+        }
+
+        public ChunkImpl getChunk() {
+            return chunk;
+        }
+
+        public void deflate() {
+            final TeraDeflator def = new TeraStandardDeflator();
+            deflatedBlocks = def.deflate(blocks);
+            deflatedExtra = new TeraArray[extra.length];
+            for (int i = 0; i < extra.length; i++) {
+                deflatedExtra[i] = def.deflate(extra[i]);
+            }
+            deflatedSunlight = def.deflate(sunlight);
+            deflatedSunlightRegen = def.deflate(sunlightRegen);
+            deflatedLight = def.deflate(light);
+            done = true;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+    }
+
     @Override
     public String toString() {
         return "Chunk" + chunkPos.toString();
@@ -516,9 +766,18 @@ public void markReady() {
     public void prepareForReactivation() {
         if (disposed) {
             disposed = false;
-            sunlightData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
-            sunlightRegenData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
-            lightData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+            sunlightData = createLightArray();
+            sunlightRegenData = createLightArray();
+            lightData = createLightArray();
+        }
+    }
+
+    @Override
+    public void prepareForReactivationWithLight() {
+        if (disposed) {
+            disposed = false;
+            dirty = true;
+            ChunkMonitor.fireChunkRevived(this);
         }
     }
 
@@ -529,10 +788,70 @@ public void dispose() {
         disposeMesh();
         /*
          * Explicitly do not clear data, so that background threads that work with the chunk can finish.
+         * Off-heap data is copied to the heap instead, as a disposed chunk may still get saved or cached.
          */
+        moveDataToHeap();
         ChunkMonitor.fireChunkDisposed(this);
     }
 
+    /**
+     * Replaces all off-heap arrays by heap copies. Pipeline tasks may still hold the replaced arrays, which is safe as
+     * their native memory is only reused once they became unreachable.
+     */
+    private void moveDataToHeap() {
+        final TeraArray[] replaced = {blockData, sunlightData, sunlightRegenData, lightData};
+        final TeraArray[] replacedExtra = extraData.clone();
+        blockData = toHeap(blockData);
+        sunlightData = toHeap(sunlightData);
+        sunlightRegenData = toHeap(sunlightRegenData);
+        lightData = toHeap(lightData);
+        for (int i = 0; i < extraData.length; i++) {
+            extraData[i] = toHeap(extraData[i]);
+        }
+        releaseIfUnused(replaced);
+        releaseIfUnused(replacedExtra);
+    }
+
+    private static TeraArray toHeap(TeraArray array) {
+        if (array instanceof TeraOffHeapArray) {
+            return ((TeraOffHeapArray) array).toHeap();
+        }
+        return array;
+    }
+
+    /**
+     * Gives back the native memory of off-heap arrays this chunk replaced, unless they are still part of the chunk or
+     * of its snapshot.
+     */
+    private void releaseIfUnused(TeraArray[] replaced) {
+        for (TeraArray array : replaced) {
+            if (array instanceof TeraOffHeapArray && !isInUse(array)) {
+                ((TeraOffHeapArray) array).release();
+            }
+        }
+    }
+
+    private boolean isInUse(TeraArray array) {
+        if (array == blockData || array == blockDataSnapshot
+                || array == sunlightData || array == sunlightRegenData || array == lightData) {
+            return true;
+        }
+        for (TeraArray extraDatum : extraData) {
+            if (array == extraDatum) {
+                return true;
+            }
+        }
+        TeraArray[] snapshots = extraDataSnapshots;
+        if (snapshots != null) {
+            for (TeraArray snapshot : snapshots) {
+                if (array == snapshot) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     @Override
     public void disposeMesh() {
         if (activeMesh != null) {
@@ -591,6 +910,15 @@ public void createSnapshot() {
         System.arraycopy(extraData, 0, extraDataSnapshots, 0, extraData.length);
     }
 
+    /**
+     * A chunk has a single snapshot, so a new one must only be taken once the previous one got released.
+     *
+     * @return whether a snapshot taken with {@link #createSnapshot()} has not been released yet.
+     */
+    public boolean hasSnapshot() {
+        return extraDataSnapshots != null;
+    }
+
     /**
      * This method can only be
      * called once after {@link #createSnapshot()} has been called. It can be called from a different thread than
@@ -601,9 +929,24 @@ public void createSnapshot() {
      */
     public EntityData.ChunkStore.Builder encodeAndReleaseSnapshot() {
         EntityData.ChunkStore.Builder result = ChunkSerializer.encode(chunkPos, blockDataSnapshot, extraDataSnapshots);
+        releaseSnapshot();
+        return result;
+    }
+
+    /**
+     * Drops the snapshot taken with {@link #createSnapshot()} without encoding it. The same threading rules as for
+     * {@link #encodeAndReleaseSnapshot()} apply.
+     */
+    public void releaseSnapshot() {
+        final TeraArray[] released = {blockDataSnapshot};
+        final TeraArray[] releasedExtra = extraDataSnapshots;
         this.blockDataSnapshot = null;
         this.extraDataSnapshots = null;
-        return result;
+        // Arrays which were copied on write while the snapshot was taken are no longer needed.
+        releaseIfUnused(released);
+        if (releasedExtra != null) {
+            releaseIfUnused(releasedExtra);
+        }
     }
 
 }
@@ -29,6 +29,8 @@
 import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
 
+import java.util.Arrays;
+
 /**
  */
 public final class ChunkSerializer {
@@ -65,11 +67,32 @@ public static Chunk decode(EntityData.ChunkStore message, BlockManager blockMana
         return new ChunkImpl(pos, blockData, extraData, blockManager);
     }
 
+    /**
+     * Sections of the array filled with a single value are added as a single run, without visiting their elements.
+     */
     private static EntityData.RunLengthEncoding16 runLengthEncode16(TeraArray array) {
         EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
         short lastItem = (short) array.get(0, 0, 0);
         int counter = 0;
+        int uniformUntilY = 0;
         for (int y = 0; y < array.getSizeY(); ++y) {
+            if (y >= uniformUntilY && y % ChunkConstants.SECTION_HEIGHT == 0 && y + ChunkConstants.SECTION_HEIGHT <= array.getSizeY()) {
+                int uniformValue = array.getUniformValue(y, y + ChunkConstants.SECTION_HEIGHT);
+                if (uniformValue != TeraArray.NOT_UNIFORM) {
+                    uniformUntilY = y + ChunkConstants.SECTION_HEIGHT;
+                    short item = (short) uniformValue;
+                    if (lastItem != item) {
+                        builder.addRunLengths(counter);
+                        builder.addValues(lastItem & 0xFFFF);
+                        lastItem = item;
+                        counter = 0;
+                    }
+                }
+            }
+            if (y < uniformUntilY) {
+                counter += array.getSizeXZ();
+                continue;
+            }
             for (int z = 0; z < array.getSizeZ(); ++z) {
                 for (int x = 0; x < array.getSizeX(); ++x) {
                     short item = (short) array.get(x, y, z);
@@ -126,9 +149,8 @@ private static TeraArray runLengthDecode(EntityData.RunLengthEncoding16 data) {
         for (int pos = 0; pos < data.getValuesCount(); ++pos) {
             int length = data.getRunLengths(pos);
             short value = (short) data.getValues(pos);
-            for (int i = 0; i < length; ++i) {
-                decodedData[index++] = value;
-            }
+            Arrays.fill(decodedData, index, index + length, value);
+            index += length;
         }
         return new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, decodedData);
     }
@@ -0,0 +1,136 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.PerformanceMonitor;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads the activation and deactivation work of chunks over several frames.
+ * <p>
+ * Activating a chunk sends the block lifecycle events for all of its blocks, restores or creates its entities and
+ * sends the chunk events. When many chunks become ready at once, e.g. after a teleport or when a player logs in,
+ * doing all of this in one frame produces long frames. Instead, the work is scheduled here from any thread and run
+ * on the main thread by {@link #run(Comparator)}, the chunks closest to a relevance region first, until the time
+ * budget of the frame is used up.
+ * <p>
+ * At least one task runs per frame, so the work always progresses. The time by which a frame exceeds the budget is
+ * reported to the {@link PerformanceMonitor} as {@link #OVERRUN_ACTIVITY}.
+ */
+public class ChunkActivationScheduler {
+
+    public static final String OVERRUN_ACTIVITY = "Chunk activation over budget";
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkActivationScheduler.class);
+
+    private final Queue<ScheduledTask> incoming = Queues.newConcurrentLinkedQueue();
+    private final List<ScheduledTask> pending = Lists.newArrayList();
+
+    private long budgetNanos;
+
+    /**
+     * @param budgetMs the time to spend per frame, in milliseconds. 0 runs all scheduled work in the next frame.
+     */
+    public ChunkActivationScheduler(long budgetMs) {
+        setBudget(budgetMs);
+    }
+
+    /**
+     * @param budgetMs the time to spend per frame, in milliseconds. 0 runs all scheduled work in the next frame.
+     */
+    public void setBudget(long budgetMs) {
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, budgetMs));
+    }
+
+    public void scheduleActivation(Vector3i chunkPos, Runnable work) {
+        incoming.add(new ScheduledTask(chunkPos, work, true));
+    }
+
+    public void scheduleDeactivation(Vector3i chunkPos, Runnable work) {
+        incoming.add(new ScheduledTask(chunkPos, work, false));
+    }
+
+    /**
+     * Drops the pending activation of a chunk, e.g. because it was unloaded before it got activated.
+     * Must be called from the main thread.
+     *
+     * @return whether an activation was pending for the chunk.
+     */
+    public boolean cancelActivation(Vector3i chunkPos) {
+        drainIncoming();
+        return pending.removeIf(task -> task.activation && task.position.equals(chunkPos));
+    }
+
+    /**
+     * Runs scheduled work until the budget of this frame is used up. Must be called from the main thread.
+     *
+     * @param priority orders the chunk positions, the first ones are handled first.
+     * @return the number of tasks run.
+     */
+    public int run(Comparator<Vector3i> priority) {
+        drainIncoming();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        int done = 0;
+        try (Activity ignored = PerformanceMonitor.startActivity("Chunk activation")) {
+            pending.sort((a, b) -> priority.compare(a.position, b.position));
+            while (done < pending.size() && (done == 0 || budgetNanos == 0 || System.nanoTime() - start < budgetNanos)) {
+                ScheduledTask task = pending.get(done++);
+                try {
+                    task.work.run();
+                } catch (RuntimeException e) {
+                    logger.error("Failed to {} chunk {}", task.activation ? "activate" : "deactivate", task.position, e);
+                }
+            }
+            pending.subList(0, done).clear();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (budgetNanos > 0 && elapsed > budgetNanos) {
+            PerformanceMonitor.recordExecutionTime(OVERRUN_ACTIVITY, Math.round((elapsed - budgetNanos) / 1e6));
+        }
+        return done;
+    }
+
+    /**
+     * @return the number of scheduled tasks which did not run yet.
+     */
+    public int size() {
+        return pending.size() + incoming.size();
+    }
+
+    public void clear() {
+        incoming.clear();
+        pending.clear();
+    }
+
+    private void drainIncoming() {
+        ScheduledTask task;
+        while ((task = incoming.poll()) != null) {
+            pending.add(task);
+        }
+    }
+
+    private static final class ScheduledTask {
+        private final Vector3i position;
+        private final Runnable work;
+        private final boolean activation;
+
+        private ScheduledTask(Vector3i position, Runnable work, boolean activation) {
+            this.position = position;
+            this.work = work;
+            this.activation = activation;
+        }
+    }
+}
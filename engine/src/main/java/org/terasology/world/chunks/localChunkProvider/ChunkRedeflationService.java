@@ -0,0 +1,181 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.utilities.concurrency.ShutdownTask;
+import org.terasology.utilities.concurrency.Task;
+import org.terasology.utilities.concurrency.TaskMaster;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Predicate;
+
+/**
+ * Deflates loaded chunks again after edits inflated their data.
+ * <p>
+ * {@link ChunkImpl#deflate()} only runs once in the loading pipeline, but every edit inflates the touched rows of the
+ * chunk data again. This service notices chunks that were edited, waits until they were not edited for a while and
+ * then deflates their data on a background thread. The deflated arrays are installed on the main thread, and only if
+ * the chunk was not edited in the meantime. The reclaimed bytes are reported via
+ * {@link org.terasology.monitoring.chunk.ChunkMonitor}.
+ */
+public class ChunkRedeflationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkRedeflationService.class);
+    private static final long SCAN_INTERVAL_MS = 1000;
+    private static final int MAX_PENDING = 16;
+
+    private final long idleTimeMs;
+    private final Predicate<Chunk> lightSettled;
+    private final Map<ChunkImpl, TrackedChunk> trackedChunks = Maps.newHashMap();
+    private final Queue<ChunkImpl.Redeflation> finished = Queues.newConcurrentLinkedQueue();
+    private TaskMaster<Task> redeflationTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Redeflation", 1);
+
+    private long nextScan;
+    private int pending;
+    private long reclaimedBytes;
+
+    /**
+     * @param idleTimeMs   how long a chunk must stay unedited before it gets deflated again.
+     * @param lightSettled tells whether the light of a chunk can only be written by the main thread, see
+     *                     {@link ChunkImpl#applyRedeflation(ChunkImpl.Redeflation, boolean)}.
+     */
+    public ChunkRedeflationService(long idleTimeMs, Predicate<Chunk> lightSettled) {
+        this.idleTimeMs = idleTimeMs;
+        this.lightSettled = lightSettled;
+    }
+
+    /**
+     * Installs finished redeflations and schedules idle edited chunks. Must be called from the main thread.
+     *
+     * @param chunks all loaded chunks.
+     */
+    public void update(Collection<Chunk> chunks) {
+        applyFinished();
+        long now = System.currentTimeMillis();
+        if (now < nextScan) {
+            return;
+        }
+        nextScan = now + SCAN_INTERVAL_MS;
+
+        for (Chunk chunk : chunks) {
+            if (!(chunk instanceof ChunkImpl) || !chunk.isReady()) {
+                continue;
+            }
+            ChunkImpl chunkImpl = (ChunkImpl) chunk;
+            TrackedChunk tracked = trackedChunks.get(chunkImpl);
+            if (tracked == null) {
+                // chunks arrive deflated from the loading pipeline.
+                trackedChunks.put(chunkImpl, new TrackedChunk(chunkImpl.getEditVersion(), now));
+            } else if (tracked.editVersion != chunkImpl.getEditVersion()) {
+                tracked.editVersion = chunkImpl.getEditVersion();
+                tracked.lastEdit = now;
+                tracked.inflated = true;
+            } else if (tracked.inflated && !tracked.pending && pending < MAX_PENDING
+                    && now - tracked.lastEdit >= idleTimeMs) {
+                schedule(chunkImpl, tracked);
+            }
+        }
+        trackedChunks.keySet().removeIf(Chunk::isDisposed);
+    }
+
+    private void schedule(ChunkImpl chunk, TrackedChunk tracked) {
+        ChunkImpl.Redeflation redeflation = chunk.prepareRedeflation();
+        if (redeflationTaskMaster.offer(new RedeflationTask(redeflation))) {
+            tracked.pending = true;
+            pending++;
+        }
+    }
+
+    private void applyFinished() {
+        Iterator<ChunkImpl.Redeflation> iterator = finished.iterator();
+        while (iterator.hasNext()) {
+            ChunkImpl.Redeflation redeflation = iterator.next();
+            iterator.remove();
+            pending--;
+            ChunkImpl chunk = redeflation.getChunk();
+            TrackedChunk tracked = trackedChunks.get(chunk);
+            if (tracked == null) {
+                continue;
+            }
+            tracked.pending = false;
+            int reclaimed = chunk.applyRedeflation(redeflation, lightSettled.test(chunk));
+            if (reclaimed >= 0) {
+                tracked.inflated = false;
+                reclaimedBytes += reclaimed;
+                logger.debug("Redeflated chunk {}, reclaimed {} bytes", chunk.getPosition(), reclaimed);
+            }
+        }
+    }
+
+    /**
+     * @return the total number of bytes reclaimed by this service.
+     */
+    public long getReclaimedBytes() {
+        return reclaimedBytes;
+    }
+
+    public void restart() {
+        redeflationTaskMaster.restart();
+    }
+
+    /**
+     * Stops the background thread after the scheduled redeflations finished. Their results are dropped without being
+     * installed.
+     */
+    public void shutdown() {
+        // waiting lets every scheduled task report back, so pending stays exact for a restart
+        redeflationTaskMaster.shutdown(new ShutdownTask(), true);
+        while (finished.poll() != null) {
+            pending--;
+        }
+        trackedChunks.clear();
+    }
+
+    private static final class TrackedChunk {
+        private int editVersion;
+        private long lastEdit;
+        private boolean inflated;
+        private boolean pending;
+
+        private TrackedChunk(int editVersion, long lastEdit) {
+            this.editVersion = editVersion;
+            this.lastEdit = lastEdit;
+        }
+    }
+
+    private final class RedeflationTask implements Task {
+        private final ChunkImpl.Redeflation redeflation;
+
+        private RedeflationTask(ChunkImpl.Redeflation redeflation) {
+            this.redeflation = redeflation;
+        }
+
+        @Override
+        public String getName() {
+            return "Redeflate chunk";
+        }
+
+        @Override
+        public void run() {
+            try {
+                redeflation.deflate();
+            } finally {
+                finished.add(redeflation);
+            }
+        }
+
+        @Override
+        public boolean isTerminateSignal() {
+            return false;
+        }
+    }
+}
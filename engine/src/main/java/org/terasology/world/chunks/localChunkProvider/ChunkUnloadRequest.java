@@ -44,6 +44,7 @@ public String getName() {
     public void run() {
         if (!shutdown) {
             chunkProvider.gatherBlockPositionsForDeactivate(chunk);
+            chunkProvider.commitToUnloadedChunkCache(chunk);
         }
     }
 
@@ -4,7 +4,7 @@
 
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Queues;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
@@ -13,10 +13,11 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityBuilder;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.EntityStore;
-import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.entitySystem.entity.internal.EntityCreationQueue;
 import org.terasology.math.ChunkMath;
 import org.terasology.math.JomlUtil;
 import org.terasology.math.Region3i;
@@ -40,6 +41,7 @@
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.ManagedChunk;
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.blockdata.OffHeapSlabAllocator;
 import org.terasology.world.chunks.event.BeforeChunkUnload;
 import org.terasology.world.chunks.event.OnChunkGenerated;
 import org.terasology.world.chunks.event.OnChunkLoaded;
@@ -47,6 +49,7 @@
 import org.terasology.world.chunks.internal.ChunkImpl;
 import org.terasology.world.chunks.internal.ChunkRelevanceRegion;
 import org.terasology.world.chunks.pipeline.ChunkProcessingPipeline;
+import org.terasology.world.chunks.pipeline.ChunkStageStatistics;
 import org.terasology.world.chunks.pipeline.stages.ChunkTaskProvider;
 import org.terasology.world.generation.impl.EntityBufferImpl;
 import org.terasology.world.generator.WorldGenerator;
@@ -56,12 +59,14 @@
 import org.terasology.world.propagation.light.LightMerger;
 
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -85,16 +90,43 @@
  * {@link BeforeChunkUnload} when chunk ready to remove from provider.
  * <p>
  * {@link BeforeDeactivateBlocks} when chunk ready to remove and have block lifecycle.
+ * <p>
+ * Unloaded chunks are kept with their light in an {@link UnloadedChunkCache} while its budget allows it, so
+ * re-entering recently visited areas skips loading, generation and lighting.
+ * <p>
+ * The events of chunks becoming ready or being unloaded are sent on the main thread, within a time budget per frame
+ * (see {@link ChunkActivationScheduler}). A chunk counts as ready only once it has been activated.
+ * <p>
+ * With an {@link OffHeapSlabAllocator}, generated chunks keep their dense data in native memory. The allocator is
+ * checked for unreachable arrays every frame. Its usage is reported via {@link ChunkMonitor}, together with the size
+ * of all loaded chunk data, which shows how much of it actually lives off the heap.
  */
 public class LocalChunkProvider implements ChunkProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(LocalChunkProvider.class);
     private static final int UNLOAD_PER_FRAME = 64;
+    private static final long REDEFLATE_AFTER_IDLE_MS = 30000;
+    private static final long DEFAULT_ACTIVATION_BUDGET_MS = 4;
+    private static final long ENTITY_CREATION_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long MEASURE_CHUNK_BYTES_INTERVAL_MS = 5000;
     private final EntityManager entityManager;
-    private final BlockingQueue<TShortObjectMap<TIntList>> deactivateBlocksQueue = Queues.newLinkedBlockingQueue();
     private final Map<Vector3i, Chunk> chunkCache;
 
-    private final Map<org.joml.Vector3i, List<EntityStore>> generateQueuedEntities = new HashMap<>();
+    private final Map<org.joml.Vector3i, List<EntityStore>> generateQueuedEntities = Maps.newConcurrentMap();
+    /**
+     * Stores of the chunks loaded by the pipeline, kept to restore their entities without reading them again.
+     */
+    private final Map<org.joml.Vector3i, ChunkStore> loadedChunkStores = Maps.newConcurrentMap();
+    private final EntityCreationQueue entityCreationQueue;
+    private final ChunkActivationScheduler activationScheduler =
+            new ChunkActivationScheduler(DEFAULT_ACTIVATION_BUDGET_MS);
+    private final UnloadedChunkCache unloadedChunkCache;
+    /**
+     * Stores of the chunks taken from the {@link #unloadedChunkCache}, which restore their entities from memory.
+     */
+    private final Map<org.joml.Vector3i, ChunkStore> restoredFromCache = Maps.newConcurrentMap();
+    private final ChunkRedeflationService redeflationService =
+            new ChunkRedeflationService(REDEFLATE_AFTER_IDLE_MS, this::isNeighbourhoodReady);
 
     private final StorageManager storageManager;
     private final WorldGenerator generator;
@@ -107,21 +139,54 @@ public class LocalChunkProvider implements ChunkProvider {
 
     private RelevanceSystem relevanceSystem;
 
+    private OffHeapSlabAllocator offHeapAllocator;
+    private long reportedOffHeapBytes;
+    private long loadedChunkBytes;
+    private long nextChunkBytesMeasurement;
+
     public LocalChunkProvider(StorageManager storageManager, EntityManager entityManager, WorldGenerator generator,
                               BlockManager blockManager, ExtraBlockDataManager extraDataManager,
                               Map<Vector3i, Chunk> chunkCache) {
+        this(storageManager, entityManager, generator, blockManager, extraDataManager, chunkCache, 0);
+    }
+
+    /**
+     * @param unloadedChunkCacheBudgetInBytes memory budget of the {@link UnloadedChunkCache}, 0 disables it.
+     */
+    public LocalChunkProvider(StorageManager storageManager, EntityManager entityManager, WorldGenerator generator,
+                              BlockManager blockManager, ExtraBlockDataManager extraDataManager,
+                              Map<Vector3i, Chunk> chunkCache, long unloadedChunkCacheBudgetInBytes) {
         this.storageManager = storageManager;
         this.entityManager = entityManager;
+        this.entityCreationQueue = new EntityCreationQueue(entityManager);
         this.generator = generator;
         this.blockManager = blockManager;
         this.extraDataManager = extraDataManager;
         this.unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 4);
         this.chunkCache = chunkCache;
+        this.unloadedChunkCache = new UnloadedChunkCache(unloadedChunkCacheBudgetInBytes);
         ChunkMonitor.fireChunkProviderInitialized(this);
     }
 
 
     protected Future<Chunk> createOrLoadChunk(Vector3i chunkPos) {
+        Chunk existing = chunkCache.get(chunkPos);
+        if (existing != null) {
+            // Loaded already, possibly still waiting for its activation.
+            return CompletableFuture.completedFuture(existing);
+        }
+        org.joml.Vector3i pos = JomlUtil.from(chunkPos);
+        if (!loadingPipeline.isPositionProcessing(pos)) {
+            ChunkStore cachedStore = unloadedChunkCache.take(pos);
+            // a chunk the storage manager is still saving gets loaded from its pending store instead
+            if (cachedStore != null && storageManager.reviveChunk(cachedStore.getChunk())) {
+                Chunk cachedChunk = cachedStore.getChunk();
+                cachedChunk.prepareForReactivationWithLight();
+                restoredFromCache.put(pos, cachedStore);
+                return loadingPipeline.invokePipeline(cachedChunk);
+            }
+            restoredFromCache.remove(pos);
+        }
         return loadingPipeline.invokeGeneratorTask(
                 JomlUtil.from(chunkPos),
                 () -> {
@@ -129,12 +194,14 @@ protected Future<Chunk> createOrLoadChunk(Vector3i chunkPos) {
                     Chunk chunk;
                     EntityBufferImpl buffer = new EntityBufferImpl();
                     if (chunkStore == null) {
-                        chunk = new ChunkImpl(chunkPos, blockManager, extraDataManager);
+                        chunk = new ChunkImpl(chunkPos, blockManager, extraDataManager, offHeapAllocator);
                         generator.createChunk(chunk, buffer);
                         generateQueuedEntities.put(chunk.getPosition(new org.joml.Vector3i()), buffer.getAll());
                     } else {
                         chunk = chunkStore.getChunk();
+                        loadedChunkStores.put(chunk.getPosition(new org.joml.Vector3i()), chunkStore);
                     }
+                    storageManager.restoreUnsavedChanges(chunk);
                     return chunk;
                 });
     }
@@ -192,6 +259,10 @@ public void completeUpdate() {
         //TODO remove this.
     }
 
+    /**
+     * Prepares the activation of a chunk which passed the loading pipeline. This runs in the pipeline; the activation
+     * itself is done on the main thread by the {@link ChunkActivationScheduler}.
+     */
     private void processReadyChunk(final Chunk chunk) {
         if (chunkCache.get(chunk.getPosition()) != null) {
             return; // TODO move it in pipeline;
@@ -199,8 +270,26 @@ private void processReadyChunk(final Chunk chunk) {
         chunkCache.put(chunk.getPosition(), chunk);
         //TODO, it is not clear if the activate/addedBlocks event logic is correct.
         //See https://github.com/MovingBlocks/Terasology/issues/3244
-        ChunkStore store = this.storageManager.loadChunkStore(chunk.getPosition());
+        // Loaded chunks reuse the store read by the pipeline, cached chunks kept their entities in memory
+        ChunkStore restoredStore = restoredFromCache.remove(chunk.getPosition(new org.joml.Vector3i()));
+        ChunkStore store = restoredStore != null
+                ? restoredStore
+                : loadedChunkStores.remove(chunk.getPosition(new org.joml.Vector3i()));
         TShortObjectMap<TIntList> mappings = createBatchBlockEventMappings(chunk);
+        List<EntityBuilder> entities = Collections.emptyList();
+        if (store == null) {
+            List<EntityStore> entityStores = generateQueuedEntities.remove(chunk.getPosition(new org.joml.Vector3i()));
+            if (entityStores != null) {
+                entities = entityStores.stream().map(this::prepareGeneratedEntity).collect(Collectors.toList());
+            }
+        }
+        List<EntityBuilder> generatedEntities = entities;
+        activationScheduler.scheduleActivation(chunk.getPosition(),
+                () -> activateChunk(chunk, store, mappings, generatedEntities));
+    }
+
+    private void activateChunk(Chunk chunk, ChunkStore store, TShortObjectMap<TIntList> mappings,
+                               List<EntityBuilder> generatedEntities) {
         if (store != null) {
             store.restoreEntities();
 
@@ -225,9 +314,7 @@ private void processReadyChunk(final Chunk chunk) {
             });
             PerformanceMonitor.endActivity();
         } else {
-            PerformanceMonitor.startActivity("Generating queued Entities");
-            generateQueuedEntities.remove(chunk.getPosition(new org.joml.Vector3i())).forEach(this::generateQueuedEntities);
-            PerformanceMonitor.endActivity();
+            entityCreationQueue.addAll(chunk.getPosition(new org.joml.Vector3i()), generatedEntities);
 
             // send on activate
             PerformanceMonitor.startActivity("Sending OnActivateBlocks");
@@ -247,39 +334,102 @@ private void processReadyChunk(final Chunk chunk) {
         chunk.markReady();
     }
 
-    private void generateQueuedEntities(EntityStore store) {
-        Prefab prefab = store.getPrefab();
-        EntityRef entity;
-        if (prefab != null) {
-            entity = entityManager.create(prefab);
-        } else {
-            entity = entityManager.create();
-        }
+    /**
+     * Sets up the entity of a generated entity store. This runs in the chunk pipeline; the entity itself is created on
+     * the main thread by {@link #createQueuedEntities()}, together with the entities of other chunks.
+     */
+    private EntityBuilder prepareGeneratedEntity(EntityStore store) {
+        EntityBuilder builder = entityManager.newBuilder(store.getPrefab());
         for (Component component : store.iterateComponents()) {
-            entity.addComponent(component);
+            builder.addComponent(component);
         }
+        return builder;
+    }
+
+    /**
+     * Activates ready chunks and deactivates unloaded ones, closest to the relevance regions first, within the
+     * activation budget.
+     */
+    void runScheduledActivations() {
+        activationScheduler.run(relevanceSystem.createChunkPositionComparator());
+    }
+
+    private void createQueuedEntities() {
+        if (entityCreationQueue.isEmpty()) {
+            return;
+        }
+        PerformanceMonitor.startActivity("Generating queued Entities");
+        entityCreationQueue.commit(ENTITY_CREATION_BUDGET_NANOS);
+        PerformanceMonitor.endActivity();
     }
 
     @Override
     public void beginUpdate() {
-        deactivateBlocks();
+        runScheduledActivations();
+        createQueuedEntities();
         checkForUnload();
+        redeflationService.update(chunkCache.values());
+        updateOffHeapAccounting();
     }
 
-    private void deactivateBlocks() {
-        List<TShortObjectMap<TIntList>> deactivatedBlockSets =
-                Lists.newArrayListWithExpectedSize(deactivateBlocksQueue.size());
-        deactivateBlocksQueue.drainTo(deactivatedBlockSets);
-        for (TShortObjectMap<TIntList> deactivatedBlockSet : deactivatedBlockSets) {
-            deactivatedBlockSet.forEachEntry((id, positions) -> {
-                if (positions.size() > 0) {
-                    blockManager.getBlock(id).getEntity().send(new BeforeDeactivateBlocks(positions, registry));
-                }
-                return true;
-            });
+    private void updateOffHeapAccounting() {
+        if (offHeapAllocator == null) {
+            return;
+        }
+        int leaks = offHeapAllocator.reclaim();
+        if (leaks > 0) {
+            logger.warn("Reclaimed {} off-heap chunk arrays which were never released", leaks);
+            ChunkMonitor.fireOffHeapLeaksReclaimed(leaks, offHeapAllocator, loadedChunkBytes);
+        }
+        boolean measured = measureLoadedChunkBytes();
+        long allocatedBytes = offHeapAllocator.getAllocatedBytes();
+        if (measured || allocatedBytes != reportedOffHeapBytes) {
+            reportedOffHeapBytes = allocatedBytes;
+            ChunkMonitor.fireOffHeapUsageChanged(offHeapAllocator, loadedChunkBytes);
         }
     }
 
+    /**
+     * Sums up the size of all loaded chunks every few seconds, as most chunk data gets deflated into heap arrays and
+     * only the remaining dense arrays stay off the heap.
+     *
+     * @return whether a new measurement was taken.
+     */
+    private boolean measureLoadedChunkBytes() {
+        long now = System.currentTimeMillis();
+        if (now < nextChunkBytesMeasurement) {
+            return false;
+        }
+        nextChunkBytesMeasurement = now + MEASURE_CHUNK_BYTES_INTERVAL_MS;
+        long chunkBytes = 0;
+        for (Chunk chunk : chunkCache.values()) {
+            chunkBytes += chunk.getEstimatedMemoryConsumptionInBytes();
+        }
+        loadedChunkBytes = chunkBytes;
+        logger.debug("Loaded chunk data: {} bytes, off-heap chunk data: {} bytes", chunkBytes,
+                offHeapAllocator.getAllocatedBytes());
+        return true;
+    }
+
+    /**
+     * Sets the time to spend per frame on activating and deactivating chunks.
+     *
+     * @param budgetMs the budget in milliseconds, 0 activates all ready chunks in the next frame.
+     */
+    public void setActivationBudget(long budgetMs) {
+        activationScheduler.setBudget(budgetMs);
+    }
+
+    /**
+     * Keeps the dense data of generated chunks in native memory taken from the given allocator.
+     * Must be set before the first chunk gets created.
+     *
+     * @param allocator the allocator to use, or null to keep chunk data on the heap.
+     */
+    public void setOffHeapAllocator(OffHeapSlabAllocator allocator) {
+        this.offHeapAllocator = allocator;
+    }
+
     private void checkForUnload() {
         PerformanceMonitor.startActivity("Unloading irrelevant chunks");
         int unloaded = 0;
@@ -305,16 +455,26 @@ private boolean unloadChunkInternal(Vector3i pos) {
         if (loadingPipeline.isPositionProcessing(JomlUtil.from(pos))) {
             // Chunk hasn't been finished or changed, so just drop it.
             loadingPipeline.stopProcessingAt(JomlUtil.from(pos));
+            restoredFromCache.remove(JomlUtil.from(pos));
+            loadedChunkStores.remove(JomlUtil.from(pos));
             return false;
         }
         Chunk chunk = chunkCache.get(pos);
         if (chunk == null) {
             return false;
         }
+        if (activationScheduler.cancelActivation(pos)) {
+            // Chunk was never activated, so there is nothing to deactivate or store.
+            chunk.dispose();
+            return true;
+        }
 
+        // generated entities which are still queued have to be stored with the chunk
+        entityCreationQueue.commitChunk(JomlUtil.from(pos));
         worldEntity.send(new BeforeChunkUnload(pos));
-        storageManager.deactivateChunk(chunk);
+        ChunkStore deactivatedStore = storageManager.deactivateChunk(chunk);
         chunk.dispose();
+        unloadedChunkCache.reserve(deactivatedStore);
 
         try {
             unloadRequestTaskMaster.put(new ChunkUnloadRequest(chunk, this));
@@ -325,12 +485,47 @@ private boolean unloadChunkInternal(Vector3i pos) {
         return true;
     }
 
-    void gatherBlockPositionsForDeactivate(Chunk chunk) {
-        try {
-            deactivateBlocksQueue.put(createBatchBlockEventMappings(chunk));
-        } catch (InterruptedException e) {
-            logger.error("Failed to queue deactivation of blocks for {}", chunk.getPosition());
+    /**
+     * @return whether the chunk and all its neighbours are ready, so no thread of the loading pipeline merges light
+     *         into the chunk.
+     */
+    private boolean isNeighbourhoodReady(Chunk chunk) {
+        for (Vector3i pos : Region3i.createFromCenterExtents(chunk.getPosition(), 1)) {
+            Chunk neighbour = chunkCache.get(pos);
+            if (neighbour == null || !neighbour.isReady()) {
+                return false;
+            }
         }
+        return true;
+    }
+
+    void gatherBlockPositionsForDeactivate(Chunk chunk) {
+        TShortObjectMap<TIntList> mappings = createBatchBlockEventMappings(chunk);
+        activationScheduler.scheduleDeactivation(chunk.getPosition(), () -> deactivateBlocks(mappings));
+    }
+
+    private void deactivateBlocks(TShortObjectMap<TIntList> deactivatedBlockSet) {
+        deactivatedBlockSet.forEachEntry((id, positions) -> {
+            if (positions.size() > 0) {
+                blockManager.getBlock(id).getEntity().send(new BeforeDeactivateBlocks(positions, registry));
+            }
+            return true;
+        });
+    }
+
+    void commitToUnloadedChunkCache(Chunk chunk) {
+        unloadedChunkCache.commit(chunk);
+    }
+
+    public UnloadedChunkCache getUnloadedChunkCache() {
+        return unloadedChunkCache;
+    }
+
+    /**
+     * @return the time spent in each stage of the loading pipeline.
+     */
+    public ChunkStageStatistics getStageStatistics() {
+        return loadingPipeline.getStatistics();
     }
 
     private TShortObjectMap<TIntList> createBatchBlockEventMappings(Chunk chunk) {
@@ -379,17 +574,24 @@ public Collection<Chunk> getAllChunks() {
         return chunkCache.values();
     }
 
+    @Override
+    public boolean isKeptInMemory(Chunk chunk) {
+        return chunkCache.get(chunk.getPosition()) == chunk || unloadedChunkCache.contains(chunk);
+    }
+
 
     @Override
     public void restart() {
         loadingPipeline.restart();
         unloadRequestTaskMaster.restart();
+        redeflationService.restart();
     }
 
     @Override
     public void shutdown() {
         loadingPipeline.shutdown();
         unloadRequestTaskMaster.shutdown(new ChunkUnloadRequest(), true);
+        redeflationService.shutdown();
     }
 
     @Override
@@ -401,6 +603,7 @@ public void dispose() {
             chunk.dispose();
         }
         chunkCache.clear();
+        unloadedChunkCache.clear();
         /*
          * The chunk monitor needs to clear chunk references, so it's important
          * that no new chunk get created
@@ -434,27 +637,15 @@ public void purgeWorld() {
             chunk.dispose();
         });
         chunkCache.clear();
+        unloadedChunkCache.clear();
+        activationScheduler.clear();
+        generateQueuedEntities.clear();
+        loadedChunkStores.clear();
+        entityCreationQueue.clear();
         storageManager.deleteWorld();
         worldEntity.send(new PurgeWorldEvent());
 
-        loadingPipeline = new ChunkProcessingPipeline(this::getChunk, relevanceSystem.createChunkTaskComporator());
-        loadingPipeline.addStage(
-                ChunkTaskProvider.create("Chunk generate internal lightning",
-                        InternalLightProcessor::generateInternalLighting))
-                .addStage(ChunkTaskProvider.create("Chunk deflate", Chunk::deflate))
-                .addStage(ChunkTaskProvider.createMulti("Light merging",
-                        chunks -> {
-                            Chunk[] localchunks = chunks.toArray(new Chunk[0]);
-                            return new LightMerger().merge(localchunks);
-                        },
-                        pos -> StreamSupport.stream(BlockRegions.iterableInPlace(BlockRegions.createFromMinAndMax(
-                                pos.x() - 1, pos.y() - 1, pos.z() - 1,
-                                pos.x() + 1, pos.y() + 1, pos.z() + 1
-                        )).spliterator(), false)
-                                .map(org.joml.Vector3i::new)
-                                .collect(Collectors.toSet())
-                ))
-                .addStage(ChunkTaskProvider.create("Chunk ready", this::processReadyChunk));
+        loadingPipeline = createLoadingPipeline();
         unloadRequestTaskMaster = TaskMaster.createFIFOTaskMaster("Chunk-Unloader", 8);
         ChunkMonitor.fireChunkProviderInitialized(this);
 
@@ -478,11 +669,18 @@ private boolean isChunkReady(Chunk chunk) {
     // TODO: move loadingPipeline initialization into constructor.
     public void setRelevanceSystem(RelevanceSystem relevanceSystem) {
         this.relevanceSystem = relevanceSystem;
-        loadingPipeline = new ChunkProcessingPipeline(this::getChunk, relevanceSystem.createChunkTaskComporator());
-        loadingPipeline.addStage(
+        loadingPipeline = createLoadingPipeline();
+    }
+
+    private ChunkProcessingPipeline createLoadingPipeline() {
+        Predicate<Chunk> isLit = chunk -> restoredFromCache.containsKey(chunk.getPosition(new org.joml.Vector3i()));
+        // Chunks waiting for their activation are complete for the pipeline already.
+        ChunkProcessingPipeline pipeline = new ChunkProcessingPipeline(pos -> chunkCache.get(JomlUtil.from(pos)),
+                relevanceSystem.createChunkTaskComporator());
+        pipeline.addStage(
                 ChunkTaskProvider.create("Chunk generate internal lightning",
-                        InternalLightProcessor::generateInternalLighting))
-                .addStage(ChunkTaskProvider.create("Chunk deflate", Chunk::deflate))
+                        InternalLightProcessor::generateInternalLighting).skipIf(isLit))
+                .addStage(ChunkTaskProvider.create("Chunk deflate", Chunk::deflate).skipIf(isLit))
                 .addStage(ChunkTaskProvider.createMulti("Light merging",
                         chunks -> {
                             Chunk[] localchunks = chunks.toArray(new Chunk[0]);
@@ -494,7 +692,8 @@ public void setRelevanceSystem(RelevanceSystem relevanceSystem) {
                         )).spliterator(), false)
                                 .map(org.joml.Vector3i::new)
                                 .collect(Collectors.toCollection(Sets::newLinkedHashSet))
-                ))
+                ).skipIf(isLit))
                 .addStage(ChunkTaskProvider.create("Chunk ready", this::processReadyChunk));
+        return pipeline;
     }
 }
@@ -210,6 +210,15 @@ public Comparator<Future<Chunk>> createChunkTaskComporator() {
         return new ChunkTaskRelevanceComparator();
     }
 
+    /**
+     * Create comparator for chunk positions, which compare by distance from region centers
+     *
+     * @return Comparator.
+     */
+    public Comparator<Vector3i> createChunkPositionComparator() {
+        return new PositionRelevanceComparator();
+    }
+
     /**
      * @param delta The time (in seconds) since the last engine update.
      */
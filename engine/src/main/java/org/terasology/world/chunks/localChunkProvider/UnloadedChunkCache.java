@@ -0,0 +1,192 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Maps;
+import org.joml.Vector3i;
+import org.joml.Vector3ic;
+import org.terasology.persistence.ChunkStore;
+import org.terasology.world.chunks.Chunk;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Memory budgeted middle tier between loaded chunks and the storage.
+ * <p>
+ * Chunks that left relevance are kept here in deflated form, together with their lighting, until the budget is
+ * exhausted. Re-entering a recently visited area can then take the chunk from here instead of loading or generating it
+ * and computing its light again. Each chunk is kept as the store returned by
+ * {@link org.terasology.persistence.StorageManager#deactivateChunk}, which restores its entities from memory.
+ * <p>
+ * A chunk is first reserved on the main thread when it is unloaded and then committed by the unloading thread after it
+ * was deflated. Only the latest reservation of a position can be committed, so a stale chunk never replaces a newer
+ * version of itself. The least recently used chunks are evicted first, their size is estimated by
+ * {@link Chunk#getEstimatedMemoryConsumptionInBytes()}.
+ */
+public class UnloadedChunkCache {
+
+    private final long budgetInBytes;
+
+    private final Map<Vector3ic, ChunkStore> reservations = Maps.newHashMap();
+    private final LinkedHashMap<Vector3ic, ChunkStore> chunks = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Vector3ic, Integer> sizes = Maps.newHashMap();
+    private final Set<Chunk> cachedChunks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long usedBytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param budgetInBytes the maximum estimated size of all cached chunks. A budget of 0 disables the cache.
+     */
+    public UnloadedChunkCache(long budgetInBytes) {
+        this.budgetInBytes = budgetInBytes;
+    }
+
+    public boolean isEnabled() {
+        return budgetInBytes > 0;
+    }
+
+    /**
+     * Marks the chunk as the most recent unloaded version of its position. Any older cached version gets dropped.
+     *
+     * @param store the store of the chunk that just got unloaded.
+     */
+    public synchronized void reserve(ChunkStore store) {
+        if (!isEnabled()) {
+            return;
+        }
+        Vector3i pos = store.getChunkPosition();
+        remove(pos);
+        reservations.put(pos, store);
+    }
+
+    /**
+     * Compacts the chunk and adds it to the cache, if it is still the latest reservation of its position.
+     * <p>
+     * May be called from any thread.
+     *
+     * @param chunk the chunk of a previously reserved store.
+     */
+    public void commit(Chunk chunk) {
+        if (!isEnabled()) {
+            return;
+        }
+        Vector3i pos = chunk.getPosition(new Vector3i());
+        ChunkStore store;
+        synchronized (this) {
+            store = reservations.get(pos);
+            if (store == null || store.getChunk() != chunk) {
+                return;
+            }
+        }
+        chunk.deflate();
+        chunk.deflateSunlight();
+        int size = chunk.getEstimatedMemoryConsumptionInBytes();
+        synchronized (this) {
+            if (!reservations.remove(pos, store)) {
+                return;
+            }
+            if (size > budgetInBytes) {
+                return;
+            }
+            chunks.put(pos, store);
+            sizes.put(pos, size);
+            cachedChunks.add(chunk);
+            usedBytes += size;
+            evictOverBudget();
+        }
+    }
+
+    /**
+     * Removes the cached chunk of the given position. Pending reservations of the position get cancelled.
+     *
+     * @param pos the position of the chunk.
+     * @return the store of the cached chunk, or null if no chunk was cached for the position.
+     */
+    public synchronized ChunkStore take(Vector3ic pos) {
+        if (!isEnabled()) {
+            return null;
+        }
+        reservations.remove(pos);
+        ChunkStore store = remove(pos);
+        if (store != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return store;
+    }
+
+    /**
+     * Checks whether the chunk is reserved or cached, without counting as a use of it.
+     *
+     * @param chunk an unloaded chunk.
+     * @return true if the cache holds the chunk.
+     */
+    public synchronized boolean contains(Chunk chunk) {
+        if (cachedChunks.contains(chunk)) {
+            return true;
+        }
+        ChunkStore reserved = reservations.get(chunk.getPosition(new Vector3i()));
+        return reserved != null && reserved.getChunk() == chunk;
+    }
+
+    public synchronized void clear() {
+        reservations.clear();
+        chunks.clear();
+        sizes.clear();
+        cachedChunks.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return chunks.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getBudgetInBytes() {
+        return budgetInBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private ChunkStore remove(Vector3ic pos) {
+        ChunkStore store = chunks.remove(pos);
+        if (store != null) {
+            usedBytes -= sizes.remove(pos);
+            cachedChunks.remove(store.getChunk());
+        }
+        return store;
+    }
+
+    private void evictOverBudget() {
+        Iterator<Map.Entry<Vector3ic, ChunkStore>> iterator = chunks.entrySet().iterator();
+        while (usedBytes > budgetInBytes && iterator.hasNext()) {
+            Map.Entry<Vector3ic, ChunkStore> eldest = iterator.next();
+            usedBytes -= sizes.remove(eldest.getKey());
+            cachedChunks.remove(eldest.getValue().getChunk());
+            iterator.remove();
+            evictions++;
+        }
+    }
+}
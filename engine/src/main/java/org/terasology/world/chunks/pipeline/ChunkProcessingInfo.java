@@ -80,6 +80,10 @@ void nextStage(List<ChunkTaskProvider> stages) {
                 chunkTaskProvider == null
                         ? 0
                         : stages.indexOf(chunkTaskProvider) + 1;
+        // the last stage finishes processing and is never skipped.
+        while (nextStageIndex < stages.size() - 1 && stages.get(nextStageIndex).isSkippedFor(chunk)) {
+            nextStageIndex++;
+        }
         chunkTaskProvider = stages.get(nextStageIndex);
     }
 
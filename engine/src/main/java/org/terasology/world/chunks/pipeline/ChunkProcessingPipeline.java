@@ -44,6 +44,7 @@
 public class ChunkProcessingPipeline {
 
     private static final int NUM_TASK_THREADS = 8;
+    private static final String GENERATOR_STAGE = "Generation or Loading";
     private static final Logger logger = LoggerFactory.getLogger(ChunkProcessingPipeline.class);
 
     private final List<ChunkTaskProvider> stages = Lists.newArrayList();
@@ -54,6 +55,7 @@ public class ChunkProcessingPipeline {
 
     private final Function<Vector3ic, Chunk> chunkProvider;
     private final Map<Vector3ic, ChunkProcessingInfo> chunkProcessingInfoMap = Maps.newConcurrentMap();
+    private final ChunkStageStatistics statistics = new ChunkStageStatistics();
 
     /**
      * Create ChunkProcessingPipeline.
@@ -120,7 +122,7 @@ private void onStageDone(PositionFuture<Chunk> future, ChunkProcessingInfo chunk
         } catch (ExecutionException e) {
             String stageName =
                     chunkProcessingInfo.getChunkTaskProvider() == null
-                            ? "Generation or Loading"
+                            ? GENERATOR_STAGE
                             : chunkProcessingInfo.getChunkTaskProvider().getName();
             logger.error(
                     String.format("ChunkTask at position %s and stage [%s] catch error: ",
@@ -163,11 +165,20 @@ private Chunk getChunkBy(ChunkTaskProvider requiredStage, Vector3ic position) {
     private Future<Chunk> runTask(ChunkTask task, Set<Chunk> chunks) {
         return chunkProcessor.submit(new PositionalCallable(() -> {
             try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(task.getName())) {
-                return task.apply(chunks);
+                return timed(task.getName(), () -> task.apply(chunks));
             }
         }, task.getPosition()));
     }
 
+    private Chunk timed(String stage, Supplier<Chunk> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            statistics.record(stage, System.nanoTime() - start);
+        }
+    }
+
     private Thread threadFactory(Runnable runnable) {
         Thread thread = new Thread(runnable);
         thread.setDaemon(true);
@@ -207,8 +218,8 @@ public Future<Chunk> invokeGeneratorTask(Vector3i position, Supplier<Chunk> gene
             SettableFuture<Chunk> exitFuture = SettableFuture.create();
             chunkProcessingInfo = new ChunkProcessingInfo(position, exitFuture);
             chunkProcessingInfoMap.put(position, chunkProcessingInfo);
-            chunkProcessingInfo.setCurrentFuture(chunkProcessor.submit(new PositionalCallable(generatorTask::get,
-                    position)));
+            chunkProcessingInfo.setCurrentFuture(chunkProcessor.submit(new PositionalCallable(
+                    () -> timed(GENERATOR_STAGE, generatorTask), position)));
             return exitFuture;
         }
     }
@@ -223,6 +234,13 @@ public Future<Chunk> invokePipeline(Chunk chunk) {
         return invokeGeneratorTask(chunk.getPosition(new Vector3i()), () -> chunk);
     }
 
+    /**
+     * @return the time spent in each stage, including the generation or loading of the chunks.
+     */
+    public ChunkStageStatistics getStatistics() {
+        return statistics;
+    }
+
     public void shutdown() {
         executor.shutdown();
 
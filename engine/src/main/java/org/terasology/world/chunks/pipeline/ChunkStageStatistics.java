@@ -0,0 +1,75 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.pipeline;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the time spent in each stage of a {@link ChunkProcessingPipeline}.
+ * <p>
+ * Stages are listed in the order they were first run. All methods are thread safe.
+ */
+public class ChunkStageStatistics {
+
+    private final Map<String, Stage> stages = Maps.newLinkedHashMap();
+
+    /**
+     * @param stage        the name of the stage.
+     * @param elapsedNanos the time one chunk task of the stage took.
+     */
+    public void record(String stage, long elapsedNanos) {
+        Stage entry;
+        synchronized (stages) {
+            entry = stages.computeIfAbsent(stage, key -> new Stage());
+        }
+        entry.nanos.add(elapsedNanos);
+        entry.count.increment();
+    }
+
+    /**
+     * @return the names of all stages run since the last reset.
+     */
+    public List<String> getStages() {
+        synchronized (stages) {
+            return ImmutableList.copyOf(stages.keySet());
+        }
+    }
+
+    /**
+     * @return the summed time of all tasks of the stage, in nanoseconds.
+     */
+    public long getTotalNanos(String stage) {
+        Stage entry = get(stage);
+        return entry == null ? 0 : entry.nanos.sum();
+    }
+
+    /**
+     * @return the number of tasks of the stage.
+     */
+    public long getCount(String stage) {
+        Stage entry = get(stage);
+        return entry == null ? 0 : entry.count.sum();
+    }
+
+    public void reset() {
+        synchronized (stages) {
+            stages.clear();
+        }
+    }
+
+    private Stage get(String stage) {
+        synchronized (stages) {
+            return stages.get(stage);
+        }
+    }
+
+    private static final class Stage {
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder count = new LongAdder();
+    }
+}
@@ -10,6 +10,7 @@
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
 /**
@@ -22,6 +23,7 @@
 public class ChunkTaskProvider {
     private final String name;
     private final Function<Vector3ic, ChunkTask> taskCreator;
+    private Predicate<Chunk> skipCondition = chunk -> false;
 
     public ChunkTaskProvider(String name, Function<Vector3ic, ChunkTask> taskCreator) {
         this.name = name;
@@ -51,6 +53,21 @@ public static ChunkTaskProvider createMulti(String name, Function<Collection<Chu
         );
     }
 
+    /**
+     * Let chunks pass this stage without processing.
+     *
+     * @param condition chunks matching this condition skip the stage.
+     * @return self for Fluent api.
+     */
+    public ChunkTaskProvider skipIf(Predicate<Chunk> condition) {
+        this.skipCondition = condition;
+        return this;
+    }
+
+    public boolean isSkippedFor(Chunk chunk) {
+        return chunk != null && skipCondition.test(chunk);
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,139 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.pregeneration;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Splits the chunks around a center into tiles which are generated one after another.
+ * <p>
+ * The area covers all chunks within {@code radius} of the center horizontally and within {@code verticalExtent}
+ * vertically. Each tile is a column of at most {@code 2 * tileExtent + 1} by {@code 2 * tileExtent + 1} chunks spanning
+ * the full height of the area. Tiles are ordered by their distance from the center, so the area grows ring by ring.
+ * <p>
+ * A tile is generated by a relevance region centered on it, which is one chunk larger than the tile in each direction:
+ * the chunks at the border of a relevance region are never lit, as their neighbours are not loaded.
+ */
+public class PregenerationPlan {
+
+    private final Vector3i center;
+    private final int radius;
+    private final int verticalExtent;
+    private final int tileExtent;
+    private final Region3i area;
+    private final List<Region3i> tiles;
+
+    /**
+     * @param center         the chunk position the area is centered on.
+     * @param radius         the horizontal radius of the area, in chunks.
+     * @param verticalExtent the vertical radius of the area, in chunks.
+     * @param tileExtent     the horizontal radius of a tile, in chunks.
+     */
+    public PregenerationPlan(Vector3i center, int radius, int verticalExtent, int tileExtent) {
+        Preconditions.checkArgument(radius >= 0, "radius must not be negative");
+        Preconditions.checkArgument(verticalExtent >= 0, "verticalExtent must not be negative");
+        Preconditions.checkArgument(tileExtent >= 0, "tileExtent must not be negative");
+        this.center = new Vector3i(center);
+        this.radius = radius;
+        this.verticalExtent = verticalExtent;
+        this.tileExtent = tileExtent;
+        this.area = Region3i.createFromCenterExtents(center, new Vector3i(radius, verticalExtent, radius));
+        this.tiles = createTiles();
+    }
+
+    private List<Region3i> createTiles() {
+        int tileSize = 2 * tileExtent + 1;
+        int rings = (radius - tileExtent + tileSize - 1) / tileSize;
+        List<int[]> offsets = Lists.newArrayList();
+        for (int x = -rings; x <= rings; x++) {
+            for (int z = -rings; z <= rings; z++) {
+                offsets.add(new int[]{x, z});
+            }
+        }
+        offsets.sort(Comparator.comparingInt(offset -> Math.max(Math.abs(offset[0]), Math.abs(offset[1]))));
+
+        ImmutableList.Builder<Region3i> result = ImmutableList.builder();
+        Vector3i extents = new Vector3i(tileExtent, verticalExtent, tileExtent);
+        for (int[] offset : offsets) {
+            Vector3i tileCenter = new Vector3i(center.x + offset[0] * tileSize, center.y, center.z + offset[1] * tileSize);
+            result.add(Region3i.createFromCenterExtents(tileCenter, extents).intersect(area));
+        }
+        return result.build();
+    }
+
+    public Vector3i getCenter() {
+        return new Vector3i(center);
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int getVerticalExtent() {
+        return verticalExtent;
+    }
+
+    /**
+     * @return the chunk positions covered by this plan.
+     */
+    public Region3i getArea() {
+        return area;
+    }
+
+    public int getTileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * @return the chunk positions of the tile, restricted to the area of this plan.
+     */
+    public Region3i getTile(int index) {
+        return tiles.get(index);
+    }
+
+    /**
+     * @return the chunk position a relevance region has to be centered on to generate the tile.
+     */
+    public Vector3i getTileCenter(int index) {
+        Region3i tile = tiles.get(index);
+        Vector3i min = tile.min();
+        Vector3i max = tile.max();
+        return new Vector3i((min.x + max.x) / 2, center.y, (min.z + max.z) / 2);
+    }
+
+    /**
+     * @return the relevance distance which makes every tile fit into the relevance region centered on it.
+     */
+    public Vector3i getRelevanceDistance() {
+        return new Vector3i(2 * tileExtent + 2, 2 * verticalExtent + 2, 2 * tileExtent + 2);
+    }
+
+    /**
+     * @return the number of chunks in the tiles before the given one.
+     */
+    public long getChunksBefore(int index) {
+        long result = 0;
+        for (int i = 0; i < index && i < tiles.size(); i++) {
+            result += volume(tiles.get(i));
+        }
+        return result;
+    }
+
+    public long getChunkCount() {
+        return volume(area);
+    }
+
+    /**
+     * @return the number of chunk positions in the region.
+     */
+    public static long volume(Region3i region) {
+        return (long) region.sizeX() * region.sizeY() * region.sizeZ();
+    }
+}
@@ -0,0 +1,28 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.pregeneration;
+
+import org.terasology.entitySystem.Component;
+import org.terasology.math.geom.Vector3i;
+
+/**
+ * The progress of a world pregeneration. It is stored with the game, so an interrupted pregeneration continues with
+ * the first unfinished tile when the game is loaded again. A finished pregeneration keeps its progress as a marker of
+ * the area which has already been generated.
+ */
+public final class PregenerationProgressComponent implements Component {
+    /**
+     * The chunk position the pregenerated area is centered on.
+     */
+    public Vector3i center = new Vector3i();
+    public int radius;
+    public int verticalExtent;
+    /**
+     * The index of the first tile of the {@link PregenerationPlan} which has not been completed yet.
+     */
+    public int nextTile;
+    /**
+     * Whether all tiles have been completed.
+     */
+    public boolean completed;
+}
@@ -0,0 +1,320 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.chunks.pregeneration;
+
+import com.google.common.collect.Sets;
+import org.joml.Vector3f;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.entity.EntityBuilder;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.logic.console.commandSystem.annotations.Sender;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.logic.permission.PermissionManager;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.network.ClientComponent;
+import org.terasology.persistence.StorageManager;
+import org.terasology.registry.In;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.localChunkProvider.LocalChunkProvider;
+import org.terasology.world.chunks.localChunkProvider.RelevanceSystem;
+import org.terasology.world.chunks.pipeline.ChunkStageStatistics;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates and stores all chunks around a center ahead of time, e.g. to prepare the world of a server.
+ * <p>
+ * The chunks are generated tile by tile through the regular chunk pipeline: a non-persistent anchor entity with a
+ * relevance region is moved to the next tile once all chunks of the current tile are ready. The chunks of the previous
+ * tile leave the relevance region then, so they are unloaded and stored by the storage manager as usual, which bounds
+ * the memory used to a few tiles. The progress is kept in a {@link PregenerationProgressComponent} which is saved with
+ * the game, so an interrupted pregeneration is resumed when the game is loaded again. Once finished, the component is
+ * kept as a marker of the generated area.
+ * <p>
+ * A pregeneration is started with the {@code pregenerate} command or with the {@link #RADIUS_PROPERTY} system property,
+ * which is set by the {@code -pregenerate} launch argument. The property is ignored if the requested area has already
+ * been pregenerated.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class WorldPregenerationSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    /**
+     * The radius in chunks to pregenerate around the origin when a game is started.
+     */
+    public static final String RADIUS_PROPERTY = "org.terasology.pregenerateRadius";
+
+    private static final Logger logger = LoggerFactory.getLogger(WorldPregenerationSystem.class);
+
+    private static final int TILE_EXTENT = 4;
+    private static final int DEFAULT_VERTICAL_EXTENT = 2;
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @In
+    private EntityManager entityManager;
+
+    @In
+    private RelevanceSystem relevanceSystem;
+
+    @In
+    private ChunkProvider chunkProvider;
+
+    @In
+    private StorageManager storageManager;
+
+    private EntityRef progressEntity = EntityRef.NULL;
+    private EntityRef anchor = EntityRef.NULL;
+    private PregenerationPlan plan;
+    private final Set<Vector3i> pendingChunks = Sets.newHashSet();
+
+    private long startTime;
+    private long lastReportTime;
+    private long chunksDoneAtStart;
+
+    @Override
+    public void postBegin() {
+        EntityRef existing = findProgressEntity();
+        PregenerationProgressComponent progress = existing.getComponent(PregenerationProgressComponent.class);
+        if (progress != null && !progress.completed) {
+            logger.info("Resuming world pregeneration at tile {}", progress.nextTile);
+            resume(existing, createPlan(progress));
+            return;
+        }
+        String radius = System.getProperty(RADIUS_PROPERTY);
+        if (radius != null) {
+            try {
+                int requestedRadius = Integer.parseInt(radius);
+                if (progress != null && covers(progress, new Vector3i(), requestedRadius, DEFAULT_VERTICAL_EXTENT)) {
+                    logger.info("Skipping world pregeneration, a radius of {} chunks has already been pregenerated",
+                            progress.radius);
+                } else {
+                    start(new Vector3i(), requestedRadius, DEFAULT_VERTICAL_EXTENT);
+                }
+            } catch (IllegalArgumentException e) {
+                logger.error("Invalid pregeneration radius '{}'", radius, e);
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        removeAnchor();
+    }
+
+    @Override
+    public void update(float delta) {
+        if (plan == null) {
+            return;
+        }
+        pendingChunks.removeIf(chunkProvider::isChunkReady);
+        if (pendingChunks.isEmpty()) {
+            completeTile();
+        }
+        long now = System.nanoTime();
+        if (plan != null && now - lastReportTime > REPORT_INTERVAL_NANOS) {
+            lastReportTime = now;
+            logger.info(getReport());
+        }
+    }
+
+    @Command(shortDescription = "Pregenerates and stores the chunks around you",
+            helpText = "Generates all chunks within the given radius (in chunks) around the chunk of your character, or around " +
+                    "the origin if there is none, and stores them. Pregeneration continues after the game is loaded again.",
+            runOnServer = true, requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String pregenerate(@Sender EntityRef sender,
+                              @CommandParam("radius") int radius,
+                              @CommandParam(value = "verticalExtent", required = false) Integer verticalExtent) {
+        if (plan != null) {
+            return "A pregeneration is already running, stop it with 'pregenerateStop' first.";
+        }
+        if (radius < 0 || (verticalExtent != null && verticalExtent < 0)) {
+            return "The radius and vertical extent must not be negative.";
+        }
+        start(getCenter(sender), radius, verticalExtent != null ? verticalExtent : DEFAULT_VERTICAL_EXTENT);
+        return "Pregenerating " + plan.getChunkCount() + " chunks in " + plan.getTileCount() + " tiles.";
+    }
+
+    @Command(shortDescription = "Shows the progress of the running pregeneration", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String pregenerateStatus() {
+        if (plan == null) {
+            PregenerationProgressComponent progress =
+                    findProgressEntity().getComponent(PregenerationProgressComponent.class);
+            if (progress != null) {
+                return "No pregeneration is running. A radius of " + progress.radius + " chunks around "
+                        + progress.center + " has been pregenerated.";
+            }
+            return "No pregeneration is running.";
+        }
+        return getReport();
+    }
+
+    @Command(shortDescription = "Stops the running pregeneration and discards its progress", runOnServer = true,
+            requiredPermission = PermissionManager.SERVER_MANAGEMENT_PERMISSION)
+    public String pregenerateStop() {
+        if (plan == null) {
+            return "No pregeneration is running.";
+        }
+        String report = getReport();
+        stop();
+        return "Pregeneration stopped. " + report;
+    }
+
+    private Vector3i getCenter(EntityRef sender) {
+        ClientComponent client = sender.getComponent(ClientComponent.class);
+        if (client != null) {
+            LocationComponent location = client.character.getComponent(LocationComponent.class);
+            if (location != null) {
+                Vector3i center = ChunkMath.calcChunkPos(location.getWorldPosition());
+                center.y = 0;
+                return center;
+            }
+        }
+        return new Vector3i();
+    }
+
+    private EntityRef findProgressEntity() {
+        Iterator<EntityRef> existing = entityManager.getEntitiesWith(PregenerationProgressComponent.class).iterator();
+        return existing.hasNext() ? existing.next() : EntityRef.NULL;
+    }
+
+    private static boolean covers(PregenerationProgressComponent progress, Vector3i center, int radius,
+                                  int verticalExtent) {
+        return progress.completed && progress.center.equals(center) && progress.radius >= radius
+                && progress.verticalExtent >= verticalExtent;
+    }
+
+    private static PregenerationPlan createPlan(PregenerationProgressComponent progress) {
+        return new PregenerationPlan(progress.center, progress.radius, progress.verticalExtent, TILE_EXTENT);
+    }
+
+    /**
+     * Starts a new pregeneration, which replaces the marker of a finished one.
+     */
+    private void start(Vector3i center, int radius, int verticalExtent) {
+        PregenerationProgressComponent progress = new PregenerationProgressComponent();
+        progress.center.set(center);
+        progress.radius = radius;
+        progress.verticalExtent = verticalExtent;
+        PregenerationPlan newPlan = createPlan(progress);
+        findProgressEntity().destroy();
+        resume(entityManager.create(progress), newPlan);
+    }
+
+    private void resume(EntityRef entity, PregenerationPlan pregenerationPlan) {
+        PregenerationProgressComponent progress = entity.getComponent(PregenerationProgressComponent.class);
+        progressEntity = entity;
+        plan = pregenerationPlan;
+        startTime = System.nanoTime();
+        lastReportTime = startTime;
+        chunksDoneAtStart = plan.getChunksBefore(progress.nextTile);
+        ChunkStageStatistics statistics = getStageStatistics();
+        if (statistics != null) {
+            statistics.reset();
+        }
+
+        EntityBuilder builder = entityManager.newBuilder();
+        builder.setPersistent(false);
+        builder.addComponent(new LocationComponent());
+        anchor = builder.build();
+        startTile(progress.nextTile);
+        if (plan != null) {
+            relevanceSystem.addRelevanceEntity(anchor, plan.getRelevanceDistance(), null);
+        }
+    }
+
+    private void startTile(int index) {
+        if (index >= plan.getTileCount()) {
+            finish();
+            return;
+        }
+        plan.getTile(index).iterator().forEachRemaining(pendingChunks::add);
+
+        Vector3i tileCenter = plan.getTileCenter(index);
+        LocationComponent location = anchor.getComponent(LocationComponent.class);
+        location.setWorldPosition(new Vector3f(
+                (tileCenter.x + 0.5f) * ChunkConstants.SIZE_X,
+                (tileCenter.y + 0.5f) * ChunkConstants.SIZE_Y,
+                (tileCenter.z + 0.5f) * ChunkConstants.SIZE_Z));
+        anchor.saveComponent(location);
+    }
+
+    private void completeTile() {
+        PregenerationProgressComponent progress = progressEntity.getComponent(PregenerationProgressComponent.class);
+        progress.nextTile++;
+        progressEntity.saveComponent(progress);
+        startTile(progress.nextTile);
+    }
+
+    private void finish() {
+        logger.info("World pregeneration finished. {}", getReport());
+        PregenerationProgressComponent progress = progressEntity.getComponent(PregenerationProgressComponent.class);
+        progress.completed = true;
+        progressEntity.saveComponent(progress);
+        end();
+        storageManager.requestSaving();
+    }
+
+    private void stop() {
+        progressEntity.destroy();
+        end();
+    }
+
+    private void end() {
+        removeAnchor();
+        progressEntity = EntityRef.NULL;
+        plan = null;
+        pendingChunks.clear();
+    }
+
+    private void removeAnchor() {
+        if (anchor.exists()) {
+            relevanceSystem.removeRelevanceEntity(anchor);
+            anchor.destroy();
+        }
+        anchor = EntityRef.NULL;
+    }
+
+    private ChunkStageStatistics getStageStatistics() {
+        if (chunkProvider instanceof LocalChunkProvider) {
+            return ((LocalChunkProvider) chunkProvider).getStageStatistics();
+        }
+        return null;
+    }
+
+    private String getReport() {
+        PregenerationProgressComponent progress = progressEntity.getComponent(PregenerationProgressComponent.class);
+        int nextTile = progress != null ? progress.nextTile : plan.getTileCount();
+        long total = plan.getChunkCount();
+        long tileChunks = nextTile < plan.getTileCount() ? PregenerationPlan.volume(plan.getTile(nextTile)) : 0;
+        long done = plan.getChunksBefore(nextTile) + tileChunks - pendingChunks.size();
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        double rate = seconds > 0 ? (done - chunksDoneAtStart) / seconds : 0;
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%d of %d chunks (%.1f%%), tile %d of %d, %.1f chunks/s",
+                done, total, total > 0 ? 100.0 * done / total : 100.0, Math.min(nextTile + 1, plan.getTileCount()),
+                plan.getTileCount(), rate));
+        ChunkStageStatistics statistics = getStageStatistics();
+        if (statistics != null) {
+            for (String stage : statistics.getStages()) {
+                long count = statistics.getCount(stage);
+                long nanos = statistics.getTotalNanos(stage);
+                report.append(String.format("%n  %s: %d tasks, %.0f ms total, %.2f ms per task",
+                        stage, count, nanos / 1e6, count > 0 ? nanos / 1e6 / count : 0));
+            }
+        }
+        return report.toString();
+    }
+}
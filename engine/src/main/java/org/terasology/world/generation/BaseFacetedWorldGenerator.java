@@ -22,6 +22,7 @@
 import org.terasology.world.zones.Zone;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The most commonly used implementation of {@link WorldGenerator} based on the idea of Facets
@@ -60,6 +61,18 @@ public void setWorldSeed(final String seed) {
         world = null;
     }
 
+    /**
+     * Runs the independent facet providers of a chunk concurrently on the given pool.
+     *
+     * @param pool the pool to run the providers on, null to run them one after another.
+     */
+    public void setFacetProviderPool(ForkJoinPool pool) {
+        getWorldBuilder().setFacetProviderPool(pool);
+
+        // reset the world to lazy load it again later
+        world = null;
+    }
+
     /**
      * @return New {@link WorldBuilder} for building the current world
      */
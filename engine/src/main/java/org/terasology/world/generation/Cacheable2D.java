@@ -0,0 +1,21 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.generation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a facet provider whose facets only depend on the x/z extent of the region and on its required facets, but not
+ * on the vertical position of the region.
+ * <p>
+ * The {@link WorldFacet2D 2D facets} of such providers may be shared by all chunks of a column through the
+ * {@link Facet2DCache}. A facet is only taken from the cache if every provider of its chain is marked, and the providers
+ * which produce or update it do not produce or update any other facet.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cacheable2D {
+}
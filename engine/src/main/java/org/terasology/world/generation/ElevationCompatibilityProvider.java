@@ -14,6 +14,7 @@
  * Converts from {@link SurfaceHeightFacet} to {@link ElevationFacet},
  * to be used for backwards compatibility while transitioning away from {@link SurfaceHeightFacet}.
  */
+@Cacheable2D
 @Produces(ElevationFacet.class)
 @Requires(@Facet(SurfaceHeightFacet.class))
 public class ElevationCompatibilityProvider implements FacetProvider {
@@ -0,0 +1,211 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.generation;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.terasology.math.geom.Rect2i;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Shares {@link WorldFacet2D 2D facets} between the vertically stacked chunks of a column.
+ * <p>
+ * The facets are keyed by their class and their x/z extent including the border, so all chunks of a column share one
+ * entry. Only the facets of {@link Cacheable2D cacheable} provider chains are kept; the set of such facets is worked out
+ * once from the provider chains. The least recently used entries are evicted when the capacity is reached.
+ * <p>
+ * Cached facets are shared between threads and must not be modified once they were put into the cache.
+ * All methods are thread safe.
+ */
+public class Facet2DCache {
+
+    private final int capacity;
+    private final Set<Class<? extends WorldFacet>> cacheableFacets;
+    private final Map<Class<? extends WorldFacet>, List<FacetProvider>> facetProviders = Maps.newHashMap();
+    private final LinkedHashMap<Key, WorldFacet2D> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param providerChains the provider chains of the world.
+     * @param capacity       the maximum number of cached facets. A capacity of 0 disables the cache.
+     */
+    public Facet2DCache(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains, int capacity) {
+        this.capacity = capacity;
+        Set<Class<? extends WorldFacet>> cacheable = Sets.newHashSet();
+        for (Class<? extends WorldFacet> facet : providerChains.keySet()) {
+            List<FacetProvider> chain = providerChains.get(facet);
+            if (capacity > 0 && isCacheable(facet, chain)) {
+                cacheable.add(facet);
+                facetProviders.put(facet, outputProviders(facet, chain));
+            }
+        }
+        this.cacheableFacets = Collections.unmodifiableSet(cacheable);
+    }
+
+    private static boolean isCacheable(Class<? extends WorldFacet> facet, List<FacetProvider> chain) {
+        if (!WorldFacet2D.class.isAssignableFrom(facet) || chain.isEmpty()) {
+            return false;
+        }
+        for (FacetProvider provider : chain) {
+            if (!provider.getClass().isAnnotationPresent(Cacheable2D.class)) {
+                return false;
+            }
+            Set<Class<? extends WorldFacet>> outputs = outputsOf(provider);
+            if (outputs.contains(facet) && outputs.size() > 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<FacetProvider> outputProviders(Class<? extends WorldFacet> facet, List<FacetProvider> chain) {
+        List<FacetProvider> result = Lists.newArrayList();
+        for (FacetProvider provider : chain) {
+            if (outputsOf(provider).contains(facet)) {
+                result.add(provider);
+            }
+        }
+        return result;
+    }
+
+    private static Set<Class<? extends WorldFacet>> outputsOf(FacetProvider provider) {
+        Set<Class<? extends WorldFacet>> outputs = Sets.newHashSet();
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        if (produces != null) {
+            Collections.addAll(outputs, produces.value());
+        }
+        Updates updates = provider.getClass().getAnnotation(Updates.class);
+        if (updates != null) {
+            for (Facet facet : updates.value()) {
+                outputs.add(facet.value());
+            }
+        }
+        return outputs;
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * @return whether facets of the given type are kept in this cache.
+     */
+    public boolean isCacheable(Class<? extends WorldFacet> facet) {
+        return cacheableFacets.contains(facet);
+    }
+
+    /**
+     * @return the providers which produce or update the given cacheable facet. These have nothing left to do if the
+     * facet was taken from the cache.
+     */
+    public List<FacetProvider> getProvidersOf(Class<? extends WorldFacet> facet) {
+        return facetProviders.getOrDefault(facet, Collections.emptyList());
+    }
+
+    /**
+     * @param area the x/z extent of the facet, including its border.
+     * @return the cached facet, or null if it is not cached.
+     */
+    public synchronized <T extends WorldFacet> T get(Class<T> facet, Rect2i area) {
+        WorldFacet2D result = entries.get(new Key(facet, area));
+        if (result != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return facet.cast(result);
+    }
+
+    /**
+     * Adds a generated facet. Facets of types which are not {@link #isCacheable(Class) cacheable} are ignored.
+     */
+    public synchronized <T extends WorldFacet> void put(Class<T> facet, Rect2i area, T value) {
+        if (!isCacheable(facet) || !(value instanceof WorldFacet2D)) {
+            return;
+        }
+        entries.put(new Key(facet, area), (WorldFacet2D) value);
+        Iterator<WorldFacet2D> iterator = entries.values().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the share of lookups answered from the cache, between 0 and 1.
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    private static final class Key {
+        private final Class<? extends WorldFacet> facet;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+
+        private Key(Class<? extends WorldFacet> facet, Rect2i area) {
+            this.facet = facet;
+            this.minX = area.minX();
+            this.minZ = area.minY();
+            this.maxX = area.maxX();
+            this.maxZ = area.maxY();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return facet == other.facet && minX == other.minX && minZ == other.minZ && maxX == other.maxX && maxZ == other.maxZ;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(facet, minX, minZ, maxX, maxZ);
+        }
+    }
+}
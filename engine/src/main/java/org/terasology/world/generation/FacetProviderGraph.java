@@ -0,0 +1,168 @@
+// Copyright 2020 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.world.generation;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Runs the facet providers of a region concurrently, as far as their dependencies allow.
+ * <p>
+ * The dependencies are derived from the provider chains of the {@link WorldBuilder}: a provider runs after the whole
+ * chain of every facet it {@link Requires requires}, and after the providers in front of it in the chain of every
+ * facet it {@link Updates updates}. The updates of a facet are therefore applied in the same order as in sequential
+ * generation, while providers of unrelated facets run at the same time.
+ * <p>
+ * Providers are already called for different regions from several threads, so running them concurrently within one
+ * region only requires the region itself to be thread safe.
+ */
+public class FacetProviderGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetProviderGraph.class);
+
+    private final ForkJoinPool pool;
+    private final Map<FacetProvider, Set<FacetProvider>> dependencies = Maps.newHashMap();
+    private final boolean parallel;
+
+    /**
+     * @param providerChains the provider chains of the world.
+     * @param pool           the pool to run the providers on.
+     */
+    public FacetProviderGraph(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains, ForkJoinPool pool) {
+        this.pool = pool;
+        for (FacetProvider provider : providerChains.values()) {
+            dependencies.computeIfAbsent(provider, key -> determineDependencies(key, providerChains));
+        }
+        this.parallel = isAcyclic();
+        if (!parallel) {
+            logger.warn("The facet providers have circular dependencies, they are run sequentially");
+        }
+    }
+
+    private static Set<FacetProvider> determineDependencies(FacetProvider provider,
+                                                           ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
+        Set<FacetProvider> result = Sets.newLinkedHashSet();
+        Requires requires = provider.getClass().getAnnotation(Requires.class);
+        if (requires != null) {
+            for (Facet required : requires.value()) {
+                result.addAll(providerChains.get(required.value()));
+            }
+        }
+        Updates updates = provider.getClass().getAnnotation(Updates.class);
+        if (updates != null) {
+            for (Facet updated : updates.value()) {
+                List<FacetProvider> chain = providerChains.get(updated.value());
+                int index = chain.indexOf(provider);
+                result.addAll(chain.subList(0, index < 0 ? chain.size() : index));
+            }
+        }
+        result.remove(provider);
+        return result;
+    }
+
+    private boolean isAcyclic() {
+        Set<FacetProvider> finished = Sets.newHashSet();
+        Set<FacetProvider> visiting = Sets.newHashSet();
+        for (FacetProvider provider : dependencies.keySet()) {
+            if (!visit(provider, visiting, finished)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean visit(FacetProvider provider, Set<FacetProvider> visiting, Set<FacetProvider> finished) {
+        if (finished.contains(provider)) {
+            return true;
+        }
+        if (!visiting.add(provider)) {
+            return false;
+        }
+        for (FacetProvider dependency : getDependencies(provider)) {
+            if (!visit(dependency, visiting, finished)) {
+                return false;
+            }
+        }
+        visiting.remove(provider);
+        finished.add(provider);
+        return true;
+    }
+
+    /**
+     * @return whether the providers are run concurrently. This is not the case if their dependencies are circular.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * @return the providers which have to be run before the given one.
+     */
+    public Set<FacetProvider> getDependencies(FacetProvider provider) {
+        return dependencies.getOrDefault(provider, Collections.emptySet());
+    }
+
+    /**
+     * Runs the given action for all given providers and waits until all of them are done. The action of a provider is
+     * started once the actions of all of its dependencies among the given providers are done; dependencies which are
+     * not among the given providers are considered to be done already.
+     * <p>
+     * If an action fails, the actions depending on it are not run and the failure is rethrown.
+     *
+     * @param providers the providers to run, in the order of their chain.
+     * @param action    the action to run for every provider, usually processing a region.
+     */
+    public void run(Collection<FacetProvider> providers, Consumer<FacetProvider> action) {
+        if (!parallel || providers.size() < 2) {
+            providers.forEach(action);
+            return;
+        }
+        Set<FacetProvider> pending = Sets.newHashSet(providers);
+        Map<FacetProvider, CompletableFuture<Void>> tasks = Maps.newHashMap();
+        for (FacetProvider provider : providers) {
+            schedule(provider, pending, tasks, action);
+        }
+        try {
+            CompletableFuture.allOf(tasks.values().toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Void> schedule(FacetProvider provider, Set<FacetProvider> pending,
+                                             Map<FacetProvider, CompletableFuture<Void>> tasks, Consumer<FacetProvider> action) {
+        CompletableFuture<Void> task = tasks.get(provider);
+        if (task == null) {
+            List<CompletableFuture<Void>> before = Lists.newArrayList();
+            for (FacetProvider dependency : getDependencies(provider)) {
+                if (pending.contains(dependency)) {
+                    before.add(schedule(dependency, pending, tasks, action));
+                }
+            }
+            task = CompletableFuture.allOf(before.toArray(new CompletableFuture[0])).thenRunAsync(() -> action.accept(provider), pool);
+            tasks.put(provider, task);
+        }
+        return task;
+    }
+}
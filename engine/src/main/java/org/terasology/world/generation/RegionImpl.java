@@ -16,12 +16,18 @@
 package org.terasology.world.generation;
 
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.terasology.math.Region3i;
+import org.terasology.math.geom.Rect2i;
 import org.terasology.utilities.collection.TypeMap;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  */
@@ -30,27 +36,79 @@ public class RegionImpl implements Region, GeneratingRegion {
     private final Region3i region;
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
+    private final Facet2DCache facetCache;
+    private final FacetProviderGraph providerGraph;
 
-    private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
-    private final Set<FacetProvider> processedProviders = Sets.newHashSet();
+    private final TypeMap<WorldFacet> generatingFacets;
+    private final Set<FacetProvider> processedProviders;
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
 
     public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders) {
+        this(region, facetProviderChains, borders, null);
+    }
+
+    /**
+     * @param facetCache shares the cacheable 2D facets with the other regions of the same column. May be null.
+     */
+    public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders,
+                      Facet2DCache facetCache) {
+        this(region, facetProviderChains, borders, facetCache, null);
+    }
+
+    /**
+     * @param facetCache    shares the cacheable 2D facets with the other regions of the same column. May be null.
+     * @param providerGraph runs independent providers concurrently. May be null to run them one after another.
+     */
+    public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders,
+                      Facet2DCache facetCache, FacetProviderGraph providerGraph) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
         this.borders = borders;
+        this.facetCache = facetCache;
+        this.providerGraph = providerGraph;
+        if (providerGraph != null) {
+            // the providers read and write the facets of the region from several threads
+            this.generatingFacets = TypeMap.create(Collections.synchronizedMap(Maps.<Class<? extends WorldFacet>, WorldFacet>newHashMap()));
+            this.processedProviders = Sets.newConcurrentHashSet();
+        } else {
+            this.generatingFacets = TypeMap.create();
+            this.processedProviders = Sets.newHashSet();
+        }
     }
 
     @Override
     public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         T facet = generatedFacets.get(dataType);
         if (facet == null) {
-            facetProviderChains.get(dataType).stream().filter(provider -> !processedProviders.contains(provider)).forEach(provider -> {
+            boolean cacheable = facetCache != null && facetCache.isCacheable(dataType);
+            Rect2i area = null;
+            if (cacheable) {
+                area = getBorderForFacet(dataType).expandTo2D(region);
+                facet = facetCache.get(dataType, area);
+                if (facet != null) {
+                    processedProviders.addAll(facetCache.getProvidersOf(dataType));
+                    generatingFacets.put(dataType, facet);
+                    generatedFacets.put(dataType, facet);
+                    return facet;
+                }
+            }
+            List<FacetProvider> pending = facetProviderChains.get(dataType).stream()
+                    .filter(provider -> !processedProviders.contains(provider))
+                    .collect(Collectors.toList());
+            Consumer<FacetProvider> process = provider -> {
                 provider.process(this);
                 processedProviders.add(provider);
-            });
+            };
+            if (providerGraph != null) {
+                providerGraph.run(pending, process);
+            } else {
+                pending.forEach(process);
+            }
             facet = generatingFacets.get(dataType);
             generatedFacets.put(dataType, facet);
+            if (cacheable && facet != null) {
+                facetCache.put(dataType, area, facet);
+            }
         }
         return facet;
     }
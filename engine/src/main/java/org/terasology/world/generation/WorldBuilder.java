@@ -35,6 +35,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -48,6 +49,8 @@ public class WorldBuilder extends ProviderStore {
     private final List<WorldRasterizer> rasterizers = Lists.newArrayList();
     private final List<EntityProvider> entityProviders = new ArrayList<>();
     private int seaLevel = 32;
+    private int facetCacheSize = WorldImpl.DEFAULT_FACET_CACHE_SIZE;
+    private ForkJoinPool facetProviderPool;
 
     private WorldGeneratorPluginLibrary pluginLibrary;
 
@@ -93,6 +96,26 @@ public WorldBuilder setSeaLevel(int level) {
         return this;
     }
 
+    /**
+     * @param size the number of 2D facets shared between the vertically stacked chunks of a column, 0 to disable
+     *             sharing. Only facets of {@link Cacheable2D} providers are shared.
+     * @return this
+     */
+    public WorldBuilder setFacetCacheSize(int size) {
+        this.facetCacheSize = size;
+        return this;
+    }
+
+    /**
+     * @param pool the pool to run the independent facet providers of a chunk on concurrently, null to run them one
+     *             after another. The providers must not rely on being called sequentially within a region.
+     * @return this
+     */
+    public WorldBuilder setFacetProviderPool(ForkJoinPool pool) {
+        this.facetProviderPool = pool;
+        return this;
+    }
+
     public World build() {
         // TODO: ensure the required providers are present
 
@@ -104,7 +127,8 @@ public World build() {
         }
         ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains = determineProviderChains();
         List<WorldRasterizer> orderedRasterizers = ensureRasterizerOrdering();
-        return new WorldImpl(providerChains, orderedRasterizers, entityProviders, determineBorders(providerChains), seaLevel);
+        return new WorldImpl(providerChains, orderedRasterizers, entityProviders, determineBorders(providerChains), seaLevel, facetCacheSize,
+                facetProviderPool);
     }
 
     private Map<Class<? extends WorldFacet>, Border3D> determineBorders(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
@@ -25,26 +25,63 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  */
 public class WorldImpl implements World {
+    /**
+     * Enough for the 2D facets of a few hundred chunk columns.
+     */
+    public static final int DEFAULT_FACET_CACHE_SIZE = 1024;
+
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final List<WorldRasterizer> worldRasterizers;
     private final List<EntityProvider> entityProviders;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
     private final int seaLevel;
+    private final Facet2DCache facetCache;
+    private final FacetProviderGraph providerGraph;
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
                      List<WorldRasterizer> worldRasterizers,
                      List<EntityProvider> entityProviders,
                      Map<Class<? extends WorldFacet>, Border3D> borders,
                      int seaLevel) {
+        this(facetProviderChains, worldRasterizers, entityProviders, borders, seaLevel, DEFAULT_FACET_CACHE_SIZE);
+    }
+
+    /**
+     * @param facetCacheSize the number of 2D facets shared between the chunks of a column, 0 to disable the cache.
+     */
+    public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                     List<WorldRasterizer> worldRasterizers,
+                     List<EntityProvider> entityProviders,
+                     Map<Class<? extends WorldFacet>, Border3D> borders,
+                     int seaLevel,
+                     int facetCacheSize) {
+        this(facetProviderChains, worldRasterizers, entityProviders, borders, seaLevel, facetCacheSize, null);
+    }
+
+    /**
+     * @param facetCacheSize the number of 2D facets shared between the chunks of a column, 0 to disable the cache.
+     * @param providerPool   runs the independent facet providers of a chunk concurrently. May be null to run them
+     *                       one after another.
+     */
+    public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                     List<WorldRasterizer> worldRasterizers,
+                     List<EntityProvider> entityProviders,
+                     Map<Class<? extends WorldFacet>, Border3D> borders,
+                     int seaLevel,
+                     int facetCacheSize,
+                     ForkJoinPool providerPool) {
         this.facetProviderChains = facetProviderChains;
         this.worldRasterizers = worldRasterizers;
         this.entityProviders = entityProviders;
         this.borders = borders;
         this.seaLevel = seaLevel;
+        this.facetCache = new Facet2DCache(facetProviderChains, facetCacheSize);
+        this.providerGraph = providerPool != null ? new FacetProviderGraph(facetProviderChains, providerPool) : null;
     }
 
     @Override
@@ -59,7 +96,8 @@ public int getSeaLevel() {
 
     @Override
     public void rasterizeChunk(CoreChunk chunk, EntityBuffer buffer) {
-        Region chunkRegion = getWorldData(chunk.getRegion());
+        // Only chunk generation uses the cache, as previews may change the configuration of the providers.
+        Region chunkRegion = new RegionImpl(chunk.getRegion(), facetProviderChains, borders, facetCache, providerGraph);
         for (WorldRasterizer rasterizer : worldRasterizers) {
             rasterizer.generateChunk(chunk, chunkRegion);
         }
@@ -68,6 +106,13 @@ public void rasterizeChunk(CoreChunk chunk, EntityBuffer buffer) {
         }
     }
 
+    /**
+     * @return the cache of the 2D facets shared between the chunks of a column, with its hit rate.
+     */
+    public Facet2DCache getFacetCache() {
+        return facetCache;
+    }
+
     @Override
     public Set<Class<? extends WorldFacet>> getAllFacets() {
         return Sets.newHashSet(facetProviderChains.keySet());
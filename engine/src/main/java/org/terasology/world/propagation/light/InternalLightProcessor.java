@@ -20,6 +20,7 @@
 import org.terasology.math.geom.Vector3i;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkSectionIndex;
 import org.terasology.world.chunks.LitChunk;
 import org.terasology.world.propagation.BatchPropagator;
 import org.terasology.world.propagation.PropagationRules;
@@ -29,6 +30,9 @@
 /**
  * For doing an initial lighting sweep during chunk generation - bound to the chunk and assumed blank slate
  * Sets up the values for the subsequent stages of propagation
+ * <p>
+ * Sections of the chunk filled with a single block type are skipped where that block cannot contribute, see
+ * {@link ChunkSectionIndex}.
  */
 public final class InternalLightProcessor {
 
@@ -51,13 +55,20 @@ public static void generateInternalLighting(LitChunk chunk) {
      */
     private static void populateLight(LitChunk chunk) {
         BatchPropagator lightPropagator = new StandardBatchPropagator(LIGHT_RULES, new SingleChunkView(LIGHT_RULES, chunk));
-        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
-            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
-                for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
-                    Block block = chunk.getBlock(x, y, z);
-                    if (block.getLuminance() > 0) {
-                        chunk.setLight(x, y, z, block.getLuminance());
-                        lightPropagator.propagateFrom(new Vector3i(x, y, z), block.getLuminance());
+        ChunkSectionIndex sections = chunk.getSectionIndex();
+        for (int section = 0; section < sections.getSectionCount(); section++) {
+            int minY = ChunkSectionIndex.getMinY(section);
+            if (sections.isUniform(section) && chunk.getBlock(0, minY, 0).getLuminance() == 0) {
+                continue;
+            }
+            for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                    for (int y = minY; y < minY + ChunkConstants.SECTION_HEIGHT; y++) {
+                        Block block = chunk.getBlock(x, y, z);
+                        if (block.getLuminance() > 0) {
+                            chunk.setLight(x, y, z, block.getLuminance());
+                            lightPropagator.propagateFrom(new Vector3i(x, y, z), block.getLuminance());
+                        }
                     }
                 }
             }
@@ -73,11 +84,16 @@ private static void populateLight(LitChunk chunk) {
     private static void populateSunlight(LitChunk chunk) {
         PropagationRules sunlightRules = new SunlightPropagationRules(chunk);
         BatchPropagator lightPropagator = new StandardBatchPropagator(sunlightRules, new SingleChunkView(sunlightRules, chunk));
+        boolean[] regenBlocked = findRegenBlockingSections(chunk);
 
         for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
             for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
                 /* Start at the bottom of the chunk and then move up until the max sunlight level */
                 for (int y = 0; y < ChunkConstants.MAX_SUNLIGHT; y++) {
+                    if (regenBlocked[ChunkSectionIndex.sectionOf(y)]) {
+                        /* No regeneration there, so there is no fixed sunlight either */
+                        continue;
+                    }
                     Vector3i pos = new Vector3i(x, y, z);
                     Block block = chunk.getBlock(x, y, z);
                     byte light = sunlightRules.getFixedValue(block, pos);
@@ -98,12 +114,22 @@ private static void populateSunlight(LitChunk chunk) {
      */
     private static void populateSunlightRegen(LitChunk chunk) {
         int top = ChunkConstants.SIZE_Y - 1;
+        boolean[] regenBlocked = findRegenBlockingSections(chunk);
         /* Scan through each column in the chunk & propagate light from the top down */
         for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
             for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
                 byte regen = 0;
                 Block lastBlock = chunk.getBlock(x, top, z);
-                for (int y = top - 1; y >= 0; y--) {
+                int y = top - 1;
+                while (y >= 0) {
+                    int section = ChunkSectionIndex.sectionOf(y);
+                    if (regenBlocked[section]) {
+                        /* Nothing spreads into the rest of the section, continue below it */
+                        regen = 0;
+                        lastBlock = chunk.getBlock(x, y, z);
+                        y = ChunkSectionIndex.getMinY(section) - 1;
+                        continue;
+                    }
                     Block block = chunk.getBlock(x, y, z);
                     /* If the regeneration can propagate down into this block */
                     if (SUNLIGHT_REGEN_RULES.canSpreadOutOf(lastBlock, Side.BOTTOM) && SUNLIGHT_REGEN_RULES.canSpreadInto(block, Side.TOP)) {
@@ -113,8 +139,24 @@ private static void populateSunlightRegen(LitChunk chunk) {
                         regen = 0;
                     }
                     lastBlock = block;
+                    y--;
                 }
             }
         }
     }
+
+    /**
+     * @return for each section, whether it is filled with a single block type sunlight regeneration cannot spread into.
+     */
+    private static boolean[] findRegenBlockingSections(LitChunk chunk) {
+        ChunkSectionIndex sections = chunk.getSectionIndex();
+        boolean[] result = new boolean[sections.getSectionCount()];
+        for (int section = 0; section < result.length; section++) {
+            if (sections.isUniform(section)) {
+                Block block = chunk.getBlock(0, ChunkSectionIndex.getMinY(section), 0);
+                result[section] = !SUNLIGHT_REGEN_RULES.canSpreadInto(block, Side.TOP);
+            }
+        }
+        return result;
+    }
 }
@@ -47,12 +47,6 @@ public void initialize() {
 
     @Override
     public void generateChunk(CoreChunk chunk, Region chunkRegion) {
-        for (int chunkX = 0; chunkX < chunk.getChunkSizeX(); chunkX++) {
-            for (int chunkZ = 0; chunkZ < chunk.getChunkSizeZ(); chunkZ++) {
-                for (int chunkY = 0; chunkY < chunk.getChunkSizeY(); chunkY++) {
-                    chunk.setBlock(chunkX, chunkY, chunkZ, block);
-                }
-            }
-        }
+        chunk.setBlocks(0, 0, 0, chunk.getChunkSizeX(), chunk.getChunkSizeY(), chunk.getChunkSizeZ(), block);
     }
 }
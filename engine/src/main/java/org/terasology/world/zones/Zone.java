@@ -153,16 +153,17 @@ public void generateChunk(CoreChunk chunk, Region chunkRegion) {
 
             //Replace any blocks that aren't in the zone
             if (!changeAllBlocks) {
-                for (int x = 0; x < SIZE_X; x++) {
-                    for (int y = 0; y < SIZE_Y; y++) {
-                        for (int z = 0; z < SIZE_Z; z++) {
+                short[] blockIds = new short[SIZE_X * SIZE_Y * SIZE_Z];
+                int index = 0;
+                for (int y = 0; y < SIZE_Y; y++) {
+                    for (int z = 0; z < SIZE_Z; z++) {
+                        for (int x = 0; x < SIZE_X; x++) {
                             Block block = savedBlocks[x][y][z];
-                            if (block != null) {
-                                chunk.setBlock(x, y, z, block);
-                            }
+                            blockIds[index++] = block != null ? block.getId() : chunk.getBlock(x, y, z).getId();
                         }
                     }
                 }
+                chunk.setBlockIds(0, 0, 0, SIZE_X, SIZE_Y, SIZE_Z, blockIds);
             }
         }
     }
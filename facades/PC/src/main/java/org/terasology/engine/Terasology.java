@@ -36,6 +36,7 @@
 import org.terasology.rendering.nui.layers.mainMenu.savedGames.GameProvider;
 import org.terasology.splash.SplashScreen;
 import org.terasology.splash.SplashScreenBuilder;
+import org.terasology.world.chunks.pregeneration.WorldPregenerationSystem;
 
 import java.awt.GraphicsEnvironment;
 import java.io.IOException;
@@ -67,6 +68,7 @@
  * <tr><td>-noSound</td><td>Disable sound.</td></tr>
  * <tr><td>-noSplash</td><td>Disable splash screen.</td></tr>
  * <tr><td>-serverPort=xxxxx</td><td>Change the server port.</td></tr>
+ * <tr><td>-pregenerate=radius</td><td>Pregenerate and store the chunks within the radius around the origin.</td></tr>
  * </tbody>
  * </table>
  * <br><br>
@@ -90,6 +92,7 @@ public final class Terasology {
     private static final String NO_SOUND = "-noSound";
     private static final String NO_SPLASH = "-noSplash";
     private static final String SERVER_PORT = "-serverPort=";
+    private static final String PREGENERATE = "-pregenerate=";
     private static final String OVERRIDE_DEFAULT_CONFIG = "-overrideDefaultConfig=";
     private static final Logger logger = LoggerFactory.getLogger(Terasology.class);
 
@@ -222,7 +225,8 @@ private static void printUsageAndExit() {
                 NO_SOUND,
                 NO_SPLASH,
                 OVERRIDE_DEFAULT_CONFIG + "<path>",
-                SERVER_PORT + "<port>");
+                SERVER_PORT + "<port>",
+                PREGENERATE + "<radius>");
 
         StringBuilder optText = new StringBuilder();
 
@@ -259,6 +263,9 @@ private static void printUsageAndExit() {
         System.out.println();
         System.out.println("To change the port the server is hosted on use the " + SERVER_PORT + " launch argument.");
         System.out.println();
+        System.out.println("To generate and store all chunks within a radius (in chunks) around the origin when a game is started,");
+        System.out.println("use the " + PREGENERATE + " launch argument. An interrupted pregeneration continues when the game is loaded again.");
+        System.out.println();
         System.out.println("To override the default generated config (useful for headless server) use the " + OVERRIDE_DEFAULT_CONFIG + " launch argument");
         System.out.println();
         System.out.println("Examples:");
@@ -315,6 +322,8 @@ private static void handleLaunchArguments(String[] args) {
                 createLastGame = true;
             } else if (arg.startsWith(SERVER_PORT)) {
                 System.setProperty(ConfigurationSubsystem.SERVER_PORT_PROPERTY, arg.substring(SERVER_PORT.length()));
+            } else if (arg.startsWith(PREGENERATE)) {
+                System.setProperty(WorldPregenerationSystem.RADIUS_PROPERTY, arg.substring(PREGENERATE.length()));
             } else if (arg.startsWith(OVERRIDE_DEFAULT_CONFIG)) {
                 System.setProperty(Config.PROPERTY_OVERRIDE_DEFAULT_CONFIG, arg.substring(OVERRIDE_DEFAULT_CONFIG.length()));
             } else {